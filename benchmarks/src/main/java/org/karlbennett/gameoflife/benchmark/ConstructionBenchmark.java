@@ -0,0 +1,79 @@
+package org.karlbennett.gameoflife.benchmark;
+
+import org.karlbennett.gameoflife.Board;
+import org.karlbennett.gameoflife.Cell;
+import org.karlbennett.gameoflife.InitialState;
+import org.karlbennett.gameoflife.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * Measure how long it takes to build a board, both the flat {@see Board} and the linked cells built by
+ * {@see Board#buildBoard(Cell, InitialState, int...)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @Param({"1", "2", "3", "4"})
+    public int dimensions;
+
+    @Param({"4096", "262144"})
+    public int cells;
+
+    @Param({"0.3"})
+    public double density;
+
+    @Param({Patterns.SOUP})
+    public String pattern;
+
+    @Param({Rules.LIFE, Rules.BINARY_LIFE})
+    public String rules;
+
+    private List<Rule<Boolean>> ruleList;
+
+    private int[] sizes;
+
+
+    @Setup
+    public void setUp() {
+
+        ruleList = Rules.rules(rules);
+        sizes = Patterns.dimensions(dimensions, cells);
+    }
+
+    @Benchmark
+    public Object board() {
+
+        return new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                ruleList, Patterns.initialState(pattern, density, 42, sizes), sizes);
+    }
+
+    @Benchmark
+    public Object buildBoard() {
+
+        InitialState<Boolean> initialState = Patterns.initialState(pattern, density, 42, sizes);
+
+        return Board.buildBoard(new Cell<Boolean, Rule<Boolean>>(initialState.state(), ruleList, dimensions),
+                initialState, sizes);
+    }
+}
@@ -0,0 +1,135 @@
+package org.karlbennett.gameoflife.benchmark;
+
+import org.karlbennett.gameoflife.Board;
+import org.karlbennett.gameoflife.Cell;
+import org.karlbennett.gameoflife.InitialState;
+import org.karlbennett.gameoflife.NeighbourCursor;
+import org.karlbennett.gameoflife.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * Measure the cost of a single neighbour lookup on a {@see Cell}, in nanoseconds. Each invocation looks up the next
+ * neighbour in turn so that every neighbour of the cell is visited evenly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighbourBenchmark {
+
+    @Param({"1", "2", "3", "4"})
+    public int dimensions;
+
+    private Cell<Boolean, Rule<Boolean>> cell;
+
+    private Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board;
+
+    private int[][] neighbourCoordinates;
+
+    private NeighbourCursor<Boolean, Rule<Boolean>> cursor;
+
+    private int[] centre;
+
+    private int next;
+
+
+    @Setup
+    public void setUp() {
+
+        List<Rule<Boolean>> rules = Rules.rules(Rules.LIFE);
+
+        int[] sizes = Patterns.dimensions(dimensions, 4096);
+
+        board = new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                rules, Patterns.initialState(Patterns.SOUP, 0.3, 42, sizes), sizes);
+
+        centre = new int[dimensions];
+
+        for (int d = 0; d < dimensions; d++) centre[d] = sizes[d] / 2;
+
+        List<Cell<Boolean, Rule<Boolean>>> neighbours = new ArrayList<Cell<Boolean, Rule<Boolean>>>();
+
+        neighbourCoordinates = new int[Cell.neighbourNumber(dimensions)][];
+
+        for (int n = 0; n < neighbourCoordinates.length; n++) {
+
+            neighbourCoordinates[n] = Cell.calculateNeighbourCoordinates(dimensions, n);
+            neighbours.add(new Cell<Boolean, Rule<Boolean>>(false, rules, dimensions));
+        }
+
+        cell = new Cell<Boolean, Rule<Boolean>>(true, rules, dimensions, neighbours);
+
+        cursor = new NeighbourCursor<Boolean, Rule<Boolean>>(dimensions);
+    }
+
+    private int[] nextCoordinates() {
+
+        if (neighbourCoordinates.length == next) next = 0;
+
+        return neighbourCoordinates[next++];
+    }
+
+    @Benchmark
+    public Object getNeighbour() {
+
+        return cell.getNeighbour(nextCoordinates());
+    }
+
+    @Benchmark
+    public Object getNeighbourAt() {
+
+        if (neighbourCoordinates.length == next) next = 0;
+
+        return cell.getNeighbourAt(next++);
+    }
+
+    /**
+     * Walk the whole neighbourhood with a cursor, this scores the time for every neighbour rather than just one.
+     */
+    @Benchmark
+    public int cursor() {
+
+        int alive = 0;
+
+        for (cursor.reset(cell); cursor.next(); ) if (cursor.neighbour().getState()) alive++;
+
+        return alive;
+    }
+
+    @Benchmark
+    public int calculateNeighbourIndex() {
+
+        return cell.calculateNeighbourIndex(nextCoordinates());
+    }
+
+    @Benchmark
+    public Object getOffsetNeighbours() {
+
+        return cell.getNeighbours(nextCoordinates());
+    }
+
+    @Benchmark
+    public Object boardCell() {
+
+        return board.cell(centre);
+    }
+}
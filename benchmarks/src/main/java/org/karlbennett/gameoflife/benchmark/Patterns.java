@@ -0,0 +1,173 @@
+package org.karlbennett.gameoflife.benchmark;
+
+import org.karlbennett.gameoflife.InitialState;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * The canonical starting patterns used by the benchmarks so that results can be compared between releases. Each
+ * pattern is supplied as an {@see InitialState} that hands out the state of every cell in row-major order.
+ */
+public final class Patterns {
+
+    /**
+     * A random soup of cells where each cell is alive with the benchmark density.
+     */
+    public static final String SOUP = "soup";
+
+    /**
+     * The R-pentomino, a five cell methuselah that takes over a thousand generations to settle.
+     */
+    public static final String R_PENTOMINO = "r-pentomino";
+
+    /**
+     * Gosper's glider gun, which fires a new glider every thirty generations.
+     */
+    public static final String GOSPER_GUN = "gosper-gun";
+
+    private static final String[] R_PENTOMINO_CELLS = {
+            ".OO",
+            "OO.",
+            ".O."
+    };
+
+    private static final String[] GOSPER_GUN_CELLS = {
+            "........................O...........",
+            "......................O.O...........",
+            "............OO......OO............OO",
+            "...........O...O....OO............OO",
+            "OO........O.....O...OO..............",
+            "OO........O...O.OO....O.O...........",
+            "..........O.....O.......O...........",
+            "...........O...O....................",
+            "............OO......................"
+    };
+
+
+    private Patterns() {
+    }
+
+
+    /**
+     * Create the initial state for the named pattern on a board with the supplied dimensions. Named patterns are drawn
+     * across the first two dimensions in the middle of the board, a one dimensional board only gets the first row.
+     *
+     * @param pattern    - the name of the pattern.
+     * @param density    - the chance that a cell in a soup is alive.
+     * @param seed       - the seed for a soup.
+     * @param dimensions - the dimensions of the board.
+     * @return the initial state for the pattern.
+     * @throws IllegalArgumentException if the pattern is unknown.
+     */
+    public static InitialState<Boolean> initialState(String pattern, double density, long seed, int... dimensions) {
+
+        if (SOUP.equals(pattern)) return soup(density, seed);
+
+        if (R_PENTOMINO.equals(pattern)) return draw(R_PENTOMINO_CELLS, dimensions);
+
+        if (GOSPER_GUN.equals(pattern)) return draw(GOSPER_GUN_CELLS, dimensions);
+
+        throw new IllegalArgumentException("Unknown pattern: " + pattern);
+    }
+
+    /**
+     * Calculate the dimensions of a board with the supplied number of dimensions that has roughly the supplied number
+     * of cells, with every dimension the same size.
+     *
+     * @param dimensions - the number of dimensions.
+     * @param cells      - the number of cells wanted.
+     * @return the size of each dimension.
+     */
+    public static int[] dimensions(int dimensions, int cells) {
+
+        int[] sizes = new int[dimensions];
+
+        int size = Math.max(1, (int) Math.round(Math.pow(cells, 1.0 / dimensions)));
+
+        for (int d = 0; d < dimensions; d++) sizes[d] = size;
+
+        return sizes;
+    }
+
+    /**
+     * Create a random soup.
+     *
+     * @param density - the chance that each cell is alive.
+     * @param seed    - the seed for the random cells.
+     * @return the initial state for the soup.
+     */
+    private static InitialState<Boolean> soup(final double density, long seed) {
+
+        final Random random = new Random(seed);
+
+        return new InitialState<Boolean>() {
+
+            @Override
+            public Boolean state() {
+
+                return random.nextDouble() < density;
+            }
+        };
+    }
+
+    /**
+     * Draw the supplied pattern into the middle of a board with the supplied dimensions.
+     *
+     * @param rows       - the rows of the pattern where 'O' is an alive cell.
+     * @param dimensions - the dimensions of the board.
+     * @return the initial state for the pattern.
+     */
+    private static InitialState<Boolean> draw(String[] rows, int... dimensions) {
+
+        int[] strides = new int[dimensions.length];
+
+        int stride = 1;
+
+        for (int d = 0; d < dimensions.length; d++) {
+
+            strides[d] = stride;
+            stride *= dimensions[d];
+        }
+
+        List<int[]> cells = new ArrayList<int[]>();
+
+        for (int y = 0; y < rows.length && (1 < dimensions.length || 0 == y); y++) {
+
+            for (int x = 0; x < rows[y].length(); x++) if ('O' == rows[y].charAt(x)) cells.add(new int[]{x, y});
+        }
+
+        final Set<Integer> alive = new HashSet<Integer>();
+
+        int index;
+        for (int[] cell : cells) {
+
+            index = 0;
+
+            for (int d = 0; d < dimensions.length; d++) {
+
+                index += (dimensions[d] / 2 + (2 > d ? cell[d] - (0 == d ? rows[0].length() : rows.length) / 2 : 0))
+                        * strides[d];
+            }
+
+            alive.add(index);
+        }
+
+        return new InitialState<Boolean>() {
+
+            private int index = 0;
+
+            @Override
+            public Boolean state() {
+
+                return alive.contains(index++);
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package org.karlbennett.gameoflife.benchmark;
+
+import org.karlbennett.gameoflife.Board;
+import org.karlbennett.gameoflife.Cell;
+import org.karlbennett.gameoflife.InitialState;
+import org.karlbennett.gameoflife.Rule;
+import org.karlbennett.gameoflife.RuleTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * Measure a many state {@see RuleTable} board, ticked either through the stencil kernel or by applying the same table
+ * to every materialised cell. The random soup keeps most of the board changing so every generation is a full sweep.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleTableBenchmark {
+
+    @Param({"2", "3"})
+    public int dimensions;
+
+    @Param({"262144"})
+    public int cells;
+
+    @Param({"B2/S/C3", "B3/S23/C8"})
+    public String rulestring;
+
+    @Param({"stencil", "cells"})
+    public String engine;
+
+    private Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board;
+
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+
+        final RuleTable<Integer> table = RuleTable.parse(rulestring, dimensions);
+
+        Rule<Integer> rule = "stencil".equals(engine) ? table : new Rule<Integer>() {
+
+            @Override
+            public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+                return table.apply(cell);
+            }
+        };
+
+        final Random random = new Random(42);
+        final int states = table.getStates().size();
+
+        List<Rule<Integer>> rules = Collections.singletonList(rule);
+
+        board = new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                rules, new InitialState<Integer>() {
+
+            @Override
+            public Integer state() {
+
+                return random.nextInt(states);
+            }
+        }, Patterns.dimensions(dimensions, cells));
+    }
+
+    @Benchmark
+    public Object advance() {
+
+        return board.advance(1);
+    }
+}
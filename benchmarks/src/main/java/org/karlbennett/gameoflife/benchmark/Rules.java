@@ -0,0 +1,121 @@
+package org.karlbennett.gameoflife.benchmark;
+
+import org.karlbennett.gameoflife.BinaryRule;
+import org.karlbennett.gameoflife.Cell;
+import org.karlbennett.gameoflife.Rule;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * The rule sets used by the benchmarks. Each rule counts alive neighbours in any number of dimensions.
+ */
+public final class Rules {
+
+    /**
+     * Conway's B3/S23 rule applied to every cell through {@see Rule#apply(Cell)}.
+     */
+    public static final String LIFE = "life";
+
+    /**
+     * Conway's B3/S23 rule as a {@see BinaryRule} so the board uses its bit packed engine.
+     */
+    public static final String BINARY_LIFE = "binary-life";
+
+    /**
+     * The B36/S23 HighLife rule applied to every cell through {@see Rule#apply(Cell)}.
+     */
+    public static final String HIGH_LIFE = "highlife";
+
+
+    private Rules() {
+    }
+
+
+    /**
+     * Get the named rule set.
+     *
+     * @param rules - the name of the rule set.
+     * @return the rules.
+     * @throws IllegalArgumentException if the rule set is unknown.
+     */
+    public static List<Rule<Boolean>> rules(String rules) {
+
+        if (LIFE.equals(rules)) return Collections.<Rule<Boolean>>singletonList(new Totalistic(3, -1, 2, 3));
+
+        if (BINARY_LIFE.equals(rules)) return Collections.<Rule<Boolean>>singletonList(new BinaryTotalistic(3, -1, 2, 3));
+
+        if (HIGH_LIFE.equals(rules)) return Collections.<Rule<Boolean>>singletonList(new Totalistic(3, 6, 2, 3));
+
+        throw new IllegalArgumentException("Unknown rule set: " + rules);
+    }
+
+    /**
+     * A two state totalistic rule with up to two birth counts and two survival counts.
+     */
+    private static class Totalistic implements Rule<Boolean> {
+
+        private final int born1;
+
+        private final int born2;
+
+        private final int survive1;
+
+        private final int survive2;
+
+
+        private Totalistic(int born1, int born2, int survive1, int survive2) {
+
+            this.born1 = born1;
+            this.born2 = born2;
+            this.survive1 = survive1;
+            this.survive2 = survive2;
+        }
+
+        public boolean isBorn(int aliveNeighbours) {
+
+            return born1 == aliveNeighbours || born2 == aliveNeighbours;
+        }
+
+        public boolean isSurvivor(int aliveNeighbours) {
+
+            return survive1 == aliveNeighbours || survive2 == aliveNeighbours;
+        }
+
+        @Override
+        public <R extends Rule<Boolean>> Boolean apply(Cell<Boolean, R> cell) {
+
+            int alive = 0;
+
+            for (Cell<Boolean, R> neighbour : cell.getNeighbours()) if (null != neighbour && neighbour.getState()) alive++;
+
+            return cell.getState() ? isSurvivor(alive) : isBorn(alive);
+        }
+    }
+
+    /**
+     * The same rule marked as binary so that the board ticks it with its bit packed engine.
+     */
+    private static class BinaryTotalistic extends Totalistic implements BinaryRule<Boolean> {
+
+        private BinaryTotalistic(int born1, int born2, int survive1, int survive2) {
+
+            super(born1, born2, survive1, survive2);
+        }
+
+        @Override
+        public Boolean getDeadState() {
+
+            return false;
+        }
+
+        @Override
+        public Boolean getAliveState() {
+
+            return true;
+        }
+    }
+}
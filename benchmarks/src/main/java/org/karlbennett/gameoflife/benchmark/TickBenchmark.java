@@ -0,0 +1,124 @@
+package org.karlbennett.gameoflife.benchmark;
+
+import org.karlbennett.gameoflife.Board;
+import org.karlbennett.gameoflife.Cell;
+import org.karlbennett.gameoflife.InitialState;
+import org.karlbennett.gameoflife.Rule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * Measure how quickly a {@see Board} moves from one generation to the next. The score is generations per second and the
+ * <code>cells</code> counter gives the number of cells updated per second so that boards of different shapes can be
+ * compared. Run with <code>-prof gc</code> to see the bytes allocated per generation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+    @Param({"1", "2", "3", "4"})
+    public int dimensions;
+
+    @Param({"4096", "262144"})
+    public int cells;
+
+    @Param({"0.3"})
+    public double density;
+
+    @Param({Patterns.SOUP, Patterns.R_PENTOMINO, Patterns.GOSPER_GUN})
+    public String pattern;
+
+    @Param({Rules.LIFE, Rules.BINARY_LIFE, Rules.HIGH_LIFE})
+    public String rules;
+
+    /**
+     * The cycle detection history, 0 turns cycle detection off. Run with <code>-p history=0,64</code> to measure the
+     * cost of keeping the board hash up to date.
+     */
+    @Param({"0"})
+    public int history;
+
+    /**
+     * The most generations that advance steps in one sweep of a bit board, 1 steps one generation at a time. Run with
+     * <code>-p block=1,8</code> to measure temporal blocking, each operation then advances a whole block.
+     */
+    @Param({"1"})
+    public int block;
+
+    private Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board;
+
+
+    /**
+     * The number of cells updated, reported by JMH as a rate alongside the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long cells;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+
+            cells = 0;
+        }
+    }
+
+
+    /**
+     * Build a fresh board for every iteration so that each iteration starts from the same pattern.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+
+        int[] sizes = Patterns.dimensions(dimensions, cells);
+
+        board = new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                Rules.rules(rules), Patterns.initialState(pattern, density, 42, sizes), sizes);
+
+        board.setCycleDetection(history, false);
+        board.setTemporalBlocking(block);
+    }
+
+    /**
+     * Tick the board into a brand new board, the board being measured is never changed.
+     */
+    @Benchmark
+    public Object tick(Counters counters) {
+
+        counters.cells += board.size();
+
+        return board.tick();
+    }
+
+    /**
+     * Advance the board in place by one block of generations, so the pattern evolves over the iteration.
+     */
+    @Benchmark
+    public Object advance(Counters counters) {
+
+        counters.cells += (long) board.size() * block;
+
+        return board.advance(block);
+    }
+}
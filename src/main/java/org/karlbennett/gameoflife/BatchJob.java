@@ -0,0 +1,337 @@
+package org.karlbennett.gameoflife;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is one board of a {@see BatchRunner} sweep. A job is a {@see RuleTable} rulestring, a {@see SeededInitialState}
+ * soup, the dimensions of the board and how many generations to play, along with a condition that can stop the board
+ * early. Jobs can be written one to a line as whitespace separated fields:
+ * <pre>
+ * id rulestring dimensions seed density generations [termination]
+ * soup-1 B3/S23 64x64 42 0.3 1000 cycle
+ * </pre>
+ * The dimensions are separated by an x and the termination is one of <code>none</code>, <code>extinct</code> or
+ * <code>cycle</code>, which can be given a history as <code>cycle:128</code>. Blank lines and lines that start with a #
+ * are skipped.
+ */
+public class BatchJob {
+
+    /**
+     * The number of generations that are remembered to find a cycle when no history is given.
+     */
+    public static final int DEFAULT_HISTORY = 64;
+
+    /**
+     * The conditions that stop a board before it has played every generation.
+     */
+    public enum Termination {
+
+        /**
+         * Play every generation.
+         */
+        NONE,
+
+        /**
+         * Stop once every cell is dead.
+         */
+        EXTINCT,
+
+        /**
+         * Stop once the board is a still life or oscillator, which includes a board where every cell is dead.
+         */
+        CYCLE
+    }
+
+    private final String id;
+
+    private final String rulestring;
+
+    private final int[] dimensions;
+
+    private final long seed;
+
+    private final double density;
+
+    private final int generations;
+
+    private final Termination termination;
+
+    private final int history;
+
+
+    /**
+     * Construct a new <code>BatchJob</code>.
+     *
+     * @param id          - the name of the job, which is written with its result.
+     * @param rulestring  - the rule e.g. B3/S23.
+     * @param dimensions  - the dimensions of the board e.g. width, height, depth...
+     * @param seed        - the seed of the soup.
+     * @param density     - the chance that a cell of the soup is alive, from 0 to 1.
+     * @param generations - the most generations to play.
+     * @param termination - the condition that stops the board early.
+     * @param history     - the number of generations to remember to find a cycle.
+     * @throws IllegalArgumentException if the rulestring is invalid, the number of generations is negative or the
+     *                                  history is less than 1.
+     */
+    public BatchJob(String id, String rulestring, int[] dimensions, long seed, double density, int generations,
+                    Termination termination, int history) {
+
+        RuleTable.parse(rulestring, dimensions.length);
+
+        if (0 > generations) {
+
+            throw new IllegalArgumentException("The number of generations cannot be negative: " + generations);
+        }
+
+        if (1 > history) throw new IllegalArgumentException("The history must be at least 1: " + history);
+
+        this.id = id;
+        this.rulestring = rulestring;
+        this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+        this.seed = seed;
+        this.density = density;
+        this.generations = generations;
+        this.termination = termination;
+        this.history = history;
+    }
+
+
+    /**
+     * Parse a job from a line of a job file.
+     *
+     * @param line - the line.
+     * @return the job.
+     * @throws IllegalArgumentException if the line is not a valid job.
+     */
+    public static BatchJob parse(String line) {
+
+        String[] fields = line.trim().split("\\s+");
+
+        if (6 != fields.length && 7 != fields.length) {
+
+            throw new IllegalArgumentException("A job needs 6 or 7 fields: " + line);
+        }
+
+        try {
+
+            String[] sizes = fields[2].split("x");
+
+            int[] dimensions = new int[sizes.length];
+
+            for (int d = 0; d < sizes.length; d++) dimensions[d] = Integer.parseInt(sizes[d]);
+
+            Termination termination = Termination.NONE;
+            int history = DEFAULT_HISTORY;
+
+            if (7 == fields.length) {
+
+                String[] parts = fields[6].split(":", 2);
+
+                termination = Termination.valueOf(parts[0].toUpperCase());
+
+                if (2 == parts.length) history = Integer.parseInt(parts[1]);
+            }
+
+            return new BatchJob(fields[0], fields[1], dimensions, Long.parseLong(fields[3]),
+                    Double.parseDouble(fields[4]), Integer.parseInt(fields[5]), termination, history);
+
+        } catch (IllegalArgumentException e) {
+
+            throw new IllegalArgumentException("The job is invalid: " + line + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /**
+     * Read jobs from the supplied reader a line at a time as they are asked for, so a job file of any length can be
+     * run without holding it in memory.
+     *
+     * @param reader - the reader of a job file.
+     * @return the jobs, the iterator throws an {@link IllegalArgumentException} with the line number for an invalid
+     *         job and an {@link IllegalStateException} if the file can not be read.
+     */
+    public static Iterator<BatchJob> read(final BufferedReader reader) {
+
+        return new Iterator<BatchJob>() {
+
+            private BatchJob next;
+
+            private int number;
+
+            @Override
+            public boolean hasNext() {
+
+                String line;
+
+                try {
+
+                    while (null == next && null != (line = reader.readLine())) {
+
+                        number++;
+
+                        if (0 == line.trim().length() || line.trim().startsWith("#")) continue;
+
+                        try {
+
+                            next = parse(line);
+
+                        } catch (IllegalArgumentException e) {
+
+                            throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+                        }
+                    }
+
+                } catch (IOException e) {
+
+                    throw new IllegalStateException("The jobs could not be read.", e);
+                }
+
+                return null != next;
+            }
+
+            @Override
+            public BatchJob next() {
+
+                if (!hasNext()) throw new NoSuchElementException();
+
+                BatchJob job = next;
+
+                next = null;
+
+                return job;
+            }
+
+            @Override
+            public void remove() {
+
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Build the board for this job and play it until it has played every generation or meets its termination
+     * condition.
+     *
+     * @return the result.
+     */
+    public BatchResult run() {
+
+        long start = System.nanoTime();
+
+        List<Rule<Integer>> rules =
+                Collections.<Rule<Integer>>singletonList(RuleTable.parse(rulestring, dimensions.length));
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        rules, new SeededInitialState<Integer>(seed, density, 0, 1), dimensions);
+
+        if (Termination.CYCLE == termination) board.setCycleDetection(history, false);
+
+        if (Termination.NONE == termination) board.advance(generations);
+
+        Termination reached = Termination.NONE;
+
+        while (Termination.NONE != termination) {
+
+            if (0 == board.population()) reached = Termination.EXTINCT;
+
+            else if (0 != board.getPeriod()) reached = Termination.CYCLE;
+
+            if (Termination.NONE != reached || generations <= board.getGeneration()) break;
+
+            board.advance(1);
+        }
+
+        return new BatchResult(this, board.getGeneration(), board.population(), board.getPeriod(), reached,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Get the name of the job.
+     *
+     * @return the id.
+     */
+    public String getId() {
+
+        return id;
+    }
+
+    /**
+     * Get the rule the board is played with.
+     *
+     * @return the rulestring.
+     */
+    public String getRulestring() {
+
+        return rulestring;
+    }
+
+    /**
+     * Get the dimensions of the board.
+     *
+     * @return a copy of the dimensions.
+     */
+    public int[] getDimensionSizes() {
+
+        return Arrays.copyOf(dimensions, dimensions.length);
+    }
+
+    /**
+     * Get the seed of the soup.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+
+        return seed;
+    }
+
+    /**
+     * Get the chance that a cell of the soup is alive.
+     *
+     * @return the density.
+     */
+    public double getDensity() {
+
+        return density;
+    }
+
+    /**
+     * Get the most generations the board will play.
+     *
+     * @return the number of generations.
+     */
+    public int getGenerations() {
+
+        return generations;
+    }
+
+    /**
+     * Get the condition that stops the board early.
+     *
+     * @return the termination condition.
+     */
+    public Termination getTermination() {
+
+        return termination;
+    }
+
+    /**
+     * Get the number of generations that are remembered to find a cycle.
+     *
+     * @return the history.
+     */
+    public int getHistory() {
+
+        return history;
+    }
+}
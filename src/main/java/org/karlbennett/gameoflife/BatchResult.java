@@ -0,0 +1,128 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is the result of running a {@see BatchJob}. It is written by a {@see BatchRunner} as a tab separated line with
+ * the columns of {@link #HEADER}.
+ */
+public class BatchResult {
+
+    /**
+     * The names of the columns of a result line.
+     */
+    public static final String HEADER = "id\trule\tdimensions\tseed\tgeneration\tpopulation\tperiod\ttermination\tnanos";
+
+    private final BatchJob job;
+
+    private final long generation;
+
+    private final long population;
+
+    private final long period;
+
+    private final BatchJob.Termination termination;
+
+    private final long nanos;
+
+
+    /**
+     * Construct a new <code>BatchResult</code>.
+     *
+     * @param job         - the job that was run.
+     * @param generation  - the generation the board reached.
+     * @param population  - the number of cells that are not dead in the last generation.
+     * @param period      - the period the board was found to repeat with, 0 if it was not seen to repeat.
+     * @param termination - the condition that stopped the board, {@link BatchJob.Termination#NONE} if it played every
+     *                    generation.
+     * @param nanos       - the time the job took to run.
+     */
+    public BatchResult(BatchJob job, long generation, long population, long period, BatchJob.Termination termination,
+                       long nanos) {
+
+        this.job = job;
+        this.generation = generation;
+        this.population = population;
+        this.period = period;
+        this.termination = termination;
+        this.nanos = nanos;
+    }
+
+
+    /**
+     * Get the job that was run.
+     *
+     * @return the job.
+     */
+    public BatchJob getJob() {
+
+        return job;
+    }
+
+    /**
+     * Get the generation the board reached.
+     *
+     * @return the generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the number of cells that are not dead in the last generation.
+     *
+     * @return the population.
+     */
+    public long getPopulation() {
+
+        return population;
+    }
+
+    /**
+     * Get the period the board was found to repeat with.
+     *
+     * @return the period or 0 if the board was not seen to repeat.
+     */
+    public long getPeriod() {
+
+        return period;
+    }
+
+    /**
+     * Get the condition that stopped the board.
+     *
+     * @return the termination condition, {@link BatchJob.Termination#NONE} if the board played every generation.
+     */
+    public BatchJob.Termination getTermination() {
+
+        return termination;
+    }
+
+    /**
+     * Get the time the job took to run.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getNanos() {
+
+        return nanos;
+    }
+
+    /**
+     * Write the result as a tab separated line without a line break.
+     *
+     * @return the line.
+     */
+    @Override
+    public String toString() {
+
+        StringBuilder dimensions = new StringBuilder();
+
+        for (int size : job.getDimensionSizes()) dimensions.append(0 == dimensions.length() ? "" : "x").append(size);
+
+        return job.getId() + "\t" + job.getRulestring() + "\t" + dimensions + "\t" + job.getSeed() + "\t" +
+                generation + "\t" + population + "\t" + period + "\t" + termination.name().toLowerCase() + "\t" + nanos;
+    }
+}
@@ -0,0 +1,149 @@
+package org.karlbennett.gameoflife;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This runs a sweep of independent {@see BatchJob}s on a fixed pool of threads, one board to a thread at a time, and
+ * writes each {@see BatchResult} as soon as its job finishes. A job is only taken from its iterator once a thread is
+ * free to run it, so no more jobs are held than there are threads and the memory used depends on the number of threads
+ * and not on the number of jobs.
+ */
+public class BatchRunner {
+
+    private final int threads;
+
+
+    /**
+     * Construct a new <code>BatchRunner</code> with a thread for every processor.
+     */
+    public BatchRunner() {
+
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construct a new <code>BatchRunner</code>.
+     *
+     * @param threads - the number of boards to run at once.
+     * @throws IllegalArgumentException if the number of threads is less than one.
+     */
+    public BatchRunner(int threads) {
+
+        if (1 > threads) throw new IllegalArgumentException("A batch needs at least one thread: " + threads);
+
+        this.threads = threads;
+    }
+
+
+    /**
+     * Run every job and write a header line followed by a line for each result, in the order the jobs finish. The
+     * writer is flushed after every line. If a job fails, with an exception or an error, no more jobs are started and
+     * the failure is thrown once the jobs that are running have finished.
+     *
+     * @param jobs    - the jobs to run.
+     * @param results - the writer that will receive the results.
+     * @return the number of jobs that were run.
+     * @throws IOException           if the results could not be written.
+     * @throws InterruptedException  if the thread was interrupted while waiting for the jobs.
+     * @throws IllegalStateException if a job failed.
+     */
+    public int run(Iterator<BatchJob> jobs, final Writer results) throws IOException, InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // One permit for each thread, the next job is not read until a thread has finished with its last one.
+        final Semaphore permits = new Semaphore(threads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        int count = 0;
+
+        try {
+
+            write(results, BatchResult.HEADER);
+
+            while (true) {
+
+                permits.acquire();
+
+                if (null != failure.get() || !jobs.hasNext()) break;
+
+                final BatchJob job = jobs.next();
+
+                executor.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+
+                        try {
+
+                            if (null == failure.get()) write(results, job.run().toString());
+
+                        } catch (Throwable t) {
+
+                            failure.compareAndSet(null, t);
+
+                        } finally {
+
+                            permits.release();
+                        }
+                    }
+                });
+
+                count++;
+            }
+
+        } finally {
+
+            executor.shutdown();
+
+            try {
+
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+            } catch (InterruptedException e) {
+
+                executor.shutdownNow();
+
+                throw e;
+            }
+        }
+
+        Throwable t = failure.get();
+
+        if (t instanceof IOException) throw (IOException) t;
+
+        if (null != t) throw new IllegalStateException("A job failed: " + t.getMessage(), t);
+
+        return count;
+    }
+
+    /**
+     * Get the number of boards that are run at once.
+     *
+     * @return the number of threads.
+     */
+    public int getThreads() {
+
+        return threads;
+    }
+
+    private static void write(Writer results, String line) throws IOException {
+
+        synchronized (results) {
+
+            results.write(line);
+            results.write('\n');
+            results.flush();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a rule for a Game of Life that only has two states, alive and dead, where the next state of a cell depends
+ * only on its current state and the number of its neighbours that are alive. A {@see Board} that is given a single
+ * binary rule will store its cells as packed bits and count neighbours with bitwise arithmetic instead of applying the
+ * rule to every cell.
+ *
+ * @type S - the type of state that this rule produces.
+ */
+public interface BinaryRule<S extends Comparable<S>> extends Rule<S> {
+
+    /**
+     * Get the state that represents a dead cell.
+     *
+     * @return the dead state.
+     */
+    public S getDeadState();
+
+    /**
+     * Get the state that represents an alive cell.
+     *
+     * @return the alive state.
+     */
+    public S getAliveState();
+
+    /**
+     * Check to see if a dead cell with the supplied number of alive neighbours should come alive.
+     *
+     * @param aliveNeighbours - the number of the cells neighbours that are alive.
+     * @return true if the cell should be born.
+     */
+    public boolean isBorn(int aliveNeighbours);
+
+    /**
+     * Check to see if an alive cell with the supplied number of alive neighbours should stay alive.
+     *
+     * @param aliveNeighbours - the number of the cells neighbours that are alive.
+     * @return true if the cell should survive.
+     */
+    public boolean isSurvivor(int aliveNeighbours);
+}
@@ -0,0 +1,867 @@
+package org.karlbennett.gameoflife;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is the cell storage for a {@see Board} that is played with a single {@see BinaryRule}. Every cell is held as
+ * a single bit and each row along the first dimension is packed into 64 cell words. The next generation is produced by
+ * summing the shifted neighbour words into a bit sliced counter, so 64 cells are counted and ruled on at once.
+ * <p/>
+ * The words are also grouped into tiles of about 4096 cells, each one word wide and {@link #getTileSize()} cells deep in
+ * every other dimension, e.g. 64x64 in 2D and 64x8x8 in 3D. Every tile has a dirty flag that is set when any of its
+ * cells changed in the last step. A tile can only change if it or one of the tiles around it, its halo, is dirty, so
+ * every other tile is copied to the next generation without counting its neighbours. A mostly quiet board is then
+ * stepped at the cost of its active tiles, while the cells of each tile are still swept in the order they are stored.
+ */
+public class BitBoard {
+
+    private final int[] dimensions;
+
+    private final int width;
+
+    private final int rowWords;
+
+    private final int rows;
+
+    private final long tailMask;
+
+    private final boolean[] born;
+
+    private final boolean[] survivors;
+
+    private final int[] shifts;
+
+    private final int[] rowDeltas;
+
+    private final int[][] rowOffsets;
+
+    private final long[] words;
+
+    private final long[][] counters;
+
+    private final int[] rowCoordinates;
+
+    private final int tileSize;
+
+    private final int[] tileStrides;
+
+    private final int[] tileCounts;
+
+    private final int[][] tileNeighbours;
+
+    private final boolean[] dirty;
+
+    private final boolean[] active;
+
+    private boolean allDirty = true;
+
+    private int activeTiles;
+
+    private long population;
+
+
+    /**
+     * Construct a new <code>BitBoard</code> with every cell dead.
+     *
+     * @param rule       - the rule that decides which cells are born and which survive.
+     * @param dimensions - the dimensions of the board e.g. width, height, depth... There must be at least one.
+     * @throws IllegalArgumentException if no dimensions are supplied.
+     */
+    public BitBoard(BinaryRule<?> rule, int... dimensions) {
+
+        if (0 == dimensions.length) {
+
+            throw new IllegalArgumentException("A bit board must have at least one dimension.");
+        }
+
+        int[] strides = Board.calculateStrides(dimensions);
+
+        this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+        this.width = dimensions[0];
+        this.rowWords = (width + 63) >>> 6;
+        this.rows = 0 == width ? 0 : Board.volume(dimensions) / width;
+        this.tailMask = 0 == (width & 63) ? -1L : (1L << (width & 63)) - 1;
+
+        int neighbourNumber = Cell.neighbourNumber(dimensions.length);
+
+        this.born = new boolean[neighbourNumber + 1];
+        this.survivors = new boolean[neighbourNumber + 1];
+
+        for (int c = 0; c <= neighbourNumber; c++) {
+
+            born[c] = rule.isBorn(c);
+            survivors[c] = rule.isSurvivor(c);
+        }
+
+        this.shifts = new int[neighbourNumber];
+        this.rowDeltas = new int[neighbourNumber];
+        this.rowOffsets = new int[neighbourNumber][dimensions.length - 1];
+
+        int[] coordinates;
+        for (int n = 0; n < neighbourNumber; n++) {
+
+            coordinates = Cell.calculateNeighbourCoordinates(dimensions.length, n);
+
+            shifts[n] = coordinates[0];
+
+            for (int d = 1; d < dimensions.length; d++) {
+
+                rowOffsets[n][d - 1] = coordinates[d];
+                rowDeltas[n] += coordinates[d] * (strides[d] / Math.max(width, 1));
+            }
+        }
+
+        this.words = new long[rows * rowWords];
+        this.counters = new long[32 - Integer.numberOfLeadingZeros(neighbourNumber)][rowWords];
+        this.rowCoordinates = new int[dimensions.length - 1];
+
+        this.tileSize = tileSize(dimensions.length);
+
+        // The tile grid is one tile per word along the first dimension.
+        this.tileCounts = new int[dimensions.length];
+        this.tileStrides = new int[dimensions.length];
+
+        int tiles = 1;
+        for (int d = 0; d < dimensions.length; d++) {
+
+            tileCounts[d] = 0 == d ? rowWords : (dimensions[d] + tileSize - 1) / tileSize;
+            tileStrides[d] = tiles;
+
+            tiles *= tileCounts[d];
+        }
+
+        this.tileNeighbours = new int[neighbourNumber][];
+
+        for (int n = 0; n < neighbourNumber; n++) {
+
+            tileNeighbours[n] = Cell.calculateNeighbourCoordinates(dimensions.length, n);
+        }
+
+        this.dirty = new boolean[tiles];
+        this.active = new boolean[tiles];
+    }
+
+    /**
+     * Construct a new <code>BitBoard</code> with every cell dead that shares the rule and neighbour tables of the
+     * supplied board.
+     *
+     * @param board - the board to take the rule and neighbour tables from.
+     */
+    public BitBoard(BitBoard board) {
+
+        this.dimensions = board.dimensions;
+        this.width = board.width;
+        this.rowWords = board.rowWords;
+        this.rows = board.rows;
+        this.tailMask = board.tailMask;
+        this.born = board.born;
+        this.survivors = board.survivors;
+        this.shifts = board.shifts;
+        this.rowDeltas = board.rowDeltas;
+        this.rowOffsets = board.rowOffsets;
+        this.words = new long[board.words.length];
+        this.counters = new long[board.counters.length][rowWords];
+        this.rowCoordinates = new int[board.rowCoordinates.length];
+        this.tileSize = board.tileSize;
+        this.tileCounts = board.tileCounts;
+        this.tileStrides = board.tileStrides;
+        this.tileNeighbours = board.tileNeighbours;
+        this.dirty = new boolean[board.dirty.length];
+        this.active = new boolean[board.active.length];
+    }
+
+
+    /**
+     * Check to see if the cell at the supplied row-major index is alive.
+     *
+     * @param index - the index of the cell as it would be in a flat {@see Board} state array.
+     * @return true if the cell is alive.
+     */
+    public boolean get(int index) {
+
+        int x = index % width;
+
+        return 0 != (words[(index / width) * rowWords + (x >>> 6)] & (1L << x));
+    }
+
+    /**
+     * Set the cell at the supplied row-major index to be alive or dead.
+     *
+     * @param index - the index of the cell as it would be in a flat {@see Board} state array.
+     * @param alive - true if the cell should be alive.
+     */
+    public void set(int index, boolean alive) {
+
+        int x = index % width;
+        int word = (index / width) * rowWords + (x >>> 6);
+
+        long previous = words[word];
+
+        if (alive) words[word] |= 1L << x;
+
+        else words[word] &= ~(1L << x);
+
+        population += Long.bitCount(words[word]) - Long.bitCount(previous);
+
+        allDirty = true;
+    }
+
+    /**
+     * Create a copy of this board that holds the same cells.
+     *
+     * @return the copy.
+     */
+    public BitBoard copy() {
+
+        BitBoard copy = new BitBoard(this);
+
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+
+        copy.population = population;
+
+        return copy;
+    }
+
+    /**
+     * Count the cells that are alive on one of this board and the supplied board but not the other.
+     *
+     * @param other - the board to compare with, this must have been built from this board or share its dimensions.
+     * @return the number of cells that differ.
+     */
+    public int countDifference(BitBoard other) {
+
+        int count = 0;
+
+        for (int w = 0; w < words.length; w++) count += Long.bitCount(words[w] ^ other.words[w]);
+
+        return count;
+    }
+
+    /**
+     * Find every cell that is alive on one of this board and the supplied board but not the other. The boards are
+     * compared a word at a time, so only the words that differ cost more than a single comparison.
+     *
+     * @param other - the board to compare with, this must have been built from this board or share its dimensions.
+     * @return the row-major indices of the cells that differ, in ascending order.
+     */
+    public int[] difference(BitBoard other) {
+
+        int count = countDifference(other);
+
+        int[] indices = new int[count];
+
+        int i = 0;
+        long difference;
+        for (int w = 0; w < words.length && i < count; w++) {
+
+            for (difference = words[w] ^ other.words[w]; 0 != difference; difference &= difference - 1) {
+
+                indices[i++] = (w / rowWords) * width + (w % rowWords) * 64 + Long.numberOfTrailingZeros(difference);
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Calculate the hash of the board for a {@see CycleDetector}, the exclusive or of the key of every word.
+     *
+     * @return the hash.
+     */
+    public long hash() {
+
+        long hash = 0;
+
+        for (int w = 0; w < words.length; w++) hash ^= CycleDetector.wordKey(w, words[w]);
+
+        return hash;
+    }
+
+    /**
+     * Calculate how the hash of the supplied board has to change to become the hash of this board. Only the words that
+     * differ between the boards have their keys calculated.
+     *
+     * @param other - the board to compare with, this must have been built from this board or share its dimensions.
+     * @return the value to exclusive or with the hash of the supplied board.
+     */
+    public long hashDifference(BitBoard other) {
+
+        long difference = 0;
+
+        for (int w = 0; w < words.length; w++) {
+
+            if (words[w] != other.words[w]) {
+
+                difference ^= CycleDetector.wordKey(w, words[w]) ^ CycleDetector.wordKey(w, other.words[w]);
+            }
+        }
+
+        return difference;
+    }
+
+    /**
+     * Kill every cell on the board.
+     */
+    public void clear() {
+
+        Arrays.fill(words, 0);
+
+        population = 0;
+
+        allDirty = true;
+    }
+
+    /**
+     * Get the number of cells that are not dead, which on a bit board are the cells that are alive, the same as
+     * {@link Board#population()}. The count is kept up to date from the words that change, so it costs nothing to read.
+     *
+     * @return the number of cells that are not dead.
+     */
+    public long population() {
+
+        return population;
+    }
+
+    /**
+     * Get the number of 64 cell words that hold the board. Each row along the first dimension starts in a new word.
+     *
+     * @return the number of words.
+     */
+    public int getWordCount() {
+
+        return words.length;
+    }
+
+    /**
+     * Copy a range of the words that hold the board into the supplied buffer.
+     *
+     * @param destination - the buffer that will receive the words at its current position.
+     * @param from        - the index of the first word to copy.
+     * @param length      - the number of words to copy.
+     */
+    public void store(LongBuffer destination, int from, int length) {
+
+        destination.put(words, from, length);
+    }
+
+    /**
+     * Replace a range of the words that hold the board with words from the supplied buffer. Any bits beyond the end of
+     * a row are cleared so that they can never be counted as alive cells. Only the tiles of the words that change are
+     * marked as dirty, so the next step does not have to step the rest of the board.
+     *
+     * @param source - the buffer to read the words from at its current position.
+     * @param from   - the index of the first word to replace.
+     * @param length - the number of words to replace.
+     */
+    public void load(LongBuffer source, int from, int length) {
+
+        int[] coordinates = new int[rowCoordinates.length];
+
+        int row = -1;
+        int tiles = 0;
+
+        long word;
+        for (int w = from; w < from + length; w++) {
+
+            word = source.get() & (rowWords - 1 == w % rowWords ? tailMask : -1L);
+
+            if (word == words[w]) continue;
+
+            population += Long.bitCount(word) - Long.bitCount(words[w]);
+
+            words[w] = word;
+
+            if (row != w / rowWords) {
+
+                row = w / rowWords;
+
+                toRowCoordinates(row, coordinates);
+
+                tiles = 0;
+
+                for (int d = 0; d < coordinates.length; d++) tiles += coordinates[d] / tileSize * tileStrides[d + 1];
+            }
+
+            dirty[tiles + w % rowWords] = true;
+        }
+    }
+
+    /**
+     * Get the number of rows of 64 cell words, that is the number of cells on the board divided by the size of the
+     * first dimension.
+     *
+     * @return the number of rows.
+     */
+    public int getRows() {
+
+        return rows;
+    }
+
+    /**
+     * Get the number of cells that a tile covers in every dimension but the first, where it is always one word.
+     *
+     * @return the tile size.
+     */
+    public int getTileSize() {
+
+        return tileSize;
+    }
+
+    /**
+     * Get the number of tiles that the board is split into.
+     *
+     * @return the number of tiles.
+     */
+    public int getTileCount() {
+
+        return dirty.length;
+    }
+
+    /**
+     * Get the number of tiles that were stepped in the last step, the rest were copied.
+     *
+     * @return the number of active tiles.
+     */
+    public int getActiveTiles() {
+
+        return activeTiles;
+    }
+
+    /**
+     * Write the next generation of this board into the supplied board. The supplied board must have been built from
+     * this board, or share its dimensions and rule, and must not be this board.
+     *
+     * @param next - the board that will receive the next generation.
+     */
+    public void step(BitBoard next) {
+
+        prepare(next);
+
+        Arrays.fill(rowCoordinates, 0);
+
+        step(next, 0, rows, counters, rowCoordinates);
+    }
+
+    /**
+     * Find the tiles that have to be stepped to produce the next generation in the supplied board, which are the dirty
+     * tiles and the tiles around them. This must be called once before the rows of a generation are stepped with
+     * {@link #step(BitBoard, int, int)}.
+     *
+     * @param next - the board that will receive the next generation.
+     */
+    public void prepare(BitBoard next) {
+
+        Arrays.fill(next.dirty, false);
+
+        next.allDirty = false;
+        next.population = population;
+
+        if (allDirty) {
+
+            Arrays.fill(active, true);
+
+            activeTiles = active.length;
+
+            return;
+        }
+
+        Arrays.fill(active, false);
+
+        int[] tile = new int[dimensions.length];
+
+        int neighbour;
+        int c;
+        for (int t = 0; t < dirty.length; t++) {
+
+            if (!dirty[t]) continue;
+
+            active[t] = true;
+
+            for (int d = 0, i = t; d < tile.length; i /= tileCounts[d], d++) tile[d] = i % tileCounts[d];
+
+            for (int[] offsets : tileNeighbours) {
+
+                neighbour = 0;
+
+                for (int d = 0; d < tile.length && 0 <= neighbour; d++) {
+
+                    c = tile[d] + offsets[d];
+
+                    neighbour = 0 > c || tileCounts[d] <= c ? -1 : neighbour + c * tileStrides[d];
+                }
+
+                if (0 <= neighbour) active[neighbour] = true;
+            }
+        }
+
+        activeTiles = 0;
+
+        for (boolean a : active) if (a) activeTiles++;
+    }
+
+    /**
+     * Write the next generation of the supplied rows of this board into the supplied board. Unlike
+     * {@link #step(BitBoard)} this method can be called by several threads at once as long as their rows do not overlap,
+     * once {@link #prepare(BitBoard)} has been called for the generation.
+     *
+     * @param next    - the board that will receive the next generation.
+     * @param fromRow - the first row to step.
+     * @param toRow   - the row after the last row to step.
+     */
+    public void step(BitBoard next, int fromRow, int toRow) {
+
+        int[] coordinates = new int[rowCoordinates.length];
+
+        toRowCoordinates(fromRow, coordinates);
+
+        step(next, fromRow, toRow, new long[counters.length][rowWords], coordinates);
+    }
+
+    /**
+     * Write the generation that is the supplied number of generations after this one into the supplied board, which
+     * must have been built from this board, or share its dimensions and rule, and must not be this board.
+     * <p/>
+     * Stepping one generation at a time reads and writes every word of the board once per generation. Instead the rows
+     * are swept once as a wavefront: as soon as the rows around a row are known in one generation that row is stepped
+     * into the next, so each generation trails the one before it by the reach of a row's neighbours. Only a window of
+     * rows is kept for every generation in between, which is small enough to stay in cache, so the board itself is read
+     * once and written once for the whole block. Every tile is stepped, and the dirty flags of the supplied board are
+     * set from the last generation of the block.
+     *
+     * @param next        - the board that will receive the last generation.
+     * @param generations - the number of generations to step.
+     * @throws IllegalArgumentException if the number of generations is less than one.
+     */
+    public void step(BitBoard next, int generations) {
+
+        if (1 > generations) {
+
+            throw new IllegalArgumentException("A bit board must be stepped at least one generation: " + generations);
+        }
+
+        if (1 == generations) {
+
+            step(next);
+
+            return;
+        }
+
+        Arrays.fill(next.dirty, false);
+        Arrays.fill(active, true);
+
+        next.allDirty = false;
+        next.population = 0;
+        activeTiles = active.length;
+
+        int reach = 0;
+
+        for (int delta : rowDeltas) reach = Math.max(reach, Math.abs(delta));
+
+        // Each generation is held in a ring of rows, apart from the first and last which are the boards themselves.
+        long[][] levels = new long[generations + 1][];
+        int[] levelRows = new int[generations + 1];
+
+        levels[0] = words;
+        levelRows[0] = rows;
+        levels[generations] = next.words;
+        levelRows[generations] = rows;
+
+        for (int g = 1; g < generations; g++) {
+
+            levelRows[g] = Math.max(1, Math.min(2 * reach + 1, rows));
+            levels[g] = new long[levelRows[g] * rowWords];
+        }
+
+        int[] coordinates = new int[rowCoordinates.length];
+
+        int r;
+        for (int t = 0; t < rows + (generations - 1) * reach; t++) {
+
+            for (int g = 1; g <= generations && 0 <= (r = t - (g - 1) * reach); g++) {
+
+                if (rows <= r) continue;
+
+                toRowCoordinates(r, coordinates);
+
+                stepRow(levels[g - 1], levelRows[g - 1], levels[g], levelRows[g], r, coordinates,
+                        generations == g ? next : null);
+            }
+        }
+    }
+
+    /**
+     * Get the number of tiles that had a cell change in the last step.
+     *
+     * @return the number of dirty tiles, every tile is counted if the board has been changed directly.
+     */
+    int getDirtyTiles() {
+
+        if (allDirty) return dirty.length;
+
+        int count = 0;
+
+        for (boolean d : dirty) if (d) count++;
+
+        return count;
+    }
+
+    /**
+     * Write the next generation of the supplied rows of this board into the supplied board using the supplied working
+     * buffers.
+     *
+     * @param next           - the board that will receive the next generation.
+     * @param fromRow        - the first row to step.
+     * @param toRow          - the row after the last row to step.
+     * @param counters       - the bit sliced neighbour counters for a single row.
+     * @param rowCoordinates - the coordinates of the first row in every dimension but the first.
+     */
+    private void step(BitBoard next, int fromRow, int toRow, long[][] counters, int[] rowCoordinates) {
+
+        int base;
+        int tiles;
+        int to;
+        long word;
+        long change = 0;
+        for (int r = fromRow; r < toRow; r++) {
+
+            base = r * rowWords;
+            tiles = 0;
+
+            for (int d = 0; d < rowCoordinates.length; d++) tiles += rowCoordinates[d] / tileSize * tileStrides[d + 1];
+
+            // Step each run of active tiles along the row and copy the words in between.
+            for (int from = 0; from < rowWords; from = to) {
+
+                for (; from < rowWords && !active[tiles + from]; from++) next.words[base + from] = words[base + from];
+
+                for (to = from; to < rowWords && active[tiles + to]; to++) ;
+
+                if (from == to) break;
+
+                for (long[] counter : counters) Arrays.fill(counter, from, to, 0);
+
+                for (int n = 0; n < shifts.length; n++) {
+
+                    if (isRowOnBoard(rowCoordinates, rowOffsets[n])) {
+
+                        countNeighbours(words, (r + rowDeltas[n]) * rowWords, shifts[n], counters, from, to);
+                    }
+                }
+
+                for (int j = from; j < to; j++) {
+
+                    word = applyRule(words[base + j], j, counters) & (rowWords - 1 == j ? tailMask : -1L);
+
+                    if (word != words[base + j]) {
+
+                        next.dirty[tiles + j] = true;
+
+                        change += Long.bitCount(word) - Long.bitCount(words[base + j]);
+                    }
+
+                    next.words[base + j] = word;
+                }
+            }
+
+            incrementRowCoordinates(rowCoordinates);
+        }
+
+        if (0 != change) next.changePopulation(change);
+    }
+
+    /**
+     * Add to the number of alive cells. The rows of a generation can be stepped by several threads at once, so each
+     * adds the change of its own rows when it has finished.
+     *
+     * @param change - the number of cells that were born less the number that died.
+     */
+    private synchronized void changePopulation(long change) {
+
+        population += change;
+    }
+
+    /**
+     * Step a whole row of one generation held in a ring of rows into a ring of rows for the next generation. A ring
+     * holds row r at row r modulo its size, so a ring as large as the board is just the board.
+     *
+     * @param source          - the words of the generation to step.
+     * @param sourceRows      - the number of rows that the source holds.
+     * @param destination     - the words that will receive the next generation.
+     * @param destinationRows - the number of rows that the destination holds.
+     * @param r               - the row to step.
+     * @param rowCoordinates  - the coordinates of the row in every dimension but the first.
+     * @param next            - the board whose dirty flags and population should be set from the row, or null.
+     */
+    private void stepRow(long[] source, int sourceRows, long[] destination, int destinationRows, int r,
+                         int[] rowCoordinates, BitBoard next) {
+
+        for (long[] counter : counters) Arrays.fill(counter, 0);
+
+        for (int n = 0; n < shifts.length; n++) {
+
+            if (isRowOnBoard(rowCoordinates, rowOffsets[n])) {
+
+                countNeighbours(source, (r + rowDeltas[n]) % sourceRows * rowWords, shifts[n], counters, 0, rowWords);
+            }
+        }
+
+        int base = r % sourceRows * rowWords;
+        int target = r % destinationRows * rowWords;
+        int tiles = 0;
+
+        for (int d = 0; d < rowCoordinates.length; d++) tiles += rowCoordinates[d] / tileSize * tileStrides[d + 1];
+
+        long word;
+        for (int j = 0; j < rowWords; j++) {
+
+            word = applyRule(source[base + j], j, counters) & (rowWords - 1 == j ? tailMask : -1L);
+
+            if (null != next) {
+
+                if (word != source[base + j]) next.dirty[tiles + j] = true;
+
+                next.population += Long.bitCount(word);
+            }
+
+            destination[target + j] = word;
+        }
+    }
+
+    /**
+     * Add the neighbour row that starts at the supplied word to the bit sliced counters, shifting it along the first
+     * dimension so that each bit lines up with the cell that it is a neighbour of.
+     *
+     * @param words    - the words that hold the neighbour row.
+     * @param source   - the index of the first word in the neighbour row.
+     * @param shift    - the first dimension coordinate of the neighbour, -1, 0 or 1.
+     * @param counters - the bit sliced neighbour counters for the row.
+     * @param from     - the index of the first word in the row to count.
+     * @param to       - the index after the last word in the row to count.
+     */
+    private void countNeighbours(long[] words, int source, int shift, long[][] counters, int from, int to) {
+
+        long word;
+        long carry;
+        for (int j = from; j < to; j++) {
+
+            word = words[source + j];
+
+            if (0 > shift) {
+
+                word = (word << 1) | (0 < j ? words[source + j - 1] >>> 63 : 0);
+
+            } else if (0 < shift) {
+
+                word = (word >>> 1) | (rowWords > j + 1 ? words[source + j + 1] << 63 : 0);
+            }
+
+            // Ripple the neighbour bits through the counter as a chain of half adders.
+            for (int k = 0; k < counters.length && 0 != word; k++) {
+
+                carry = counters[k][j] & word;
+                counters[k][j] ^= word;
+                word = carry;
+            }
+        }
+    }
+
+    /**
+     * Apply the rule to the 64 cells in the supplied word using the neighbour counts held in the counters.
+     *
+     * @param alive    - the current state of the 64 cells.
+     * @param j        - the index of the word within its row.
+     * @param counters - the bit sliced neighbour counters for the row.
+     * @return the next state of the 64 cells.
+     */
+    private long applyRule(long alive, int j, long[][] counters) {
+
+        long next = 0;
+
+        long match;
+        for (int c = 0; c < born.length; c++) {
+
+            if (!born[c] && !survivors[c]) continue;
+
+            match = -1L;
+
+            for (int k = 0; k < counters.length; k++) {
+
+                match &= 0 != ((c >>> k) & 1) ? counters[k][j] : ~counters[k][j];
+            }
+
+            if (born[c]) next |= match & ~alive;
+
+            if (survivors[c]) next |= match & alive;
+        }
+
+        return next;
+    }
+
+    /**
+     * Check to see if the neighbour row with the supplied offsets from the current row is on the board.
+     *
+     * @param rowCoordinates - the coordinates of the current row in every dimension but the first.
+     * @param offsets        - the coordinates of the neighbour row in every dimension but the first.
+     * @return true if the neighbour row is on the board.
+     */
+    private boolean isRowOnBoard(int[] rowCoordinates, int[] offsets) {
+
+        int c;
+        for (int d = 0; d < offsets.length; d++) {
+
+            c = rowCoordinates[d] + offsets[d];
+
+            if (0 > c || dimensions[d + 1] <= c) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Find the size of a tile in every dimension but the first, so that a tile covers about 4096 cells.
+     *
+     * @param dimensions - the number of dimensions.
+     * @return the largest size whose power over the other dimensions is at most 64.
+     */
+    private static int tileSize(int dimensions) {
+
+        if (1 == dimensions) return 1;
+
+        int size = 1;
+
+        while (Math.pow(size + 1, dimensions - 1) <= 64) size++;
+
+        return size;
+    }
+
+    /**
+     * Calculate the coordinates of the supplied row in every dimension but the first.
+     *
+     * @param row            - the index of the row.
+     * @param rowCoordinates - the array that will receive the coordinates.
+     */
+    private void toRowCoordinates(int row, int[] rowCoordinates) {
+
+        for (int d = 0; d < rowCoordinates.length; row /= dimensions[d + 1], d++) {
+
+            rowCoordinates[d] = row % dimensions[d + 1];
+        }
+    }
+
+    /**
+     * Move the supplied row coordinates on to the next row.
+     *
+     * @param rowCoordinates - the coordinates of the current row in every dimension but the first.
+     */
+    private void incrementRowCoordinates(int[] rowCoordinates) {
+
+        for (int d = 0; d < rowCoordinates.length && dimensions[d + 1] <= ++rowCoordinates[d]; d++) {
+
+            rowCoordinates[d] = 0;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package org.karlbennett.gameoflife;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * User: karl
@@ -10,24 +13,159 @@ import java.util.List;
  * <p/>
  * This is a board for the Game of Life. It consists of a set of cells that are all connected to each other through N
  * neighbourhood links.
+ * <p/>
+ * The state of every cell is held as a {@see StatePalette} code in a single row-major primitive array, so the first
+ * dimension is the one that changes fastest. Neighbours are found by adding a precomputed stride to a cells index and
+ * {@see Cell} objects are only created when they are requested.
+ * <p/>
+ * If the board is given a single {@see BinaryRule} then the cells are instead packed into a {@see BitBoard} with one bit
+ * per cell, the dead state is always given the code 0 and the alive state the code 1. A single {@see RuleTable} with
+ * more than two states gives every state its code in the table and the next state of each cell is looked up in the
+ * table from the number of its alive neighbours, without creating any {@see Cell} objects. When every cell is ticked
+ * the neighbours are counted for the whole board at once by a {@see StencilKernel}.
+ * <p/>
+ * Otherwise the board remembers which cells changed in the last generation. When only a small part of the board
+ * changed, the next generation only applies the rules to the changed cells and their neighbours because every other
+ * cell must stay the same. This assumes that rules only depend on a cell and its neighbours.
+ * <p/>
+ * If every rule is a {@see PureRule} the next state code of each neighbourhood that the rules are applied to is
+ * remembered in a {@see RuleCache} for each thread that ticks the board, so a neighbourhood that has been seen before
+ * is looked up instead of creating its {@see Cell} objects and applying the rules again.
+ * <p/>
+ * Each new generation can be sent to {@see DeltaListener}s as a {@see BoardDelta} that holds only the cells that
+ * changed, so a consumer can follow the board without copying it every generation. The same changes keep a hash of the
+ * board up to date when it is looking for still lifes and oscillators with a {@see CycleDetector}.
  *
  * @param <C> - the type of {@see Cell} that this board contains.
  * @param <S> - the type of state that the Cell contains.
  */
 public class Board<S extends Comparable<S>, R extends Rule<S>, I extends InitialState<S>, C extends Cell<S, R>> {
 
+    /**
+     * Calculate the stride for each of the supplied dimensions. The stride is the distance in the flat state array
+     * between two cells that are next to each other in that dimension.
+     *
+     * @param dimensions - the dimensions of the board e.g. width, height, depth...
+     * @return the strides for each dimension.
+     * @throws IllegalArgumentException if any dimension is negative or the board would contain too many cells to fit in
+     *                                  a single array.
+     */
+    public static int[] calculateStrides(int... dimensions) {
+
+        int[] strides = new int[dimensions.length];
+
+        long stride = 1;
+
+        for (int d = 0; d < dimensions.length; d++) {
+
+            if (0 > dimensions[d]) {
+
+                throw new IllegalArgumentException("The size of dimension " + d + " cannot be negative.");
+            }
+
+            strides[d] = (int) stride;
+
+            stride *= dimensions[d];
+
+            if (Integer.MAX_VALUE < stride) {
+
+                throw new IllegalArgumentException("The supplied dimensions " + Arrays.toString(dimensions) +
+                        " contain too many cells for a single board.");
+            }
+        }
+
+        return strides;
+    }
+
+    /**
+     * Calculate the flat array offset of each neighbour in the order that they are held in a cells neighbours list.
+     *
+     * @param strides - the strides for each dimension of the board.
+     * @return the offset that should be added to a cells index to find each of its neighbours.
+     */
+    public static int[] calculateNeighbourStrides(int... strides) {
+
+        int[] neighbourStrides = new int[Cell.neighbourNumber(strides.length)];
+
+        int[] coordinates;
+        for (int n = 0; n < neighbourStrides.length; n++) {
+
+            coordinates = Cell.calculateNeighbourCoordinates(strides.length, n);
+
+            for (int d = 0; d < strides.length; d++) neighbourStrides[n] += coordinates[d] * strides[d];
+        }
+
+        return neighbourStrides;
+    }
+
+
+    /**
+     * The neighbours of the neighbours of a materialised cell, which only carry a state.
+     */
+    private static final Cell[] NO_NEIGHBOURS = new Cell[0];
+
     private final List<R> rules;
 
-    private final InitialState<S> initialState;
+    private final PositionalInitialState<S> initialState;
 
     private final int[] dimensions;
 
-    private final Cell<S, R> root;
+    private final int[] strides;
+
+    private final int[][] neighbourCoordinates;
+
+    private final int[] neighbourStrides;
+
+    private final StatePalette<S> palette;
+
+    private final RuleTable<S> table;
+
+    private final StencilKernel kernel;
+
+    private final ThreadLocal<RuleCache> ruleCaches;
+
+    private int[] counts;
+
+    private int[] scratch;
+
+    private int[] states;
+
+    private int[] nextStates;
+
+    private boolean previousInNext;
+
+    private ChangeSet changes;
+
+    private ChangeSet nextChanges;
+
+    private long[] activeMarks;
+
+    private int activeCells;
+
+    private long population = -1;
+
+    private BitBoard bits;
+
+    private BitBoard nextBits;
+
+    private SlabExecutor executor;
+
+    private long generation;
+
+    private final BuildReport buildReport;
+
+    private final List<DeltaListener> deltaListeners;
+
+    private CycleDetector cycles;
+
+    private boolean fastForward;
+
+    private int temporalBlocking = 1;
 
 
     /**
      * Construct a new <code>Board</code> that adheres to the supplied rules and fits the supplied number of dimension
-     * and scale.
+     * and scale. The initial state is asked for the state of every cell in row-major order.
      *
      * @param rules        - the rules that will be applied on each tick of the Game of Life.
      * @param initialState - the object the supplies the initial state for all the cells.
@@ -35,24 +173,348 @@ public class Board<S extends Comparable<S>, R extends Rule<S>, I extends Initial
      */
     public Board(List<R> rules, InitialState<S> initialState, int... dimensions) {
 
+        this(rules, positional(initialState), null, 0, null, dimensions);
+    }
+
+    /**
+     * Construct a new <code>Board</code> that adheres to the supplied rules and fits the supplied number of dimension
+     * and scale. The initial state is asked for the state of every cell in row-major order and is told the coordinates
+     * of each cell.
+     *
+     * @param rules        - the rules that will be applied on each tick of the Game of Life.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     */
+    public Board(List<R> rules, PositionalInitialState<S> initialState, int... dimensions) {
+
+        this(rules, initialState, null, 0, null, dimensions);
+    }
+
+    /**
+     * Construct a new <code>Board</code>, see {@link #Board(List, InitialState, int...)}, and record how long it took
+     * to build and the peak heap used in the supplied report. Recording the peak heap resets the peak usage of the
+     * JVMs heap memory pools, so a report should only be asked for when nothing else is building a board or watching
+     * those pools.
+     *
+     * @param rules        - the rules that will be applied on each tick of the Game of Life.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param report       - the report that will receive the build statistics.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     */
+    public Board(List<R> rules, InitialState<S> initialState, BuildReport report, int... dimensions) {
+
+        this(rules, positional(initialState), null, 0, report, dimensions);
+    }
+
+    /**
+     * Construct a new <code>Board</code>, see {@link #Board(List, PositionalInitialState, int...)}, and record how long
+     * it took to build and the peak heap used in the supplied report, see
+     * {@link #Board(List, InitialState, BuildReport, int...)}.
+     *
+     * @param rules        - the rules that will be applied on each tick of the Game of Life.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param report       - the report that will receive the build statistics.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     */
+    public Board(List<R> rules, PositionalInitialState<S> initialState, BuildReport report, int... dimensions) {
+
+        this(rules, initialState, null, 0, report, dimensions);
+    }
+
+    /**
+     * Construct a new <code>Board</code> either from an initial state or, for a {@see BoardSnapshot}, with every cell
+     * left in the state with code 0 ready to be filled in from the snapshot.
+     *
+     * @param rules          - the rules that will be applied on each tick of the Game of Life.
+     * @param initialState   - the object the supplies the initial state for all the cells, or null for a snapshot.
+     * @param snapshotStates - the states of the snapshot in code order, or null if there is an initial state.
+     * @param generation     - the generation of the new board.
+     * @param report         - the report that will receive the build statistics, this may be null.
+     * @param dimensions     - the dimensions of the board e.g. width, height, depth...
+     * @throws IllegalArgumentException if there is no initial state, or the snapshot states do not give the states of
+     *                                  the rule the codes that the board needs.
+     */
+    Board(List<R> rules, PositionalInitialState<S> initialState, List<S> snapshotStates, long generation,
+          BuildReport report, int... dimensions) {
+
+        this.buildReport = report;
+        this.deltaListeners = new CopyOnWriteArrayList<DeltaListener>();
+
+        if (null != buildReport) buildReport.start();
+
         this.rules = rules;
 
-        if (null == initialState) {
+        if (null == initialState && null == snapshotStates) {
 
             throw new IllegalArgumentException("The initialState can not be null");
         }
 
         this.initialState = initialState;
+        this.generation = generation;
+
+        this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+
+        this.strides = calculateStrides(dimensions);
+
+        this.neighbourStrides = calculateNeighbourStrides(strides);
+
+        this.neighbourCoordinates = new int[neighbourStrides.length][];
+
+        for (int n = 0; n < neighbourCoordinates.length; n++) {
+
+            neighbourCoordinates[n] = Cell.calculateNeighbourCoordinates(dimensions.length, n);
+        }
+
+        this.palette = new StatePalette<S>();
+
+        if (null != snapshotStates) for (S state : snapshotStates) palette.encode(state);
+
+        int[] coordinates = new int[dimensions.length];
+
+        BinaryRule<S> binaryRule = findBinaryRule(rules, dimensions);
+
+        this.table = null == binaryRule ? findRuleTable(rules, dimensions) : null;
+
+        this.kernel = null == table ? null : new StencilKernel(dimensions);
+
+        this.ruleCaches = null == binaryRule && null == table && arePure(rules) ? new ThreadLocal<RuleCache>() {
+
+            @Override
+            protected RuleCache initialValue() {
+
+                return new RuleCache();
+            }
+        } : null;
+
+        if (null != table) {
+
+            for (int code = 0; code < table.getStates().size(); code++) {
+
+                if (code != palette.encode(table.getStates().get(code))) {
+
+                    throw new IllegalArgumentException("The snapshot states " + snapshotStates +
+                            " do not match the states of the rule table " + table.getStates());
+                }
+            }
+
+            this.states = new int[volume(dimensions)];
+
+            for (int i = 0; i < states.length && null != initialState; i++, incrementCoordinates(coordinates)) {
+
+                states[i] = palette.encode(initialState.state(coordinates));
+
+                if (table.getStates().size() <= states[i]) {
+
+                    throw new IllegalArgumentException("The initialState supplied a state that is not one of the " +
+                            "states of the rule table: " + palette.decode(states[i]));
+                }
+            }
 
-        this.dimensions = dimensions;
+        } else if (null == binaryRule) {
 
-//        this.root = buildBoard(rules, initialState, null, dimensions);
-        this.root = null;
+            this.states = new int[volume(dimensions)];
+
+            for (int i = 0; i < states.length && null != initialState; i++, incrementCoordinates(coordinates)) {
+
+                states[i] = palette.encode(initialState.state(coordinates));
+            }
+
+        } else {
+
+            if (0 != palette.encode(binaryRule.getDeadState()) || 1 != palette.encode(binaryRule.getAliveState())) {
+
+                throw new IllegalArgumentException("The snapshot states " + snapshotStates +
+                        " do not start with the dead and alive states of the binary rule.");
+            }
+
+            this.bits = new BitBoard(binaryRule, dimensions);
+
+            int code;
+            for (int i = 0, size = volume(dimensions); i < size && null != initialState;
+                 i++, incrementCoordinates(coordinates)) {
+
+                code = palette.encode(initialState.state(coordinates));
+
+                if (1 < code) {
+
+                    throw new IllegalArgumentException("The initialState supplied a state that is neither the dead nor " +
+                            "alive state of the binary rule: " + palette.decode(code));
+                }
+
+                bits.set(i, 1 == code);
+            }
+        }
+
+        if (null != buildReport) buildReport.finish(size());
+    }
+
+    /**
+     * Construct the next generation of the supplied board with the supplied cell states. Only one of the state arrays
+     * and the bit board should be supplied.
+     *
+     * @param board  - the board that this board is the next generation of.
+     * @param states - the state codes for every cell on the new board.
+     * @param bits   - the packed cells for the new board if it is played with a binary rule.
+     */
+    private Board(Board<S, R, I, C> board, int[] states, BitBoard bits) {
+
+        this.rules = board.rules;
+        this.initialState = board.initialState;
+        this.dimensions = board.dimensions;
+        this.strides = board.strides;
+        this.neighbourCoordinates = board.neighbourCoordinates;
+        this.neighbourStrides = board.neighbourStrides;
+        this.palette = board.palette;
+        this.table = board.table;
+        this.kernel = board.kernel;
+        this.ruleCaches = board.ruleCaches;
+        this.states = states;
+        this.bits = bits;
+        this.executor = board.executor;
+        this.generation = board.generation + 1;
+        this.buildReport = board.buildReport;
+        this.deltaListeners = board.deltaListeners;
+        this.cycles = null == board.cycles ? null : new CycleDetector(board.cycles);
+        this.fastForward = board.fastForward;
+        this.temporalBlocking = board.temporalBlocking;
+    }
+
+    /**
+     * Find the binary rule that the board should be played with. A board can only use a binary rule if it has at least
+     * one dimension and the rule is the only rule.
+     *
+     * @param rules      - the rules that will be applied on each tick of the Game of Life.
+     * @param dimensions - the dimensions of the board e.g. width, height, depth...
+     * @return the binary rule or null if the board should apply its rules to every cell.
+     */
+    @SuppressWarnings("unchecked")
+    private static <S extends Comparable<S>> BinaryRule<S> findBinaryRule(List<? extends Rule<S>> rules,
+                                                                          int... dimensions) {
+
+        if (null == rules || 1 != rules.size() || 0 == dimensions.length) return null;
+
+        Rule<S> rule = rules.get(0);
+
+        if (rule instanceof RuleTable && 2 == ((RuleTable<S>) rule).getStates().size()
+                && dimensions.length == ((RuleTable<S>) rule).getDimensions()) {
+
+            return ((RuleTable<S>) rule).asBinaryRule();
+        }
+
+        return rule instanceof BinaryRule ? (BinaryRule<S>) rule : null;
+    }
+
+    /**
+     * Find the rule table that the board should look the next state of each cell up in. A board can only use a rule
+     * table if it is the only rule and has the same number of dimensions as the board.
+     *
+     * @param rules      - the rules that will be applied on each tick of the Game of Life.
+     * @param dimensions - the dimensions of the board e.g. width, height, depth...
+     * @return the rule table or null if the board should apply its rules to every cell.
+     */
+    @SuppressWarnings("unchecked")
+    private static <S extends Comparable<S>> RuleTable<S> findRuleTable(List<? extends Rule<S>> rules,
+                                                                        int... dimensions) {
+
+        if (null == rules || 1 != rules.size() || !(rules.get(0) instanceof RuleTable)) return null;
+
+        RuleTable<S> table = (RuleTable<S>) rules.get(0);
+
+        return dimensions.length == table.getDimensions() ? table : null;
+    }
+
+    /**
+     * Check to see if the next state of a cell can be remembered for its neighbourhood because every rule is pure.
+     *
+     * @param rules - the rules that will be applied on each tick of the Game of Life.
+     * @return true if there is at least one rule and every rule is a {@see PureRule}.
+     */
+    private static boolean arePure(List<? extends Rule<?>> rules) {
+
+        if (null == rules || rules.isEmpty()) return false;
+
+        for (Rule<?> rule : rules) if (!(rule instanceof PureRule)) return false;
+
+        return true;
+    }
+
+    /**
+     * Build a board of linked cells starting from the supplied cell, which becomes the cell at the origin. Every other
+     * cell takes its state from the supplied initial state in row-major order and every cell is linked to all of its
+     * neighbours, any neighbours that would be off the edge of the board are left as null.
+     * <p/>
+     * The board is built iteratively in a single pass into a {@see CellArena}. The new cells do not store links to
+     * their neighbours, they find them through their index in the arena, so only the cell at the origin has its
+     * neighbours linked to it.
+     *
+     * @param cell        - the cell at the origin of the board.
+     * @param initialiser - the object that supplies the state of every other cell.
+     * @param dimensions  - the dimensions of the board e.g. width, height, depth...
+     * @return the cell at the origin of the board, or null if any dimension is empty.
+     * @throws IllegalArgumentException if the cell is null or the number of dimensions does not match the cell.
+     */
+    public static <S extends Comparable<S>, R extends Rule<S>> Cell<S, R> buildBoard(
+            Cell<S, R> cell,
+            InitialState<S> initialiser,
+            int... dimensions) {
+
+        return buildBoard(cell, positional(initialiser), null, dimensions);
+    }
+
+    /**
+     * Build a board of linked cells, see {@link #buildBoard(Cell, InitialState, int...)}, from an initial state that is
+     * told the coordinates of each cell.
+     *
+     * @param cell        - the cell at the origin of the board.
+     * @param initialiser - the object that supplies the state of every other cell.
+     * @param dimensions  - the dimensions of the board e.g. width, height, depth...
+     * @return the cell at the origin of the board, or null if any dimension is empty.
+     * @throws IllegalArgumentException if the cell is null or the number of dimensions does not match the cell.
+     */
+    public static <S extends Comparable<S>, R extends Rule<S>> Cell<S, R> buildBoard(
+            Cell<S, R> cell,
+            PositionalInitialState<S> initialiser,
+            int... dimensions) {
+
+        return buildBoard(cell, initialiser, null, dimensions);
     }
 
+    /**
+     * Build a board of linked cells, see {@link #buildBoard(Cell, InitialState, int...)}, and record how long it took
+     * and the peak heap used in the supplied report.
+     *
+     * @param cell        - the cell at the origin of the board.
+     * @param initialiser - the object that supplies the state of every other cell.
+     * @param report      - the report that will receive the build statistics, this may be null.
+     * @param dimensions  - the dimensions of the board e.g. width, height, depth...
+     * @return the cell at the origin of the board, or null if any dimension is empty.
+     * @throws IllegalArgumentException if the cell is null or the number of dimensions does not match the cell.
+     */
     public static <S extends Comparable<S>, R extends Rule<S>> Cell<S, R> buildBoard(
             Cell<S, R> cell,
             InitialState<S> initialiser,
+            BuildReport report,
+            int... dimensions) {
+
+        return buildBoard(cell, positional(initialiser), report, dimensions);
+    }
+
+    /**
+     * Build a board of linked cells, see {@link #buildBoard(Cell, PositionalInitialState, int...)}, and record how long
+     * it took and the peak heap used in the supplied report.
+     *
+     * @param cell        - the cell at the origin of the board.
+     * @param initialiser - the object that supplies the state of every other cell.
+     * @param report      - the report that will receive the build statistics, this may be null.
+     * @param dimensions  - the dimensions of the board e.g. width, height, depth...
+     * @return the cell at the origin of the board, or null if any dimension is empty.
+     * @throws IllegalArgumentException if the cell is null or the number of dimensions does not match the cell.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S extends Comparable<S>, R extends Rule<S>> Cell<S, R> buildBoard(
+            Cell<S, R> cell,
+            PositionalInitialState<S> initialiser,
+            BuildReport report,
             int... dimensions) {
 
         if (null == cell) {
@@ -66,38 +528,47 @@ public class Board<S extends Comparable<S>, R extends Rule<S>, I extends Initial
                     "dimensions supported by the supplied cell.");
         }
 
-        boolean stop = false;
+        // If any dimension is empty then there is no board to build.
+        for (int x : dimensions) if (0 >= x) return null;
 
-        // Check to see if any dimension values are less than or equal to zero because if one is then that means we have
-        // reached the edge of the world and should stop building.
-        for (int x : dimensions) if (0 >= x) stop = true;
+        if (null != report) report.start();
 
-        if (stop) return null;
+        Cell<S, R>[] cells = new Cell[volume(dimensions)];
 
-        int[] newDimensions;
-        int[] neighbourCoordinates = new int[dimensions.length];
-        Cell<S, R> neighbour;
-        int[] cellCoordinates = new int[dimensions.length];
-        for (int d = 0; d < dimensions.length; d++) {
+        CellArena<S, R> arena = new CellArena<S, R>(cells, Arrays.copyOf(dimensions, dimensions.length));
+
+        cells[0] = cell;
+
+        int[] coordinates = new int[dimensions.length];
+
+        for (int i = 1; i < cells.length; i++) {
+
+            for (int d = 0; d < dimensions.length && dimensions[d] <= ++coordinates[d]; d++) coordinates[d] = 0;
+
+            cells[i] = new Cell<S, R>(initialiser.state(coordinates), cell.getRules(), arena, i);
+        }
 
-            // Set the coordinates for the neighbour we are going to try and create.
-            Arrays.fill(neighbourCoordinates, 0);
-            neighbourCoordinates[d] = 1;
+        int[] neighbourStrides = calculateNeighbourStrides(calculateStrides(dimensions));
 
-            // If the current neighbour does not already exist then create it recursively.
-            if (null == cell.getNeighbour(neighbourCoordinates)) {
+        // The origin is the only cell that stores its neighbours, those that are on the board have no negative offset.
+        for (int n = 0; n < neighbourStrides.length; n++) {
 
-                neighbour = new Cell<S, R>(initialiser.state(), cell.getRules(), cell.getDimensions(),
-                        cell.findAxisNeighbours(neighbourCoordinates));
+            int[] offset = Cell.calculateNeighbourCoordinates(dimensions.length, n);
 
-                // Decrement the current dimension value so that we will stop recursing at some point.
-                newDimensions = Arrays.copyOf(dimensions, dimensions.length);
-                newDimensions[d]--;
+            boolean onBoard = true;
 
-                cell.setNeighbour(buildBoard(neighbour, initialiser, newDimensions), neighbourCoordinates);
+            for (int d = 0; d < dimensions.length && onBoard; d++) {
+
+                onBoard = 0 <= offset[d] && dimensions[d] > offset[d];
             }
+
+            if (!onBoard) continue;
+
+            cell.setNeighbourAt(cells[neighbourStrides[n]], n);
         }
 
+        if (null != report) report.finish(cells.length);
+
         return cell;
     }
 
@@ -133,7 +604,7 @@ public class Board<S extends Comparable<S>, R extends Rule<S>, I extends Initial
                     dimensions.length + " < " + d);
         }
 
-        return 0;
+        return dimensions[d];
     }
 
     /**
@@ -144,34 +615,1354 @@ public class Board<S extends Comparable<S>, R extends Rule<S>, I extends Initial
      */
     public Board<S, R, I, C> tick() {
 
-        return null;
+        long start = Instrumentation.enabled ? System.nanoTime() : 0;
+
+        if (null != bits) {
+
+            BitBoard next = new BitBoard(bits);
+
+            step(next);
+
+            Board<S, R, I, C> board = new Board<S, R, I, C>(this, null, next);
+
+            board.activeCells = activeCells(bits);
+
+            board.changed(null, bits);
+
+            if (0 != start) board.instrument(start, null, bits);
+
+            return board;
+        }
+
+        int[] nextStates = new int[states.length];
+
+        ChangeSet changes = new ChangeSet(changeCapacity());
+
+        int activeCells = step(nextStates, false, changes);
+
+        Board<S, R, I, C> board = new Board<S, R, I, C>(this, nextStates, null);
+
+        board.changes = changes;
+        board.activeCells = activeCells;
+
+        board.changed(states, null);
+
+        if (0 != start) board.instrument(start, states, null);
+
+        return board;
     }
 
     /**
-     * Retrieve a Cell from the board using the supplied coordinates. This method accepts any number of coordinates.
+     * Advance this board by the supplied number of generations in place. Unlike {@link #tick()} no new board is
+     * created, instead the board owns two state buffers and swaps them after each generation so that a long running
+     * game does not allocate a new generation on every step.
      *
-     * @param x - and arbitrary number of coordinates e.g. x, y, z...
-     * @return the <code>Cell</code> found at the supplied coordinates.
-     * @throws IllegalCoordinateNumber if an incorrect number of coordinates has been supplied. This is so that an
-     *                                 incorrect use of this API fails as early as possible. This is a runtime exceptions so should not be caught.
+     * @param generations - the number of generations to advance.
+     * @return this board, now holding the state of the last generation.
+     * @throws IllegalArgumentException if the number of generations is negative.
      */
-    public C cell(int... x) throws IllegalCoordinateNumber {
+    public Board<S, R, I, C> advance(int generations) {
 
-        if (dimensions.length != x.length) {
+        if (0 > generations) {
 
-            throw new IllegalArgumentException("The number of coordinates is invalid. Expected: "
-                    + dimensions.length + " Actual: " + x.length);
+            throw new IllegalArgumentException("The number of generations cannot be negative: " + generations);
         }
 
-        for (int i = 0; i < x.length; i++) {
+        if (null != bits) {
 
-            if (dimensions[i] <= x[i]) {
+            if (null == nextBits) nextBits = new BitBoard(bits);
 
-                throw new IndexOutOfBoundsException("The supplied coordinate with index " + i +
-                        " is larger than it's related dimension of size " + dimensions[i]);
-            }
-        }
+            BitBoard swap;
+            long start;
+            int block;
+            for (int g = 0; g < generations; g++) {
 
-        return null;
+                block = temporalBlock(generations - g);
+
+                if (1 < block) {
+
+                    bits.step(nextBits, block);
+
+                    activeCells = activeCells(bits);
+
+                    swap = bits;
+                    bits = nextBits;
+                    nextBits = swap;
+
+                    generation += block;
+                    g += block - 1;
+
+                    continue;
+                }
+
+                start = Instrumentation.enabled ? System.nanoTime() : 0;
+
+                step(nextBits);
+
+                activeCells = activeCells(bits);
+
+                swap = bits;
+                bits = nextBits;
+                nextBits = swap;
+
+                generation++;
+
+                changed(null, nextBits);
+
+                if (0 != start) instrument(start, null, nextBits);
+
+                g += fastForward(generations - g - 1);
+            }
+
+            return this;
+        }
+
+        if (null == nextStates) {
+
+            nextStates = new int[states.length];
+            previousInNext = false;
+        }
+
+        int[] swap;
+        ChangeSet swapChanges;
+        long start;
+        for (int g = 0; g < generations; g++) {
+
+            start = Instrumentation.enabled ? System.nanoTime() : 0;
+
+            if (null == nextChanges) nextChanges = new ChangeSet(changeCapacity());
+
+            activeCells = step(nextStates, previousInNext, nextChanges);
+
+            swap = states;
+            states = nextStates;
+            nextStates = swap;
+
+            swapChanges = changes;
+            changes = nextChanges;
+            nextChanges = swapChanges;
+
+            // The spare buffer now holds the previous generation which only differs at the cells that just changed.
+            previousInNext = true;
+
+            generation++;
+
+            changed(nextStates, null);
+
+            if (0 != start) instrument(start, nextStates, null);
+
+            g += fastForward(generations - g - 1);
+        }
+
+        return this;
+    }
+
+    /**
+     * Advance this board in place by 2^k generations in one step using {@see HashLife}. This is only possible for
+     * boards that are played with a single {@see BinaryRule}.
+     * <p/>
+     * HashLife plays the game on an unbounded board, so the result only matches {@link #advance(int)} for patterns that
+     * do not reach the edge of this board within the jump. Any cells that end up off the edge of the board are lost.
+     *
+     * @param k - the power of two of the number of generations to advance.
+     * @return this board, now holding the state of the last generation.
+     * @throws IllegalStateException if the board is not played with a single binary rule.
+     */
+    public Board<S, R, I, C> jump(int k) {
+
+        BinaryRule<S> binaryRule = findBinaryRule(rules, dimensions);
+
+        if (null == bits || null == binaryRule) {
+
+            throw new IllegalStateException("Only a board that is played with a single binary rule can jump.");
+        }
+
+        HashLife life = new HashLife(binaryRule, dimensions.length);
+
+        long[] cell = new long[dimensions.length];
+        int[] coordinates = new int[dimensions.length];
+
+        for (int i = 0, size = size(); i < size; i++) {
+
+            if (bits.get(i)) {
+
+                for (int d = 0; d < dimensions.length; d++) cell[d] = coordinates[d];
+
+                life.set(true, cell);
+            }
+
+            incrementCoordinates(coordinates);
+        }
+
+        life.step(k);
+
+        BitBoard previous = deltaListeners.isEmpty() && null == cycles ? null : bits.copy();
+
+        bits.clear();
+
+        life.forEachAlive(new HashLife.Visitor() {
+
+            @Override
+            public void visit(long[] coordinates) {
+
+                int index = 0;
+
+                for (int d = 0; d < dimensions.length; d++) {
+
+                    if (0 > coordinates[d] || dimensions[d] <= coordinates[d]) return;
+
+                    index += (int) coordinates[d] * strides[d];
+                }
+
+                bits.set(index, true);
+            }
+        });
+
+        generation += 1L << k;
+
+        changed(null, previous);
+
+        // A jump is not a single generation, so the history can not be used to find the period of the board.
+        if (null != cycles) cycles.reset(cycles.getHash(), generation);
+
+        return this;
+    }
+
+    /**
+     * Get the number of cells that had the rules applied to them to produce the current generation. If the board was
+     * ticked sparsely this is the number of cells that changed in the previous generation along with their neighbours.
+     * A bit board steps whole tiles, so for one this is the number of cells in the tiles that were stepped.
+     *
+     * @return the number of cells evaluated, this will be 0 for a board that has not been ticked.
+     */
+    public int getActiveCells() {
+
+        return activeCells;
+    }
+
+    /**
+     * Get the cells that changed to produce the current generation.
+     *
+     * @return the changed cells or null if the changes are not known because the board has not been ticked or is
+     *         played with a binary rule.
+     */
+    public ChangeSet getChanges() {
+
+        return changes;
+    }
+
+    /**
+     * Set the executor that will be used to tick this board, and every generation that is ticked from it, in parallel.
+     *
+     * @param executor - the executor to use or null if the board should always be ticked on the calling thread.
+     */
+    public void setSlabExecutor(SlabExecutor executor) {
+
+        this.executor = executor;
+    }
+
+    /**
+     * Get the executor that is used to tick this board in parallel.
+     *
+     * @return the executor or null if the board is always ticked on the calling thread.
+     */
+    public SlabExecutor getSlabExecutor() {
+
+        return executor;
+    }
+
+    /**
+     * Set the number of generations that {@link #advance(int)} may step a bit board by in a single sweep, see
+     * {@link BitBoard#step(BitBoard, int)}. A dense board is then read and written once for every block of generations
+     * rather than once for every generation, which is where a large board spends its time.
+     * <p/>
+     * The generations inside a block are never seen, so a block is only used while nothing needs them: the board has
+     * no delta listeners, is not looking for cycles, is not instrumented and is not ticked by a {@see SlabExecutor}.
+     * A block is also only used while at least half of the tiles are changing, otherwise stepping a generation at a
+     * time and skipping the quiet tiles is cheaper.
+     *
+     * @param generations - the most generations in a block, 1 steps one generation at a time.
+     * @throws IllegalArgumentException if the number of generations is less than one.
+     */
+    public void setTemporalBlocking(int generations) {
+
+        if (1 > generations) {
+
+            throw new IllegalArgumentException("A block must be at least one generation: " + generations);
+        }
+
+        this.temporalBlocking = generations;
+    }
+
+    /**
+     * Get the most generations that {@link #advance(int)} may step a bit board by in a single sweep.
+     *
+     * @return the number of generations in a block, 1 if the board is stepped one generation at a time.
+     */
+    public int getTemporalBlocking() {
+
+        return temporalBlocking;
+    }
+
+    /**
+     * Add a listener that will be told about the cells that change in every generation that is produced from this
+     * board, whether by ticking, advancing or jumping. Boards ticked from this board share its listeners.
+     *
+     * @param listener - the listener to add.
+     */
+    public void addDeltaListener(DeltaListener listener) {
+
+        deltaListeners.add(listener);
+    }
+
+    /**
+     * Remove a listener that was added to this board or a board that it was ticked from.
+     *
+     * @param listener - the listener to remove.
+     */
+    public void removeDeltaListener(DeltaListener listener) {
+
+        deltaListeners.remove(listener);
+    }
+
+    /**
+     * Start or stop looking for cycles as this board, and every generation that is ticked from it, is played. Each
+     * generation updates a hash of the board from the cells that changed and looks for it in a history of the hashes
+     * of recent generations, see {@see CycleDetector}.
+     *
+     * @param history     - the number of generations to remember, which is the longest period that can be detected, or
+     *                    0 to stop looking for cycles.
+     * @param fastForward - true if {@link #advance(int)} should skip every whole period that is left once the board is
+     *                    known to repeat, since the board will end up in the same state without playing them. No
+     *                    deltas are sent for the skipped generations.
+     * @throws IllegalArgumentException if the history is negative.
+     */
+    public void setCycleDetection(int history, boolean fastForward) {
+
+        if (0 > history) throw new IllegalArgumentException("The history can not be negative: " + history);
+
+        this.fastForward = fastForward;
+
+        if (0 == history) {
+
+            cycles = null;
+
+            return;
+        }
+
+        cycles = new CycleDetector(history);
+
+        long hash = 0;
+
+        if (null != bits) hash = bits.hash();
+
+        else for (int i = 0; i < states.length; i++) hash ^= CycleDetector.key(i, states[i]);
+
+        cycles.reset(hash, generation);
+    }
+
+    /**
+     * Get the period that the board has been found to repeat with. A still life has the period 1.
+     *
+     * @return the period or 0 if the board has not been seen to repeat, or cycle detection is not on.
+     */
+    public long getPeriod() {
+
+        return null == cycles ? 0 : cycles.getPeriod();
+    }
+
+    /**
+     * Get the detector that is looking for cycles on this board.
+     *
+     * @return the cycle detector or null if cycle detection is not on.
+     */
+    public CycleDetector getCycleDetector() {
+
+        return cycles;
+    }
+
+    /**
+     * Get the report of how long it took to build the first generation of this board and the peak heap used. A board
+     * holds no links between its cells, they are found from strides when they are needed.
+     *
+     * @return the build report, or null if the board was not given one.
+     */
+    public BuildReport getBuildReport() {
+
+        return buildReport;
+    }
+
+    /**
+     * Get every state that has been seen on this board in the order of their codes. The first state in the list has
+     * the code 0.
+     *
+     * @return the states.
+     */
+    public List<S> getStates() {
+
+        List<S> states = new ArrayList<S>(palette.size());
+
+        for (int code = 0; code < palette.size(); code++) states.add(palette.decode(code));
+
+        return states;
+    }
+
+    /**
+     * Get the rules that are applied on each tick.
+     *
+     * @return the rules.
+     */
+    public List<R> getRules() {
+
+        return rules;
+    }
+
+    /**
+     * Get the size of every dimension of the board, for a {@see BoardSnapshot}. The array must not be changed.
+     *
+     * @return the dimensions.
+     */
+    int[] getDimensionSizes() {
+
+        return dimensions;
+    }
+
+    /**
+     * Get the packed cells of the board, for a {@see BoardSnapshot}.
+     *
+     * @return the bit board or null if the board is not played with a binary rule.
+     */
+    BitBoard getBits() {
+
+        return bits;
+    }
+
+    /**
+     * Get the state code of every cell on the board, for a {@see BoardSnapshot}.
+     *
+     * @return the state codes or null if the board is played with a binary rule.
+     */
+    int[] getCodes() {
+
+        return states;
+    }
+
+    /**
+     * Get the number of bytes that {@link #storeLayer(int, ByteBuffer)} writes for one layer of the outermost dimension.
+     *
+     * @return the number of bytes in a layer.
+     */
+    int layerBytes() {
+
+        int layers = Math.max(dimensions[dimensions.length - 1], 1);
+
+        return null == bits ? states.length / layers * 4 : bits.getWordCount() / layers * 8;
+    }
+
+    /**
+     * Copy a layer of the outermost dimension into the supplied buffer in the form the board stores it, either as
+     * {@see BitBoard} words or as state codes, for a {@see PartitionWorker} to send to another board of the same shape.
+     *
+     * @param layer       - the index of the layer in the outermost dimension.
+     * @param destination - the buffer that will receive the layer at its position, which is moved on past it.
+     */
+    void storeLayer(int layer, ByteBuffer destination) {
+
+        int length = layerBytes();
+
+        if (null == bits) destination.asIntBuffer().put(states, layer * (length / 4), length / 4);
+
+        else bits.store(destination.asLongBuffer(), layer * (length / 8), length / 8);
+
+        destination.position(destination.position() + length);
+    }
+
+    /**
+     * Replace a layer of the outermost dimension with a layer that was written by {@link #storeLayer(int, ByteBuffer)}.
+     * The cells of the layer that change are added to the cells that changed in the last generation, so the next
+     * generation is still only produced around the changes.
+     *
+     * @param layer  - the index of the layer in the outermost dimension.
+     * @param source - the buffer to read the layer from at its position, which is moved on past it.
+     */
+    void loadLayer(int layer, ByteBuffer source) {
+
+        int length = layerBytes();
+
+        if (null == bits) {
+
+            IntBuffer codes = source.asIntBuffer();
+
+            int code;
+            for (int i = layer * (length / 4), end = i + length / 4; i < end; i++) {
+
+                code = codes.get();
+
+                if (code == states[i]) continue;
+
+                if (0 <= population) {
+
+                    population += (RuleTable.DEAD == states[i] ? 1 : 0) - (RuleTable.DEAD == code ? 1 : 0);
+                }
+
+                states[i] = code;
+
+                if (null != changes) changes.add(i);
+            }
+
+        } else {
+
+            bits.load(source.asLongBuffer(), layer * (length / 8), length / 8);
+        }
+
+        source.position(source.position() + length);
+    }
+
+    /**
+     * Copy the state code of every cell in a layer of the outermost dimension into the supplied buffer.
+     *
+     * @param layer       - the index of the layer in the outermost dimension.
+     * @param destination - the buffer that will receive the codes.
+     */
+    void readLayerCodes(int layer, IntBuffer destination) {
+
+        int cells = size() / Math.max(dimensions[dimensions.length - 1], 1);
+
+        for (int i = layer * cells, end = i + cells; i < end; i++) destination.put(code(i));
+    }
+
+    /**
+     * Replace the state code of every cell in a layer of the outermost dimension with codes from the supplied buffer.
+     *
+     * @param layer  - the index of the layer in the outermost dimension.
+     * @param source - the buffer to read the codes from.
+     * @throws IllegalArgumentException if a code is not one of the codes of the board.
+     */
+    void writeLayerCodes(int layer, IntBuffer source) {
+
+        int cells = size() / Math.max(dimensions[dimensions.length - 1], 1);
+
+        int code;
+        for (int i = layer * cells, end = i + cells; i < end; i++) {
+
+            code = source.get();
+
+            if (0 > code || palette.size() <= code || (null != bits && 1 < code)) {
+
+                throw new IllegalArgumentException("The state code is not one of the codes of the board: " + code);
+            }
+
+            if (null == bits) states[i] = code;
+
+            else bits.set(i, 1 == code);
+        }
+
+        changes = null;
+        population = -1;
+    }
+
+    /**
+     * Get the generation that this board holds. The board that was built from the initial state is generation 0.
+     *
+     * @return the current generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Retrieve a Cell from the board using the supplied coordinates. This method accepts any number of coordinates.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the <code>Cell</code> found at the supplied coordinates.
+     * @throws IllegalCoordinateNumber if an incorrect number of coordinates has been supplied. This is so that an
+     *                                 incorrect use of this API fails as early as possible. This is a runtime exceptions so should not be caught.
+     */
+    @SuppressWarnings("unchecked")
+    public C cell(int... x) throws IllegalCoordinateNumber {
+
+        return (C) materialise(index(x), x);
+    }
+
+    /**
+     * Get the state of the cell at the supplied coordinates without creating a <code>Cell</code> for it.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the state of the cell found at the supplied coordinates.
+     * @throws IllegalCoordinateNumber if an incorrect number of coordinates has been supplied.
+     */
+    public S state(int... x) throws IllegalCoordinateNumber {
+
+        return palette.decode(code(index(x)));
+    }
+
+    /**
+     * Get the total number of cells on the board.
+     *
+     * @return the number of cells.
+     */
+    public int size() {
+
+        return volume(dimensions);
+    }
+
+    /**
+     * Count the cells that are not dead. Only a board that is played with a {@see RuleTable} or a single
+     * {@see BinaryRule} knows which of its states is dead, for a rule table it is the first state and every other state
+     * is counted.
+     * <p/>
+     * The whole board is only counted the first time, after that the count is kept up to date from the cells that
+     * change in each generation.
+     *
+     * @return the population of the board.
+     * @throws IllegalStateException if the board is not played with a rule table or a binary rule.
+     */
+    public long population() {
+
+        if (null != bits) return bits.population();
+
+        if (null == table) {
+
+            throw new IllegalStateException("Only a board that is played with a rule table or a binary rule knows " +
+                    "which cells are dead.");
+        }
+
+        if (0 > population) {
+
+            population = 0;
+
+            for (int state : states) if (RuleTable.DEAD != state) population++;
+        }
+
+        return population;
+    }
+
+    /**
+     * Calculate the index within the flat state array of the cell at the supplied coordinates.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the index of the cell.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if any of the coordinates are outside of the board.
+     */
+    private int index(int... x) {
+
+        if (dimensions.length != x.length) {
+
+            throw new IllegalCoordinateNumber("The number of coordinates is invalid. Expected: "
+                    + dimensions.length + " Actual: " + x.length, dimensions.length);
+        }
+
+        int index = 0;
+
+        for (int i = 0; i < x.length; i++) {
+
+            if (dimensions[i] <= x[i] || 0 > x[i]) {
+
+                throw new IndexOutOfBoundsException("The supplied coordinate with index " + i +
+                        " is outside of it's related dimension of size " + dimensions[i]);
+            }
+
+            index += x[i] * strides[i];
+        }
+
+        return index;
+    }
+
+    /**
+     * Produce the next generation in the supplied buffer and record the cells that changed. If few enough cells changed
+     * in the last generation only they and their neighbours have the rules applied, otherwise every cell does.
+     *
+     * @param nextStates  - the buffer that will receive the next generation, it must not be the current state array.
+     * @param previous    - true if the buffer holds the previous generation, which means it only differs from the
+     *                    current generation at the cells that are in the current change set.
+     * @param nextChanges - the change set that will receive the cells that change.
+     * @return the number of cells that the rules were applied to.
+     */
+    private int step(int[] nextStates, boolean previous, ChangeSet nextChanges) {
+
+        nextChanges.clear();
+
+        if (null != changes && !changes.isOverflowed()
+                && (long) changes.size() * (neighbourStrides.length + 1) < states.length) {
+
+            if (previous) {
+
+                for (int i = 0; i < changes.size(); i++) nextStates[changes.get(i)] = states[changes.get(i)];
+
+            } else {
+
+                System.arraycopy(states, 0, nextStates, 0, states.length);
+            }
+
+            return stepActive(nextStates, nextChanges);
+        }
+
+        step(nextStates);
+
+        for (int i = 0; i < states.length && !nextChanges.isOverflowed(); i++) {
+
+            if (nextStates[i] != states[i]) nextChanges.add(i);
+        }
+
+        return states.length;
+    }
+
+    /**
+     * Apply the rules to the cells that changed in the last generation and their neighbours. The supplied buffer must
+     * already hold the current generation.
+     *
+     * @param nextStates  - the buffer that will receive the next generation.
+     * @param nextChanges - the change set that will receive the cells that change.
+     * @return the number of cells that the rules were applied to.
+     */
+    private int stepActive(int[] nextStates, ChangeSet nextChanges) {
+
+        if (null == activeMarks) activeMarks = new long[(states.length + 63) >>> 6];
+
+        int[] coordinates = new int[dimensions.length];
+        int[] neighbour = new int[dimensions.length];
+
+        int active = 0;
+
+        int cell;
+        for (int i = 0; i < changes.size(); i++) {
+
+            cell = changes.get(i);
+
+            toCoordinates(cell, coordinates);
+
+            active += activate(cell, coordinates, nextStates, nextChanges);
+
+            for (int n = 0; n < neighbourStrides.length; n++) {
+
+                if (isOnBoard(coordinates, neighbourCoordinates[n])) {
+
+                    for (int d = 0; d < dimensions.length; d++) {
+
+                        neighbour[d] = coordinates[d] + neighbourCoordinates[n][d];
+                    }
+
+                    active += activate(cell + neighbourStrides[n], neighbour, nextStates, nextChanges);
+                }
+            }
+        }
+
+        // Only the marks around the changed cells were set so only they need to be cleared.
+        for (int i = 0; i < changes.size(); i++) {
+
+            cell = changes.get(i);
+
+            toCoordinates(cell, coordinates);
+
+            activeMarks[cell >>> 6] = 0;
+
+            for (int n = 0; n < neighbourStrides.length; n++) {
+
+                if (isOnBoard(coordinates, neighbourCoordinates[n])) activeMarks[(cell + neighbourStrides[n]) >>> 6] = 0;
+            }
+        }
+
+        return active;
+    }
+
+    /**
+     * Apply the rules to the cell at the supplied index unless it has already had them applied this generation.
+     *
+     * @param index       - the index of the cell.
+     * @param coordinates - the coordinates of the cell.
+     * @param nextStates  - the buffer that will receive the next generation.
+     * @param nextChanges - the change set that will receive the cell if it changes.
+     * @return 1 if the rules were applied to the cell, otherwise 0.
+     */
+    private int activate(int index, int[] coordinates, int[] nextStates, ChangeSet nextChanges) {
+
+        long mark = 1L << index;
+
+        if (0 != (activeMarks[index >>> 6] & mark)) return 0;
+
+        activeMarks[index >>> 6] |= mark;
+
+        nextStates[index] = next(index, coordinates);
+
+        if (nextStates[index] != states[index]) nextChanges.add(index);
+
+        return 1;
+    }
+
+    /**
+     * Get the number of changes a change set can hold before a sparse tick would cost as much as ticking every cell.
+     *
+     * @return the change set capacity.
+     */
+    private int changeCapacity() {
+
+        return states.length / (neighbourStrides.length + 1);
+    }
+
+    /**
+     * Calculate the coordinates of the cell at the supplied index.
+     *
+     * @param index       - the index of the cell.
+     * @param coordinates - the array that will receive the coordinates.
+     */
+    private void toCoordinates(int index, int[] coordinates) {
+
+        for (int d = 0; d < dimensions.length; index /= dimensions[d], d++) coordinates[d] = index % dimensions[d];
+    }
+
+    /**
+     * Apply the rules to every cell on the board and write the resulting state codes into the supplied buffer. If the
+     * board has a {@see SlabExecutor} the cells are split into slabs along the outermost dimension.
+     *
+     * @param nextStates - the buffer that will receive the next generation, it must not be the current state array.
+     */
+    private void step(final int[] nextStates) {
+
+        if (null != kernel) {
+
+            stepStencil(nextStates);
+
+            return;
+        }
+
+        if (null == executor || 0 == dimensions.length) {
+
+            step(nextStates, 0, states.length);
+
+            return;
+        }
+
+        final int outerStride = strides[dimensions.length - 1];
+
+        executor.tick(dimensions[dimensions.length - 1], states.length, new SlabExecutor.Slab() {
+
+            @Override
+            public void tick(int from, int to) {
+
+                step(nextStates, from * outerStride, to * outerStride);
+            }
+        });
+    }
+
+    /**
+     * Count the alive neighbours of every cell with the stencil kernel and then look the next state of every cell up
+     * in the rule table. Each phase of the kernel is split into slabs along the outermost dimension if the board has a
+     * {@see SlabExecutor}, and every slab of a phase finishes before the next phase starts.
+     *
+     * @param nextStates - the buffer that will receive the next generation, it must not be the current state array.
+     */
+    private void stepStencil(final int[] nextStates) {
+
+        if (null == counts) {
+
+            counts = new int[states.length];
+            scratch = new int[states.length];
+        }
+
+        final int passes = dimensions.length;
+
+        for (int phase = 0; phase <= passes + 1; phase++) {
+
+            if (null == executor || 0 == passes) {
+
+                stencilPhase(phase, nextStates, 0, states.length);
+
+                continue;
+            }
+
+            final int p = phase;
+            final int outerStride = strides[passes - 1];
+
+            executor.tick(dimensions[passes - 1], states.length, new SlabExecutor.Slab() {
+
+                @Override
+                public void tick(int from, int to) {
+
+                    stencilPhase(p, nextStates, from * outerStride, to * outerStride);
+                }
+            });
+        }
+    }
+
+    /**
+     * Run one phase of the stencil kernel over the supplied range of cells. Phase 0 marks the alive cells, the phases
+     * after it sum one dimension each and the last phase looks the next states up. The sums alternate between the two
+     * buffers so that the last sum always ends up in the counts.
+     *
+     * @param phase      - the phase to run.
+     * @param nextStates - the buffer that will receive the next generation.
+     * @param from       - the index of the first cell.
+     * @param to         - the index after the last cell.
+     */
+    private void stencilPhase(int phase, int[] nextStates, int from, int to) {
+
+        int passes = dimensions.length;
+
+        if (0 == phase) {
+
+            kernel.mark(states, RuleTable.ALIVE, 0 == passes % 2 ? counts : scratch, from, to);
+
+        } else if (passes >= phase) {
+
+            kernel.sum(phase - 1,
+                    0 == (passes - phase + 1) % 2 ? counts : scratch,
+                    0 == (passes - phase) % 2 ? counts : scratch,
+                    from, to);
+
+        } else {
+
+            kernel.unmark(states, RuleTable.ALIVE, counts, from, to);
+
+            for (int i = from; i < to; i++) nextStates[i] = table.next(states[i], counts[i]);
+        }
+    }
+
+    /**
+     * Apply the rules to the supplied range of cells and write the resulting state codes into the supplied buffer.
+     *
+     * @param nextStates - the buffer that will receive the next generation, it must not be the current state array.
+     * @param from       - the index of the first cell to apply the rules to.
+     * @param to         - the index after the last cell to apply the rules to.
+     */
+    private void step(int[] nextStates, int from, int to) {
+
+        int[] coordinates = new int[dimensions.length];
+
+        toCoordinates(from, coordinates);
+
+        for (int i = from; i < to; i++) {
+
+            nextStates[i] = next(i, coordinates);
+
+            incrementCoordinates(coordinates);
+        }
+    }
+
+    /**
+     * Work out the state code that the cell at the supplied index will have in the next generation.
+     *
+     * @param index       - the index of the cell in the flat state array.
+     * @param coordinates - the coordinates of the cell, these must match the index.
+     * @return the next state code of the cell.
+     */
+    private int next(int index, int[] coordinates) {
+
+        if (null == table) return null == ruleCaches ? apply(index, coordinates) : recall(index, coordinates);
+
+        int count = 0;
+
+        if (isInterior(coordinates)) {
+
+            for (int stride : neighbourStrides) if (RuleTable.ALIVE == states[index + stride]) count++;
+
+        } else {
+
+            for (int n = 0; n < neighbourStrides.length; n++) {
+
+                if (isOnBoard(coordinates, neighbourCoordinates[n])
+                        && RuleTable.ALIVE == states[index + neighbourStrides[n]]) count++;
+            }
+        }
+
+        return table.next(states[index], count);
+    }
+
+    /**
+     * Apply the rules to the cell at the supplied index.
+     *
+     * @param index       - the index of the cell in the flat state array.
+     * @param coordinates - the coordinates of the cell, these must match the index.
+     * @return the next state code of the cell.
+     */
+    private int apply(int index, int[] coordinates) {
+
+        return palette.encode(materialise(index, coordinates).getNextState());
+    }
+
+    /**
+     * Look the next state code of the cell at the supplied index up in the {@see RuleCache} of the current thread by
+     * the signature of its neighbourhood, and only apply the rules if the signature is not there. Each code of the
+     * signature is one more than the state code so that a neighbour off the edge of the board can be 0. If the
+     * palette has so many codes that the signature would not fit in a long the rules are always applied.
+     *
+     * @param index       - the index of the cell in the flat state array.
+     * @param coordinates - the coordinates of the cell, these must match the index.
+     * @return the next state code of the cell.
+     */
+    private int recall(int index, int[] coordinates) {
+
+        int width = 32 - Integer.numberOfLeadingZeros(palette.size());
+
+        if (64 < width * (neighbourStrides.length + 1)) return apply(index, coordinates);
+
+        RuleCache cache = ruleCaches.get();
+
+        if (width != cache.getWidth()) cache.clear(width);
+
+        long signature = states[index] + 1;
+
+        if (isInterior(coordinates)) {
+
+            for (int stride : neighbourStrides) signature = signature << width | states[index + stride] + 1;
+
+        } else {
+
+            for (int n = 0; n < neighbourStrides.length; n++) {
+
+                signature <<= width;
+
+                if (isOnBoard(coordinates, neighbourCoordinates[n])) {
+
+                    signature |= states[index + neighbourStrides[n]] + 1;
+                }
+            }
+        }
+
+        int code = cache.get(signature);
+
+        if (0 > code) {
+
+            code = apply(index, coordinates);
+
+            cache.put(signature, code);
+        }
+
+        return code;
+    }
+
+    /**
+     * Check to see if every neighbour of the cell at the supplied coordinates is on the board.
+     *
+     * @param coordinates - the coordinates of the cell.
+     * @return true if the cell is not on the edge of the board.
+     */
+    private boolean isInterior(int[] coordinates) {
+
+        for (int d = 0; d < coordinates.length; d++) {
+
+            if (0 == coordinates[d] || dimensions[d] - 1 == coordinates[d]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Step the packed cells into the supplied bit board. If the board has a {@see SlabExecutor} the rows are split
+     * into slabs along the outermost dimension.
+     *
+     * @param next - the bit board that will receive the next generation.
+     */
+    private void step(final BitBoard next) {
+
+        if (null == executor || 2 > dimensions.length) {
+
+            bits.step(next);
+
+            return;
+        }
+
+        final int outerRows = bits.getRows() / Math.max(dimensions[dimensions.length - 1], 1);
+
+        bits.prepare(next);
+
+        executor.tick(dimensions[dimensions.length - 1], size(), new SlabExecutor.Slab() {
+
+            @Override
+            public void tick(int from, int to) {
+
+                bits.step(next, from * outerRows, to * outerRows);
+            }
+        });
+    }
+
+    /**
+     * Estimate the number of cells that were evaluated by the last step of the supplied bit board. Only the tiles that
+     * were stepped were evaluated, the rest were copied, so the estimate is the share of the board in those tiles.
+     *
+     * @param stepped - the bit board that was stepped.
+     * @return the number of cells in the stepped tiles.
+     */
+    private int activeCells(BitBoard stepped) {
+
+        if (0 == stepped.getTileCount()) return size();
+
+        return (int) ((long) size() * stepped.getActiveTiles() / stepped.getTileCount());
+    }
+
+    /**
+     * Create a <code>Cell</code> for the state at the supplied index along with cells for all of its neighbours that
+     * are on the board. Any neighbours that would be off the edge of the board are left as null. The neighbours only
+     * hold their state, they share one empty array of neighbours rather than each allocating a full one.
+     *
+     * @param index       - the index of the cell in the flat state array.
+     * @param coordinates - the coordinates of the cell, these must match the index.
+     * @return the new cell.
+     */
+    @SuppressWarnings("unchecked")
+    private Cell<S, R> materialise(int index, int[] coordinates) {
+
+        Cell<S, R>[] neighbours = new Cell[neighbourStrides.length];
+
+        for (int n = 0; n < neighbourStrides.length; n++) {
+
+            if (isOnBoard(coordinates, neighbourCoordinates[n])) {
+
+                neighbours[n] = new Cell<S, R>(palette.decode(code(index + neighbourStrides[n])), rules,
+                        (Cell<S, R>[]) NO_NEIGHBOURS);
+            }
+        }
+
+        return new Cell<S, R>(palette.decode(code(index)), rules, neighbours);
+    }
+
+    /**
+     * Count the generation that was just produced with the {@see Instrumentation}. A board that applies a
+     * {@see RuleTable} to every cell at once counts the rule and the neighbour lookups here, any other board has them
+     * counted by its cells.
+     *
+     * @param start          - the time the generation was started, from {@link System#nanoTime()}.
+     * @param previousStates - the state codes of the previous generation, or null for a bit board.
+     * @param previousBits   - the bits of the previous generation, or null if the board is not a bit board.
+     */
+    private void instrument(long start, int[] previousStates, BitBoard previousBits) {
+
+        long nanos = System.nanoTime() - start;
+
+        long evaluated = activeCells;
+        long changed = 0;
+
+        if (null != bits) {
+
+            changed = bits.countDifference(previousBits);
+
+        } else if (null != changes && !changes.isOverflowed()) {
+
+            for (int i = 0; i < changes.size(); i++) {
+
+                if (previousStates[changes.get(i)] != states[changes.get(i)]) changed++;
+            }
+
+        } else {
+
+            for (int i = 0; i < states.length; i++) if (previousStates[i] != states[i]) changed++;
+        }
+
+        Instrumentation instrumentation = Instrumentation.getInstance();
+
+        boolean bulk = null != bits || null != table;
+
+        if (bulk) instrumentation.rule(rules.get(0)).applied(evaluated, changed);
+
+        instrumentation.tick(nanos, evaluated, changed, bulk ? evaluated * neighbourStrides.length : 0);
+    }
+
+    /**
+     * Keep the population up to date from the cells that changed to produce the current generation. If the changes are
+     * not all known the population is counted again the next time it is asked for.
+     *
+     * @param previousStates - the state codes of the previous generation.
+     */
+    private void countChanges(int[] previousStates) {
+
+        if (null == changes || changes.isOverflowed()) {
+
+            population = -1;
+
+            return;
+        }
+
+        int index;
+        for (int i = 0; i < changes.size(); i++) {
+
+            index = changes.get(i);
+
+            population += (RuleTable.DEAD == previousStates[index] ? 1 : 0) - (RuleTable.DEAD == states[index] ? 1 : 0);
+        }
+    }
+
+    /**
+     * Update the population, the cycle detector and the delta listeners with the cells that changed to produce the
+     * current generation. The change set is used when it holds every change, otherwise the current generation is
+     * compared with the previous one.
+     *
+     * @param previousStates - the state codes of the previous generation, or null for a bit board.
+     * @param previousBits   - the bits of the previous generation, or null if the board is not a bit board.
+     */
+    private void changed(int[] previousStates, BitBoard previousBits) {
+
+        if (null == bits && 0 <= population) countChanges(previousStates);
+
+        if (null != cycles) {
+
+            if (null != bits) {
+
+                cycles.change(bits.hashDifference(previousBits));
+
+            } else if (null != changes && !changes.isOverflowed()) {
+
+                int index;
+                for (int i = 0; i < changes.size(); i++) {
+
+                    index = changes.get(i);
+
+                    cycles.change(index, previousStates[index], states[index]);
+                }
+
+            } else {
+
+                for (int i = 0; i < states.length; i++) {
+
+                    if (states[i] != previousStates[i]) cycles.change(i, previousStates[i], states[i]);
+                }
+            }
+
+            cycles.record(generation);
+        }
+
+        if (deltaListeners.isEmpty()) return;
+
+        int[] indices;
+
+        if (null != bits) {
+
+            indices = bits.difference(previousBits);
+
+        } else if (null != changes && !changes.isOverflowed()) {
+
+            indices = new int[changes.size()];
+
+            for (int i = 0; i < indices.length; i++) indices[i] = changes.get(i);
+
+        } else {
+
+            int count = 0;
+
+            for (int i = 0; i < states.length; i++) if (states[i] != previousStates[i]) count++;
+
+            indices = new int[count];
+
+            for (int i = 0, c = 0; c < count; i++) if (states[i] != previousStates[i]) indices[c++] = i;
+        }
+
+        int[] codes = new int[indices.length];
+
+        for (int i = 0; i < indices.length; i++) codes[i] = code(indices[i]);
+
+        BoardDelta delta = new BoardDelta(generation, dimensions, indices, codes);
+
+        for (DeltaListener listener : deltaListeners) listener.delta(delta);
+    }
+
+    /**
+     * Work out how many generations the bit board can be stepped by in one sweep.
+     *
+     * @param remaining - the number of generations that are left to advance.
+     * @return the number of generations in the next block, 1 if the next generation must be stepped on its own.
+     */
+    private int temporalBlock(int remaining) {
+
+        if (1 == temporalBlocking || null != executor || !deltaListeners.isEmpty() || null != cycles
+                || Instrumentation.enabled || 2 * bits.getDirtyTiles() < bits.getTileCount()) return 1;
+
+        return Math.min(temporalBlocking, remaining);
+    }
+
+    /**
+     * Skip every whole period of the board that fits into the remaining generations, if the board is fast forwarding
+     * and is known to repeat.
+     *
+     * @param remaining - the number of generations that are left to advance.
+     * @return the number of generations that were skipped.
+     */
+    private int fastForward(int remaining) {
+
+        if (!fastForward || null == cycles || 0 == cycles.getPeriod() || cycles.getPeriod() > remaining) return 0;
+
+        int skip = (int) (remaining - remaining % cycles.getPeriod());
+
+        generation += skip;
+
+        cycles.skip(skip);
+
+        return skip;
+    }
+
+    /**
+     * Get the state code of the cell at the supplied index from whichever storage the board is using.
+     *
+     * @param index - the index of the cell in row-major order.
+     * @return the state code of the cell.
+     */
+    private int code(int index) {
+
+        return null == bits ? states[index] : bits.get(index) ? 1 : 0;
+    }
+
+    /**
+     * Check to see if the neighbour at the supplied neighbour coordinates is on the board.
+     *
+     * @param coordinates          - the coordinates of the current cell.
+     * @param neighbourCoordinates - the coordinates of the neighbour where the current cell is (0,0).
+     * @return true if the neighbour is on the board.
+     */
+    private boolean isOnBoard(int[] coordinates, int[] neighbourCoordinates) {
+
+        int c;
+        for (int d = 0; d < coordinates.length; d++) {
+
+            c = coordinates[d] + neighbourCoordinates[d];
+
+            if (0 > c || dimensions[d] <= c) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Increment the supplied coordinates in place so that they follow the row-major order of the flat state array.
+     *
+     * @param coordinates - the coordinates to increment.
+     */
+    private void incrementCoordinates(int[] coordinates) {
+
+        for (int d = 0; d < coordinates.length && dimensions[d] <= ++coordinates[d]; d++) coordinates[d] = 0;
+    }
+
+    /**
+     * Wrap the supplied initial state so that it can be read like a {@see PositionalInitialState}. The coordinates are
+     * ignored and the initial state just supplies its next state, so the cells must be read in row-major order.
+     *
+     * @param initialState - the initial state of the board, this may be null.
+     * @return the wrapped initial state, or null if the initial state is null.
+     */
+    static <S extends Comparable<S>> PositionalInitialState<S> positional(final InitialState<S> initialState) {
+
+        if (null == initialState) return null;
+
+        return new PositionalInitialState<S>() {
+
+            @Override
+            public S state(int... x) {
+
+                return initialState.state();
+            }
+        };
+    }
+
+    /**
+     * Calculate the number of cells contained within the supplied dimensions.
+     *
+     * @param dimensions - the dimensions of the board e.g. width, height, depth...
+     * @return the number of cells.
+     */
+    static int volume(int... dimensions) {
+
+        int volume = 1;
+
+        for (int size : dimensions) volume *= size;
+
+        return volume;
     }
 }
@@ -0,0 +1,167 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This holds the cells that changed to produce one generation of a {@see Board}, as two packed primitive arrays: the
+ * row-major index of each changed cell and its new state code. The codes are the codes of the board's states, see
+ * {@link Board#getStates()}, so a binary board only ever has the codes 0 for dead and 1 for alive.
+ * <p/>
+ * Applying every delta in order to a copy of the board's initial generation reproduces each generation of the board,
+ * without the copy ever being sent again.
+ */
+public class BoardDelta {
+
+    private final long generation;
+
+    private final int[] dimensions;
+
+    private final int[] indices;
+
+    private final int[] codes;
+
+
+    /**
+     * Construct a new <code>BoardDelta</code>. The arrays are kept rather than copied.
+     *
+     * @param generation - the generation that the changes produced.
+     * @param dimensions - the dimensions of the board.
+     * @param indices    - the row-major index of each cell that changed.
+     * @param codes      - the new state code of each cell that changed.
+     * @throws IllegalArgumentException if there are not as many codes as indices.
+     */
+    public BoardDelta(long generation, int[] dimensions, int[] indices, int[] codes) {
+
+        if (indices.length != codes.length) {
+
+            throw new IllegalArgumentException("Every changed cell needs a code: " +
+                    indices.length + " != " + codes.length);
+        }
+
+        this.generation = generation;
+        this.dimensions = dimensions;
+        this.indices = indices;
+        this.codes = codes;
+    }
+
+
+    /**
+     * Merge two deltas into one that takes a board from before the earlier delta straight to after the later one.
+     *
+     * @param earlier - the earlier delta.
+     * @param later   - the later delta.
+     * @return the merged delta, with its cells in ascending index order.
+     */
+    public static BoardDelta merge(BoardDelta earlier, BoardDelta later) {
+
+        LongIntHashMap cells = new LongIntHashMap(earlier.size() + later.size());
+
+        for (int i = 0; i < earlier.size(); i++) cells.put(earlier.indices[i], earlier.codes[i]);
+
+        for (int i = 0; i < later.size(); i++) cells.put(later.indices[i], later.codes[i]);
+
+        int[] indices = new int[cells.size()];
+
+        for (int slot = 0, i = 0; slot < cells.capacity(); slot++) {
+
+            if (cells.isUsed(slot)) indices[i++] = (int) cells.keyAt(slot);
+        }
+
+        Arrays.sort(indices);
+
+        int[] codes = new int[indices.length];
+
+        for (int i = 0; i < indices.length; i++) codes[i] = cells.get(indices[i], 0);
+
+        return new BoardDelta(later.generation, later.dimensions, indices, codes);
+    }
+
+    /**
+     * Get the generation that the changes produced.
+     *
+     * @return the generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the number of cells that changed.
+     *
+     * @return the number of changes.
+     */
+    public int size() {
+
+        return indices.length;
+    }
+
+    /**
+     * Get the row-major index of the cell at the supplied position in the delta.
+     *
+     * @param i - the position of the change.
+     * @return the index of the cell.
+     */
+    public int getIndex(int i) {
+
+        return indices[i];
+    }
+
+    /**
+     * Get the new state code of the cell at the supplied position in the delta.
+     *
+     * @param i - the position of the change.
+     * @return the state code of the cell.
+     */
+    public int getCode(int i) {
+
+        return codes[i];
+    }
+
+    /**
+     * Calculate the coordinates of the cell at the supplied position in the delta.
+     *
+     * @param i           - the position of the change.
+     * @param coordinates - the array that will receive the coordinates.
+     */
+    public void getCoordinates(int i, int[] coordinates) {
+
+        for (int d = 0, index = indices[i]; d < dimensions.length; index /= dimensions[d], d++) {
+
+            coordinates[d] = index % dimensions[d];
+        }
+    }
+
+    /**
+     * Get the index of every changed cell. The array is shared and must not be changed.
+     *
+     * @return the indices.
+     */
+    public int[] getIndices() {
+
+        return indices;
+    }
+
+    /**
+     * Get the new state code of every changed cell. The array is shared and must not be changed.
+     *
+     * @return the codes.
+     */
+    public int[] getCodes() {
+
+        return codes;
+    }
+
+    /**
+     * Get the dimensions of the board. The array is shared and must not be changed.
+     *
+     * @return the dimensions.
+     */
+    public int[] getDimensions() {
+
+        return dimensions;
+    }
+}
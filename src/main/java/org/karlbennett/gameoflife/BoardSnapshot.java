@@ -0,0 +1,355 @@
+package org.karlbennett.gameoflife;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This writes a {@see Board} to a binary snapshot file and reads it back again. The file is written and read through
+ * memory mapped buffers, so the cells are moved between the board and the file with bulk copies of whole words and
+ * no objects are created for them.
+ * <p/>
+ * A snapshot starts with a header:
+ * <ul>
+ * <li>the magic number <code>GOLS</code> and the format version, always big endian;</li>
+ * <li>the byte order of the rest of the file, which is the native order of the machine that wrote it;</li>
+ * <li>the state encoding, either one bit per cell or one int code per cell;</li>
+ * <li>the number of dimensions and the size of each of them;</li>
+ * <li>the generation of the board;</li>
+ * <li>the rule id, which must match the rules the snapshot is read back with;</li>
+ * <li>the states of the board in code order, written as strings so they can be checked when the snapshot is read.</li>
+ * </ul>
+ * The cells follow the header, starting on an eight byte boundary. A bit encoded board is written as the words of its
+ * {@see BitBoard} and any other board as the state code of every cell in row-major order.
+ */
+public class BoardSnapshot {
+
+    /**
+     * The first four bytes of every snapshot, <code>GOLS</code>.
+     */
+    public static final int MAGIC = 0x474F4C53;
+
+    /**
+     * The version of the snapshot format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The encoding where every cell is a bit in the words of a {@see BitBoard}.
+     */
+    public static final byte ENCODING_BITS = 0;
+
+    /**
+     * The encoding where every cell is an int state code.
+     */
+    public static final byte ENCODING_CODES = 1;
+
+    /**
+     * The largest part of a file that is mapped at once, so that snapshots can be larger than a single buffer.
+     */
+    private static final int CHUNK = 1 << 30;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+
+    private BoardSnapshot() {
+    }
+
+
+    /**
+     * Build the id of the supplied rules. A {@see RuleTable} is identified by its rulestring and any other rule by its
+     * class name.
+     *
+     * @param rules - the rules of a board.
+     * @return the rule id.
+     */
+    public static String ruleId(List<? extends Rule<?>> rules) {
+
+        if (null == rules) return "";
+
+        StringBuilder id = new StringBuilder();
+
+        for (Rule<?> rule : rules) {
+
+            if (0 < id.length()) id.append(',');
+
+            id.append(rule instanceof RuleTable ? rule.toString() : null == rule ? "null" : rule.getClass().getName());
+        }
+
+        return id.toString();
+    }
+
+    /**
+     * Write a snapshot of the supplied board to the supplied file, replacing anything that is already in the file.
+     *
+     * @param board - the board to write.
+     * @param file  - the file to write the snapshot to.
+     * @throws IOException if the snapshot could not be written.
+     */
+    public static void write(Board<?, ?, ?, ?> board, File file) throws IOException {
+
+        ByteOrder order = ByteOrder.nativeOrder();
+
+        BitBoard bits = board.getBits();
+
+        byte[] header = header(board, order, null == bits ? ENCODING_CODES : ENCODING_BITS);
+
+        long length = null == bits ? (long) board.getCodes().length * 4 : (long) bits.getWordCount() * 8;
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+
+        try {
+
+            FileChannel channel = raf.getChannel();
+
+            raf.setLength(header.length + length);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, header.length);
+            buffer.put(header);
+            buffer.force();
+
+            int elementSize = null == bits ? 4 : 8;
+            int elements = (int) (length / elementSize);
+            int perChunk = CHUNK / elementSize;
+
+            for (int from = 0; from < elements; from += perChunk) {
+
+                int count = Math.min(perChunk, elements - from);
+
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+                        header.length + (long) from * elementSize, (long) count * elementSize);
+                buffer.order(order);
+
+                if (null == bits) buffer.asIntBuffer().put(board.getCodes(), from, count);
+
+                else bits.store(buffer.asLongBuffer(), from, count);
+
+                buffer.force();
+            }
+
+        } finally {
+
+            raf.close();
+        }
+    }
+
+    /**
+     * Read a board back from the supplied snapshot file.
+     *
+     * @param file   - the snapshot file.
+     * @param rules  - the rules the board will be played with, these must have the rule id that was written.
+     * @param states - the states of the board in code order, these must match the states that were written.
+     * @return the board held in the snapshot.
+     * @throws IOException              if the snapshot could not be read.
+     * @throws IllegalArgumentException if the file is not a snapshot, or the rules or states do not match it.
+     */
+    public static <S extends Comparable<S>, R extends Rule<S>, I extends InitialState<S>, C extends Cell<S, R>>
+    Board<S, R, I, C> read(File file, List<R> rules, List<S> states) throws IOException {
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+
+            FileChannel channel = raf.getChannel();
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), CHUNK));
+
+            if (16 > buffer.remaining() || MAGIC != buffer.getInt()) {
+
+                throw new IllegalArgumentException("The file is not a board snapshot: " + file);
+            }
+
+            int version = buffer.getInt();
+
+            if (VERSION != version) {
+
+                throw new IllegalArgumentException("The snapshot version " + version + " is not supported: " + file);
+            }
+
+            ByteOrder order = 0 == buffer.get() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+            buffer.order(order);
+
+            byte encoding = buffer.get();
+
+            buffer.getShort();
+
+            int[] dimensions = new int[buffer.getInt()];
+
+            for (int d = 0; d < dimensions.length; d++) dimensions[d] = buffer.getInt();
+
+            long generation = buffer.getLong();
+
+            String ruleId = readString(buffer);
+
+            if (!ruleId.equals(ruleId(rules))) {
+
+                throw new IllegalArgumentException("The snapshot was written with the rules " + ruleId +
+                        " not " + ruleId(rules));
+            }
+
+            List<String> writtenStates = new ArrayList<String>();
+
+            for (int s = buffer.getInt(); s > 0; s--) writtenStates.add(readString(buffer));
+
+            List<String> suppliedStates = new ArrayList<String>();
+
+            for (S state : states) suppliedStates.add(String.valueOf(state));
+
+            if (!writtenStates.equals(suppliedStates)) {
+
+                throw new IllegalArgumentException("The snapshot was written with the states " + writtenStates +
+                        " not " + suppliedStates);
+            }
+
+            int dataStart = align(buffer.position());
+
+            Board<S, R, I, C> board = new Board<S, R, I, C>(rules, null, states, generation, null, dimensions);
+
+            BitBoard bits = board.getBits();
+
+            if ((null == bits ? ENCODING_CODES : ENCODING_BITS) != encoding) {
+
+                throw new IllegalArgumentException("The snapshot encoding " + encoding +
+                        " does not match the rules it is being read with.");
+            }
+
+            int elementSize = null == bits ? 4 : 8;
+            int elements = null == bits ? board.getCodes().length : bits.getWordCount();
+            int perChunk = CHUNK / elementSize;
+
+            if (channel.size() < dataStart + (long) elements * elementSize) {
+
+                throw new IllegalArgumentException("The snapshot is too short for its dimensions: " + file);
+            }
+
+            for (int from = 0; from < elements; from += perChunk) {
+
+                int count = Math.min(perChunk, elements - from);
+
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        dataStart + (long) from * elementSize, (long) count * elementSize);
+                buffer.order(order);
+
+                if (null == bits) buffer.asIntBuffer().get(board.getCodes(), from, count);
+
+                else bits.load(buffer.asLongBuffer(), from, count);
+            }
+
+            if (null == bits) {
+
+                for (int code : board.getCodes()) {
+
+                    if (0 > code || states.size() <= code) {
+
+                        throw new IllegalArgumentException("The snapshot holds the unknown state code " + code);
+                    }
+                }
+            }
+
+            return board;
+
+        } finally {
+
+            raf.close();
+        }
+    }
+
+    /**
+     * Build the header of the snapshot for the supplied board, padded to an eight byte boundary.
+     *
+     * @param board    - the board.
+     * @param order    - the byte order of the rest of the file.
+     * @param encoding - the state encoding.
+     * @return the header.
+     */
+    private static byte[] header(Board<?, ?, ?, ?> board, ByteOrder order, byte encoding) {
+
+        int[] dimensions = board.getDimensionSizes();
+
+        byte[] ruleId = ruleId(board.getRules()).getBytes(UTF_8);
+
+        List<byte[]> states = new ArrayList<byte[]>();
+
+        int length = 4 + 4 + 1 + 1 + 2 + 4 + 4 * dimensions.length + 8 + 4 + ruleId.length + 4;
+
+        for (Object state : board.getStates()) {
+
+            states.add(String.valueOf(state).getBytes(UTF_8));
+
+            length += 4 + states.get(states.size() - 1).length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(align(length));
+
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.put((byte) (ByteOrder.BIG_ENDIAN == order ? 0 : 1));
+        header.put(encoding);
+        header.putShort((short) 0);
+
+        header.order(order);
+
+        header.putInt(dimensions.length);
+
+        for (int size : dimensions) header.putInt(size);
+
+        header.putLong(board.getGeneration());
+
+        header.putInt(ruleId.length);
+        header.put(ruleId);
+
+        header.putInt(states.size());
+
+        for (byte[] state : states) {
+
+            header.putInt(state.length);
+            header.put(state);
+        }
+
+        return header.array();
+    }
+
+    /**
+     * Read a length prefixed UTF-8 string from the supplied buffer.
+     *
+     * @param buffer - the buffer.
+     * @return the string.
+     */
+    private static String readString(ByteBuffer buffer) {
+
+        int length = buffer.getInt();
+
+        if (0 > length || buffer.remaining() < length) {
+
+            throw new IllegalArgumentException("The snapshot header is corrupt.");
+        }
+
+        byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Round the supplied position up to the next eight byte boundary.
+     *
+     * @param position - the position.
+     * @return the aligned position.
+     */
+    private static int align(int position) {
+
+        return (position + 7) & ~7;
+    }
+}
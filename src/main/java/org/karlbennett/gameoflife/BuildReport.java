@@ -0,0 +1,98 @@
+package org.karlbennett.gameoflife;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This report records how long it took to build a board and how much heap was used while it was being built. A report
+ * is only kept when one is passed to the build. The peak heap is read from the JVMs memory pools, so starting a report
+ * resets their peak usage for any other code that is watching it, and two builds that are reported at the same time
+ * reset each others peaks.
+ */
+public class BuildReport {
+
+    private long cells;
+
+    private long startNanos;
+
+    private long elapsedNanos;
+
+    private long peakMemory;
+
+
+    /**
+     * Get the number of cells that were built.
+     *
+     * @return the number of cells.
+     */
+    public long getCells() {
+
+        return cells;
+    }
+
+    /**
+     * Get the time it took to build the board.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the largest amount of heap that was in use while the board was being built. This is the sum of the peak of
+     * each heap memory pool, the pools do not all peak at the same moment so the heap as a whole may never have been
+     * this full.
+     *
+     * @return an upper bound of the peak heap usage in bytes.
+     */
+    public long getPeakMemory() {
+
+        return peakMemory;
+    }
+
+    @Override
+    public String toString() {
+
+        return "Built " + cells + " cells in " + elapsedNanos / 1000000 + "ms using a peak of " +
+                peakMemory / (1024 * 1024) + "MB of heap.";
+    }
+
+    /**
+     * Start timing a build.
+     */
+    void start() {
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+
+            if (MemoryType.HEAP == pool.getType() && pool.isValid()) pool.resetPeakUsage();
+        }
+
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Finish timing a build.
+     *
+     * @param cells - the number of cells that were built.
+     */
+    void finish(long cells) {
+
+        this.elapsedNanos = System.nanoTime() - startNanos;
+        this.cells = cells;
+
+        long peak = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+
+            if (MemoryType.HEAP == pool.getType() && pool.isValid()) peak += pool.getPeakUsage().getUsed();
+        }
+
+        this.peakMemory = peak;
+    }
+}
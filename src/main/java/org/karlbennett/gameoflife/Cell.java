@@ -1,8 +1,8 @@
 package org.karlbennett.gameoflife;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,6 +14,34 @@ import java.util.List;
  */
 public class Cell<S extends Comparable<S>, R extends Rule<S>> {
 
+    /**
+     * The powers of three that fit into an int, 3^i is held at index i.
+     */
+    private static final int[] POWERS_OF_THREE = new int[20];
+
+    static {
+
+        POWERS_OF_THREE[0] = 1;
+
+        for (int i = 1; i < POWERS_OF_THREE.length; i++) POWERS_OF_THREE[i] = POWERS_OF_THREE[i - 1] * 3;
+    }
+
+    /**
+     * The coordinate offset of a cell with i dimensions is held at index i, so that every cell can share it.
+     */
+    private static final int[][] COORDINATE_OFFSETS = new int[POWERS_OF_THREE.length][];
+
+    static {
+
+        for (int i = 0; i < COORDINATE_OFFSETS.length; i++) COORDINATE_OFFSETS[i] = buildCoordinateOffset(i);
+    }
+
+    /**
+     * The neighbour coordinates of a cell with i dimensions are held at index i once they have been asked for.
+     */
+    private static final int[][][] NEIGHBOUR_COORDINATES = new int[POWERS_OF_THREE.length][][];
+
+
     /**
      * Calculate the number of neighbours the cell should have in relation to the number of dimensions the cell supports.
      *
@@ -22,7 +50,10 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public static int neighbourNumber(int dimensions) {
 
-        return (int) Math.pow(3, dimensions) - 1;
+        // Neighbourhoods that are too large to fit into an int keep the old saturated value.
+        if (POWERS_OF_THREE.length <= dimensions) return Integer.MAX_VALUE - 1;
+
+        return POWERS_OF_THREE[dimensions] - 1;
     }
 
     /**
@@ -79,11 +110,15 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public static int calculateIndex(int[] offset, int... coordinates) {
 
-        int[] offsetCoordinates = calculateOffsetCoordinates(offset, coordinates);
+        if (offset.length != coordinates.length) {
+
+            throw new IllegalStateException("The offset array must have the same length as the number of coordinates supplied.");
+        }
 
         int index = 0;
 
-        for (int i = 0; i < offsetCoordinates.length; i++) index += Math.pow(3, i) * offsetCoordinates[i];
+        // Work down from the highest dimension so each step only needs a multiply by three.
+        for (int i = coordinates.length - 1; i >= 0; i--) index = index * 3 + coordinates[i] + offset[i];
 
         return index;
     }
@@ -96,7 +131,7 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      * @throws IllegalArgumentException  if the supplied are (0,0) because that is coordinate of this cell not a
      *                                   neighbour. Or if two many dimensional coordinates are supplied e.g. if (0,1,2)
      *                                   is supplied for a 2D cell.
-     * @throws IndexOutOfBoundsException if any coordinate value greater than 1 is supplied.
+     * @throws IndexOutOfBoundsException if any coordinate value greater than 1 or less than -1 is supplied.
      */
     public static void checkNeighbourCoordinates(int dimensions, int[] coordinates) {
 
@@ -113,6 +148,8 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
             sum += Math.abs(c);
 
             if (1 < c) throw new IndexOutOfBoundsException("The coordinate value (" + c + ") is too large.");
+
+            if (-1 > c) throw new IndexOutOfBoundsException("The coordinate value (" + c + ") is too small.");
         }
 
         if (0 == sum)
@@ -143,12 +180,40 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      * @param coordinates - the coordinates for the requested neighbour. These must be in relation to the current cell
      *                    having the coordinates (0,0);
      * @return the index for the request neighbour.
+     * @throws IllegalArgumentException  if the supplied are (0,0) because that is coordinate of this cell not a
+     *                                   neighbour. Or if two many dimensional coordinates are supplied e.g. if (0,1,2)
+     *                                   is supplied for a 2D cell.
+     * @throws IndexOutOfBoundsException if any coordinate value greater than 1 or less than -1 is supplied.
      */
     public static int calculateNeighbourIndex(int dimensions, int cellIndex, int[] offset, int... coordinates) {
 
-        checkNeighbourCoordinates(dimensions, coordinates);
+        if (coordinates.length != dimensions) checkNeighbourCoordinates(dimensions, coordinates);
+
+        if (offset.length != coordinates.length) {
+
+            throw new IllegalStateException("The offset array must have the same length as the number of coordinates supplied.");
+        }
 
-        return adjustForCellIndex(cellIndex, calculateIndex(offset, coordinates));
+        // Check and index the coordinates in a single pass so that a neighbour lookup does no allocation, the full check
+        // is only run to report coordinates that have already been found to be invalid.
+        int index = 0;
+        boolean neighbour = false;
+
+        int c;
+        for (int i = coordinates.length - 1; i >= 0; i--) {
+
+            c = coordinates[i];
+
+            if (1 < c || -1 > c) checkNeighbourCoordinates(dimensions, coordinates);
+
+            neighbour |= 0 != c;
+
+            index = index * 3 + c + offset[i];
+        }
+
+        if (!neighbour) checkNeighbourCoordinates(dimensions, coordinates);
+
+        return adjustForCellIndex(cellIndex, index);
     }
 
     /**
@@ -180,6 +245,36 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
         return coordinatesCopy;
     }
 
+    /**
+     * Calculate the coordinates of the neighbour with the supplied neighbour index. This is the inverse of
+     * {@link #calculateNeighbourIndex(int, int, int[], int...)} so the coordinates returned are in relation to the
+     * current cell having the coordinates (0,0).
+     *
+     * @param dimensions     - the number of dimensions supported by the current cell.
+     * @param neighbourIndex - the index of the neighbour in the current cells neighbour list.
+     * @return the coordinates of the neighbour.
+     * @throws IndexOutOfBoundsException if the neighbour index is not within the current cells neighbour list.
+     */
+    public static int[] calculateNeighbourCoordinates(int dimensions, int neighbourIndex) {
+
+        int neighbourNumber = neighbourNumber(dimensions);
+
+        if (0 > neighbourIndex || neighbourNumber <= neighbourIndex) {
+
+            throw new IndexOutOfBoundsException("The neighbour index (" + neighbourIndex +
+                    ") is invalid for a cell with (" + neighbourNumber + ") neighbours.");
+        }
+
+        // The current cell sits in the middle of the neighbourhood so any neighbour after it has been shifted down one.
+        int index = neighbourNumber / 2 > neighbourIndex ? neighbourIndex : neighbourIndex + 1;
+
+        int[] coordinates = new int[dimensions];
+
+        for (int i = 0; i < dimensions; i++, index /= 3) coordinates[i] = index % 3 - 1;
+
+        return coordinates;
+    }
+
 
     private final S state;
 
@@ -187,13 +282,22 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
 
     private final List<R> rules;
 
-    private final int dimensions;
+    /**
+     * The neighbours of the cell in direction index order, or null while the cell finds its neighbours in its arena.
+     */
+    private Cell<S, R>[] neighbours;
 
-    private List<Cell<S, R>> neighbours;
+    private CellArena<S, R> arena;
 
-    private final int[] coordinateOffset;
+    /**
+     * The index of the cell in its arena.
+     */
+    private int index;
 
-    private final int cellIndex;
+    /**
+     * The list view of the neighbours, created the first time it is asked for.
+     */
+    private List<Cell<S, R>> view;
 
 
     /**
@@ -203,32 +307,99 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      * @param rules      - the rules that should be applied to this cell.
      * @param dimensions - the number of dimensions for this cell e.g. 1D, 2D, 3D.
      */
+    @SuppressWarnings("unchecked")
     public Cell(S state, List<R> rules, int dimensions) {
 
-        this(state, rules, dimensions,
-                new ArrayList<Cell<S, R>>(Arrays.<Cell<S, R>>asList(new Cell[neighbourNumber(dimensions)])));
+        this(state, rules, (Cell<S, R>[]) new Cell[neighbourNumber(dimensions)]);
     }
 
+    /**
+     * Construct a new <code>Cell</code> with the supplied state, rules, and neighbours. The neighbours are copied so
+     * later changes to the list are not seen by the cell.
+     *
+     * @param state      - the state for this cell.
+     * @param rules      - the rules that should be applied to this cell.
+     * @param dimensions - the number of dimensions for this cell e.g. 1D, 2D, 3D.
+     * @param neighbours - the neighbours of the cell in direction index order.
+     * @throws IllegalStateException if the number of neighbours does not match the number of dimensions.
+     */
+    @SuppressWarnings("unchecked")
     public Cell(S state, List<R> rules, int dimensions, List<Cell<S, R>> neighbours) {
 
+        this(state, rules, neighbours.toArray((Cell<S, R>[]) new Cell[neighbours.size()]));
+
         if (neighbourNumber(dimensions) != neighbours.size()) {
 
             throw new IllegalStateException("The number supplied neighbours is incorrect in relation to the supported dimension.");
         }
+    }
+
+    /**
+     * Construct a new <code>Cell</code> that keeps the supplied array of neighbours rather than copying it.
+     *
+     * @param state      - the state for this cell.
+     * @param rules      - the rules that should be applied to this cell.
+     * @param neighbours - the neighbours of the cell in direction index order.
+     */
+    Cell(S state, List<R> rules, Cell<S, R>[] neighbours) {
 
         this.state = state;
         this.rules = rules;
-        this.dimensions = dimensions;
         this.neighbours = neighbours;
-        this.coordinateOffset = buildCoordinateOffset(dimensions);
+    }
 
-        int[] cellCoordinates = new int[dimensions];
-        Arrays.fill(cellCoordinates, 0);
+    /**
+     * Construct a new <code>Cell</code> that finds its neighbours in the supplied arena.
+     *
+     * @param state - the state for this cell.
+     * @param rules - the rules that should be applied to this cell.
+     * @param arena - the arena that holds every cell of the board.
+     * @param index - the index of this cell in the arena.
+     */
+    Cell(S state, List<R> rules, CellArena<S, R> arena, int index) {
 
-        this.cellIndex = calculateIndex(cellCoordinates);
+        this.state = state;
+        this.rules = rules;
+        this.arena = arena;
+        this.index = index;
     }
 
 
+    /**
+     * Get the shared coordinate offset of a cell with the supplied number of dimensions, see
+     * {@link #buildCoordinateOffset(int)}. The array is shared and must not be changed.
+     *
+     * @param dimensions - the number of dimensions.
+     * @return the coordinate offset.
+     */
+    static int[] coordinateOffset(int dimensions) {
+
+        if (COORDINATE_OFFSETS.length <= dimensions) return buildCoordinateOffset(dimensions);
+
+        return COORDINATE_OFFSETS[dimensions];
+    }
+
+    /**
+     * Get the shared coordinates of every neighbour of a cell with the supplied number of dimensions, see
+     * {@link #calculateNeighbourCoordinates(int, int)}. The arrays are shared and must not be changed.
+     *
+     * @param dimensions - the number of dimensions.
+     * @return the coordinates of each neighbour in direction index order.
+     */
+    static synchronized int[][] neighbourCoordinates(int dimensions) {
+
+        if (null == NEIGHBOUR_COORDINATES[dimensions]) {
+
+            int[][] coordinates = new int[neighbourNumber(dimensions)][];
+
+            for (int n = 0; n < coordinates.length; n++) coordinates[n] = calculateNeighbourCoordinates(dimensions, n);
+
+            NEIGHBOUR_COORDINATES[dimensions] = coordinates;
+        }
+
+        return NEIGHBOUR_COORDINATES[dimensions];
+    }
+
     /**
      * Get the current state of the cell before the games rules have been applied.
      *
@@ -256,6 +427,8 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
 
                 nextState = rule.apply(this);
 
+                if (Instrumentation.enabled) Instrumentation.getInstance().rule(rule).applied(nextState != state);
+
                 if (nextState != state) return nextState;
             }
         }
@@ -281,17 +454,55 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public int getDimensions() {
 
+        if (null != arena) return arena.getDimensions();
+
+        int dimensions = 0;
+
+        // The cell has 3^N-1 neighbours.
+        for (int n = neighbours.length + 1; 1 < n; n /= 3) dimensions++;
+
         return dimensions;
     }
 
     /**
-     * Get all the cells that are neighbours to this cell.
+     * Get all the cells that are neighbours to this cell. The list is a view of the neighbours that is created once and
+     * reused, so asking for it again does not allocate.
      *
      * @return all the cells neighbours.
      */
     public List<Cell<S, R>> getNeighbours() {
 
-        return neighbours;
+        if (Instrumentation.enabled) Instrumentation.getInstance().neighbours(neighbourCount());
+
+        if (null == view) {
+
+            view = new AbstractList<Cell<S, R>>() {
+
+                @Override
+                public Cell<S, R> get(int direction) {
+
+                    return neighbourAt(direction);
+                }
+
+                @Override
+                public Cell<S, R> set(int direction, Cell<S, R> neighbour) {
+
+                    Cell<S, R> previous = neighbourAt(direction);
+
+                    setNeighbourAt(neighbour, direction);
+
+                    return previous;
+                }
+
+                @Override
+                public int size() {
+
+                    return neighbourCount();
+                }
+            };
+        }
+
+        return view;
     }
 
     /**
@@ -300,6 +511,7 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      *
      * @param offset - the offset coordinate for the new cell that treat the current cell as (0,0).
      * @return the new offset neighbours list.
+     * @throws IllegalStateException if the offset does not have a coordinate for every dimension.
      */
     public List<Cell<S, R>> getNeighbours(int... offset) {
 
@@ -316,14 +528,35 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
         return buildOffsetNeighbours(offset, inverseOffset, coordinates);
     }
 
+    /**
+     * Find the neighbours of the cell that resides at the supplied axis coordinates that are already known to this cell.
+     * The list that is returned is a new modifiable list that is the correct size for a cells neighbours with any
+     * unknown neighbours left as null.
+     *
+     * @param coordinates - the coordinates of the new cell where this cell is (0,0).
+     * @return the neighbours for the new cell that could be found.
+     * @throws IllegalArgumentException  if the supplied are (0,0) because that is coordinate of this cell not a
+     *                                   neighbour. Or if two many dimensional coordinates are supplied e.g. if (0,1,2)
+     *                                   is supplied for a 2D cell.
+     * @throws IndexOutOfBoundsException if any coordinate value greater than 1 is supplied.
+     */
+    public List<Cell<S, R>> findAxisNeighbours(int... coordinates) {
+
+        checkNeighbourCoordinates(coordinates);
+
+        return new ArrayList<Cell<S, R>>(getNeighbours(coordinates));
+    }
+
     /**
      * Set the list of cells that are the neighbours of this cell.
      *
      * @param neighbours - the list of the cells neighbours.
      */
+    @SuppressWarnings("unchecked")
     void setNeighbours(List<Cell<S, R>> neighbours) {
 
-        this.neighbours = neighbours;
+        this.neighbours = neighbours.toArray((Cell<S, R>[]) new Cell[neighbours.size()]);
+        this.arena = null;
     }
 
     /**
@@ -338,7 +571,52 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public Cell<S, R> getNeighbour(int... coordinates) {
 
-        return neighbours.get(calculateNeighbourIndex(coordinates));
+        if (Instrumentation.enabled) Instrumentation.getInstance().neighbours(1);
+
+        return neighbourAt(calculateNeighbourIndex(coordinates));
+    }
+
+    /**
+     * Retrieve the neighbour with the supplied direction index. The direction is the index of the neighbour in the
+     * neighbours list, from 0 for (-1,-1) to 3^N-2 for (1,1), so no coordinates need to be checked or converted.
+     *
+     * @param direction - the direction index of the neighbour.
+     * @return the requested neighbour.
+     * @throws IndexOutOfBoundsException if the direction is not between 0 and 3^N-2.
+     */
+    public Cell<S, R> getNeighbourAt(int direction) {
+
+        if (Instrumentation.enabled) Instrumentation.getInstance().neighbours(1);
+
+        return neighbourAt(direction);
+    }
+
+    /**
+     * Set the neighbour with the supplied direction index. A cell that finds its neighbours in an arena takes a copy of
+     * them first, so that only this cell sees the change.
+     *
+     * @param neighbour - the cell to set as a new neighbour.
+     * @param direction - the direction index of the neighbour.
+     * @throws IndexOutOfBoundsException if the direction is not between 0 and 3^N-2.
+     */
+    @SuppressWarnings("unchecked")
+    public void setNeighbourAt(Cell<S, R> neighbour, int direction) {
+
+        if (null != arena) {
+
+            Cell<S, R>[] copy = (Cell<S, R>[]) new Cell[neighbourCount()];
+
+            for (int n = 0; n < copy.length; n++) copy[n] = arena.neighbour(index, n);
+
+            copy[direction] = neighbour;
+
+            neighbours = copy;
+            arena = null;
+
+            return;
+        }
+
+        neighbours[direction] = neighbour;
     }
 
     /**
@@ -353,17 +631,18 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public void setNeighbour(Cell<S, R> neighbour, int... coordinates) {
 
-        neighbours.set(calculateNeighbourIndex(coordinates), neighbour);
+        setNeighbourAt(neighbour, calculateNeighbourIndex(coordinates));
     }
 
     /**
-     * Get the offset that should be applied to give this cell the coordinates (1,1).
+     * Get the offset that should be applied to give this cell the coordinates (1,1). The array is shared by every cell
+     * with the same number of dimensions and must not be changed.
      *
      * @return this cells coordinate offset.
      */
     public int[] getCoordinateOffset() {
 
-        return coordinateOffset;
+        return coordinateOffset(getDimensions());
     }
 
     /**
@@ -373,7 +652,8 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public int getCellIndex() {
 
-        return cellIndex;
+        // The current cell always sits in the middle of its neighbourhood.
+        return neighbourCount() / 2;
     }
 
 
@@ -386,7 +666,7 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public int adjustForCellIndex(final int index) {
 
-        return adjustForCellIndex(cellIndex, index);
+        return adjustForCellIndex(getCellIndex(), index);
     }
 
     /**
@@ -400,7 +680,7 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public void checkNeighbourCoordinates(int... coordinates) {
 
-        checkNeighbourCoordinates(dimensions, coordinates);
+        checkNeighbourCoordinates(getDimensions(), coordinates);
     }
 
     /**
@@ -412,7 +692,7 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public int[] calculateOffsetCoordinates(int... coordinates) {
 
-        return calculateOffsetCoordinates(coordinateOffset, coordinates);
+        return calculateOffsetCoordinates(getCoordinateOffset(), coordinates);
     }
 
     /**
@@ -424,7 +704,7 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public int calculateIndex(int... coordinates) {
 
-        return calculateIndex(coordinateOffset, coordinates);
+        return calculateIndex(getCoordinateOffset(), coordinates);
     }
 
     /**
@@ -437,80 +717,83 @@ public class Cell<S extends Comparable<S>, R extends Rule<S>> {
      */
     public int calculateNeighbourIndex(int... coordinates) {
 
-        return calculateNeighbourIndex(dimensions, cellIndex, coordinateOffset, coordinates);
+        int dimensions = getDimensions();
+
+        return calculateNeighbourIndex(dimensions, getCellIndex(), coordinateOffset(dimensions), coordinates);
     }
 
     /**
      * Build a list of neighbours from the neighbours in the current cell offset so that the list is indexed as if the
      * current cell resides in the neighbour location defined with the supplied offset coordinates. The inverse of the
      * offset coordinates and a starting neighbour coordinate must also be supplied.
+     * <p/>
+     * Each neighbour of the offset cell is looked up directly, without recursion. The neighbour at the coordinates c
+     * of the offset cell is the neighbour at offset + c of this cell, which is this cell itself when c is the inverse
+     * of the offset and unknown when it lies outside this cell's neighbourhood. Only the neighbours whose coordinates
+     * are all at least the starting coordinates are included, the rest are left as null.
      *
-     * Note: This method works through all the available neighbours by only every incrementing the starting coordinates.
-     *
-     * @param offset - the offset that defines the coordinates to be used for the location of the new current cell.
+     * @param offset        - the offset that defines the coordinates to be used for the location of the new current
+     *                      cell.
      * @param inverseOffset - coordinates that are the inverse of the offset coordinates, these are used to check if the
      *                      supplied cell should be included as a neighbour.
-     * @param coordinates - the coordinates for the current neighbour that should be retrieved.
+     * @param coordinates   - the coordinates of the first neighbour that should be retrieved.
      * @return the new offset neighbour list.
+     * @throws IllegalStateException if the offset does not have a coordinate for every dimension.
      */
+    @SuppressWarnings("unchecked")
     public List<Cell<S, R>> buildOffsetNeighbours(int[] offset, int[] inverseOffset, int[] coordinates) {
 
-        // Try and retrieve the neighbour at the supplied coordinates in relation to the supplied offset.
-        Cell<S, R> neighbour = null;
-        List<Cell<S, R>> offsetNeighbours = null;
-        try {
-
-            // If the supplied coordinate equal the inverse of the supplied offset then the offset neighbour is actually
-            // the supplied cell.
-            if (Arrays.equals(inverseOffset, coordinates)) {
+        int dimensions = getDimensions();
 
-                neighbour = this;
+        if (offset.length != dimensions || coordinates.length != dimensions) {
 
-            } else {
+            throw new IllegalStateException("The offset array must have the same length as the number of coordinates supplied.");
+        }
 
-                neighbour = getNeighbour(calculateOffsetCoordinates(offset, coordinates));
+        Cell<S, R>[] offsetNeighbours = (Cell<S, R>[]) new Cell[neighbourCount()];
 
-            }
+        int[][] directions = neighbourCoordinates(dimensions);
 
-            offsetNeighbours = Arrays.<Cell<S, R>>asList(new Cell[getNeighbours().size()]);
+        int[] c;
+        int index;
+        boolean self;
+        for (int n = 0; n < directions.length; n++) {
 
-            // Add the retrieved neighbour to the new offset list.
-            offsetNeighbours.set(
-                    calculateNeighbourIndex(offset.length, getCellIndex(), getCoordinateOffset(), coordinates),
-                    neighbour);
+            c = directions[n];
 
-            // If the neighbour cannot be retrieved then return an empty list.
-        } catch (IllegalArgumentException e) {
+            index = 0;
+            self = true;
 
-            return Collections.emptyList();
+            // Work down from the highest dimension so the neighbour index is built as the coordinates are checked.
+            for (int d = dimensions - 1; d >= 0 && 0 <= index; d--) {
 
-        } catch (IndexOutOfBoundsException e) {
+                if (c[d] < coordinates[d] || 1 < offset[d] + c[d] || -1 > offset[d] + c[d]) index = -1;
 
-            return Collections.emptyList();
-        }
+                else index = index * 3 + offset[d] + c[d] + 1;
 
-        // Retrieve the rest of the offset neighbours by incrementally recursing through all the possible neighbour
-        // coordinates.
-        List<Cell<S, R>> tempOffsetNeighbours = null;
-        Cell<S, R> tempNeighbour = null;
-        int[] coordinatesCopy = null;
-        for (int i = 0; i < coordinates.length; i++) {
+                self &= inverseOffset[d] == c[d];
+            }
 
-            coordinatesCopy = Arrays.copyOf(coordinates, coordinates.length);
+            if (self) offsetNeighbours[n] = 0 > index ? null : this;
 
-            coordinatesCopy[i]++;
+            else if (0 <= index) offsetNeighbours[n] = neighbourAt(adjustForCellIndex(getCellIndex(), index));
+        }
 
-            tempOffsetNeighbours = buildOffsetNeighbours(offset, inverseOffset, coordinatesCopy);
+        return Arrays.asList(offsetNeighbours);
+    }
 
-            for (int j = 0; j < tempOffsetNeighbours.size(); j++) {
+    /**
+     * Get the number of neighbours that the cell has.
+     *
+     * @return the number of neighbours.
+     */
+    private int neighbourCount() {
 
-                tempNeighbour = tempOffsetNeighbours.get(j);
+        return null == arena ? neighbours.length : neighbourNumber(arena.getDimensions());
+    }
 
-                if (null != tempNeighbour) offsetNeighbours.set(j, tempNeighbour);
-            }
-        }
+    private Cell<S, R> neighbourAt(int direction) {
 
-        // Then return the new offset neighbour list.
-        return offsetNeighbours;
+        return null == arena ? neighbours[direction] : arena.neighbour(index, direction);
     }
 }
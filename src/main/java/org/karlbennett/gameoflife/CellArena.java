@@ -0,0 +1,79 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This holds every cell of a board built by {@link Board#buildBoard(Cell, InitialState, int...)} in a single row-major
+ * array. The cells of a regular board do not need to store links to their neighbours because the neighbour in each
+ * direction is always the same stride away in the array, so each cell only keeps its index and the arena works its
+ * neighbours out when they are asked for.
+ *
+ * @param <S> - the type of state that the Cell contains.
+ * @param <R> - the type of rule that the Cell applies.
+ */
+class CellArena<S extends Comparable<S>, R extends Rule<S>> {
+
+    private final Cell<S, R>[] cells;
+
+    private final int[] dimensions;
+
+    private final int[] neighbourStrides;
+
+    private final int[][] neighbourCoordinates;
+
+
+    /**
+     * Construct a new <code>CellArena</code> for the supplied array of cells, which is kept rather than copied.
+     *
+     * @param cells      - the cells of the board in row-major order.
+     * @param dimensions - the dimensions of the board e.g. width, height, depth...
+     */
+    CellArena(Cell<S, R>[] cells, int... dimensions) {
+
+        this.cells = cells;
+        this.dimensions = dimensions;
+        this.neighbourStrides = Board.calculateNeighbourStrides(Board.calculateStrides(dimensions));
+        this.neighbourCoordinates = Cell.neighbourCoordinates(dimensions.length);
+    }
+
+
+    /**
+     * Find the neighbour of the cell at the supplied index in the supplied direction.
+     *
+     * @param index     - the index of the cell.
+     * @param direction - the direction index of the neighbour.
+     * @return the neighbour or null if it would be off the edge of the board.
+     * @throws IndexOutOfBoundsException if the direction is not between 0 and 3^N-2.
+     */
+    Cell<S, R> neighbour(int index, int direction) {
+
+        if (0 > direction || neighbourStrides.length <= direction) {
+
+            throw new IndexOutOfBoundsException("The direction (" + direction + ") is invalid for a cell with (" +
+                    neighbourStrides.length + ") neighbours.");
+        }
+
+        int[] offset = neighbourCoordinates[direction];
+
+        int c;
+        for (int d = 0, rest = index; d < dimensions.length; rest /= dimensions[d], d++) {
+
+            c = rest % dimensions[d] + offset[d];
+
+            if (0 > c || dimensions[d] <= c) return null;
+        }
+
+        return cells[index + neighbourStrides[direction]];
+    }
+
+    /**
+     * Get the number of dimensions of the board.
+     *
+     * @return the number of dimensions.
+     */
+    int getDimensions() {
+
+        return dimensions.length;
+    }
+}
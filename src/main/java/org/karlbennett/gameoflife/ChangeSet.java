@@ -0,0 +1,94 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is the set of cells that changed state when a {@see Board} was ticked into its current generation, held as the
+ * row-major indices of the cells. A change set has a fixed capacity, once more cells than that have changed the set
+ * is marked as overflowed and the individual changes are no longer known.
+ */
+public class ChangeSet {
+
+    private final int[] cells;
+
+    private int size;
+
+    private boolean overflowed;
+
+
+    /**
+     * Construct a new empty <code>ChangeSet</code>.
+     *
+     * @param capacity - the number of changes that can be held before the set overflows.
+     */
+    public ChangeSet(int capacity) {
+
+        this.cells = new int[capacity];
+    }
+
+
+    /**
+     * Add the cell at the supplied index to the set.
+     *
+     * @param index - the row-major index of the cell that changed.
+     * @return false if the set has overflowed.
+     */
+    public boolean add(int index) {
+
+        if (overflowed) return false;
+
+        if (cells.length == size) {
+
+            overflowed = true;
+
+            return false;
+        }
+
+        cells[size++] = index;
+
+        return true;
+    }
+
+    /**
+     * Remove every change from the set.
+     */
+    public void clear() {
+
+        size = 0;
+        overflowed = false;
+    }
+
+    /**
+     * Get the index of the cell at the supplied position in the set.
+     *
+     * @param i - the position of the change in the set.
+     * @return the row-major index of the changed cell.
+     */
+    public int get(int i) {
+
+        if (size <= i) throw new IndexOutOfBoundsException("There are only " + size + " changes: " + i);
+
+        return cells[i];
+    }
+
+    /**
+     * Get the number of changes held in the set.
+     *
+     * @return the number of changes.
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Check to see if more cells changed than the set could hold.
+     *
+     * @return true if the set has overflowed.
+     */
+    public boolean isOverflowed() {
+
+        return overflowed;
+    }
+}
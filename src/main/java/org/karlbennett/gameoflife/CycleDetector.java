@@ -0,0 +1,193 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This detects when a {@see Board} has become a still life or started to oscillate. The board keeps a 64 bit Zobrist
+ * style hash of its state, the exclusive or of a key for every cell that is not in the state with code 0, and updates
+ * it from the cells that change each generation. A {@see BitBoard} has a key for each of its 64 cell words instead,
+ * so that only the words that change have to be hashed.
+ * <p/>
+ * The hash of each generation is kept in a bounded history ring, and when a generation has the same hash as one in the
+ * history the board is taken to repeat with the period between them.
+ * <p/>
+ * Two different boards can have the same hash, but with 64 bits the chance of that happening within the history is
+ * negligible.
+ */
+public class CycleDetector {
+
+    private final long[] hashes;
+
+    private final long[] generations;
+
+    private int size;
+
+    private int next;
+
+    private long hash;
+
+    private long period;
+
+
+    /**
+     * Construct a new <code>CycleDetector</code>.
+     *
+     * @param history - the number of generations to remember, which is the longest period that can be detected.
+     * @throws IllegalArgumentException if the history is less than 1.
+     */
+    public CycleDetector(int history) {
+
+        if (1 > history) throw new IllegalArgumentException("The history must hold at least 1 generation: " + history);
+
+        this.hashes = new long[history];
+        this.generations = new long[history];
+    }
+
+    /**
+     * Construct a new <code>CycleDetector</code> that starts with a copy of the history of the supplied detector.
+     *
+     * @param detector - the detector to copy.
+     */
+    public CycleDetector(CycleDetector detector) {
+
+        this.hashes = detector.hashes.clone();
+        this.generations = detector.generations.clone();
+        this.size = detector.size;
+        this.next = detector.next;
+        this.hash = detector.hash;
+        this.period = detector.period;
+    }
+
+
+    /**
+     * Get the key that the cell at the supplied index adds to the hash when it has the supplied state code.
+     *
+     * @param index - the row-major index of the cell.
+     * @param code  - the state code of the cell.
+     * @return the key, which is 0 for the code 0 so that cells in that state can be left out of the hash.
+     */
+    public static long key(int index, int code) {
+
+        return 0 == code ? 0 : LongIntHashMap.hash(((long) code << 32) | (index & 0xffffffffL));
+    }
+
+    /**
+     * Get the key that the word of cells at the supplied index adds to the hash of a {@see BitBoard}.
+     *
+     * @param word  - the index of the word.
+     * @param cells - the cells held in the word.
+     * @return the key, which is 0 for a word of dead cells.
+     */
+    public static long wordKey(int word, long cells) {
+
+        return 0 == cells ? 0 : LongIntHashMap.hash(cells ^ word * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Forget the history and start again from a generation with the supplied hash.
+     *
+     * @param hash       - the hash of the generation.
+     * @param generation - the generation.
+     */
+    public void reset(long hash, long generation) {
+
+        this.hash = hash;
+        this.size = 0;
+        this.next = 0;
+        this.period = 0;
+
+        record(generation);
+    }
+
+    /**
+     * Update the hash for a cell that changed state.
+     *
+     * @param index    - the row-major index of the cell.
+     * @param previous - the previous state code of the cell.
+     * @param code     - the new state code of the cell.
+     */
+    public void change(int index, int previous, int code) {
+
+        hash ^= key(index, previous) ^ key(index, code);
+    }
+
+    /**
+     * Record the current hash as the hash of the supplied generation and look for it in the history.
+     *
+     * @param generation - the generation that the current hash belongs to.
+     * @return the period of the board, or 0 if the generation has not been seen in the history.
+     */
+    public long record(long generation) {
+
+        period = 0;
+
+        // Search from the newest generation so that the shortest period is found.
+        for (int i = 1, slot; i <= size && 0 == period; i++) {
+
+            slot = (next - i + hashes.length) % hashes.length;
+
+            if (hash == hashes[slot]) period = generation - generations[slot];
+        }
+
+        hashes[next] = hash;
+        generations[next] = generation;
+
+        next = (next + 1) % hashes.length;
+        size = Math.min(size + 1, hashes.length);
+
+        return period;
+    }
+
+    /**
+     * Move every remembered generation on by the supplied number of generations, for a board that has skipped a whole
+     * number of periods and so is in the same state it would have been without the skip.
+     *
+     * @param generations - the number of generations that were skipped.
+     */
+    public void skip(long generations) {
+
+        for (int i = 0; i < size; i++) this.generations[i] += generations;
+    }
+
+    /**
+     * Update the hash with a change that has already been combined into a single value, such as the one found by
+     * {@link BitBoard#hashDifference(BitBoard)}.
+     *
+     * @param difference - the value to exclusive or with the hash.
+     */
+    public void change(long difference) {
+
+        hash ^= difference;
+    }
+
+    /**
+     * Get the hash of the current generation.
+     *
+     * @return the hash.
+     */
+    public long getHash() {
+
+        return hash;
+    }
+
+    /**
+     * Get the period of the board as of the last generation that was recorded. A still life has the period 1.
+     *
+     * @return the period or 0 if the board has not been seen to repeat.
+     */
+    public long getPeriod() {
+
+        return period;
+    }
+
+    /**
+     * Get the number of generations that are remembered.
+     *
+     * @return the size of the history.
+     */
+    public int getHistory() {
+
+        return hashes.length;
+    }
+}
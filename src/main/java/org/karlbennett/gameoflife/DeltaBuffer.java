@@ -0,0 +1,215 @@
+package org.karlbennett.gameoflife;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a bounded buffer of {@see BoardDelta}s that lets a consumer on another thread keep up with a {@see Board} at
+ * its own pace. Adding a delta never blocks the board. Once the buffer is full each new delta is merged into the
+ * newest buffered delta instead, so a slow consumer receives fewer, larger deltas that still take it to the latest
+ * generation, and the buffer never holds more than its capacity of deltas.
+ * <p/>
+ * The newest delta of a full buffer keeps its cells in a map from index to code, so merging a delta only costs the
+ * number of cells it changed no matter how far behind the consumer is. A merged delta is only sorted back into a
+ * {@see BoardDelta} when the consumer removes it, outside of the lock that the board adds deltas with.
+ */
+public class DeltaBuffer implements DeltaListener {
+
+    private final int capacity;
+
+    private final ArrayDeque<Slot> slots;
+
+    private long merged;
+
+
+    /**
+     * Construct a new empty <code>DeltaBuffer</code>.
+     *
+     * @param capacity - the number of deltas that can be buffered before new deltas are merged.
+     * @throws IllegalArgumentException if the capacity is less than 1.
+     */
+    public DeltaBuffer(int capacity) {
+
+        if (1 > capacity) throw new IllegalArgumentException("The capacity must be at least 1: " + capacity);
+
+        this.capacity = capacity;
+        this.slots = new ArrayDeque<Slot>(capacity);
+    }
+
+
+    /**
+     * Add a delta to the buffer, merging it into the newest delta if the buffer is full.
+     *
+     * @param delta - the delta to add.
+     */
+    @Override
+    public synchronized void delta(BoardDelta delta) {
+
+        if (capacity == slots.size()) {
+
+            slots.peekLast().merge(delta);
+
+            merged++;
+
+        } else {
+
+            slots.addLast(new Slot(delta));
+        }
+
+        notifyAll();
+    }
+
+    /**
+     * Remove the oldest delta from the buffer.
+     *
+     * @return the oldest delta or null if the buffer is empty.
+     */
+    public BoardDelta poll() {
+
+        Slot oldest;
+
+        synchronized (this) {
+
+            oldest = slots.pollFirst();
+        }
+
+        return null == oldest ? null : oldest.toDelta();
+    }
+
+    /**
+     * Remove the oldest delta from the buffer, waiting up to the supplied time for one to be added if it is empty.
+     *
+     * @param timeout - the longest time to wait.
+     * @param unit    - the unit of the timeout.
+     * @return the oldest delta or null if none was added in time.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    public BoardDelta poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        Slot oldest;
+
+        synchronized (this) {
+
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            long remaining;
+            while (slots.isEmpty() && 0 < (remaining = deadline - System.nanoTime())) {
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+
+            oldest = slots.pollFirst();
+        }
+
+        return null == oldest ? null : oldest.toDelta();
+    }
+
+    /**
+     * Remove the oldest delta from the buffer, waiting for one to be added if it is empty.
+     *
+     * @return the oldest delta.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    public BoardDelta take() throws InterruptedException {
+
+        Slot oldest;
+
+        synchronized (this) {
+
+            while (slots.isEmpty()) wait();
+
+            oldest = slots.pollFirst();
+        }
+
+        return oldest.toDelta();
+    }
+
+    /**
+     * Get the number of deltas waiting in the buffer.
+     *
+     * @return the number of deltas.
+     */
+    public synchronized int size() {
+
+        return slots.size();
+    }
+
+    /**
+     * Get the number of deltas that were merged because the buffer was full, which shows how far the consumer has
+     * fallen behind.
+     *
+     * @return the number of merged deltas.
+     */
+    public synchronized long getMerged() {
+
+        return merged;
+    }
+
+    /**
+     * This is one delta of the buffer. It holds the delta it was added with until another delta is merged into it,
+     * from then on it holds the latest code of every cell that changed in a map from index to code.
+     */
+    private static class Slot {
+
+        private BoardDelta delta;
+
+        private LongIntHashMap cells;
+
+        private long generation;
+
+        private int[] dimensions;
+
+
+        private Slot(BoardDelta delta) {
+
+            this.delta = delta;
+        }
+
+
+        private void merge(BoardDelta later) {
+
+            if (null == cells) {
+
+                cells = new LongIntHashMap(delta.size() + later.size());
+
+                put(delta);
+
+                delta = null;
+            }
+
+            put(later);
+
+            generation = later.getGeneration();
+            dimensions = later.getDimensions();
+        }
+
+        private void put(BoardDelta changes) {
+
+            for (int i = 0; i < changes.size(); i++) cells.put(changes.getIndex(i), changes.getCode(i));
+        }
+
+        private BoardDelta toDelta() {
+
+            if (null == cells) return delta;
+
+            int[] indices = new int[cells.size()];
+
+            for (int slot = 0, i = 0; slot < cells.capacity(); slot++) {
+
+                if (cells.isUsed(slot)) indices[i++] = (int) cells.keyAt(slot);
+            }
+
+            Arrays.sort(indices);
+
+            int[] codes = new int[indices.length];
+
+            for (int i = 0; i < indices.length; i++) codes[i] = cells.get(indices[i], 0);
+
+            return new BoardDelta(generation, dimensions, indices, codes);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ *
+ * This is told about the cells that changed in every generation of a {@see Board}. It is called on the thread that
+ * ticks the board, straight after each generation is produced, so it should return quickly. A listener that does
+ * slow work should hand the deltas on through a {@see DeltaBuffer}.
+ */
+public interface DeltaListener {
+
+    /**
+     * Receive the changes that produced a new generation.
+     *
+     * @param delta - the cells that changed and their new state codes.
+     */
+    public void delta(BoardDelta delta);
+}
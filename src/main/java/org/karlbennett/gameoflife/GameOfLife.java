@@ -1,10 +1,62 @@
 package org.karlbennett.gameoflife;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
 /**
  * Game of Life
+ * <p/>
+ * Run a sweep of boards with a {@see BatchRunner}:
+ * <pre>
+ * java org.karlbennett.gameoflife.GameOfLife jobs-file results-file [threads]
+ * </pre>
+ * The jobs file has a {@see BatchJob} on each line and the results file receives a {@see BatchResult} line as each
+ * job finishes. The threads default to one for each processor.
  */
 public class GameOfLife {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+
+        if (2 != args.length && 3 != args.length) {
+
+            System.err.println("Usage: GameOfLife jobs-file results-file [threads]");
+
+            return;
+        }
+
+        BatchRunner runner = 3 == args.length ? new BatchRunner(Integer.parseInt(args[2])) : new BatchRunner();
+
+        Charset utf8 = Charset.forName("UTF-8");
+
+        BufferedReader jobs = new BufferedReader(new InputStreamReader(new FileInputStream(args[0]), utf8));
+
+        try {
+
+            Writer results = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]), utf8));
+
+            try {
+
+                long start = System.nanoTime();
+
+                int count = runner.run(BatchJob.read(jobs), results);
+
+                System.out.println(count + " jobs on " + runner.getThreads() + " threads in " +
+                        (System.nanoTime() - start) / 1000000 + "ms");
+
+            } finally {
+
+                results.close();
+            }
+
+        } finally {
+
+            jobs.close();
+        }
     }
 }
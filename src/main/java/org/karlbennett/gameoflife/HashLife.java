@@ -0,0 +1,782 @@
+package org.karlbennett.gameoflife;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is an implementation of Gosper's HashLife for a game that is played with a single {@see BinaryRule} on an
+ * unbounded board of any number of dimensions. The board is held as a tree where every node of level k covers a cube
+ * of 2^k cells on each side and has 2^d children that each cover one corner of the cube. Nodes are hash consed so any
+ * two regions with the same content share the same node, and the result of advancing a node is remembered in the node,
+ * which means that regular patterns can be advanced by huge numbers of generations at once.
+ * <p/>
+ * The number of canonical nodes is bounded. Once it grows past the bound the nodes that can no longer be reached from
+ * the current board are dropped along with every remembered result.
+ */
+public class HashLife {
+
+    /**
+     * The default number of canonical nodes that will be kept before unreachable nodes are dropped.
+     */
+    public static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    /**
+     * A callback that is given the coordinates of every alive cell.
+     */
+    public interface Visitor {
+
+        /**
+         * Visit an alive cell.
+         *
+         * @param coordinates - the coordinates of the alive cell. The array is reused so it must be copied if kept.
+         */
+        public void visit(long[] coordinates);
+    }
+
+    /**
+     * A canonical node in the tree. Two nodes with the same level and the same children are always the same instance.
+     */
+    private static final class Node {
+
+        private final int level;
+
+        private final Node[] children;
+
+        private final long population;
+
+        private final int hash;
+
+        private Node[] results;
+
+
+        private Node(boolean alive) {
+
+            this.level = 0;
+            this.children = null;
+            this.population = alive ? 1 : 0;
+            this.hash = alive ? 1 : 0;
+        }
+
+        private Node(Node[] children) {
+
+            this.level = children[0].level + 1;
+            this.children = children;
+
+            long population = 0;
+            int hash = level;
+
+            for (Node child : children) {
+
+                population += child.population;
+                hash = hash * 31 + System.identityHashCode(child);
+            }
+
+            this.population = population;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+
+            if (this == other) return true;
+
+            if (!(other instanceof Node)) return false;
+
+            Node that = (Node) other;
+
+            if (level != that.level || hash != that.hash || null == children || null == that.children) return false;
+
+            for (int i = 0; i < children.length; i++) if (children[i] != that.children[i]) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+    }
+
+
+    private final int dimensions;
+
+    private final int childNumber;
+
+    private final int maxNodes;
+
+    private final boolean[] born;
+
+    private final boolean[] survivors;
+
+    private final int[] gridChild;
+
+    private final int[] gridGrandchild;
+
+    private final int[][] subnodeGrid;
+
+    private final int[][] comboSubnodes;
+
+    private final int[] centreGrid;
+
+    private final int[][] gridNeighbours;
+
+    private final Node dead;
+
+    private final Node alive;
+
+    private final List<Node> empty;
+
+    private Map<Node, Node> nodes;
+
+    private Node root;
+
+    private final long[] origin;
+
+    private long generation;
+
+
+    /**
+     * Construct a new empty <code>HashLife</code> board with the default node bound.
+     *
+     * @param rule       - the rule the game is played with.
+     * @param dimensions - the number of dimensions of the board.
+     */
+    public HashLife(BinaryRule<?> rule, int dimensions) {
+
+        this(rule, dimensions, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Construct a new empty <code>HashLife</code> board.
+     *
+     * @param rule       - the rule the game is played with.
+     * @param dimensions - the number of dimensions of the board.
+     * @param maxNodes   - the number of canonical nodes that will be kept before unreachable nodes are dropped.
+     * @throws IllegalArgumentException if there are no dimensions or the rule brings dead cells with no alive
+     *                                  neighbours to life, because then empty space is not stable.
+     */
+    public HashLife(BinaryRule<?> rule, int dimensions, int maxNodes) {
+
+        if (1 > dimensions) {
+
+            throw new IllegalArgumentException("A HashLife board must have at least one dimension.");
+        }
+
+        if (rule.isBorn(0)) {
+
+            throw new IllegalArgumentException("HashLife cannot be used with a rule that gives birth to cells that " +
+                    "have no alive neighbours.");
+        }
+
+        this.dimensions = dimensions;
+        this.childNumber = 1 << dimensions;
+        this.maxNodes = maxNodes;
+
+        int neighbourNumber = Cell.neighbourNumber(dimensions);
+
+        this.born = new boolean[neighbourNumber + 1];
+        this.survivors = new boolean[neighbourNumber + 1];
+
+        for (int c = 0; c <= neighbourNumber; c++) {
+
+            born[c] = rule.isBorn(c);
+            survivors[c] = rule.isSurvivor(c);
+        }
+
+        // The 4^d grid of grandchildren of a node, with the coordinates of each held as base 4 digits.
+        int gridSize = 1 << (2 * dimensions);
+
+        this.gridChild = new int[gridSize];
+        this.gridGrandchild = new int[gridSize];
+        this.gridNeighbours = new int[gridSize][];
+
+        int[] g = new int[dimensions];
+        for (int i = 0; i < gridSize; i++) {
+
+            for (int d = 0; d < dimensions; d++) {
+
+                gridChild[i] |= (g[d] >> 1) << d;
+                gridGrandchild[i] |= (g[d] & 1) << d;
+            }
+
+            gridNeighbours[i] = findGridNeighbours(g);
+
+            increment(g, 4);
+        }
+
+        // The 3^d overlapping half size subnodes of a node, each made of 2^d grandchildren.
+        int subnodeNumber = neighbourNumber + 1;
+
+        this.subnodeGrid = new int[subnodeNumber][childNumber];
+
+        int[] p = new int[dimensions];
+        for (int s = 0; s < subnodeNumber; s++) {
+
+            for (int q = 0; q < childNumber; q++) subnodeGrid[s][q] = gridIndex(p, q, 4);
+
+            increment(p, 3);
+        }
+
+        // The 2^d combinations of subnodes that make up each quarter of the result.
+        this.comboSubnodes = new int[childNumber][childNumber];
+
+        int[] c = new int[dimensions];
+        for (int i = 0; i < childNumber; i++) {
+
+            for (int d = 0; d < dimensions; d++) c[d] = (i >> d) & 1;
+
+            for (int q = 0; q < childNumber; q++) comboSubnodes[i][q] = gridIndex(c, q, 3);
+        }
+
+        this.centreGrid = new int[childNumber];
+
+        int[] one = new int[dimensions];
+        Arrays.fill(one, 1);
+
+        for (int q = 0; q < childNumber; q++) centreGrid[q] = gridIndex(one, q, 4);
+
+        this.nodes = new HashMap<Node, Node>();
+        this.dead = new Node(false);
+        this.alive = new Node(true);
+        this.empty = new ArrayList<Node>();
+
+        empty.add(dead);
+
+        this.root = empty(3);
+        this.origin = new long[dimensions];
+
+        Arrays.fill(origin, -(1L << 2));
+    }
+
+
+    /**
+     * Get the number of dimensions of the board.
+     *
+     * @return the number of dimensions.
+     */
+    public int getDimensions() {
+
+        return dimensions;
+    }
+
+    /**
+     * Get the number of generations the board has been advanced.
+     *
+     * @return the current generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the number of cells that are alive.
+     *
+     * @return the number of alive cells.
+     */
+    public long population() {
+
+        return root.population;
+    }
+
+    /**
+     * Get the number of canonical nodes that are currently held.
+     *
+     * @return the number of nodes.
+     */
+    public int nodeCount() {
+
+        return nodes.size();
+    }
+
+    /**
+     * Check to see if the cell at the supplied coordinates is alive.
+     *
+     * @param coordinates - the coordinates of the cell e.g. x, y, z...
+     * @return true if the cell is alive.
+     * @throws IllegalCoordinateNumber if an incorrect number of coordinates has been supplied.
+     */
+    public boolean get(long... coordinates) {
+
+        checkCoordinates(coordinates);
+
+        long[] relative = new long[dimensions];
+
+        for (int d = 0; d < dimensions; d++) {
+
+            relative[d] = coordinates[d] - origin[d];
+
+            if (0 > relative[d] || (1L << root.level) <= relative[d]) return false;
+        }
+
+        Node node = root;
+
+        while (0 < node.level) node = node.children[childIndex(relative, node.level - 1)];
+
+        return node == alive;
+    }
+
+    /**
+     * Set the cell at the supplied coordinates to be alive or dead.
+     *
+     * @param alive       - true if the cell should be alive.
+     * @param coordinates - the coordinates of the cell e.g. x, y, z...
+     * @throws IllegalCoordinateNumber if an incorrect number of coordinates has been supplied.
+     */
+    public void set(boolean alive, long... coordinates) {
+
+        checkCoordinates(coordinates);
+
+        long[] relative = new long[dimensions];
+
+        while (!contains(coordinates)) expand();
+
+        for (int d = 0; d < dimensions; d++) relative[d] = coordinates[d] - origin[d];
+
+        root = set(root, relative, alive);
+    }
+
+    /**
+     * Visit every cell that is alive.
+     *
+     * @param visitor - the visitor to give the coordinates of each alive cell to.
+     */
+    public void forEachAlive(Visitor visitor) {
+
+        visit(root, Arrays.copyOf(origin, dimensions), new long[dimensions], visitor);
+    }
+
+    /**
+     * Advance the board by 2^k generations in one step.
+     *
+     * @param k - the power of two of the number of generations to advance.
+     * @throws IllegalArgumentException if k is negative or too large for the generation to be counted.
+     */
+    public void step(int k) {
+
+        if (0 > k || 62 < k) {
+
+            throw new IllegalArgumentException("The power of two generations must be between 0 and 62: " + k);
+        }
+
+        if (nodes.size() > maxNodes) collectGarbage();
+
+        // Make sure the pattern is small enough relative to the root that nothing can escape the centre that is
+        // returned after the step, light speed is one cell per generation.
+        while (root.level < k + 2 || centre(root).population != root.population) expand();
+
+        expand();
+
+        long half = 1L << (root.level - 2);
+
+        root = successor(root, k);
+
+        for (int d = 0; d < dimensions; d++) origin[d] += half;
+
+        generation += 1L << k;
+    }
+
+    /**
+     * Advance the board by the supplied number of generations, this is done as a series of power of two steps.
+     *
+     * @param generations - the number of generations to advance.
+     * @throws IllegalArgumentException if the number of generations is negative.
+     */
+    public void advance(long generations) {
+
+        if (0 > generations) {
+
+            throw new IllegalArgumentException("The number of generations cannot be negative: " + generations);
+        }
+
+        for (int k = 0; 0 != generations; k++, generations >>>= 1) if (0 != (generations & 1)) step(k);
+    }
+
+    /**
+     * Drop every canonical node that can not be reached from the current board along with every remembered result.
+     */
+    public void collectGarbage() {
+
+        Map<Node, Node> reachable = new HashMap<Node, Node>();
+
+        keep(root, reachable);
+
+        for (Node node : empty) keep(node, reachable);
+
+        nodes = reachable;
+    }
+
+    /**
+     * Add the supplied node and all of its descendants to the supplied map, forgetting their remembered results.
+     *
+     * @param node      - the node to keep.
+     * @param reachable - the map of kept nodes.
+     */
+    private void keep(Node node, Map<Node, Node> reachable) {
+
+        if (null == node.children || reachable.containsKey(node)) return;
+
+        node.results = null;
+
+        reachable.put(node, node);
+
+        for (Node child : node.children) keep(child, reachable);
+    }
+
+    /**
+     * Find the level k-1 node at the centre of the supplied level k node advanced by 2^j generations.
+     *
+     * @param node - the node to advance, it must be at least level 2.
+     * @param j    - the power of two of the number of generations to advance, at most k-2.
+     * @return the centre of the node advanced.
+     */
+    private Node successor(Node node, int j) {
+
+        if (0 == node.population) return empty(node.level - 1);
+
+        if (null != node.results && null != node.results[j]) return node.results[j];
+
+        Node result;
+
+        if (2 == node.level) {
+
+            result = evolve(node);
+
+        } else {
+
+            Node[] grid = grandchildren(node);
+
+            boolean full = node.level - 2 == j;
+
+            Node[] subnodes = new Node[subnodeGrid.length];
+
+            Node[] children;
+            for (int s = 0; s < subnodes.length; s++) {
+
+                children = new Node[childNumber];
+
+                for (int q = 0; q < childNumber; q++) children[q] = grid[subnodeGrid[s][q]];
+
+                subnodes[s] = full ? successor(node(children), j - 1) : centre(node(children));
+            }
+
+            Node[] quarters = new Node[childNumber];
+
+            for (int c = 0; c < childNumber; c++) {
+
+                children = new Node[childNumber];
+
+                for (int q = 0; q < childNumber; q++) children[q] = subnodes[comboSubnodes[c][q]];
+
+                quarters[c] = successor(node(children), full ? j - 1 : j);
+            }
+
+            result = node(quarters);
+        }
+
+        if (null == node.results) node.results = new Node[node.level - 1];
+
+        node.results[j] = result;
+
+        return result;
+    }
+
+    /**
+     * Advance the centre of a level 2 node by a single generation by counting the neighbours of each centre cell.
+     *
+     * @param node - the level 2 node.
+     * @return the level 1 centre advanced by one generation.
+     */
+    private Node evolve(Node node) {
+
+        Node[] grid = grandchildren(node);
+
+        Node[] children = new Node[childNumber];
+
+        int cell;
+        int count;
+        for (int q = 0; q < childNumber; q++) {
+
+            cell = centreGrid[q];
+            count = 0;
+
+            for (int n : gridNeighbours[cell]) if (alive == grid[n]) count++;
+
+            children[q] = (alive == grid[cell] ? survivors[count] : born[count]) ? alive : dead;
+        }
+
+        return node(children);
+    }
+
+    /**
+     * Get the level k-1 node at the centre of the supplied level k node.
+     *
+     * @param node - the node to take the centre of, it must be at least level 2.
+     * @return the centre node.
+     */
+    private Node centre(Node node) {
+
+        Node[] grid = grandchildren(node);
+
+        Node[] children = new Node[childNumber];
+
+        for (int q = 0; q < childNumber; q++) children[q] = grid[centreGrid[q]];
+
+        return node(children);
+    }
+
+    /**
+     * Get the 4^d grid of grandchildren of the supplied node.
+     *
+     * @param node - the node, it must be at least level 2.
+     * @return the grandchildren indexed by their base 4 coordinates.
+     */
+    private Node[] grandchildren(Node node) {
+
+        Node[] grid = new Node[gridChild.length];
+
+        for (int i = 0; i < grid.length; i++) grid[i] = node.children[gridChild[i]].children[gridGrandchild[i]];
+
+        return grid;
+    }
+
+    /**
+     * Double the size of the root in every dimension keeping the current root at its centre.
+     */
+    private void expand() {
+
+        Node border = empty(root.level - 1);
+
+        Node[] children = new Node[childNumber];
+
+        Node[] grandchildren;
+        for (int c = 0; c < childNumber; c++) {
+
+            grandchildren = new Node[childNumber];
+
+            Arrays.fill(grandchildren, border);
+
+            // The old child goes in the corner of the new child that touches the centre.
+            grandchildren[(childNumber - 1) ^ c] = root.children[c];
+
+            children[c] = node(grandchildren);
+        }
+
+        for (int d = 0; d < dimensions; d++) origin[d] -= 1L << (root.level - 1);
+
+        root = node(children);
+    }
+
+    /**
+     * Set the cell at the supplied coordinates, relative to the corner of the supplied node, to be alive or dead.
+     *
+     * @param node        - the node that contains the cell.
+     * @param coordinates - the coordinates of the cell relative to the node.
+     * @param alive       - true if the cell should be alive.
+     * @return the new canonical node containing the changed cell.
+     */
+    private Node set(Node node, long[] coordinates, boolean alive) {
+
+        if (0 == node.level) return alive ? this.alive : dead;
+
+        int index = childIndex(coordinates, node.level - 1);
+
+        Node[] children = Arrays.copyOf(node.children, childNumber);
+
+        children[index] = set(children[index], coordinates, alive);
+
+        return node(children);
+    }
+
+    /**
+     * Visit every alive cell within the supplied node.
+     *
+     * @param node        - the node to visit.
+     * @param corner      - the coordinates of the corner of the node.
+     * @param coordinates - a buffer for the coordinates of each alive cell.
+     * @param visitor     - the visitor to give the coordinates to.
+     */
+    private void visit(Node node, long[] corner, long[] coordinates, Visitor visitor) {
+
+        if (0 == node.population) return;
+
+        if (0 == node.level) {
+
+            System.arraycopy(corner, 0, coordinates, 0, dimensions);
+
+            visitor.visit(coordinates);
+
+            return;
+        }
+
+        long half = 1L << (node.level - 1);
+
+        long[] childCorner = new long[dimensions];
+        for (int c = 0; c < childNumber; c++) {
+
+            for (int d = 0; d < dimensions; d++) childCorner[d] = corner[d] + (0 != ((c >> d) & 1) ? half : 0);
+
+            visit(node.children[c], childCorner, coordinates, visitor);
+        }
+    }
+
+    /**
+     * Get the canonical node with the supplied children.
+     *
+     * @param children - the children of the node.
+     * @return the canonical node.
+     */
+    private Node node(Node[] children) {
+
+        Node node = new Node(children);
+
+        Node canonical = nodes.get(node);
+
+        if (null != canonical) return canonical;
+
+        nodes.put(node, node);
+
+        return node;
+    }
+
+    /**
+     * Get the canonical empty node for the supplied level.
+     *
+     * @param level - the level of the node.
+     * @return the empty node.
+     */
+    private Node empty(int level) {
+
+        Node[] children;
+        while (empty.size() <= level) {
+
+            children = new Node[childNumber];
+
+            Arrays.fill(children, empty.get(empty.size() - 1));
+
+            empty.add(node(children));
+        }
+
+        return empty.get(level);
+    }
+
+    /**
+     * Check to see if the supplied coordinates are within the root.
+     *
+     * @param coordinates - the coordinates to check.
+     * @return true if the coordinates are within the root.
+     */
+    private boolean contains(long[] coordinates) {
+
+        long size = 1L << root.level;
+
+        for (int d = 0; d < dimensions; d++) {
+
+            if (origin[d] > coordinates[d] || origin[d] + size <= coordinates[d]) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the index of the child that contains the supplied relative coordinates.
+     *
+     * @param coordinates - the coordinates relative to the corner of the node.
+     * @param bit         - the bit of the coordinates that selects the child, this is the level of the children.
+     * @return the child index.
+     */
+    private int childIndex(long[] coordinates, int bit) {
+
+        int index = 0;
+
+        for (int d = 0; d < dimensions; d++) index |= (int) ((coordinates[d] >>> bit) & 1) << d;
+
+        return index;
+    }
+
+    /**
+     * Check that the correct number of coordinates have been supplied.
+     *
+     * @param coordinates - the coordinates to check.
+     * @throws IllegalCoordinateNumber if an incorrect number of coordinates has been supplied.
+     */
+    private void checkCoordinates(long[] coordinates) {
+
+        if (dimensions != coordinates.length) {
+
+            throw new IllegalCoordinateNumber("The number of coordinates is invalid. Expected: "
+                    + dimensions + " Actual: " + coordinates.length, dimensions);
+        }
+    }
+
+    /**
+     * Find the base 4 grid indices of the neighbours of the cell at the supplied grid coordinates that lie within the
+     * grid.
+     *
+     * @param g - the grid coordinates of the cell.
+     * @return the grid indices of the neighbours.
+     */
+    private int[] findGridNeighbours(int[] g) {
+
+        List<Integer> neighbours = new ArrayList<Integer>();
+
+        int[] offset;
+        int index;
+        int c;
+        for (int n = 0; n < Cell.neighbourNumber(dimensions); n++) {
+
+            offset = Cell.calculateNeighbourCoordinates(dimensions, n);
+            index = 0;
+
+            for (int d = dimensions - 1; d >= 0 && 0 <= index; d--) {
+
+                c = g[d] + offset[d];
+
+                index = 0 > c || 4 <= c ? -1 : index * 4 + c;
+            }
+
+            if (0 <= index) neighbours.add(index);
+        }
+
+        int[] indices = new int[neighbours.size()];
+
+        for (int i = 0; i < indices.length; i++) indices[i] = neighbours.get(i);
+
+        return indices;
+    }
+
+    /**
+     * Calculate the grid index of the supplied base coordinates plus the unit offset encoded in the bits of q.
+     *
+     * @param base - the base coordinates.
+     * @param q    - the offset, bit d is the offset in dimension d.
+     * @param size - the size of the grid in each dimension.
+     * @return the grid index.
+     */
+    private int gridIndex(int[] base, int q, int size) {
+
+        int index = 0;
+
+        for (int d = dimensions - 1; d >= 0; d--) index = index * size + base[d] + ((q >> d) & 1);
+
+        return index;
+    }
+
+    /**
+     * Increment the supplied coordinates, first dimension fastest, wrapping each at the supplied size.
+     *
+     * @param coordinates - the coordinates to increment.
+     * @param size        - the size of each dimension.
+     */
+    private static void increment(int[] coordinates, int size) {
+
+        for (int d = 0; d < coordinates.length && size <= ++coordinates[d]; d++) coordinates[d] = 0;
+    }
+}
@@ -0,0 +1,348 @@
+package org.karlbennett.gameoflife;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This counts what every {@see Board} and {@see Cell} in the JVM does to produce each generation: the cells that are
+ * evaluated and changed, the neighbour states that are looked up, how often each rule is applied and hits, and how long
+ * each tick takes. The counters can be read through {@link #snapshot()} or, once {@link #register()} has been called,
+ * through JMX.
+ * <p/>
+ * The instrumentation starts switched off. While it is off the hot paths only read a single flag and skip everything
+ * else, so it can be left compiled in and switched on at runtime when a board needs looking at. While it is on, boards
+ * that apply a {@see RuleTable} to every cell at once count in bulk after each generation, and the count of a bit board
+ * is estimated from the tiles that were stepped.
+ */
+public class Instrumentation implements InstrumentationMBean {
+
+    /**
+     * The JMX name of the instrumentation.
+     */
+    public static final String OBJECT_NAME = "org.karlbennett.gameoflife:type=Instrumentation";
+
+    /**
+     * The JMX name of the counter of a rule, without the name of the rule.
+     */
+    public static final String RULE_OBJECT_NAME = "org.karlbennett.gameoflife:type=Rule,name=";
+
+    /**
+     * The number of buckets in the tick time histogram, enough for any time a long can hold.
+     */
+    public static final int HISTOGRAM_BUCKETS = 64;
+
+    private static final Instrumentation INSTANCE = new Instrumentation();
+
+    /**
+     * Read on the hot paths, so it is a plain static rather than a field of the instance.
+     */
+    static volatile boolean enabled;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    private final AtomicLong cellsEvaluated = new AtomicLong();
+
+    private final AtomicLong cellsChanged = new AtomicLong();
+
+    private final AtomicLong neighbourLookups = new AtomicLong();
+
+    private final AtomicLong tickNanos = new AtomicLong();
+
+    private final AtomicLongArray tickHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+    /**
+     * The counter of each rule by name. Rules that describe themselves the same way share a counter, so a rule table
+     * that is parsed again for every board does not add a counter of its own.
+     */
+    private final ConcurrentMap<String, RuleCounter> rules = new ConcurrentHashMap<String, RuleCounter>();
+
+    /**
+     * The counter of each rule by name, in the order the rules were first counted.
+     */
+    private final Map<String, RuleCounter> names = new LinkedHashMap<String, RuleCounter>();
+
+    /**
+     * Whether each class of rule describes itself, rules that don't are counted by the name of their class.
+     */
+    private final ConcurrentMap<Class<?>, Boolean> described = new ConcurrentHashMap<Class<?>, Boolean>();
+
+    private MBeanServer server;
+
+
+    private Instrumentation() {
+    }
+
+
+    /**
+     * Get the instrumentation of the JVM.
+     *
+     * @return the instrumentation.
+     */
+    public static Instrumentation getInstance() {
+
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+
+        Instrumentation.enabled = enabled;
+    }
+
+    @Override
+    public long getTicks() {
+
+        return ticks.get();
+    }
+
+    @Override
+    public long getCellsEvaluated() {
+
+        return cellsEvaluated.get();
+    }
+
+    @Override
+    public long getCellsChanged() {
+
+        return cellsChanged.get();
+    }
+
+    @Override
+    public long getNeighbourLookups() {
+
+        return neighbourLookups.get();
+    }
+
+    @Override
+    public long getTickNanos() {
+
+        return tickNanos.get();
+    }
+
+    @Override
+    public long[] getTickHistogram() {
+
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+        for (int b = 0; b < histogram.length; b++) histogram[b] = tickHistogram.get(b);
+
+        return histogram;
+    }
+
+    @Override
+    public synchronized String[] getRuleNames() {
+
+        return names.keySet().toArray(new String[names.size()]);
+    }
+
+    /**
+     * Take a copy of every counter. The counters keep changing while the copy is taken, so a snapshot that is taken
+     * while a board is ticking may count part of a generation.
+     *
+     * @return the snapshot.
+     */
+    public synchronized InstrumentationSnapshot snapshot() {
+
+        Map<String, long[]> counts = new LinkedHashMap<String, long[]>();
+
+        for (Map.Entry<String, RuleCounter> entry : names.entrySet()) {
+
+            counts.put(entry.getKey(), new long[]{entry.getValue().getInvocations(), entry.getValue().getHits()});
+        }
+
+        return new InstrumentationSnapshot(getTicks(), getCellsEvaluated(), getCellsChanged(), getNeighbourLookups(),
+                getTickNanos(), getTickHistogram(), counts);
+    }
+
+    @Override
+    public synchronized void reset() {
+
+        ticks.set(0);
+        cellsEvaluated.set(0);
+        cellsChanged.set(0);
+        neighbourLookups.set(0);
+        tickNanos.set(0);
+
+        for (int b = 0; b < HISTOGRAM_BUCKETS; b++) tickHistogram.set(b, 0);
+
+        for (RuleCounter counter : names.values()) counter.reset();
+    }
+
+    /**
+     * Register the instrumentation and the counter of every rule with the platform MBean server. Rules that are counted
+     * later are registered as they are first seen. Registering more than once has no effect.
+     *
+     * @throws IllegalStateException if the MBeans could not be registered.
+     */
+    public synchronized void register() {
+
+        if (null != server) return;
+
+        MBeanServer platform = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+
+            platform.registerMBean(this, new ObjectName(OBJECT_NAME));
+
+            for (Map.Entry<String, RuleCounter> entry : names.entrySet()) {
+
+                platform.registerMBean(entry.getValue(), ruleObjectName(entry.getKey()));
+            }
+
+        } catch (JMException e) {
+
+            throw new IllegalStateException("The instrumentation could not be registered.", e);
+        }
+
+        server = platform;
+    }
+
+    /**
+     * Remove the instrumentation and the rule counters from the platform MBean server.
+     *
+     * @throws IllegalStateException if the MBeans could not be unregistered.
+     */
+    public synchronized void unregister() {
+
+        if (null == server) return;
+
+        try {
+
+            server.unregisterMBean(new ObjectName(OBJECT_NAME));
+
+            for (String name : names.keySet()) server.unregisterMBean(ruleObjectName(name));
+
+        } catch (JMException e) {
+
+            throw new IllegalStateException("The instrumentation could not be unregistered.", e);
+        }
+
+        server = null;
+    }
+
+    /**
+     * Count a generation that a board has produced.
+     *
+     * @param nanos            - the time it took.
+     * @param evaluated        - the number of cells that had their next state worked out.
+     * @param changed          - the number of cells that changed state.
+     * @param neighbourLookups - the number of neighbour states that were looked up in bulk, lookups made through a
+     *                         {@see Cell} are counted by the cell.
+     */
+    void tick(long nanos, long evaluated, long changed, long neighbourLookups) {
+
+        ticks.incrementAndGet();
+        cellsEvaluated.addAndGet(evaluated);
+        cellsChanged.addAndGet(changed);
+        tickNanos.addAndGet(nanos);
+
+        if (0 < neighbourLookups) this.neighbourLookups.addAndGet(neighbourLookups);
+
+        tickHistogram.incrementAndGet(Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+    }
+
+    /**
+     * Count neighbour states that were looked up through a {@see Cell}.
+     *
+     * @param lookups - the number of neighbours.
+     */
+    void neighbours(int lookups) {
+
+        neighbourLookups.addAndGet(lookups);
+    }
+
+    /**
+     * Get the counter of the supplied rule, creating and registering it the first time the rule is seen.
+     *
+     * @param rule - the rule.
+     * @return the counter of the rule.
+     */
+    RuleCounter rule(Rule<?> rule) {
+
+        String name = name(rule);
+
+        RuleCounter counter = rules.get(name);
+
+        return null == counter ? createCounter(name) : counter;
+    }
+
+    /**
+     * Get the name a rule is counted under. The name of a rule that does not override {@see Object#toString()} would
+     * be different for every instance, so those rules are counted by the name of their class instead.
+     *
+     * @param rule - the rule.
+     * @return the name of the rule.
+     */
+    private String name(Rule<?> rule) {
+
+        if (null == rule) return String.valueOf(rule);
+
+        Class<?> type = rule.getClass();
+
+        Boolean describes = described.get(type);
+
+        if (null == describes) {
+
+            try {
+
+                describes = Object.class != type.getMethod("toString").getDeclaringClass();
+
+            } catch (NoSuchMethodException e) {
+
+                describes = false;
+            }
+
+            described.put(type, describes);
+        }
+
+        return describes ? rule.toString() : type.getName();
+    }
+
+    private synchronized RuleCounter createCounter(String name) {
+
+        RuleCounter counter = rules.get(name);
+
+        if (null != counter) return counter;
+
+        counter = new RuleCounter(name);
+
+        if (null != server) {
+
+            try {
+
+                server.registerMBean(counter, ruleObjectName(name));
+
+            } catch (JMException e) {
+
+                throw new IllegalStateException("The counter of the rule " + name + " could not be registered.", e);
+            }
+        }
+
+        names.put(name, counter);
+        rules.put(name, counter);
+
+        return counter;
+    }
+
+    private static ObjectName ruleObjectName(String name) throws JMException {
+
+        return new ObjectName(RULE_OBJECT_NAME + ObjectName.quote(name));
+    }
+}
@@ -0,0 +1,79 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * The JMX view of the {@see Instrumentation} of every board in the JVM.
+ */
+public interface InstrumentationMBean {
+
+    /**
+     * Check whether the counters are being updated.
+     *
+     * @return true if the instrumentation is switched on.
+     */
+    public boolean isEnabled();
+
+    /**
+     * Switch the counters on or off.
+     *
+     * @param enabled - true to start counting, false to stop.
+     */
+    public void setEnabled(boolean enabled);
+
+    /**
+     * Get the number of generations that have been produced.
+     *
+     * @return the number of ticks.
+     */
+    public long getTicks();
+
+    /**
+     * Get the number of cells that have had their next state worked out.
+     *
+     * @return the number of cells evaluated.
+     */
+    public long getCellsEvaluated();
+
+    /**
+     * Get the number of cells that changed state.
+     *
+     * @return the number of cells changed.
+     */
+    public long getCellsChanged();
+
+    /**
+     * Get the number of neighbour states that were looked up to work out the next states.
+     *
+     * @return the number of neighbour lookups.
+     */
+    public long getNeighbourLookups();
+
+    /**
+     * Get the total time spent producing generations.
+     *
+     * @return the tick time in nanoseconds.
+     */
+    public long getTickNanos();
+
+    /**
+     * Get the histogram of tick times, where bucket i counts the ticks that took less than 2^i nanoseconds and at
+     * least 2^(i-1).
+     *
+     * @return the histogram.
+     */
+    public long[] getTickHistogram();
+
+    /**
+     * Get the names of the rules that have been counted, each of which has an MBean of its own.
+     *
+     * @return the rule names.
+     */
+    public String[] getRuleNames();
+
+    /**
+     * Set every counter back to 0.
+     */
+    public void reset();
+}
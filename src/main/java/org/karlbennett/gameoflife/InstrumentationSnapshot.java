@@ -0,0 +1,184 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a copy of the counters of the {@see Instrumentation} at a moment in time. Two snapshots can be subtracted to
+ * find what happened between them.
+ */
+public class InstrumentationSnapshot {
+
+    private final long ticks;
+
+    private final long cellsEvaluated;
+
+    private final long cellsChanged;
+
+    private final long neighbourLookups;
+
+    private final long tickNanos;
+
+    private final long[] tickHistogram;
+
+    /**
+     * The invocations and hits of each rule by name.
+     */
+    private final Map<String, long[]> rules;
+
+
+    /**
+     * Construct a new <code>InstrumentationSnapshot</code>. The histogram and map are kept rather than copied.
+     *
+     * @param ticks            - the number of generations produced.
+     * @param cellsEvaluated   - the number of cells that had their next state worked out.
+     * @param cellsChanged     - the number of cells that changed state.
+     * @param neighbourLookups - the number of neighbour states that were looked up.
+     * @param tickNanos        - the total time spent producing generations.
+     * @param tickHistogram    - the number of ticks in each power of two bucket of nanoseconds.
+     * @param rules            - the invocations and hits of each rule by name.
+     */
+    public InstrumentationSnapshot(long ticks, long cellsEvaluated, long cellsChanged, long neighbourLookups,
+                                   long tickNanos, long[] tickHistogram, Map<String, long[]> rules) {
+
+        this.ticks = ticks;
+        this.cellsEvaluated = cellsEvaluated;
+        this.cellsChanged = cellsChanged;
+        this.neighbourLookups = neighbourLookups;
+        this.tickNanos = tickNanos;
+        this.tickHistogram = tickHistogram;
+        this.rules = rules;
+    }
+
+
+    /**
+     * Get the number of generations that were produced.
+     *
+     * @return the number of ticks.
+     */
+    public long getTicks() {
+
+        return ticks;
+    }
+
+    /**
+     * Get the number of cells that had their next state worked out.
+     *
+     * @return the number of cells evaluated.
+     */
+    public long getCellsEvaluated() {
+
+        return cellsEvaluated;
+    }
+
+    /**
+     * Get the number of cells that changed state.
+     *
+     * @return the number of cells changed.
+     */
+    public long getCellsChanged() {
+
+        return cellsChanged;
+    }
+
+    /**
+     * Get the number of neighbour states that were looked up.
+     *
+     * @return the number of neighbour lookups.
+     */
+    public long getNeighbourLookups() {
+
+        return neighbourLookups;
+    }
+
+    /**
+     * Get the total time spent producing generations.
+     *
+     * @return the tick time in nanoseconds.
+     */
+    public long getTickNanos() {
+
+        return tickNanos;
+    }
+
+    /**
+     * Get the number of ticks in each bucket of the tick time histogram, see
+     * {@link InstrumentationMBean#getTickHistogram()}.
+     *
+     * @return a copy of the histogram.
+     */
+    public long[] getTickHistogram() {
+
+        return Arrays.copyOf(tickHistogram, tickHistogram.length);
+    }
+
+    /**
+     * Get the names of the rules that were counted.
+     *
+     * @return the rule names.
+     */
+    public Set<String> getRules() {
+
+        return Collections.unmodifiableSet(rules.keySet());
+    }
+
+    /**
+     * Get the number of times the named rule was applied to a cell.
+     *
+     * @param rule - the name of the rule.
+     * @return the number of invocations, or 0 if the rule was not counted.
+     */
+    public long getRuleInvocations(String rule) {
+
+        return rules.containsKey(rule) ? rules.get(rule)[0] : 0;
+    }
+
+    /**
+     * Get the number of times the named rule changed the state of a cell.
+     *
+     * @param rule - the name of the rule.
+     * @return the number of hits, or 0 if the rule was not counted.
+     */
+    public long getRuleHits(String rule) {
+
+        return rules.containsKey(rule) ? rules.get(rule)[1] : 0;
+    }
+
+    /**
+     * Find what was counted between the supplied earlier snapshot and this one.
+     *
+     * @param earlier - the earlier snapshot.
+     * @return the difference between the snapshots.
+     */
+    public InstrumentationSnapshot since(InstrumentationSnapshot earlier) {
+
+        long[] histogram = new long[tickHistogram.length];
+
+        for (int b = 0; b < histogram.length; b++) histogram[b] = tickHistogram[b] - earlier.tickHistogram[b];
+
+        Map<String, long[]> counts = new LinkedHashMap<String, long[]>();
+
+        for (Map.Entry<String, long[]> entry : rules.entrySet()) {
+
+            counts.put(entry.getKey(), new long[]{entry.getValue()[0] - earlier.getRuleInvocations(entry.getKey()),
+                    entry.getValue()[1] - earlier.getRuleHits(entry.getKey())});
+        }
+
+        return new InstrumentationSnapshot(ticks - earlier.ticks, cellsEvaluated - earlier.cellsEvaluated,
+                cellsChanged - earlier.cellsChanged, neighbourLookups - earlier.neighbourLookups,
+                tickNanos - earlier.tickNanos, histogram, counts);
+    }
+
+    @Override
+    public String toString() {
+
+        return "Ticked " + ticks + " generations in " + tickNanos / 1000000 + "ms, evaluating " + cellsEvaluated +
+                " cells with " + neighbourLookups + " neighbour lookups and changing " + cellsChanged + " cells.";
+    }
+}
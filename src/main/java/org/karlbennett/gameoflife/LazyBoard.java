@@ -0,0 +1,615 @@
+package org.karlbennett.gameoflife;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a board that only reads its initial state where it has to. The board is split into regions of about 4096
+ * cells, each {@link #getRegionSize()} cells on a side, and nothing is held for a region until it is materialised from
+ * the initial state. That happens when one of its cells is read, when it is activated, or when a region next to it
+ * changes. A board of any size is built in constant time and only ever holds the regions that have been touched.
+ * <p/>
+ * Like the default state of an {@see UnboundedBoard}, a region that has not been materialised is expected to stay in
+ * its initial state, which is the case for a quiet background such as every cell dead. The regions that start with a
+ * pattern in them have to be activated, or read, before the first tick. Materialised regions are stepped while they or
+ * a region next to them are changing and are left alone once they are quiet.
+ * <p/>
+ * The initial state must be a {@see PositionalInitialState} whose cells do not depend on the order they are read in,
+ * such as a {@see SeededInitialState}, since the regions are materialised in whatever order they are needed.
+ *
+ * @param <S> - the type of state that the cells contain.
+ */
+public class LazyBoard<S extends Comparable<S>> {
+
+    /**
+     * A region of the board that has been materialised.
+     */
+    private static final class Region {
+
+        private final int[] grid;
+
+        private final int[] sizes;
+
+        private final int[] strides;
+
+        private byte[] cells;
+
+        private byte[] next;
+
+        private boolean marked;
+
+        private boolean queued;
+
+        private boolean changed;
+
+
+        private Region(int[] grid, int[] sizes) {
+
+            this.grid = grid;
+            this.sizes = sizes;
+            this.strides = Board.calculateStrides(sizes);
+            this.cells = new byte[Board.volume(sizes)];
+        }
+    }
+
+    private final RuleTable<S> table;
+
+    private final PositionalInitialState<S> initialState;
+
+    private final int[] dimensions;
+
+    private final int regionSize;
+
+    private final int[] gridCounts;
+
+    private final long[] gridStrides;
+
+    /**
+     * Every offset from -1 to 1 in each dimension, the offset of the region itself is in the middle.
+     */
+    private final int[][] offsets;
+
+    private final LongIntHashMap slots;
+
+    private final List<Region> regions;
+
+    private List<Region> active;
+
+    private byte[] padded;
+
+    private int[] paddedNeighbourStrides;
+
+    private long generation;
+
+
+    /**
+     * Construct a new <code>LazyBoard</code>, no cells are read from the initial state until they are needed.
+     *
+     * @param table        - the rule that the board is played with.
+     * @param initialState - the object the supplies the initial state of each cell from its coordinates.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IllegalArgumentException if there is no initial state, any dimension is not positive, the rule has more
+     *                                  than 256 states or the board has too many regions to count.
+     */
+    public LazyBoard(RuleTable<S> table, PositionalInitialState<S> initialState, int... dimensions) {
+
+        if (null == initialState) throw new IllegalArgumentException("The initialState can not be null");
+
+        if (0 == dimensions.length) throw new IllegalArgumentException("A board needs at least one dimension.");
+
+        if (256 < table.getStates().size()) {
+
+            throw new IllegalArgumentException("A lazy board can not hold more than 256 states: " +
+                    table.getStates().size());
+        }
+
+        this.table = table;
+        this.initialState = initialState;
+        this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+        this.regionSize = regionSize(dimensions.length);
+        this.gridCounts = new int[dimensions.length];
+        this.gridStrides = new long[dimensions.length];
+
+        long regions = 1;
+
+        for (int d = 0; d < dimensions.length; d++) {
+
+            if (0 >= dimensions[d]) {
+
+                throw new IllegalArgumentException("The dimensions must be positive: " + Arrays.toString(dimensions));
+            }
+
+            gridCounts[d] = (dimensions[d] + regionSize - 1) / regionSize;
+            gridStrides[d] = regions;
+
+            if (Long.MAX_VALUE / gridCounts[d] < regions) {
+
+                throw new IllegalArgumentException("The board has too many regions: " + Arrays.toString(dimensions));
+            }
+
+            regions *= gridCounts[d];
+        }
+
+        this.offsets = new int[Cell.neighbourNumber(dimensions.length) + 1][dimensions.length];
+
+        for (int o = 0; o < offsets.length; o++) {
+
+            for (int d = 0, rest = o; d < dimensions.length; rest /= 3, d++) offsets[o][d] = rest % 3 - 1;
+        }
+
+        this.slots = new LongIntHashMap();
+        this.regions = new ArrayList<Region>();
+        this.active = new ArrayList<Region>();
+    }
+
+
+    /**
+     * Produce the next generation by stepping every region that changed in the last generation, or was activated or
+     * materialised since, along with the regions next to them.
+     *
+     * @return this board.
+     */
+    public LazyBoard<S> tick() {
+
+        List<Region> seeds = active;
+        List<Region> step = new ArrayList<Region>();
+
+        active = new ArrayList<Region>();
+
+        int[] grid = new int[dimensions.length];
+
+        for (Region seed : seeds) {
+
+            seed.queued = false;
+
+            for (int[] offset : offsets) {
+
+                if (toGrid(seed.grid, offset, grid)) mark(region(grid, false), step);
+            }
+        }
+
+        for (Region region : step) step(region);
+
+        byte[] swap;
+        for (Region region : step) {
+
+            swap = region.cells;
+            region.cells = region.next;
+            region.next = swap;
+            region.marked = false;
+
+            if (region.changed) queue(region);
+
+            // A quiet region does not need a second generation until it is stepped again.
+            else region.next = null;
+        }
+
+        generation++;
+
+        return this;
+    }
+
+    /**
+     * Produce the generation that is the supplied number of generations after this one.
+     *
+     * @param generations - the number of generations to advance.
+     * @return this board.
+     * @throws IllegalArgumentException if the number of generations is negative.
+     */
+    public LazyBoard<S> advance(int generations) {
+
+        if (0 > generations) {
+
+            throw new IllegalArgumentException("The number of generations cannot be negative: " + generations);
+        }
+
+        for (int g = 0; g < generations; g++) tick();
+
+        return this;
+    }
+
+    /**
+     * Get the state of the cell at the supplied coordinates, materialising its region if this is the first time it has
+     * been touched.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the state of the cell found at the supplied coordinates.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if any of the coordinates are outside of the board.
+     */
+    public S state(int... x) throws IllegalCoordinateNumber {
+
+        check(x);
+
+        int[] grid = new int[dimensions.length];
+
+        for (int d = 0; d < dimensions.length; d++) grid[d] = x[d] / regionSize;
+
+        Region region = region(grid, true);
+
+        int index = 0;
+
+        for (int d = 0; d < dimensions.length; d++) index += (x[d] - grid[d] * regionSize) * region.strides[d];
+
+        return table.getStates().get(region.cells[index] & 0xFF);
+    }
+
+    /**
+     * Make sure that every region that overlaps the supplied box is stepped on the next tick, materialising them if
+     * they have not been touched. The regions that start with a pattern in them should be activated before the first
+     * tick.
+     *
+     * @param from - the lowest coordinates of the box.
+     * @param to   - the coordinates after the highest coordinates of the box.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if any of the coordinates are outside of the board.
+     */
+    public void activate(int[] from, int[] to) throws IllegalCoordinateNumber {
+
+        int[] last = new int[to.length];
+
+        for (int d = 0; d < to.length; d++) last[d] = to[d] - 1;
+
+        check(from);
+        check(last);
+
+        int[] low = new int[dimensions.length];
+        int[] high = new int[dimensions.length];
+
+        for (int d = 0; d < dimensions.length; d++) {
+
+            low[d] = from[d] / regionSize;
+            high[d] = last[d] / regionSize;
+
+            if (low[d] > high[d]) return;
+        }
+
+        int[] grid = Arrays.copyOf(low, low.length);
+
+        do {
+
+            queue(region(grid, true));
+
+        } while (increment(grid, low, high));
+    }
+
+    /**
+     * Get the generation of the board.
+     *
+     * @return the generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the dimensions of the board.
+     *
+     * @return a copy of the dimensions.
+     */
+    public int[] getDimensionSizes() {
+
+        return Arrays.copyOf(dimensions, dimensions.length);
+    }
+
+    /**
+     * Get the number of cells that a region covers in every dimension, regions on the far edges of the board are cut
+     * short.
+     *
+     * @return the region size.
+     */
+    public int getRegionSize() {
+
+        return regionSize;
+    }
+
+    /**
+     * Get the number of regions that have been materialised.
+     *
+     * @return the number of regions.
+     */
+    public int getMaterialisedRegions() {
+
+        return regions.size();
+    }
+
+    /**
+     * Get the number of cells in the regions that have been materialised.
+     *
+     * @return the number of cells.
+     */
+    public long getMaterialisedCells() {
+
+        long cells = 0;
+
+        for (Region region : regions) cells += region.cells.length;
+
+        return cells;
+    }
+
+    /**
+     * Find the region at the supplied grid coordinates, materialising it if it has not been touched.
+     *
+     * @param grid     - the coordinates of the region in the grid of regions.
+     * @param activate - true if a newly materialised region should be stepped on the next tick.
+     * @return the region.
+     */
+    private Region region(int[] grid, boolean activate) {
+
+        long key = key(grid);
+
+        int slot = slots.get(key, -1);
+
+        if (0 <= slot) return regions.get(slot);
+
+        int[] sizes = new int[dimensions.length];
+        int[] origin = new int[dimensions.length];
+
+        for (int d = 0; d < dimensions.length; d++) {
+
+            origin[d] = grid[d] * regionSize;
+            sizes[d] = Math.min(regionSize, dimensions[d] - origin[d]);
+        }
+
+        Region region = new Region(Arrays.copyOf(grid, grid.length), sizes);
+
+        int[] coordinates = Arrays.copyOf(origin, origin.length);
+
+        for (int i = 0; i < region.cells.length; i++) {
+
+            region.cells[i] = (byte) initialCode(coordinates);
+
+            for (int d = 0; d < dimensions.length && origin[d] + sizes[d] <= ++coordinates[d]; d++) {
+
+                coordinates[d] = origin[d];
+            }
+        }
+
+        slots.put(key, regions.size());
+        regions.add(region);
+
+        if (activate) queue(region);
+
+        return region;
+    }
+
+    /**
+     * Work out the next generation of a region into its spare buffer. The region and a one cell halo around it are
+     * first gathered into a padded buffer, so the neighbours of every cell can be counted without checking which region
+     * they are in.
+     *
+     * @param region - the region to step.
+     */
+    private void step(Region region) {
+
+        int[] paddedSizes = new int[dimensions.length];
+
+        for (int d = 0; d < dimensions.length; d++) paddedSizes[d] = region.sizes[d] + 2;
+
+        int[] paddedStrides = Board.calculateStrides(paddedSizes);
+
+        gather(region, paddedSizes, paddedStrides);
+
+        if (null == paddedNeighbourStrides) paddedNeighbourStrides = new int[offsets.length];
+
+        for (int o = 0; o < offsets.length; o++) {
+
+            paddedNeighbourStrides[o] = 0;
+
+            for (int d = 0; d < dimensions.length; d++) paddedNeighbourStrides[o] += offsets[o][d] * paddedStrides[d];
+        }
+
+        if (null == region.next) region.next = new byte[region.cells.length];
+
+        region.changed = false;
+
+        int[] coordinates = new int[dimensions.length];
+
+        int p;
+        int count;
+        int state;
+        for (int i = 0; i < region.cells.length; i++) {
+
+            p = 0;
+
+            for (int d = 0; d < dimensions.length; d++) p += (coordinates[d] + 1) * paddedStrides[d];
+
+            count = 0;
+
+            // The offsets include the cell itself, which is taken off again below.
+            for (int stride : paddedNeighbourStrides) if (RuleTable.ALIVE == padded[p + stride]) count++;
+
+            state = padded[p] & 0xFF;
+
+            if (RuleTable.ALIVE == state) count--;
+
+            region.next[i] = (byte) table.next(state, count);
+
+            if (region.next[i] != region.cells[i]) region.changed = true;
+
+            for (int d = 0; d < dimensions.length && region.sizes[d] <= ++coordinates[d]; d++) coordinates[d] = 0;
+        }
+    }
+
+    /**
+     * Copy a region and the cells around it into the padded buffer. Cells off the edge of the board are left dead and
+     * cells in regions that have not been materialised are read from the initial state.
+     *
+     * @param region        - the region to gather.
+     * @param paddedSizes   - the size of the padded buffer in every dimension.
+     * @param paddedStrides - the strides of the padded buffer.
+     */
+    private void gather(Region region, int[] paddedSizes, int[] paddedStrides) {
+
+        int volume = Board.volume(paddedSizes);
+
+        if (null == padded || padded.length < volume) padded = new byte[volume];
+
+        Arrays.fill(padded, 0, volume, (byte) 0);
+
+        int[] grid = new int[dimensions.length];
+        int[] start = new int[dimensions.length];
+        int[] local = new int[dimensions.length];
+        int[] lengths = new int[dimensions.length];
+        int[] c = new int[dimensions.length];
+        int[] coordinates = new int[dimensions.length];
+
+        for (int[] offset : offsets) {
+
+            if (!toGrid(region.grid, offset, grid)) continue;
+
+            int slot = slots.get(key(grid), -1);
+
+            Region neighbour = 0 > slot ? null : regions.get(slot);
+
+            for (int d = 0; d < dimensions.length; d++) {
+
+                start[d] = 0 > offset[d] ? 0 : 0 == offset[d] ? 1 : region.sizes[d] + 1;
+                local[d] = 0 > offset[d] ? regionSize - 1 : 0;
+                lengths[d] = 0 == offset[d] ? region.sizes[d] : 1;
+            }
+
+            Arrays.fill(c, 0);
+
+            int p;
+            int n;
+            do {
+
+                p = 0;
+                n = 0;
+
+                for (int d = 0; d < dimensions.length; d++) {
+
+                    p += (start[d] + c[d]) * paddedStrides[d];
+
+                    if (null != neighbour) n += (local[d] + c[d]) * neighbour.strides[d];
+
+                    else coordinates[d] = grid[d] * regionSize + local[d] + c[d];
+                }
+
+                padded[p] = null != neighbour ? neighbour.cells[n] : (byte) initialCode(coordinates);
+
+            } while (increment(c, null, lengths));
+        }
+    }
+
+    private int initialCode(int[] coordinates) {
+
+        S state = initialState.state(coordinates);
+
+        int code = table.code(state);
+
+        if (0 > code) {
+
+            throw new IllegalArgumentException("The initialState supplied a state that is not one of the " +
+                    "states of the rule table: " + state);
+        }
+
+        return code;
+    }
+
+    private void queue(Region region) {
+
+        if (region.queued) return;
+
+        region.queued = true;
+
+        active.add(region);
+    }
+
+    private void mark(Region region, List<Region> step) {
+
+        if (region.marked) return;
+
+        region.marked = true;
+
+        step.add(region);
+    }
+
+    /**
+     * Find the grid coordinates of the region at the supplied offset from another region.
+     *
+     * @param grid      - the grid coordinates of the region.
+     * @param offset    - the offset in every dimension, -1, 0 or 1.
+     * @param neighbour - the array that will receive the grid coordinates of the neighbouring region.
+     * @return true if the neighbouring region is on the board.
+     */
+    private boolean toGrid(int[] grid, int[] offset, int[] neighbour) {
+
+        for (int d = 0; d < grid.length; d++) {
+
+            neighbour[d] = grid[d] + offset[d];
+
+            if (0 > neighbour[d] || gridCounts[d] <= neighbour[d]) return false;
+        }
+
+        return true;
+    }
+
+    private long key(int[] grid) {
+
+        long key = 0;
+
+        for (int d = 0; d < grid.length; d++) key += grid[d] * gridStrides[d];
+
+        return key;
+    }
+
+    /**
+     * Move the supplied coordinates on to the next point of a box in row-major order.
+     *
+     * @param c    - the coordinates.
+     * @param low  - the lowest coordinates of the box, or null if they are all 0.
+     * @param high - the highest coordinates of the box if there are lows, otherwise the sizes of the box.
+     * @return false once every point of the box has been visited.
+     */
+    private static boolean increment(int[] c, int[] low, int[] high) {
+
+        for (int d = 0; d < c.length; d++) {
+
+            if (null == low ? ++c[d] < high[d] : ++c[d] <= high[d]) return true;
+
+            c[d] = null == low ? 0 : low[d];
+        }
+
+        return false;
+    }
+
+    private void check(int[] x) {
+
+        if (dimensions.length != x.length) {
+
+            throw new IllegalCoordinateNumber("The number of coordinates is invalid. Expected: "
+                    + dimensions.length + " Actual: " + x.length, dimensions.length);
+        }
+
+        for (int i = 0; i < x.length; i++) {
+
+            if (dimensions[i] <= x[i] || 0 > x[i]) {
+
+                throw new IndexOutOfBoundsException("The supplied coordinate with index " + i +
+                        " is outside of it's related dimension of size " + dimensions[i]);
+            }
+        }
+    }
+
+    /**
+     * Find the size of a region in every dimension, so that a region covers about 4096 cells.
+     *
+     * @param dimensions - the number of dimensions.
+     * @return the largest size whose power over the dimensions is at most 4096.
+     */
+    private static int regionSize(int dimensions) {
+
+        int size = 1;
+
+        while (Math.pow(size + 1, dimensions) <= 4096) size++;
+
+        return size;
+    }
+}
@@ -0,0 +1,73 @@
+package org.karlbennett.gameoflife;
+
+import java.io.Reader;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This reads a pattern in the Life 1.06 format, which is a <code>#Life 1.06</code> header followed by the x and y
+ * coordinates of each alive cell on a line of their own. The format allows the cells to be in any order but this
+ * reader streams the pattern, so the cells must be in row order i.e. sorted by y and then x. That is the order that
+ * {@see PatternWriter} writes them in.
+ * <p/>
+ * The coordinates are often centred on the origin, so a pattern will usually need to be moved onto the board by
+ * placing its origin away from the corner.
+ *
+ * @param <S> - the type of state that the Cell contains.
+ */
+public class Life106Reader<S extends Comparable<S>> extends PatternReader<S> {
+
+    /**
+     * Construct a new <code>Life106Reader</code> that places the pattern at the origin of the board.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     */
+    public Life106Reader(Reader reader, S deadState, S aliveState) {
+
+        this(reader, deadState, aliveState, 0, 0);
+    }
+
+    /**
+     * Construct a new <code>Life106Reader</code>.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     * @param originX    - the x coordinate on the board of the pattern's origin.
+     * @param originY    - the y coordinate on the board of the pattern's origin.
+     */
+    public Life106Reader(Reader reader, S deadState, S aliveState, int originX, int originY) {
+
+        super(reader, deadState, aliveState, originX, originY);
+    }
+
+
+    @Override
+    protected boolean readRun(int[] run) {
+
+        for (int c = peek(); -1 != c; c = peek()) {
+
+            if (Character.isWhitespace(c)) {
+
+                read();
+
+            } else if ('#' == c) {
+
+                skipLine();
+
+            } else {
+
+                run[0] = readInt();
+                run[1] = readInt();
+                run[2] = 1;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
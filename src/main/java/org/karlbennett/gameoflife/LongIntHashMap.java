@@ -0,0 +1,274 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is an open addressing hash map from primitive long keys to primitive int values, so that neither the keys nor
+ * the values are boxed. Collisions are resolved with linear probing and removals shift the following entries back so
+ * that no tombstones are left behind.
+ * <p/>
+ * The entries can be iterated by slot, for example:
+ * <code>for (int slot = 0; slot < map.capacity(); slot++) if (map.isUsed(slot)) map.keyAt(slot);</code>
+ */
+public class LongIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+
+    private long[] keys;
+
+    private int[] values;
+
+    private boolean[] used;
+
+    private int size;
+
+    private int mask;
+
+
+    /**
+     * Construct a new empty <code>LongIntHashMap</code>.
+     */
+    public LongIntHashMap() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct a new empty <code>LongIntHashMap</code> that can hold the supplied number of entries without growing.
+     *
+     * @param expected - the number of entries that are expected.
+     */
+    public LongIntHashMap(int expected) {
+
+        allocate(Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(Math.max(1, (int) (expected / LOAD_FACTOR)) - 1) << 1));
+    }
+
+
+    /**
+     * Mix the bits of the supplied key so that keys that only differ in their high bits are spread across the table.
+     *
+     * @param key - the key to hash.
+     * @return the mixed hash.
+     */
+    public static long hash(long key) {
+
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return key;
+    }
+
+    /**
+     * Get the value held for the supplied key.
+     *
+     * @param key          - the key to look up.
+     * @param defaultValue - the value to return if the key is not in the map.
+     * @return the value for the key or the default value.
+     */
+    public int get(long key, int defaultValue) {
+
+        int slot = find(key);
+
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Check to see if the supplied key is in the map.
+     *
+     * @param key - the key to look for.
+     * @return true if the key is in the map.
+     */
+    public boolean containsKey(long key) {
+
+        return used[find(key)];
+    }
+
+    /**
+     * Put the supplied value into the map for the supplied key.
+     *
+     * @param key   - the key.
+     * @param value - the value.
+     */
+    public void put(long key, int value) {
+
+        int slot = find(key);
+
+        if (!used[slot]) {
+
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+
+                grow();
+
+                slot = find(key);
+            }
+
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+
+        values[slot] = value;
+    }
+
+    /**
+     * Remove the supplied key from the map.
+     *
+     * @param key - the key to remove.
+     * @return true if the key was in the map.
+     */
+    public boolean remove(long key) {
+
+        int slot = find(key);
+
+        if (!used[slot]) return false;
+
+        // Shift back any following entries that would no longer be found once this slot is empty.
+        int next = slot;
+        int home;
+        while (true) {
+
+            next = (next + 1) & mask;
+
+            if (!used[next]) break;
+
+            home = (int) hash(keys[next]) & mask;
+
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+
+        used[slot] = false;
+        size--;
+
+        return true;
+    }
+
+    /**
+     * Remove every entry from the map, keeping its current capacity.
+     */
+    public void clear() {
+
+        Arrays.fill(used, false);
+
+        size = 0;
+    }
+
+    /**
+     * Get the number of entries in the map.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Get the number of slots in the map.
+     *
+     * @return the number of slots.
+     */
+    public int capacity() {
+
+        return keys.length;
+    }
+
+    /**
+     * Check to see if the supplied slot holds an entry.
+     *
+     * @param slot - the slot to check.
+     * @return true if the slot holds an entry.
+     */
+    public boolean isUsed(int slot) {
+
+        return used[slot];
+    }
+
+    /**
+     * Get the key held in the supplied slot.
+     *
+     * @param slot - the slot, this must hold an entry.
+     * @return the key.
+     */
+    public long keyAt(int slot) {
+
+        return keys[slot];
+    }
+
+    /**
+     * Get the value held in the supplied slot.
+     *
+     * @param slot - the slot, this must hold an entry.
+     * @return the value.
+     */
+    public int valueAt(int slot) {
+
+        return values[slot];
+    }
+
+    /**
+     * Find the slot that holds the supplied key or the empty slot where it would be put.
+     *
+     * @param key - the key to find.
+     * @return the slot.
+     */
+    private int find(long key) {
+
+        int slot = (int) hash(key) & mask;
+
+        while (used[slot] && keys[slot] != key) slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    /**
+     * Double the number of slots and put every entry back into the map.
+     */
+    private void grow() {
+
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(keys.length << 1);
+
+        int slot;
+        for (int i = 0; i < oldKeys.length; i++) {
+
+            if (oldUsed[i]) {
+
+                slot = find(oldKeys[i]);
+
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Allocate empty tables with the supplied number of slots, this must be a power of two.
+     *
+     * @param capacity - the number of slots.
+     */
+    private void allocate(int capacity) {
+
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+}
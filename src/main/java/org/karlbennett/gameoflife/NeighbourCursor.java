@@ -0,0 +1,141 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a reusable cursor over the neighbours of a {@see Cell}. The cursor visits the neighbours in direction index
+ * order and keeps the coordinates of the current neighbour up to date in place, so a rule can walk the neighbourhood of
+ * every cell on a board with a single cursor and without any allocation.
+ * <p/>
+ * For example:
+ * <code>for (cursor.reset(cell); cursor.next(); ) if (null != cursor.neighbour()) cursor.coordinate(0);</code>
+ *
+ * @param <S> - the type of state that the Cell contains.
+ */
+public class NeighbourCursor<S extends Comparable<S>, R extends Rule<S>> {
+
+    private final int dimensions;
+
+    private final int[] coordinates;
+
+    private Cell<S, R> cell;
+
+    private int direction;
+
+
+    /**
+     * Construct a new <code>NeighbourCursor</code> for cells with the supplied number of dimensions.
+     *
+     * @param dimensions - the number of dimensions of the cells the cursor will be used with.
+     */
+    public NeighbourCursor(int dimensions) {
+
+        this.dimensions = dimensions;
+        this.coordinates = new int[dimensions];
+        this.direction = Cell.neighbourNumber(dimensions);
+    }
+
+
+    /**
+     * Move the cursor to before the first neighbour of the supplied cell.
+     *
+     * @param cell - the cell whose neighbours will be visited.
+     * @return this cursor.
+     * @throws IllegalArgumentException if the cell does not have the same number of dimensions as the cursor.
+     */
+    public NeighbourCursor<S, R> reset(Cell<S, R> cell) {
+
+        if (dimensions != cell.getDimensions()) {
+
+            throw new IllegalArgumentException("The cursor supports (" + dimensions +
+                    ") dimensions but the cell has (" + cell.getDimensions() + ").");
+        }
+
+        this.cell = cell;
+        this.direction = -1;
+
+        // Start one step before the first neighbour so that the first call to next() lands on (-1,-1).
+        for (int d = 0; d < dimensions; d++) coordinates[d] = -1;
+
+        if (0 < dimensions) coordinates[0] = -2;
+
+        return this;
+    }
+
+    /**
+     * Move the cursor on to the next neighbour.
+     *
+     * @return false if every neighbour has been visited.
+     */
+    public boolean next() {
+
+        if (null == cell || Cell.neighbourNumber(dimensions) <= direction + 1) {
+
+            direction = Cell.neighbourNumber(dimensions);
+
+            return false;
+        }
+
+        direction++;
+
+        increment();
+
+        // Skip over the current cell which sits in the middle of the neighbourhood.
+        if (cell.getCellIndex() == direction) increment();
+
+        return true;
+    }
+
+    /**
+     * Get the direction index of the current neighbour.
+     *
+     * @return the direction index.
+     */
+    public int direction() {
+
+        return direction;
+    }
+
+    /**
+     * Get a coordinate of the current neighbour where the cell is (0,0).
+     *
+     * @param d - the dimension of the coordinate.
+     * @return the coordinate, either -1, 0, or 1.
+     */
+    public int coordinate(int d) {
+
+        return coordinates[d];
+    }
+
+    /**
+     * Get the current neighbour.
+     *
+     * @return the current neighbour, this is null if the neighbour is not known to the cell.
+     * @throws IndexOutOfBoundsException if the cursor is not on a neighbour.
+     */
+    public Cell<S, R> neighbour() {
+
+        if (null == cell) throw new IndexOutOfBoundsException("The cursor has not been reset onto a cell.");
+
+        return cell.getNeighbourAt(direction);
+    }
+
+    /**
+     * Increment the coordinates in place from left to right between -1 and 1.
+     */
+    private void increment() {
+
+        for (int d = 0; d < dimensions; d++) {
+
+            if (1 > coordinates[d]) {
+
+                coordinates[d]++;
+
+                return;
+            }
+
+            coordinates[d] = -1;
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package org.karlbennett.gameoflife;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a board that keeps its cells outside of the Java heap so that it can be larger than the heap and larger than
+ * the biggest array the JVM can create. Each generation is one byte per cell held in direct buffers, or in buffers that
+ * are mapped from a file, and a cell is addressed by a long index worked out from the dimensions. A buffer can only
+ * hold 2^31 bytes so a generation is split into chunks of whole rows, where a row is every cell along the first
+ * dimension.
+ * <p/>
+ * The board plays a {@see RuleTable} that is given as its rulestring, so the states are the codes 0 to N-1 of the rule.
+ * The next generation of a row is worked out from the column sums of the 3^(N-1) rows around it, which means that the
+ * only memory the board needs on the heap is a few rows.
+ * <p/>
+ * The buffers are released as soon as the board is closed rather than when they are garbage collected, after which the
+ * board can not be used.
+ */
+public class OffHeapBoard implements Closeable {
+
+    /**
+     * The largest number of bytes that will be put in a single buffer.
+     */
+    static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private final String rulestring;
+
+    private final RuleTable<Integer> table;
+
+    private final int[] dimensions;
+
+    private final long size;
+
+    private final int width;
+
+    private final long rows;
+
+    private final int rowsPerChunk;
+
+    /**
+     * The distance in rows to the row at each offset of {@link #rowOffsets}.
+     */
+    private final long[] rowStrides;
+
+    /**
+     * Every offset from -1 to 1 in each dimension after the first, including the row itself.
+     */
+    private final int[][] rowOffsets;
+
+    private final File file;
+
+    private ByteBuffer[] current;
+
+    private ByteBuffer[] next;
+
+    private long generation;
+
+
+    /**
+     * Construct a new <code>OffHeapBoard</code> that is held in direct buffers.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IllegalArgumentException if any dimension is not positive, the rule has more than 256 states or the
+     *                                  initial state supplies a state that is not a state of the rule.
+     */
+    public OffHeapBoard(String rulestring, InitialState<Integer> initialState, int... dimensions) {
+
+        this(rulestring, Board.positional(initialState), dimensions, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * Construct a new <code>OffHeapBoard</code> that is held in direct buffers from an initial state that is told the
+     * coordinates of each cell.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IllegalArgumentException if any dimension is not positive, the rule has more than 256 states or the
+     *                                  initial state supplies a state that is not a state of the rule.
+     */
+    public OffHeapBoard(String rulestring, PositionalInitialState<Integer> initialState, int... dimensions) {
+
+        this(rulestring, initialState, dimensions, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * Construct a new <code>OffHeapBoard</code> that is held in buffers mapped from the supplied file, which lets the
+     * operating system page the board in and out of memory. Anything already in the file is overwritten and the file
+     * is left holding the last two generations when the board is closed.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param file         - the file that will hold the board, it will be twice the number of cells in bytes.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IOException              if the file could not be mapped.
+     * @throws IllegalArgumentException if any dimension is not positive, the rule has more than 256 states or the
+     *                                  initial state supplies a state that is not a state of the rule.
+     */
+    public OffHeapBoard(String rulestring, InitialState<Integer> initialState, File file, int... dimensions)
+            throws IOException {
+
+        this(rulestring, Board.positional(initialState), file, dimensions, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * Construct a new <code>OffHeapBoard</code> that is held in buffers mapped from the supplied file, see
+     * {@link #OffHeapBoard(String, InitialState, File, int...)}, from an initial state that is told the coordinates of
+     * each cell.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param file         - the file that will hold the board, it will be twice the number of cells in bytes.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IOException              if the file could not be mapped.
+     * @throws IllegalArgumentException if any dimension is not positive, the rule has more than 256 states or the
+     *                                  initial state supplies a state that is not a state of the rule.
+     */
+    public OffHeapBoard(String rulestring, PositionalInitialState<Integer> initialState, File file, int... dimensions)
+            throws IOException {
+
+        this(rulestring, initialState, file, dimensions, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * Construct a new <code>OffHeapBoard</code> that is held in direct buffers of at most the supplied size.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @param chunkBytes   - the most bytes to put in one buffer, a chunk always holds at least one row.
+     */
+    OffHeapBoard(String rulestring, PositionalInitialState<Integer> initialState, int[] dimensions, int chunkBytes) {
+
+        this(rulestring, dimensions, chunkBytes, null);
+
+        try {
+
+            current = allocate();
+            next = allocate();
+
+            init(initialState);
+
+        } catch (RuntimeException e) {
+
+            close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Construct a new <code>OffHeapBoard</code> that is held in buffers of at most the supplied size mapped from the
+     * supplied file.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param file         - the file that will hold the board.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @param chunkBytes   - the most bytes to put in one buffer, a chunk always holds at least one row.
+     * @throws IOException if the file could not be mapped.
+     */
+    OffHeapBoard(String rulestring, PositionalInitialState<Integer> initialState, File file, int[] dimensions,
+                 int chunkBytes) throws IOException {
+
+        this(rulestring, dimensions, chunkBytes, file);
+
+        try {
+
+            map();
+
+            init(initialState);
+
+        } catch (IOException e) {
+
+            close();
+
+            throw e;
+
+        } catch (RuntimeException e) {
+
+            close();
+
+            throw e;
+        }
+    }
+
+    private OffHeapBoard(String rulestring, int[] dimensions, int chunkBytes, File file) {
+
+        if (0 == dimensions.length) throw new IllegalArgumentException("A board needs at least one dimension.");
+
+        long size = 1;
+
+        for (int d : dimensions) {
+
+            if (0 >= d) {
+
+                throw new IllegalArgumentException("The dimensions must be positive: " + Arrays.toString(dimensions));
+            }
+
+            if (Long.MAX_VALUE / 2 / d < size) {
+
+                throw new IllegalArgumentException("The board is too large: " + Arrays.toString(dimensions));
+            }
+
+            size *= d;
+        }
+
+        this.rulestring = rulestring;
+        this.table = RuleTable.parse(rulestring, dimensions.length);
+
+        if (256 < table.getStates().size()) {
+
+            throw new IllegalArgumentException("An off heap board can not hold more than 256 states: " +
+                    table.getStates().size());
+        }
+
+        this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+        this.size = size;
+        this.width = dimensions[0];
+        this.rows = size / width;
+        this.rowsPerChunk = Math.max(1, chunkBytes / width);
+        this.file = file;
+
+        int count = 1;
+
+        for (int d = 1; d < dimensions.length; d++) count *= 3;
+
+        this.rowOffsets = new int[count][dimensions.length];
+        this.rowStrides = new long[count];
+
+        for (int o = 0; o < count; o++) {
+
+            long stride = 1;
+
+            for (int d = 1, rest = o; d < dimensions.length; stride *= dimensions[d], rest /= 3, d++) {
+
+                rowOffsets[o][d] = rest % 3 - 1;
+                rowStrides[o] += rowOffsets[o][d] * stride;
+            }
+        }
+    }
+
+
+    /**
+     * Produce the next generation.
+     *
+     * @return this board.
+     * @throws IllegalStateException if the board has been closed.
+     */
+    public OffHeapBoard tick() {
+
+        checkOpen();
+
+        byte[] row = new byte[width];
+        byte[] neighbour = new byte[width];
+        byte[] nextRow = new byte[width];
+        int[] sums = new int[width + 2];
+        int[] coordinates = new int[dimensions.length];
+
+        for (long r = 0; r < rows; r++) {
+
+            Arrays.fill(sums, 0);
+
+            for (int o = 0; o < rowOffsets.length; o++) {
+
+                if (!isOnBoard(coordinates, rowOffsets[o])) continue;
+
+                read(current, r + rowStrides[o], neighbour);
+
+                for (int x = 0; x < width; x++) if (1 == neighbour[x]) sums[x + 1]++;
+            }
+
+            read(current, r, row);
+
+            int state;
+            for (int x = 0; x < width; x++) {
+
+                state = row[x] & 0xFF;
+
+                nextRow[x] = (byte) table.next(state, sums[x] + sums[x + 1] + sums[x + 2] - (1 == state ? 1 : 0));
+            }
+
+            write(next, r, nextRow);
+
+            for (int d = 1; d < coordinates.length && dimensions[d] <= ++coordinates[d]; d++) coordinates[d] = 0;
+        }
+
+        ByteBuffer[] swap = current;
+        current = next;
+        next = swap;
+
+        generation++;
+
+        return this;
+    }
+
+    /**
+     * Produce the generation that is the supplied number of generations after this one.
+     *
+     * @param generations - the number of generations to advance.
+     * @return this board.
+     * @throws IllegalArgumentException if the number of generations is negative.
+     * @throws IllegalStateException    if the board has been closed.
+     */
+    public OffHeapBoard advance(long generations) {
+
+        if (0 > generations) {
+
+            throw new IllegalArgumentException("The number of generations cannot be negative: " + generations);
+        }
+
+        for (long g = 0; g < generations; g++) tick();
+
+        return this;
+    }
+
+    /**
+     * Get the state of the cell at the supplied coordinates.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the state of the cell found at the supplied coordinates.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if any of the coordinates are outside of the board.
+     * @throws IllegalStateException     if the board has been closed.
+     */
+    public Integer state(int... x) throws IllegalCoordinateNumber {
+
+        checkOpen();
+
+        long index = index(x);
+
+        long row = index / width;
+
+        return current[(int) (row / rowsPerChunk)].get((int) (row % rowsPerChunk * width + index % width)) & 0xFF;
+    }
+
+    /**
+     * Count the cells that are not dead, which are the alive cells and for a Generations rule the dying cells too, the
+     * same as {@link Board#population()}.
+     *
+     * @return the number of cells that are not dead.
+     * @throws IllegalStateException if the board has been closed.
+     */
+    public long population() {
+
+        checkOpen();
+
+        byte[] row = new byte[width];
+
+        long population = 0;
+
+        for (long r = 0; r < rows; r++) {
+
+            read(current, r, row);
+
+            for (byte state : row) if (RuleTable.DEAD != state) population++;
+        }
+
+        return population;
+    }
+
+    /**
+     * Get the total number of cells on the board.
+     *
+     * @return the number of cells.
+     */
+    public long size() {
+
+        return size;
+    }
+
+    /**
+     * Get the generation of the board.
+     *
+     * @return the generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the rulestring that the board plays.
+     *
+     * @return the rulestring.
+     */
+    public String getRulestring() {
+
+        return rulestring;
+    }
+
+    /**
+     * Get the dimensions of the board.
+     *
+     * @return a copy of the dimensions.
+     */
+    public int[] getDimensionSizes() {
+
+        return Arrays.copyOf(dimensions, dimensions.length);
+    }
+
+    /**
+     * Get the file that the board is mapped from.
+     *
+     * @return the file or null if the board is held in direct buffers.
+     */
+    public File getFile() {
+
+        return file;
+    }
+
+    /**
+     * Release every buffer that holds the board. Closing a board more than once does nothing.
+     */
+    @Override
+    public void close() {
+
+        ByteBuffer[][] generations = {current, next};
+
+        current = null;
+        next = null;
+
+        for (ByteBuffer[] chunks : generations) {
+
+            if (null == chunks) continue;
+
+            for (ByteBuffer chunk : chunks) if (null != chunk) release(chunk);
+        }
+    }
+
+    /**
+     * Allocate the direct buffers for one generation.
+     *
+     * @return the chunks of the generation.
+     */
+    private ByteBuffer[] allocate() {
+
+        ByteBuffer[] chunks = new ByteBuffer[chunks()];
+
+        for (int c = 0; c < chunks.length; c++) chunks[c] = ByteBuffer.allocateDirect(chunkBytes(c));
+
+        return chunks;
+    }
+
+    /**
+     * Map both generations from the file, the first generation is at the start of the file and the second follows it.
+     *
+     * @throws IOException if the file could not be mapped.
+     */
+    private void map() throws IOException {
+
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+
+        try {
+
+            access.setLength(0);
+            access.setLength(2 * size);
+
+            FileChannel channel = access.getChannel();
+
+            ByteBuffer[][] generations = {current = new ByteBuffer[chunks()], next = new ByteBuffer[chunks()]};
+
+            long position = 0;
+
+            for (ByteBuffer[] chunks : generations) {
+
+                for (int c = 0; c < chunks.length; c++) {
+
+                    chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkBytes(c));
+
+                    position += chunks[c].capacity();
+                }
+            }
+
+        } finally {
+
+            access.close();
+        }
+    }
+
+    /**
+     * Fill the current generation with the initial state, reading the cells in row-major order.
+     *
+     * @param initialState - the object the supplies the initial state for all the cells.
+     */
+    private void init(PositionalInitialState<Integer> initialState) {
+
+        if (null == initialState) throw new IllegalArgumentException("The initialState can not be null");
+
+        byte[] row = new byte[width];
+        int[] coordinates = new int[dimensions.length];
+
+        Integer state;
+        for (long r = 0; r < rows; r++) {
+
+            for (int x = 0; x < width; x++) {
+
+                coordinates[0] = x;
+
+                state = initialState.state(coordinates);
+
+                if (null == state || 0 > state || table.getStates().size() <= state) {
+
+                    throw new IllegalArgumentException("The initialState supplied a state that is not one of the " +
+                            "states of the rule table: " + state);
+                }
+
+                row[x] = (byte) (int) state;
+            }
+
+            write(current, r, row);
+
+            coordinates[0] = 0;
+
+            for (int d = 1; d < coordinates.length && dimensions[d] <= ++coordinates[d]; d++) coordinates[d] = 0;
+        }
+    }
+
+    private int chunks() {
+
+        return (int) ((rows + rowsPerChunk - 1) / rowsPerChunk);
+    }
+
+    private int chunkBytes(int chunk) {
+
+        return (int) (Math.min(rowsPerChunk, rows - (long) chunk * rowsPerChunk) * width);
+    }
+
+    private void read(ByteBuffer[] chunks, long row, byte[] destination) {
+
+        ByteBuffer chunk = chunks[(int) (row / rowsPerChunk)];
+
+        chunk.position((int) (row % rowsPerChunk) * width);
+        chunk.get(destination, 0, width);
+    }
+
+    private void write(ByteBuffer[] chunks, long row, byte[] source) {
+
+        ByteBuffer chunk = chunks[(int) (row / rowsPerChunk)];
+
+        chunk.position((int) (row % rowsPerChunk) * width);
+        chunk.put(source, 0, width);
+    }
+
+    private boolean isOnBoard(int[] coordinates, int[] offset) {
+
+        int c;
+        for (int d = 1; d < coordinates.length; d++) {
+
+            c = coordinates[d] + offset[d];
+
+            if (0 > c || dimensions[d] <= c) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Calculate the index of the cell at the supplied coordinates.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the index of the cell.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if any of the coordinates are outside of the board.
+     */
+    private long index(int... x) {
+
+        if (dimensions.length != x.length) {
+
+            throw new IllegalCoordinateNumber("The number of coordinates is invalid. Expected: "
+                    + dimensions.length + " Actual: " + x.length, dimensions.length);
+        }
+
+        long index = 0;
+
+        for (int i = x.length - 1; i >= 0; i--) {
+
+            if (dimensions[i] <= x[i] || 0 > x[i]) {
+
+                throw new IndexOutOfBoundsException("The supplied coordinate with index " + i +
+                        " is outside of it's related dimension of size " + dimensions[i]);
+            }
+
+            index = index * dimensions[i] + x[i];
+        }
+
+        return index;
+    }
+
+    private void checkOpen() {
+
+        if (null == current) throw new IllegalStateException("The board has been closed.");
+    }
+
+    /**
+     * Release the memory or mapping behind a buffer now instead of waiting for it to be garbage collected. There is no
+     * public way to do this so the cleaner is found by reflection, on Java 9 and later through <code>Unsafe</code> and
+     * before that through the buffer itself. If neither works the buffer is left for the garbage collector.
+     *
+     * @param buffer - the buffer, which must not be used again.
+     */
+    private static void release(ByteBuffer buffer) {
+
+        try {
+
+            Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+
+            Field instance = unsafe.getDeclaredField("theUnsafe");
+
+            instance.setAccessible(true);
+
+            unsafe.getMethod("invokeCleaner", ByteBuffer.class).invoke(instance.get(null), buffer);
+
+            return;
+
+        } catch (Exception e) {
+
+            // This is not Java 9 or later.
+        }
+
+        try {
+
+            Method cleaner = buffer.getClass().getMethod("cleaner");
+
+            cleaner.setAccessible(true);
+
+            Object clean = cleaner.invoke(buffer);
+
+            if (null != clean) clean.getClass().getMethod("clean").invoke(clean);
+
+        } catch (Exception e) {
+
+            // The buffer will be released when it is garbage collected.
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This report records where the time went while a {@see PartitionedBoard} was advanced. Each worker times the halo
+ * exchanges with its neighbours separately from the ticks of its slab, so a board that spends more time talking than
+ * ticking can be seen to have been split too finely.
+ */
+public class PartitionReport {
+
+    private final int generations;
+
+    private final long elapsedNanos;
+
+    private final long[] communicationNanos;
+
+    private final long[] computeNanos;
+
+
+    /**
+     * Construct a new <code>PartitionReport</code>. The arrays are kept rather than copied.
+     *
+     * @param generations        - the number of generations the board was advanced.
+     * @param elapsedNanos       - the time the coordinator waited for the workers.
+     * @param communicationNanos - the time each worker spent exchanging halos.
+     * @param computeNanos       - the time each worker spent ticking its slab.
+     */
+    public PartitionReport(int generations, long elapsedNanos, long[] communicationNanos, long[] computeNanos) {
+
+        this.generations = generations;
+        this.elapsedNanos = elapsedNanos;
+        this.communicationNanos = communicationNanos;
+        this.computeNanos = computeNanos;
+    }
+
+
+    /**
+     * Get the number of generations the board was advanced.
+     *
+     * @return the number of generations.
+     */
+    public int getGenerations() {
+
+        return generations;
+    }
+
+    /**
+     * Get the time the coordinator waited for every worker to finish.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the number of workers the board is split across.
+     *
+     * @return the number of workers.
+     */
+    public int getWorkers() {
+
+        return computeNanos.length;
+    }
+
+    /**
+     * Get the time the supplied worker spent exchanging halos with its neighbours, including the time it waited for
+     * them to finish their own ticks.
+     *
+     * @param worker - the index of the worker.
+     * @return the communication time in nanoseconds.
+     */
+    public long getCommunicationNanos(int worker) {
+
+        return communicationNanos[worker];
+    }
+
+    /**
+     * Get the time the supplied worker spent ticking its slab.
+     *
+     * @param worker - the index of the worker.
+     * @return the compute time in nanoseconds.
+     */
+    public long getComputeNanos(int worker) {
+
+        return computeNanos[worker];
+    }
+
+    /**
+     * Get the average communication time of a tick, across every worker.
+     *
+     * @return the communication time per tick in nanoseconds.
+     */
+    public long getCommunicationNanosPerTick() {
+
+        return perTick(communicationNanos);
+    }
+
+    /**
+     * Get the average compute time of a tick, across every worker.
+     *
+     * @return the compute time per tick in nanoseconds.
+     */
+    public long getComputeNanosPerTick() {
+
+        return perTick(computeNanos);
+    }
+
+    @Override
+    public String toString() {
+
+        return "Advanced " + generations + " generations across " + getWorkers() + " workers in " +
+                elapsedNanos / 1000000 + "ms, with " + getCommunicationNanosPerTick() / 1000 +
+                "us of communication and " + getComputeNanosPerTick() / 1000 + "us of compute per tick.";
+    }
+
+    private long perTick(long[] nanos) {
+
+        long total = 0;
+
+        for (long n : nanos) total += n;
+
+        return 0 == generations || 0 == nanos.length ? 0 : total / nanos.length / generations;
+    }
+}
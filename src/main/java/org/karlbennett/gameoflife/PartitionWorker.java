@@ -0,0 +1,495 @@
+package org.karlbennett.gameoflife;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This worker owns one slab of a {@see PartitionedBoard}, a range of layers along the outermost dimension of the board.
+ * The slab is held as a board of its own with an extra halo layer on each side that has a neighbouring slab. Before
+ * every generation the worker sends its first and last layers to its neighbours and receives their edge layers into
+ * its halos, then ticks the slab. The halo cells are ticked as well, but they are overwritten by the next exchange
+ * before anything reads them.
+ * <p/>
+ * The coordinator drives the worker over a control connection and the halos are exchanged over direct connections
+ * between neighbouring workers. The halo connections are non-blocking and served by a single {@see Selector}, so a
+ * worker can send to and receive from both neighbours at once no matter how large the layers are. A worker can be run
+ * on a thread of its own or, through {@link #main(String[])}, as a separate process.
+ */
+public class PartitionWorker implements Runnable, Closeable {
+
+    static final int INIT = 1;
+
+    static final int ACCEPT = 2;
+
+    static final int CONNECT = 3;
+
+    static final int STEP = 4;
+
+    static final int GATHER = 5;
+
+    static final int SHUTDOWN = 6;
+
+    static final int OK = 0;
+
+    static final int FAILED = 1;
+
+    /**
+     * The line a worker process prints to tell its launcher which port it is listening on.
+     */
+    static final String PORT_PREFIX = "PORT ";
+
+    /**
+     * A connection to a neighbouring worker with the buffers of the halo that is being exchanged over it.
+     */
+    private static class Link {
+
+        private final SocketChannel channel;
+
+        private final ByteBuffer in;
+
+        private final ByteBuffer out;
+
+        private SelectionKey key;
+
+        private Link(SocketChannel channel, int layerBytes) throws IOException {
+
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+
+            this.channel = channel;
+            this.in = ByteBuffer.allocateDirect(layerBytes);
+            this.out = ByteBuffer.allocateDirect(layerBytes);
+        }
+
+        private boolean busy() {
+
+            return in.hasRemaining() || out.hasRemaining();
+        }
+    }
+
+    private final ServerSocketChannel server;
+
+    private ServerSocketChannel haloServer;
+
+    private Selector selector;
+
+    private Board<Integer, RuleTable<Integer>, InitialState<Integer>, Cell<Integer, RuleTable<Integer>>> board;
+
+    /**
+     * The number of halo layers before the first layer of the slab, either 0 or 1.
+     */
+    private int low;
+
+    /**
+     * The number of layers that the worker owns.
+     */
+    private int owned;
+
+    private Link lower;
+
+    private Link upper;
+
+
+    /**
+     * Construct a new <code>PartitionWorker</code> that listens for its coordinator on the loopback address.
+     *
+     * @param port - the port to listen on, or 0 for any free port.
+     * @throws IOException if the port could not be bound.
+     */
+    public PartitionWorker(int port) throws IOException {
+
+        this.server = ServerSocketChannel.open();
+
+        server.socket().bind(new InetSocketAddress(InetAddress.getByName(null), port));
+    }
+
+
+    /**
+     * Run a worker process that listens on the port given as the only argument, or any free port if there is no
+     * argument. The port is printed to standard out as <code>PORT n</code> once the worker is listening.
+     *
+     * @param args - the optional port.
+     * @throws IOException if the port could not be bound.
+     */
+    public static void main(String[] args) throws IOException {
+
+        PartitionWorker worker = new PartitionWorker(0 == args.length ? 0 : Integer.parseInt(args[0]));
+
+        System.out.println(PORT_PREFIX + worker.getPort());
+        System.out.flush();
+
+        worker.run();
+    }
+
+    /**
+     * Start a worker in a new JVM process on this machine, with the same Java installation and the classes this worker
+     * was loaded from. Use {@link #address(Process)} to find where it is listening.
+     *
+     * @return the worker process.
+     * @throws IOException if the process could not be started.
+     */
+    public static Process launch() throws IOException {
+
+        String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+
+        String classPath;
+
+        try {
+
+            classPath = new File(PartitionWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .getPath();
+
+        } catch (URISyntaxException e) {
+
+            throw new IOException("The location of the worker classes could not be found.", e);
+        }
+
+        return new ProcessBuilder(java, "-cp", classPath, PartitionWorker.class.getName())
+                .redirectErrorStream(true).start();
+    }
+
+    /**
+     * Wait for a process started by {@link #launch()} to start listening and get its address.
+     *
+     * @param process - the worker process.
+     * @return the address of the worker.
+     * @throws IOException if the process stopped before it printed its port.
+     */
+    public static InetSocketAddress address(Process process) throws IOException {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                Charset.forName("UTF-8")));
+
+        for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+
+            if (line.startsWith(PORT_PREFIX)) {
+
+                return new InetSocketAddress(InetAddress.getByName(null),
+                        Integer.parseInt(line.substring(PORT_PREFIX.length()).trim()));
+            }
+        }
+
+        throw new IOException("The worker process stopped before it started listening.");
+    }
+
+    /**
+     * Get the port that the worker is listening on for its coordinator.
+     *
+     * @return the port.
+     */
+    public int getPort() {
+
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Serve a single coordinator until it shuts the worker down or the connection is lost, then close the worker.
+     */
+    @Override
+    public void run() {
+
+        SocketChannel channel = null;
+
+        try {
+
+            channel = server.accept();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            for (int command = in.readInt(); SHUTDOWN != command; command = in.readInt()) {
+
+                try {
+
+                    serve(command, in, out);
+
+                } catch (RuntimeException e) {
+
+                    // The rest of the request can not be found in the stream so the worker gives up after reporting it.
+                    out.writeInt(FAILED);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                    out.flush();
+
+                    return;
+                }
+
+                out.flush();
+            }
+
+        } catch (IOException e) {
+
+            // The coordinator has gone so there is no one to tell.
+
+        } finally {
+
+            close(channel);
+            close(this);
+        }
+    }
+
+    /**
+     * Close every connection of the worker.
+     */
+    @Override
+    public void close() {
+
+        close(server);
+        close(haloServer);
+
+        if (null != selector) {
+
+            try {
+
+                selector.close();
+
+            } catch (IOException e) {
+
+                // There is nothing more to do with it.
+            }
+        }
+
+        if (null != lower) close(lower.channel);
+        if (null != upper) close(upper.channel);
+    }
+
+    /**
+     * Read the reply status that a worker sends before the rest of its reply.
+     *
+     * @param in - the control stream from the worker.
+     * @throws IOException if the worker failed to carry out the request.
+     */
+    static void readStatus(DataInputStream in) throws IOException {
+
+        if (OK != in.readInt()) throw new IOException("The worker failed: " + in.readUTF());
+    }
+
+    /**
+     * Carry out a single request from the coordinator and write the reply.
+     *
+     * @param command - the request.
+     * @param in      - the control stream from the coordinator.
+     * @param out     - the control stream to the coordinator.
+     * @throws IOException if the request could not be read or the reply written.
+     */
+    private void serve(int command, DataInputStream in, DataOutputStream out) throws IOException {
+
+        if (INIT == command) {
+
+            init(in);
+
+            out.writeInt(OK);
+            out.writeInt(haloServer.socket().getLocalPort());
+
+        } else if (ACCEPT == command) {
+
+            upper = new Link(haloServer.accept(), board.layerBytes());
+
+            out.writeInt(OK);
+
+        } else if (CONNECT == command) {
+
+            String host = in.readUTF();
+            int port = in.readInt();
+
+            lower = new Link(SocketChannel.open(new InetSocketAddress(host, port)), board.layerBytes());
+
+            out.writeInt(OK);
+
+        } else if (STEP == command) {
+
+            int generations = in.readInt();
+
+            long communication = 0;
+            long compute = 0;
+            long start;
+
+            for (int g = 0; g < generations; g++) {
+
+                start = System.nanoTime();
+
+                exchange();
+
+                communication += System.nanoTime() - start;
+
+                start = System.nanoTime();
+
+                board.advance(1);
+
+                compute += System.nanoTime() - start;
+            }
+
+            out.writeInt(OK);
+            out.writeLong(communication);
+            out.writeLong(compute);
+
+        } else if (GATHER == command) {
+
+            out.writeInt(OK);
+
+            ByteBuffer layer = ByteBuffer.allocate(board.size() / board.dimensionSize(lastDimension()) * 4);
+
+            for (int l = 0; l < owned; l++) {
+
+                layer.clear();
+
+                board.readLayerCodes(low + l, layer.asIntBuffer());
+
+                out.write(layer.array());
+            }
+
+        } else {
+
+            throw new IllegalArgumentException("The worker does not know the command " + command);
+        }
+    }
+
+    /**
+     * Build the slab from the rulestring, the dimensions of the whole board, the range of layers the worker owns and
+     * the state codes of every cell in the range.
+     *
+     * @param in - the control stream from the coordinator.
+     * @throws IOException if the request could not be read.
+     */
+    private void init(DataInputStream in) throws IOException {
+
+        String rulestring = in.readUTF();
+
+        int[] dimensions = new int[in.readInt()];
+
+        for (int d = 0; d < dimensions.length; d++) dimensions[d] = in.readInt();
+
+        int from = in.readInt();
+        int to = in.readInt();
+
+        int layers = dimensions[dimensions.length - 1];
+
+        this.low = 0 < from ? 1 : 0;
+        this.owned = to - from;
+
+        int[] slab = Arrays.copyOf(dimensions, dimensions.length);
+
+        slab[slab.length - 1] = low + owned + (to < layers ? 1 : 0);
+
+        RuleTable<Integer> table = RuleTable.parse(rulestring, dimensions.length);
+
+        this.board = new Board<Integer, RuleTable<Integer>, InitialState<Integer>, Cell<Integer, RuleTable<Integer>>>(
+                Collections.singletonList(table), null, table.getStates(), 0, null, slab);
+
+        byte[] layer = new byte[board.size() / slab[slab.length - 1] * 4];
+
+        for (int l = 0; l < owned; l++) {
+
+            in.readFully(layer);
+
+            board.writeLayerCodes(low + l, ByteBuffer.wrap(layer).asIntBuffer());
+        }
+
+        this.haloServer = ServerSocketChannel.open();
+
+        haloServer.socket().bind(new InetSocketAddress(server.socket().getInetAddress(), 0));
+
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Send the edge layers of the slab to the neighbouring workers and receive their edge layers into the halos.
+     *
+     * @throws IOException if a neighbour could not be reached.
+     */
+    private void exchange() throws IOException {
+
+        if (null != lower) start(lower, low);
+        if (null != upper) start(upper, low + owned - 1);
+
+        while ((null != lower && lower.busy()) || (null != upper && upper.busy())) {
+
+            selector.select();
+
+            for (Iterator<SelectionKey> keys = selector.selectedKeys().iterator(); keys.hasNext(); ) {
+
+                SelectionKey key = keys.next();
+
+                keys.remove();
+
+                Link link = (Link) key.attachment();
+
+                if (key.isWritable()) link.channel.write(link.out);
+
+                if (key.isReadable() && -1 == link.channel.read(link.in)) {
+
+                    throw new EOFException("A neighbouring worker closed its connection.");
+                }
+
+                key.interestOps((link.out.hasRemaining() ? SelectionKey.OP_WRITE : 0) |
+                        (link.in.hasRemaining() ? SelectionKey.OP_READ : 0));
+            }
+        }
+
+        if (null != lower) finish(lower, 0);
+        if (null != upper) finish(upper, low + owned);
+    }
+
+    private void start(Link link, int layer) throws IOException {
+
+        link.out.clear();
+
+        board.storeLayer(layer, link.out);
+
+        link.out.flip();
+        link.in.clear();
+
+        if (null == link.key) link.key = link.channel.register(selector, 0, link);
+
+        link.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void finish(Link link, int layer) {
+
+        link.in.flip();
+
+        board.loadLayer(layer, link.in);
+    }
+
+    private int lastDimension() {
+
+        return board.getDimensionSizes().length - 1;
+    }
+
+    private static void close(Closeable closeable) {
+
+        if (null == closeable) return;
+
+        try {
+
+            closeable.close();
+
+        } catch (IOException e) {
+
+            // There is nothing more to do with it.
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package org.karlbennett.gameoflife;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This coordinates a board that is too large for one JVM by splitting it along its outermost dimension into slabs, one
+ * for each {@see PartitionWorker}. The coordinator never holds the board. The initial state is streamed to the workers
+ * a layer at a time as it is read, each generation is ticked by every worker at once with the workers exchanging one
+ * cell thick halos directly between themselves, and the board is only brought back together when it is gathered.
+ * <p/>
+ * The workers play a {@see RuleTable} that is sent to them as its rulestring, so the states are the codes 0 to N-1 of
+ * the rule. The board must have at least two dimensions so that every layer is a whole number of {@see BitBoard} rows.
+ */
+public class PartitionedBoard implements Closeable {
+
+    /**
+     * The control connection to a worker.
+     */
+    private static class Connection {
+
+        private final InetSocketAddress address;
+
+        private final SocketChannel channel;
+
+        private final DataInputStream in;
+
+        private final DataOutputStream out;
+
+        private Connection(InetSocketAddress address) throws IOException {
+
+            this.address = address;
+            this.channel = SocketChannel.open(address);
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        }
+    }
+
+    private final String rulestring;
+
+    private final RuleTable<Integer> table;
+
+    private final int[] dimensions;
+
+    private final Connection[] connections;
+
+    /**
+     * The first layer of each worker's slab, with the number of layers at the end.
+     */
+    private final int[] slabs;
+
+    private long generation;
+
+
+    /**
+     * Construct a new <code>PartitionedBoard</code> across the supplied workers. The slabs are as even as the number of
+     * layers allows and are handed to the workers in order, so neighbouring slabs should be given to workers that are
+     * close to each other.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param workers      - the addresses of the workers, each of which must be waiting for a coordinator.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IOException              if a worker could not be reached or failed to build its slab.
+     * @throws IllegalArgumentException if the board has less than two dimensions, there are more workers than layers or
+     *                                  the initial state supplies a state that is not a state of the rule.
+     */
+    public PartitionedBoard(String rulestring, InitialState<Integer> initialState, List<InetSocketAddress> workers,
+                            int... dimensions) throws IOException {
+
+        this(rulestring, Board.positional(initialState), workers, dimensions);
+    }
+
+    /**
+     * Construct a new <code>PartitionedBoard</code> across the supplied workers, see
+     * {@link #PartitionedBoard(String, InitialState, List, int...)}, from an initial state that is told the coordinates
+     * of each cell.
+     *
+     * @param rulestring   - the rule e.g. B3/S23.
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @param workers      - the addresses of the workers, each of which must be waiting for a coordinator.
+     * @param dimensions   - the dimensions of the board e.g. width, height, depth...
+     * @throws IOException              if a worker could not be reached or failed to build its slab.
+     * @throws IllegalArgumentException if the board has less than two dimensions, there are more workers than layers or
+     *                                  the initial state supplies a state that is not a state of the rule.
+     */
+    public PartitionedBoard(String rulestring, PositionalInitialState<Integer> initialState,
+                            List<InetSocketAddress> workers, int... dimensions) throws IOException {
+
+        if (2 > dimensions.length) {
+
+            throw new IllegalArgumentException("A partitioned board needs at least two dimensions: " +
+                    dimensions.length);
+        }
+
+        int layers = dimensions[dimensions.length - 1];
+
+        if (workers.isEmpty() || layers < workers.size()) {
+
+            throw new IllegalArgumentException("There must be between 1 and " + layers + " workers: " +
+                    workers.size());
+        }
+
+        this.rulestring = rulestring;
+        this.table = RuleTable.parse(rulestring, dimensions.length);
+        this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+        this.connections = new Connection[workers.size()];
+        this.slabs = new int[workers.size() + 1];
+
+        for (int w = 0; w < slabs.length; w++) slabs[w] = (int) ((long) layers * w / workers.size());
+
+        try {
+
+            for (int w = 0; w < connections.length; w++) connections[w] = new Connection(workers.get(w));
+
+            init(initialState);
+
+            link();
+
+        } catch (IOException e) {
+
+            close();
+
+            throw e;
+
+        } catch (RuntimeException e) {
+
+            close();
+
+            throw e;
+        }
+    }
+
+
+    /**
+     * Tick every worker's slab to produce the next generation.
+     *
+     * @return the report of where the time went.
+     * @throws IOException if a worker could not be reached.
+     */
+    public PartitionReport tick() throws IOException {
+
+        return advance(1);
+    }
+
+    /**
+     * Tick every worker's slab the supplied number of times. The workers keep in step with each other through their
+     * halo exchanges, so the coordinator only waits for them once at the end.
+     *
+     * @param generations - the number of generations to advance.
+     * @return the report of where the time went.
+     * @throws IOException              if a worker could not be reached.
+     * @throws IllegalArgumentException if the number of generations is negative.
+     */
+    public PartitionReport advance(int generations) throws IOException {
+
+        if (0 > generations) {
+
+            throw new IllegalArgumentException("The board can not be advanced backwards: " + generations);
+        }
+
+        long start = System.nanoTime();
+
+        for (Connection connection : connections) {
+
+            connection.out.writeInt(PartitionWorker.STEP);
+            connection.out.writeInt(generations);
+            connection.out.flush();
+        }
+
+        long[] communication = new long[connections.length];
+        long[] compute = new long[connections.length];
+
+        for (int w = 0; w < connections.length; w++) {
+
+            PartitionWorker.readStatus(connections[w].in);
+
+            communication[w] = connections[w].in.readLong();
+            compute[w] = connections[w].in.readLong();
+        }
+
+        generation += generations;
+
+        return new PartitionReport(generations, System.nanoTime() - start, communication, compute);
+    }
+
+    /**
+     * Bring every slab back to the coordinator as a single board, which must fit in this JVM.
+     *
+     * @return a board in the current generation.
+     * @throws IOException if a worker could not be reached.
+     */
+    public Board<Integer, RuleTable<Integer>, InitialState<Integer>, Cell<Integer, RuleTable<Integer>>> gather()
+            throws IOException {
+
+        Board<Integer, RuleTable<Integer>, InitialState<Integer>, Cell<Integer, RuleTable<Integer>>> board =
+                new Board<Integer, RuleTable<Integer>, InitialState<Integer>, Cell<Integer, RuleTable<Integer>>>(
+                        Collections.singletonList(table), null, table.getStates(), generation, null, dimensions);
+
+        for (Connection connection : connections) {
+
+            connection.out.writeInt(PartitionWorker.GATHER);
+            connection.out.flush();
+        }
+
+        byte[] layer = new byte[layerCells() * 4];
+
+        for (int w = 0; w < connections.length; w++) {
+
+            PartitionWorker.readStatus(connections[w].in);
+
+            for (int l = slabs[w]; l < slabs[w + 1]; l++) {
+
+                connections[w].in.readFully(layer);
+
+                board.writeLayerCodes(l, ByteBuffer.wrap(layer).asIntBuffer());
+            }
+        }
+
+        return board;
+    }
+
+    /**
+     * Get the generation that the workers hold.
+     *
+     * @return the generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the number of workers the board is split across.
+     *
+     * @return the number of workers.
+     */
+    public int getWorkers() {
+
+        return connections.length;
+    }
+
+    /**
+     * Get the rulestring that the workers play.
+     *
+     * @return the rulestring.
+     */
+    public String getRulestring() {
+
+        return rulestring;
+    }
+
+    /**
+     * Get the dimensions of the board.
+     *
+     * @return a copy of the dimensions.
+     */
+    public int[] getDimensionSizes() {
+
+        return Arrays.copyOf(dimensions, dimensions.length);
+    }
+
+    /**
+     * Shut every worker down and close the connections to them.
+     */
+    @Override
+    public void close() {
+
+        for (Connection connection : connections) {
+
+            if (null == connection) continue;
+
+            try {
+
+                connection.out.writeInt(PartitionWorker.SHUTDOWN);
+                connection.out.flush();
+
+            } catch (IOException e) {
+
+                // The worker has already gone.
+            }
+
+            try {
+
+                connection.channel.close();
+
+            } catch (IOException e) {
+
+                // There is nothing more to do with it.
+            }
+        }
+    }
+
+    /**
+     * Send each worker its slab, reading the initial state of every cell in row-major order so that each layer is
+     * sent as soon as it has been read.
+     *
+     * @param initialState - the object the supplies the initial state for all the cells.
+     * @throws IOException if a worker could not be reached or failed to build its slab.
+     */
+    private void init(PositionalInitialState<Integer> initialState) throws IOException {
+
+        if (null == initialState) throw new IllegalArgumentException("The initialState can not be null");
+
+        int[] coordinates = new int[dimensions.length];
+
+        int cells = layerCells();
+
+        for (int w = 0; w < connections.length; w++) {
+
+            DataOutputStream out = connections[w].out;
+
+            out.writeInt(PartitionWorker.INIT);
+            out.writeUTF(rulestring);
+            out.writeInt(dimensions.length);
+
+            for (int size : dimensions) out.writeInt(size);
+
+            out.writeInt(slabs[w]);
+            out.writeInt(slabs[w + 1]);
+
+            Integer state;
+            for (int i = 0, size = cells * (slabs[w + 1] - slabs[w]); i < size; i++) {
+
+                state = initialState.state(coordinates);
+
+                if (null == state || 0 > state || table.getStates().size() <= state) {
+
+                    throw new IllegalArgumentException("The initialState supplied a state that is not one of the " +
+                            "states of the rule table: " + state);
+                }
+
+                out.writeInt(state);
+
+                for (int d = 0; d < coordinates.length && dimensions[d] <= ++coordinates[d]; d++) coordinates[d] = 0;
+            }
+
+            out.flush();
+        }
+    }
+
+    /**
+     * Connect every worker to the worker that owns the slab before its own.
+     *
+     * @throws IOException if a worker could not be reached or failed to connect.
+     */
+    private void link() throws IOException {
+
+        int[] haloPorts = new int[connections.length];
+
+        for (int w = 0; w < connections.length; w++) {
+
+            PartitionWorker.readStatus(connections[w].in);
+
+            haloPorts[w] = connections[w].in.readInt();
+        }
+
+        for (int w = 1; w < connections.length; w++) {
+
+            connections[w - 1].out.writeInt(PartitionWorker.ACCEPT);
+            connections[w - 1].out.flush();
+
+            connections[w].out.writeInt(PartitionWorker.CONNECT);
+            connections[w].out.writeUTF(connections[w - 1].address.getAddress().getHostAddress());
+            connections[w].out.writeInt(haloPorts[w - 1]);
+            connections[w].out.flush();
+
+            PartitionWorker.readStatus(connections[w].in);
+            PartitionWorker.readStatus(connections[w - 1].in);
+        }
+    }
+
+    private int layerCells() {
+
+        return Board.volume(dimensions) / dimensions[dimensions.length - 1];
+    }
+}
@@ -0,0 +1,243 @@
+package org.karlbennett.gameoflife;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is the base of the readers that load a two dimensional pattern file straight into a {@see Board} as its
+ * {@see PositionalInitialState}. The pattern is never held in memory. Instead the file is read a buffer at a time as
+ * the board asks for each cell in row-major order, and only the run of alive cells that is next in the file is kept,
+ * so a pattern of any size is loaded with the same small amount of memory.
+ * <p/>
+ * The pattern is placed on the plane of the board where every coordinate after the first two is 0, with its origin at
+ * the supplied coordinates. Any part of the pattern that falls off the edge of the board is skipped.
+ *
+ * @param <S> - the type of state that the Cell contains.
+ */
+public abstract class PatternReader<S extends Comparable<S>> implements PositionalInitialState<S>, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+
+    private final S deadState;
+
+    private final S aliveState;
+
+    private final int originX;
+
+    private final int originY;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    /**
+     * The x, y and length of the run of alive cells that is next in the pattern.
+     */
+    private final int[] run = new int[3];
+
+    private boolean pending;
+
+    private boolean finished;
+
+    private int lastX = Integer.MIN_VALUE;
+
+    private int lastY = Integer.MIN_VALUE;
+
+
+    /**
+     * Construct a new <code>PatternReader</code>.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     * @param originX    - the x coordinate on the board of the pattern's origin.
+     * @param originY    - the y coordinate on the board of the pattern's origin.
+     */
+    protected PatternReader(Reader reader, S deadState, S aliveState, int originX, int originY) {
+
+        if (null == reader) throw new IllegalArgumentException("The reader can not be null.");
+
+        this.reader = reader;
+        this.deadState = deadState;
+        this.aliveState = aliveState;
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+
+    /**
+     * Get the state of the cell at the supplied coordinates. The cells must be asked for in row-major order.
+     *
+     * @param x - the coordinates of the cell e.g. x, y, z...
+     * @return the alive state if the cell is alive in the pattern, otherwise the dead state.
+     * @throws IllegalStateException    if the cell comes before a cell that has already been asked for.
+     * @throws IllegalArgumentException if the pattern could not be read or is not valid.
+     */
+    @Override
+    public S state(int... x) {
+
+        for (int d = 2; d < x.length; d++) if (0 != x[d]) return deadState;
+
+        int cx = x[0] - originX;
+        int cy = (1 < x.length ? x[1] : 0) - originY;
+
+        if (cy < lastY || (cy == lastY && cx < lastX)) {
+
+            throw new IllegalStateException("The cells of a pattern must be read in row-major order.");
+        }
+
+        lastX = cx;
+        lastY = cy;
+
+        // Skip every run that ends before this cell, these are either already used or off the edge of the board.
+        while (!finished && (!pending || run[1] < cy || (run[1] == cy && (long) run[0] + run[2] <= cx))) next();
+
+        return pending && run[1] == cy && run[0] <= cx ? aliveState : deadState;
+    }
+
+    /**
+     * Close the reader that the pattern is being read from.
+     *
+     * @throws IOException if the reader could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+
+        reader.close();
+    }
+
+    /**
+     * Read the next run of alive cells from the pattern.
+     *
+     * @param run - the array that will receive the x, y and length of the run.
+     * @return false if there are no more alive cells in the pattern.
+     * @throws IllegalArgumentException if the pattern is not valid.
+     */
+    protected abstract boolean readRun(int[] run);
+
+    /**
+     * Read the next character of the pattern.
+     *
+     * @return the character or -1 at the end of the pattern.
+     */
+    protected int read() {
+
+        if (position == limit && !fill()) return -1;
+
+        return buffer[position++];
+    }
+
+    /**
+     * Look at the next character of the pattern without reading it.
+     *
+     * @return the character or -1 at the end of the pattern.
+     */
+    protected int peek() {
+
+        if (position == limit && !fill()) return -1;
+
+        return buffer[position];
+    }
+
+    /**
+     * Read up to and including the end of the current line.
+     */
+    protected void skipLine() {
+
+        for (int c = read(); -1 != c && '\n' != c; c = read()) ;
+    }
+
+    /**
+     * Read a decimal integer, skipping any spaces or tabs before it.
+     *
+     * @return the integer.
+     * @throws IllegalArgumentException if there is no integer or it is too large.
+     */
+    protected int readInt() {
+
+        while (' ' == peek() || '\t' == peek()) read();
+
+        boolean negative = '-' == peek();
+
+        if (negative || '+' == peek()) read();
+
+        if (!Character.isDigit(peek())) {
+
+            throw new IllegalArgumentException("The pattern should have a number at this point.");
+        }
+
+        long value = 0;
+
+        while (Character.isDigit(peek())) {
+
+            value = value * 10 + (read() - '0');
+
+            if (Integer.MAX_VALUE < value) {
+
+                throw new IllegalArgumentException("The pattern has a number that is too large.");
+            }
+        }
+
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Move on to the next run of alive cells, checking that it comes after the last one.
+     */
+    private void next() {
+
+        int endX = run[0] + run[2];
+        int y = run[1];
+
+        boolean previous = pending;
+
+        pending = readRun(run);
+
+        if (!pending) {
+
+            finished = true;
+
+        } else if (0 >= run[2]) {
+
+            throw new IllegalArgumentException("The pattern has an empty run of cells.");
+
+        } else if (previous && (run[1] < y || (run[1] == y && run[0] < endX))) {
+
+            throw new IllegalArgumentException("The cells of the pattern are not in row order at (" +
+                    run[0] + "," + run[1] + ").");
+        }
+    }
+
+    /**
+     * Fill the buffer from the reader.
+     *
+     * @return false if the reader has no more characters.
+     */
+    private boolean fill() {
+
+        try {
+
+            limit = reader.read(buffer, 0, buffer.length);
+
+        } catch (IOException e) {
+
+            throw new IllegalArgumentException("The pattern could not be read.", e);
+        }
+
+        position = 0;
+
+        if (0 < limit) return true;
+
+        limit = 0;
+
+        return false;
+    }
+}
@@ -0,0 +1,235 @@
+package org.karlbennett.gameoflife;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This writes a one or two dimensional {@see Board} as a pattern in the RLE, Life 1.06 or plaintext format. The board
+ * is read one cell at a time in row-major order and each row is written as it is read, so only a few counters are
+ * held no matter how large the board is. Every cell that is not in the supplied dead state is written as alive.
+ * <p/>
+ * The patterns can be read back with a {@see RleReader}, {@see Life106Reader} or {@see PlaintextReader}.
+ */
+public class PatternWriter {
+
+    /**
+     * The longest line that is written in the RLE format.
+     */
+    public static final int RLE_LINE_LENGTH = 70;
+
+
+    private PatternWriter() {
+    }
+
+
+    /**
+     * Write the supplied board in the RLE format. The header holds the size of the board and, if the board is played
+     * with a single {@see RuleTable}, its rulestring.
+     *
+     * @param board     - the board to write.
+     * @param deadState - the state of the cells that are dead.
+     * @param writer    - the writer that will receive the pattern, this is flushed but not closed.
+     * @throws IOException              if the pattern could not be written.
+     * @throws IllegalArgumentException if the board has more than two dimensions.
+     */
+    public static <S extends Comparable<S>> void writeRle(Board<S, ?, ?, ?> board, S deadState, Writer writer)
+            throws IOException {
+
+        int width = width(board);
+        int height = height(board);
+
+        BufferedWriter out = new BufferedWriter(writer);
+
+        out.write("x = " + width + ", y = " + height);
+
+        List<? extends Rule<S>> rules = board.getRules();
+
+        if (null != rules && 1 == rules.size() && rules.get(0) instanceof RuleTable) {
+
+            out.write(", rule = " + rules.get(0));
+        }
+
+        out.write('\n');
+
+        int[] x = new int[board.getDimensionSizes().length];
+
+        int line = 0;
+        int rows = 0;
+        int dead;
+        int alive;
+        for (int y = 0; y < height; y++) {
+
+            if (1 < x.length) x[1] = y;
+
+            dead = 0;
+            alive = 0;
+
+            for (x[0] = 0; x[0] < width; x[0]++) {
+
+                if (deadState.equals(board.state(x))) {
+
+                    if (0 < alive) line = writeRun(out, line, alive, 'o');
+
+                    alive = 0;
+                    dead++;
+
+                } else {
+
+                    // Empty rows and dead cells are only written once there is an alive cell after them.
+                    if (0 < rows) line = writeRun(out, line, rows, '$');
+                    if (0 < dead) line = writeRun(out, line, dead, 'b');
+
+                    rows = 0;
+                    dead = 0;
+                    alive++;
+                }
+            }
+
+            if (0 < alive) line = writeRun(out, line, alive, 'o');
+
+            rows++;
+        }
+
+        writeRun(out, line, 1, '!');
+
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Write the supplied board in the Life 1.06 format, with the alive cells in row order.
+     *
+     * @param board     - the board to write.
+     * @param deadState - the state of the cells that are dead.
+     * @param writer    - the writer that will receive the pattern, this is flushed but not closed.
+     * @throws IOException              if the pattern could not be written.
+     * @throws IllegalArgumentException if the board has more than two dimensions.
+     */
+    public static <S extends Comparable<S>> void writeLife106(Board<S, ?, ?, ?> board, S deadState, Writer writer)
+            throws IOException {
+
+        int width = width(board);
+        int height = height(board);
+
+        BufferedWriter out = new BufferedWriter(writer);
+
+        out.write("#Life 1.06");
+        out.write('\n');
+
+        int[] x = new int[board.getDimensionSizes().length];
+
+        for (int y = 0; y < height; y++) {
+
+            if (1 < x.length) x[1] = y;
+
+            for (x[0] = 0; x[0] < width; x[0]++) {
+
+                if (deadState.equals(board.state(x))) continue;
+
+                out.write(Integer.toString(x[0]));
+                out.write(' ');
+                out.write(Integer.toString(y));
+                out.write('\n');
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Write the supplied board in the plaintext format. Each row stops at its last alive cell.
+     *
+     * @param board     - the board to write.
+     * @param deadState - the state of the cells that are dead.
+     * @param writer    - the writer that will receive the pattern, this is flushed but not closed.
+     * @throws IOException              if the pattern could not be written.
+     * @throws IllegalArgumentException if the board has more than two dimensions.
+     */
+    public static <S extends Comparable<S>> void writePlaintext(Board<S, ?, ?, ?> board, S deadState, Writer writer)
+            throws IOException {
+
+        int width = width(board);
+        int height = height(board);
+
+        BufferedWriter out = new BufferedWriter(writer);
+
+        int[] x = new int[board.getDimensionSizes().length];
+
+        int dead;
+        for (int y = 0; y < height; y++) {
+
+            if (1 < x.length) x[1] = y;
+
+            dead = 0;
+
+            for (x[0] = 0; x[0] < width; x[0]++) {
+
+                if (deadState.equals(board.state(x))) {
+
+                    dead++;
+
+                } else {
+
+                    for (; 0 < dead; dead--) out.write('.');
+
+                    out.write('O');
+                }
+            }
+
+            out.write('\n');
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Write a run of the supplied tag in the RLE format, starting a new line if it would make the current one too long.
+     *
+     * @param out    - the writer.
+     * @param line   - the length of the current line.
+     * @param length - the length of the run.
+     * @param tag    - the tag of the run.
+     * @return the length of the current line after the run has been written.
+     * @throws IOException if the run could not be written.
+     */
+    private static int writeRun(Writer out, int line, int length, char tag) throws IOException {
+
+        String run = 1 == length ? String.valueOf(tag) : Integer.toString(length) + tag;
+
+        if (RLE_LINE_LENGTH < line + run.length()) {
+
+            out.write('\n');
+
+            line = 0;
+        }
+
+        out.write(run);
+
+        return line + run.length();
+    }
+
+    private static int width(Board<?, ?, ?, ?> board) {
+
+        int[] dimensions = board.getDimensionSizes();
+
+        if (2 < dimensions.length) {
+
+            throw new IllegalArgumentException("Only a one or two dimensional board can be written as a pattern: " +
+                    dimensions.length);
+        }
+
+        return 0 == dimensions.length ? 0 : dimensions[0];
+    }
+
+    private static int height(Board<?, ?, ?, ?> board) {
+
+        int[] dimensions = board.getDimensionSizes();
+
+        return 2 == dimensions.length ? dimensions[1] : 1;
+    }
+}
@@ -0,0 +1,104 @@
+package org.karlbennett.gameoflife;
+
+import java.io.Reader;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This reads a pattern in the plaintext format. Lines that start with <code>!</code> are comments, every other line is
+ * a row of the pattern where <code>.</code> is a dead cell and <code>O</code> or <code>*</code> is an alive cell. Rows
+ * can stop at their last alive cell.
+ *
+ * @param <S> - the type of state that the Cell contains.
+ */
+public class PlaintextReader<S extends Comparable<S>> extends PatternReader<S> {
+
+    private boolean lineStart = true;
+
+    private int x;
+
+    private int y;
+
+
+    /**
+     * Construct a new <code>PlaintextReader</code> that places the pattern at the origin of the board.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     */
+    public PlaintextReader(Reader reader, S deadState, S aliveState) {
+
+        this(reader, deadState, aliveState, 0, 0);
+    }
+
+    /**
+     * Construct a new <code>PlaintextReader</code>.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     * @param originX    - the x coordinate on the board of the pattern's origin.
+     * @param originY    - the y coordinate on the board of the pattern's origin.
+     */
+    public PlaintextReader(Reader reader, S deadState, S aliveState, int originX, int originY) {
+
+        super(reader, deadState, aliveState, originX, originY);
+    }
+
+
+    @Override
+    protected boolean readRun(int[] run) {
+
+        for (int c = read(); -1 != c; c = read()) {
+
+            if (lineStart && '!' == c) {
+
+                skipLine();
+
+                continue;
+            }
+
+            lineStart = '\n' == c;
+
+            if ('\n' == c) {
+
+                y++;
+                x = 0;
+
+            } else if ('.' == c) {
+
+                x++;
+
+            } else if (isAlive(c)) {
+
+                run[0] = x;
+                run[1] = y;
+                run[2] = 1;
+
+                while (isAlive(peek())) {
+
+                    read();
+
+                    run[2]++;
+                }
+
+                x += run[2];
+
+                return true;
+
+            } else if ('\r' != c) {
+
+                throw new IllegalArgumentException("The plaintext pattern has an unexpected character: " + (char) c);
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isAlive(int c) {
+
+        return 'O' == c || '*' == c;
+    }
+}
@@ -0,0 +1,20 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ *
+ * This is an initial state that is told where each cell is, in place of an {@see InitialState} that just supplies the
+ * next state. A {@see Board} accepts either and asks for the state of every cell in row-major order, so the coordinates
+ * it supplies always increase with dimension 0 changing fastest.
+ */
+public interface PositionalInitialState<S extends Comparable<S>> {
+
+    /**
+     * The initial state for the {@see Cell} at the supplied coordinates.
+     *
+     * @param x - the coordinates of the cell e.g. x, y, z...
+     * @return the initial state of the cell.
+     */
+    public S state(int... x);
+}
@@ -0,0 +1,17 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a rule whose result depends only on the state of the cell it is applied to and the states of its neighbours,
+ * in the order that the neighbours are held, where a neighbour that is off the edge of the board is null. A pure rule
+ * must not look at anything else such as the coordinates of the cell, the generation or a random number.
+ * <p/>
+ * A {@see Board} whose rules are all pure remembers the next state of every neighbourhood it works out in a
+ * {@see RuleCache}, so a neighbourhood that has been seen before is not given to the rules again.
+ *
+ * @type S - the type of state that this rule produces.
+ */
+public interface PureRule<S extends Comparable<S>> extends Rule<S> {
+}
@@ -0,0 +1,108 @@
+package org.karlbennett.gameoflife;
+
+import java.io.Reader;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This reads a pattern in the run length encoded format. Any <code>#</code> lines and the <code>x = m, y = n</code>
+ * header line at the start are skipped, then <code>b</code> or <code>.</code> is a dead cell, <code>$</code> is the end
+ * of a row, <code>!</code> is the end of the pattern and any other letter is an alive cell. Each of these can be
+ * preceded by a count to repeat it.
+ *
+ * @param <S> - the type of state that the Cell contains.
+ */
+public class RleReader<S extends Comparable<S>> extends PatternReader<S> {
+
+    private boolean started;
+
+    private int x;
+
+    private int y;
+
+
+    /**
+     * Construct a new <code>RleReader</code> that places the pattern at the origin of the board.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     */
+    public RleReader(Reader reader, S deadState, S aliveState) {
+
+        this(reader, deadState, aliveState, 0, 0);
+    }
+
+    /**
+     * Construct a new <code>RleReader</code>.
+     *
+     * @param reader     - the reader that the pattern will be read from.
+     * @param deadState  - the state of the cells that are not alive in the pattern.
+     * @param aliveState - the state of the cells that are alive in the pattern.
+     * @param originX    - the x coordinate on the board of the pattern's origin.
+     * @param originY    - the y coordinate on the board of the pattern's origin.
+     */
+    public RleReader(Reader reader, S deadState, S aliveState, int originX, int originY) {
+
+        super(reader, deadState, aliveState, originX, originY);
+    }
+
+
+    @Override
+    protected boolean readRun(int[] run) {
+
+        if (!started) {
+
+            started = true;
+
+            for (int c = peek(); '#' == c || 'x' == c || Character.isWhitespace(c); c = peek()) {
+
+                if (Character.isWhitespace(c)) read();
+
+                else skipLine();
+            }
+        }
+
+        int count;
+        for (int c = peek(); -1 != c && '!' != c; c = peek()) {
+
+            if (Character.isWhitespace(c)) {
+
+                read();
+
+                continue;
+            }
+
+            count = Character.isDigit(c) ? readInt() : 1;
+
+            c = read();
+
+            if ('$' == c) {
+
+                y += count;
+                x = 0;
+
+            } else if ('b' == c || '.' == c) {
+
+                x += count;
+
+            } else if (Character.isLetter(c)) {
+
+                run[0] = x;
+                run[1] = y;
+                run[2] = count;
+
+                x += count;
+
+                return true;
+
+            } else {
+
+                throw new IllegalArgumentException("The RLE pattern has an unexpected character: " + (char) c);
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a fixed size cache from the signature of a neighbourhood to the next state code of the cell at its centre,
+ * used by a {@see Board} that is played with {@see PureRule}s. A signature packs the code of the cell and the code of
+ * each of its neighbours into a long with the same number of bits for each code, so two neighbourhoods only share a
+ * signature if they are the same.
+ * <p/>
+ * Each signature can only be held in the one slot that it hashes to and a new signature replaces whichever signature
+ * was in its slot, so the cache never grows and never has to search. A cache is not thread safe, a board gives each
+ * thread that ticks it a cache of its own.
+ */
+public class RuleCache {
+
+    /**
+     * The number of signatures a cache holds if no capacity is given, the slots of the default cache take 192KB.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final int EMPTY = -1;
+
+
+    private final long[] signatures;
+
+    private final int[] codes;
+
+    private final int mask;
+
+    private int width;
+
+    private long hits;
+
+    private long misses;
+
+
+    /**
+     * Construct a new empty <code>RuleCache</code> that holds {@link #DEFAULT_CAPACITY} signatures.
+     */
+    public RuleCache() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct a new empty <code>RuleCache</code>.
+     *
+     * @param capacity - the most signatures the cache can hold, this is rounded up to a power of two.
+     * @throws IllegalArgumentException if the capacity is less than 1 or more than 2^30.
+     */
+    public RuleCache(int capacity) {
+
+        if (1 > capacity || 1 << 30 < capacity) {
+
+            throw new IllegalArgumentException("The capacity must be from 1 to 2^30: " + capacity);
+        }
+
+        capacity = Integer.highestOneBit(capacity - 1) << 1;
+
+        this.signatures = new long[Math.max(1, capacity)];
+        this.codes = new int[signatures.length];
+        this.mask = signatures.length - 1;
+
+        Arrays.fill(codes, EMPTY);
+    }
+
+
+    /**
+     * Get the next state code held for the supplied signature.
+     *
+     * @param signature - the packed codes of a cell and its neighbours.
+     * @return the next state code or -1 if the signature is not in the cache.
+     */
+    public int get(long signature) {
+
+        int slot = slot(signature);
+
+        if (EMPTY != codes[slot] && signature == signatures[slot]) {
+
+            hits++;
+
+            return codes[slot];
+        }
+
+        misses++;
+
+        return EMPTY;
+    }
+
+    /**
+     * Put the supplied next state code into the cache for the supplied signature, replacing the signature that was in
+     * its slot.
+     *
+     * @param signature - the packed codes of a cell and its neighbours.
+     * @param code      - the next state code of the cell, this can not be negative.
+     */
+    public void put(long signature, int code) {
+
+        int slot = slot(signature);
+
+        signatures[slot] = signature;
+        codes[slot] = code;
+    }
+
+    /**
+     * Remove every signature from the cache and set the number of bits that each code of a signature will be packed
+     * into. Signatures that were packed with a different width can not be compared so they have to be cleared once
+     * there are too many codes to fit in the old width.
+     *
+     * @param width - the number of bits for each code of a signature.
+     */
+    public void clear(int width) {
+
+        Arrays.fill(codes, EMPTY);
+
+        this.width = width;
+    }
+
+    /**
+     * Get the number of bits that each code of a signature is packed into.
+     *
+     * @return the width, 0 if the cache has never been cleared.
+     */
+    public int getWidth() {
+
+        return width;
+    }
+
+    /**
+     * Get the most signatures the cache can hold.
+     *
+     * @return the number of slots.
+     */
+    public int getCapacity() {
+
+        return signatures.length;
+    }
+
+    /**
+     * Get the number of lookups that found their signature.
+     *
+     * @return the hits.
+     */
+    public long getHits() {
+
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that did not find their signature.
+     *
+     * @return the misses.
+     */
+    public long getMisses() {
+
+        return misses;
+    }
+
+    private int slot(long signature) {
+
+        return (int) LongIntHashMap.hash(signature) & mask;
+    }
+}
@@ -0,0 +1,82 @@
+package org.karlbennett.gameoflife;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This counts how often a single rule is applied and how often it changes the state of a cell, for the
+ * {@see Instrumentation}. A cell applies its rules in order and stops at the first one that hits.
+ */
+public class RuleCounter implements RuleCounterMBean {
+
+    private final String rule;
+
+    private final AtomicLong invocations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+
+    /**
+     * Construct a new <code>RuleCounter</code>.
+     *
+     * @param rule - the name of the rule.
+     */
+    public RuleCounter(String rule) {
+
+        this.rule = rule;
+    }
+
+
+    /**
+     * Count a single application of the rule.
+     *
+     * @param hit - true if the rule changed the state of the cell.
+     */
+    public void applied(boolean hit) {
+
+        invocations.incrementAndGet();
+
+        if (hit) hits.incrementAndGet();
+    }
+
+    /**
+     * Count a number of applications of the rule at once, for a board that applies it to every cell in bulk.
+     *
+     * @param invocations - the number of cells the rule was applied to.
+     * @param hits        - the number of cells the rule changed.
+     */
+    public void applied(long invocations, long hits) {
+
+        this.invocations.addAndGet(invocations);
+        this.hits.addAndGet(hits);
+    }
+
+    @Override
+    public String getRule() {
+
+        return rule;
+    }
+
+    @Override
+    public long getInvocations() {
+
+        return invocations.get();
+    }
+
+    @Override
+    public long getHits() {
+
+        return hits.get();
+    }
+
+    /**
+     * Set the counts back to 0.
+     */
+    void reset() {
+
+        invocations.set(0);
+        hits.set(0);
+    }
+}
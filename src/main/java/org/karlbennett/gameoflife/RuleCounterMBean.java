@@ -0,0 +1,31 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * The JMX view of the {@see RuleCounter} of a single rule.
+ */
+public interface RuleCounterMBean {
+
+    /**
+     * Get the name of the rule.
+     *
+     * @return the name.
+     */
+    public String getRule();
+
+    /**
+     * Get the number of times the rule was applied to a cell.
+     *
+     * @return the number of invocations.
+     */
+    public long getInvocations();
+
+    /**
+     * Get the number of times the rule changed the state of a cell, which stops any later rules being applied.
+     *
+     * @return the number of hits.
+     */
+    public long getHits();
+}
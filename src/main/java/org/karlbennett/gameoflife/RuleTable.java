@@ -0,0 +1,518 @@
+package org.karlbennett.gameoflife;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is an outer-totalistic rule for the Game of Life that has been compiled into a lookup table indexed by the
+ * current state of a cell and the number of its neighbours that are alive. The rule can have any number of dimensions
+ * and any number of states greater than one.
+ * <p/>
+ * The first state is dead and the second is alive, only alive neighbours are counted. With more than two states the
+ * rule follows the Generations family: an alive cell that does not survive moves to the third state, every later state
+ * moves on to the next one and the last state dies. Cells in those dying states cannot be born or survive.
+ * <p/>
+ * A {@see Board} that is given a single rule table looks the next state of each cell up in the table directly instead
+ * of creating {@see Cell} objects, and a two state table is played on a {@see BitBoard}.
+ * <p/>
+ * Rules can be written as rulestrings, for example:
+ * <ul>
+ * <li><code>B3/S23</code> - Conway's Life, the born counts and then the survival counts.</li>
+ * <li><code>23/3</code> - Conway's Life in the older survival/born notation.</li>
+ * <li><code>B2/S/C3</code> - Brian's Brain, a Generations rule with three states.</li>
+ * <li><code>B5-7/S4,5</code> - a 3D rule, counts above 9 must be separated by commas or written as ranges.</li>
+ * </ul>
+ *
+ * @param <S> - the type of state that the rule produces.
+ */
+public class RuleTable<S extends Comparable<S>> implements Rule<S> {
+
+    /**
+     * The code of the dead state.
+     */
+    public static final int DEAD = 0;
+
+    /**
+     * The code of the alive state, the only state that is counted as a neighbour.
+     */
+    public static final int ALIVE = 1;
+
+    /**
+     * The largest number of states a rulestring can declare.
+     */
+    public static final int MAX_STATES = 256;
+
+
+    /**
+     * Compile the supplied rulestring for cells with the supplied number of dimensions. The states are the codes
+     * 0 to N-1 where N is the number of states the rule has.
+     *
+     * @param rulestring - the rule e.g. B3/S23.
+     * @param dimensions - the number of dimensions of the cells the rule will be applied to.
+     * @return the compiled rule.
+     * @throws IllegalArgumentException if the rulestring can not be parsed or has counts that are too large.
+     */
+    public static RuleTable<Integer> parse(String rulestring, int dimensions) {
+
+        int stateCount = parseStateCount(rulestring);
+
+        if (2 > stateCount || MAX_STATES < stateCount) {
+
+            throw new IllegalArgumentException("A rulestring must have between 2 and " + MAX_STATES + " states: " +
+                    rulestring);
+        }
+
+        List<Integer> states = new ArrayList<Integer>(stateCount);
+
+        for (int s = 0; s < stateCount; s++) states.add(s);
+
+        return parse(rulestring, dimensions, states);
+    }
+
+    /**
+     * Compile the supplied rulestring for cells with the supplied number of dimensions and states.
+     *
+     * @param rulestring - the rule e.g. B3/S23.
+     * @param dimensions - the number of dimensions of the cells the rule will be applied to.
+     * @param states     - the states in code order, starting with dead and then alive.
+     * @return the compiled rule.
+     * @throws IllegalArgumentException if the rulestring can not be parsed, has counts that are too large or the number
+     *                                  of states does not match the rulestring.
+     */
+    public static <S extends Comparable<S>> RuleTable<S> parse(String rulestring, int dimensions, List<S> states) {
+
+        if (null == rulestring) throw new IllegalArgumentException("The rulestring can not be null.");
+
+        String[] parts = rulestring.trim().toUpperCase().split("/", -1);
+
+        if (2 > parts.length || 3 < parts.length) {
+
+            throw new IllegalArgumentException("A rulestring must have two or three parts separated by '/': " + rulestring);
+        }
+
+        String born;
+        String survive;
+
+        if (parts[0].startsWith("B") || parts[1].startsWith("S")) {
+
+            born = strip(parts[0], 'B', rulestring);
+            survive = strip(parts[1], 'S', rulestring);
+
+        } else {
+
+            // The older notation lists the survival counts first.
+            survive = parts[0];
+            born = parts[1];
+        }
+
+        if (parseStateCount(rulestring) != states.size()) {
+
+            throw new IllegalArgumentException("The rulestring " + rulestring + " has " + parseStateCount(rulestring) +
+                    " states but " + states.size() + " were supplied.");
+        }
+
+        return new RuleTable<S>(states, dimensions, parseCounts(born, rulestring), parseCounts(survive, rulestring));
+    }
+
+    /**
+     * Create a totalistic rule where the next state of a cell only depends on the number of alive cells in its
+     * neighbourhood, including the cell itself.
+     *
+     * @param states     - the dead and alive states.
+     * @param dimensions - the number of dimensions of the cells the rule will be applied to.
+     * @param sums       - the numbers of alive cells in a neighbourhood that make the cell alive.
+     * @return the compiled rule.
+     * @throws IllegalArgumentException if there are not exactly two states or a sum is too large.
+     */
+    public static <S extends Comparable<S>> RuleTable<S> totalistic(List<S> states, int dimensions, int... sums) {
+
+        if (2 != states.size()) {
+
+            throw new IllegalArgumentException("A totalistic rule must have two states: " + states.size());
+        }
+
+        int neighbours = Cell.neighbourNumber(dimensions);
+
+        int[] born = new int[sums.length];
+        int[] survive = new int[sums.length];
+
+        int births = 0;
+        int survivors = 0;
+        for (int i = 0; i < sums.length; i++) {
+
+            // A dead cell can not make up a sum of the whole neighbourhood, only an alive cell can.
+            if (neighbours >= sums[i]) born[births++] = sums[i];
+
+            // An alive cell counts itself so it needs one less alive neighbour.
+            if (0 < sums[i]) survive[survivors++] = sums[i] - 1;
+        }
+
+        return new RuleTable<S>(states, dimensions, Arrays.copyOf(born, births), Arrays.copyOf(survive, survivors));
+    }
+
+    /**
+     * Find the number of states declared by the supplied rulestring.
+     *
+     * @param rulestring - the rule e.g. B2/S/C3.
+     * @return the number of states.
+     */
+    private static int parseStateCount(String rulestring) {
+
+        String[] parts = null == rulestring ? new String[0] : rulestring.trim().toUpperCase().split("/", -1);
+
+        if (3 != parts.length) return 2;
+
+        try {
+
+            return Integer.parseInt(parts[2].startsWith("C") ? parts[2].substring(1) : parts[2]);
+
+        } catch (NumberFormatException e) {
+
+            throw new IllegalArgumentException("The number of states in the rulestring is invalid: " + rulestring, e);
+        }
+    }
+
+    /**
+     * Remove the supplied prefix from a part of a rulestring.
+     *
+     * @param part       - the part of the rulestring.
+     * @param prefix     - the letter the part must start with.
+     * @param rulestring - the whole rulestring, used in the error message.
+     * @return the part without its prefix.
+     */
+    private static String strip(String part, char prefix, String rulestring) {
+
+        if (part.isEmpty() || prefix != part.charAt(0)) {
+
+            throw new IllegalArgumentException("Expected the rulestring part '" + part + "' to start with " + prefix +
+                    ": " + rulestring);
+        }
+
+        return part.substring(1);
+    }
+
+    /**
+     * Parse the neighbour counts from a part of a rulestring. Counts are either single digits or a comma separated
+     * list of numbers and ranges.
+     *
+     * @param counts     - the part of the rulestring without its prefix.
+     * @param rulestring - the whole rulestring, used in the error message.
+     * @return the counts.
+     */
+    private static int[] parseCounts(String counts, String rulestring) {
+
+        List<Integer> parsed = new ArrayList<Integer>();
+
+        try {
+
+            if (counts.contains(",") || counts.contains("-")) {
+
+                for (String token : counts.split(",")) {
+
+                    int dash = token.indexOf('-');
+
+                    int from = Integer.parseInt((-1 == dash ? token : token.substring(0, dash)).trim());
+                    int to = -1 == dash ? from : Integer.parseInt(token.substring(dash + 1).trim());
+
+                    for (int c = from; c <= to; c++) parsed.add(c);
+                }
+
+            } else {
+
+                for (char c : counts.toCharArray()) {
+
+                    if (!Character.isDigit(c)) throw new NumberFormatException("Not a digit: " + c);
+
+                    parsed.add(c - '0');
+                }
+            }
+
+        } catch (NumberFormatException e) {
+
+            throw new IllegalArgumentException("The neighbour counts '" + counts + "' are invalid: " + rulestring, e);
+        }
+
+        int[] array = new int[parsed.size()];
+
+        for (int i = 0; i < array.length; i++) array[i] = parsed.get(i);
+
+        return array;
+    }
+
+
+    private final List<S> states;
+
+    private final Map<S, Integer> codes;
+
+    private final int dimensions;
+
+    private final int width;
+
+    private final int[] table;
+
+    private final boolean[] born;
+
+    private final boolean[] survive;
+
+
+    /**
+     * Construct a new <code>RuleTable</code> from the supplied born and survival counts.
+     *
+     * @param states     - the states in code order, starting with dead and then alive.
+     * @param dimensions - the number of dimensions of the cells the rule will be applied to.
+     * @param born       - the numbers of alive neighbours that bring a dead cell to life.
+     * @param survive    - the numbers of alive neighbours that keep an alive cell alive.
+     * @throws IllegalArgumentException if there are less than two states, a state is repeated or null, or a count is
+     *                                  negative or larger than the number of neighbours.
+     */
+    public RuleTable(List<S> states, int dimensions, int[] born, int[] survive) {
+
+        if (null == states || 2 > states.size()) {
+
+            throw new IllegalArgumentException("A rule table must have at least two states.");
+        }
+
+        if (0 > dimensions) throw new IllegalArgumentException("The number of dimensions can not be negative.");
+
+        this.states = Collections.unmodifiableList(new ArrayList<S>(states));
+        this.codes = new HashMap<S, Integer>();
+
+        for (int s = 0; s < states.size(); s++) {
+
+            if (null == states.get(s) || null != codes.put(states.get(s), s)) {
+
+                throw new IllegalArgumentException("The states of a rule table must be unique and not null: " + states);
+            }
+        }
+
+        this.dimensions = dimensions;
+        this.width = Cell.neighbourNumber(dimensions) + 1;
+        this.born = toFlags(born);
+        this.survive = toFlags(survive);
+
+        int stateCount = states.size();
+
+        this.table = new int[stateCount * width];
+
+        for (int c = 0; c < width; c++) {
+
+            table[DEAD * width + c] = this.born[c] ? ALIVE : DEAD;
+            table[ALIVE * width + c] = this.survive[c] ? ALIVE : 2 < stateCount ? 2 : DEAD;
+
+            for (int s = 2; s < stateCount; s++) table[s * width + c] = (s + 1) % stateCount;
+        }
+    }
+
+
+    /**
+     * Look up the code of the next state of a cell.
+     *
+     * @param state - the code of the current state of the cell.
+     * @param count - the number of the cells neighbours that are alive.
+     * @return the code of the next state.
+     * @throws IndexOutOfBoundsException if the state or count are out of range.
+     */
+    public int next(int state, int count) {
+
+        if (0 > count || width <= count) {
+
+            throw new IndexOutOfBoundsException("The neighbour count (" + count + ") is out of range.");
+        }
+
+        return table[state * width + count];
+    }
+
+    /**
+     * Check to see if a dead cell with the supplied number of alive neighbours should come alive.
+     *
+     * @param aliveNeighbours - the number of the cells neighbours that are alive.
+     * @return true if the cell should be born.
+     */
+    public boolean isBorn(int aliveNeighbours) {
+
+        return 0 <= aliveNeighbours && width > aliveNeighbours && born[aliveNeighbours];
+    }
+
+    /**
+     * Check to see if an alive cell with the supplied number of alive neighbours should stay alive.
+     *
+     * @param aliveNeighbours - the number of the cells neighbours that are alive.
+     * @return true if the cell should survive.
+     */
+    public boolean isSurvivor(int aliveNeighbours) {
+
+        return 0 <= aliveNeighbours && width > aliveNeighbours && survive[aliveNeighbours];
+    }
+
+    /**
+     * Get the states of the rule in code order.
+     *
+     * @return the states.
+     */
+    public List<S> getStates() {
+
+        return states;
+    }
+
+    /**
+     * Get the code of the supplied state.
+     *
+     * @param state - the state.
+     * @return the code of the state or -1 if the state is not one of the rules states.
+     */
+    public int code(S state) {
+
+        Integer code = codes.get(state);
+
+        return null == code ? -1 : code;
+    }
+
+    /**
+     * Get the number of dimensions of the cells the rule can be applied to.
+     *
+     * @return the number of dimensions.
+     */
+    public int getDimensions() {
+
+        return dimensions;
+    }
+
+    /**
+     * View this rule as a {@see BinaryRule} so that it can be played on a {@see BitBoard} or by {@see HashLife}.
+     *
+     * @return the binary rule.
+     * @throws IllegalStateException if the rule has more than two states.
+     */
+    public BinaryRule<S> asBinaryRule() {
+
+        if (2 != states.size()) {
+
+            throw new IllegalStateException("Only a rule with two states is binary: " + this);
+        }
+
+        return new Binary();
+    }
+
+    @Override
+    public <R extends Rule<S>> S apply(Cell<S, R> cell) {
+
+        int state = code(cell.getState());
+
+        if (-1 == state) throw new IllegalArgumentException("The cell state is not part of the rule: " + cell.getState());
+
+        S alive = states.get(ALIVE);
+
+        int count = 0;
+
+        for (Cell<S, R> neighbour : cell.getNeighbours()) if (null != neighbour && alive.equals(neighbour.getState())) count++;
+
+        return states.get(next(state, count));
+    }
+
+    /**
+     * Write the rule out as a rulestring in B/S notation.
+     *
+     * @return the rulestring.
+     */
+    @Override
+    public String toString() {
+
+        // Single digit counts are run together, otherwise every count is separated by a comma.
+        boolean digits = true;
+
+        for (int c = 10; c < width; c++) digits &= !born[c] && !survive[c];
+
+        return "B" + toString(born, digits) + "/S" + toString(survive, digits) +
+                (2 < states.size() ? "/C" + states.size() : "");
+    }
+
+    /**
+     * Write out the set counts.
+     *
+     * @param flags  - the counts that are set.
+     * @param digits - true if the counts should be run together as single digits.
+     * @return the counts.
+     */
+    private static String toString(boolean[] flags, boolean digits) {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (int c = 0; c < flags.length; c++) {
+
+            if (!flags[c]) continue;
+
+            if (!digits && 0 < builder.length()) builder.append(',');
+
+            builder.append(c);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Turn the supplied counts into flags indexed by the count.
+     *
+     * @param counts - the counts.
+     * @return the flags.
+     */
+    private boolean[] toFlags(int[] counts) {
+
+        boolean[] flags = new boolean[width];
+
+        for (int c : counts) {
+
+            if (0 > c || width <= c) {
+
+                throw new IllegalArgumentException("The neighbour count (" + c + ") is out of range for a " +
+                        dimensions + "D rule.");
+            }
+
+            flags[c] = true;
+        }
+
+        return flags;
+    }
+
+    /**
+     * The view of a two state rule table as a {@see BinaryRule}.
+     */
+    private class Binary implements BinaryRule<S> {
+
+        @Override
+        public S getDeadState() {
+
+            return states.get(DEAD);
+        }
+
+        @Override
+        public S getAliveState() {
+
+            return states.get(ALIVE);
+        }
+
+        @Override
+        public boolean isBorn(int aliveNeighbours) {
+
+            return RuleTable.this.isBorn(aliveNeighbours);
+        }
+
+        @Override
+        public boolean isSurvivor(int aliveNeighbours) {
+
+            return RuleTable.this.isSurvivor(aliveNeighbours);
+        }
+
+        @Override
+        public <R extends Rule<S>> S apply(Cell<S, R> cell) {
+
+            return RuleTable.this.apply(cell);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a random soup whose cells are decided by a hash of a seed and their coordinates rather than by a sequence of
+ * random numbers. The state of a cell does not depend on which cells were asked for before it, so a board that only
+ * reads the cells it needs, like a {@see LazyBoard}, gets the same soup no matter the order it reads them in, and the
+ * same seed always gives the same soup.
+ * <p/>
+ * The soup can be confined to a box, with every cell outside of it in the background state, which gives a board that
+ * is quiet everywhere but one region.
+ *
+ * @param <S> - the type of state that the cells contain.
+ */
+public class SeededInitialState<S extends Comparable<S>> implements PositionalInitialState<S> {
+
+    private final long seed;
+
+    private final double density;
+
+    private final S background;
+
+    private final S alive;
+
+    private final int[] from;
+
+    private final int[] to;
+
+
+    /**
+     * Construct a new <code>SeededInitialState</code> that fills the whole board with soup.
+     *
+     * @param seed       - the seed of the soup.
+     * @param density    - the chance that a cell is alive, from 0 to 1.
+     * @param background - the state of the cells that are not alive.
+     * @param alive      - the state of the alive cells.
+     */
+    public SeededInitialState(long seed, double density, S background, S alive) {
+
+        this(seed, density, background, alive, null, null);
+    }
+
+    /**
+     * Construct a new <code>SeededInitialState</code> that only puts soup within the supplied box.
+     *
+     * @param seed       - the seed of the soup.
+     * @param density    - the chance that a cell within the box is alive, from 0 to 1.
+     * @param background - the state of the cells that are not alive.
+     * @param alive      - the state of the alive cells.
+     * @param from       - the lowest coordinates of the box, or null for no box.
+     * @param to         - the coordinates after the highest coordinates of the box, or null for no box.
+     * @throws IllegalArgumentException if only one corner of the box is supplied or the corners have different numbers
+     *                                  of coordinates.
+     */
+    public SeededInitialState(long seed, double density, S background, S alive, int[] from, int[] to) {
+
+        if ((null == from) != (null == to) || (null != from && from.length != to.length)) {
+
+            throw new IllegalArgumentException("The box must have two corners with the same number of coordinates: "
+                    + Arrays.toString(from) + " " + Arrays.toString(to));
+        }
+
+        this.seed = seed;
+        this.density = density;
+        this.background = background;
+        this.alive = alive;
+        this.from = null == from ? null : Arrays.copyOf(from, from.length);
+        this.to = null == to ? null : Arrays.copyOf(to, to.length);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public S state(int... x) {
+
+        if (null != from) {
+
+            for (int d = 0; d < x.length; d++) {
+
+                if (d < from.length && (from[d] > x[d] || to[d] <= x[d])) return background;
+            }
+        }
+
+        long hash = seed;
+
+        for (int c : x) hash = mix(hash ^ c);
+
+        // The top 53 bits of the hash give a uniform double from 0 to 1.
+        return (hash >>> 11) / (double) (1L << 53) < density ? alive : background;
+    }
+
+    /**
+     * Get the seed of the soup.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+
+        return seed;
+    }
+
+    /**
+     * Scramble the bits of the supplied value, this is the finaliser of the SplitMix64 generator.
+     *
+     * @param value - the value to scramble.
+     * @return the scrambled value.
+     */
+    private static long mix(long value) {
+
+        value += 0x9E3779B97F4A7C15L;
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,188 @@
+package org.karlbennett.gameoflife;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This executor ticks a {@see Board} in parallel by splitting it along its outermost dimension into slabs and handing
+ * each slab to a thread. Each slab only writes its own part of the next generation so the result is the same as a
+ * sequential tick. Boards that are smaller than the threshold are ticked on the calling thread.
+ */
+public class SlabExecutor {
+
+    /**
+     * The default number of cells a board must have before it is ticked in parallel.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    /**
+     * A part of a board that can be ticked independently of the rest.
+     */
+    public interface Slab {
+
+        /**
+         * Tick the slab that lies between the supplied positions along the outermost dimension.
+         *
+         * @param from - the first position in the slab.
+         * @param to   - the position after the last position in the slab.
+         */
+        public void tick(int from, int to);
+    }
+
+
+    private final int parallelism;
+
+    private final int threshold;
+
+    private final ExecutorService executor;
+
+
+    /**
+     * Construct a new <code>SlabExecutor</code> with the supplied parallelism and the default threshold.
+     *
+     * @param parallelism - the maximum number of slabs to tick at once.
+     */
+    public SlabExecutor(int parallelism) {
+
+        this(parallelism, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Construct a new <code>SlabExecutor</code> with the supplied parallelism and threshold.
+     *
+     * @param parallelism - the maximum number of slabs to tick at once.
+     * @param threshold   - the number of cells a board must have before it is ticked in parallel.
+     * @throws IllegalArgumentException if the parallelism is less than 1 or the threshold is negative.
+     */
+    public SlabExecutor(int parallelism, int threshold) {
+
+        if (1 > parallelism) {
+
+            throw new IllegalArgumentException("The parallelism must be at least 1: " + parallelism);
+        }
+
+        if (0 > threshold) {
+
+            throw new IllegalArgumentException("The threshold cannot be negative: " + threshold);
+        }
+
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+
+        // The calling thread always ticks one of the slabs itself so the pool only needs the rest.
+        this.executor = 1 == parallelism ? null : Executors.newFixedThreadPool(parallelism - 1, new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "game-of-life-slab");
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+    }
+
+
+    /**
+     * Get the maximum number of slabs that will be ticked at once.
+     *
+     * @return the parallelism.
+     */
+    public int getParallelism() {
+
+        return parallelism;
+    }
+
+    /**
+     * Get the number of cells a board must have before it is ticked in parallel.
+     *
+     * @return the threshold.
+     */
+    public int getThreshold() {
+
+        return threshold;
+    }
+
+    /**
+     * Tick the supplied slab across the whole of the outermost dimension, splitting it into smaller slabs that are
+     * ticked in parallel if the board is large enough. This method only returns once every slab has been ticked.
+     *
+     * @param length - the size of the outermost dimension.
+     * @param cells  - the total number of cells on the board.
+     * @param slab   - the slab to tick.
+     */
+    public void tick(int length, int cells, final Slab slab) {
+
+        int slabs = Math.min(parallelism, length);
+
+        if (null == executor || threshold > cells || 2 > slabs) {
+
+            slab.tick(0, length);
+
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<Future<?>>(slabs - 1);
+
+        for (int s = 1; s < slabs; s++) {
+
+            final int from = (int) ((long) length * s / slabs);
+            final int to = (int) ((long) length * (s + 1) / slabs);
+
+            futures.add(executor.submit(new Callable<Object>() {
+
+                @Override
+                public Object call() throws Exception {
+
+                    slab.tick(from, to);
+
+                    return null;
+                }
+            }));
+        }
+
+        slab.tick(0, length / slabs);
+
+        for (Future<?> future : futures) {
+
+            try {
+
+                future.get();
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("Interrupted while waiting for a slab to tick.", e);
+
+            } catch (ExecutionException e) {
+
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+
+                if (e.getCause() instanceof Error) throw (Error) e.getCause();
+
+                throw new IllegalStateException("A slab failed to tick.", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Stop the threads used by this executor. Any boards that are still using it will fail on their next parallel
+     * tick.
+     */
+    public void shutdown() {
+
+        if (null != executor) executor.shutdown();
+    }
+}
@@ -0,0 +1,111 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This palette maps the states used on a {@see Board} to compact integer codes so that the board can store the state of
+ * every cell in a single primitive array. Codes are handed out in the order that the states are first seen, so the
+ * first state encoded is always given the code 0.
+ * <p/>
+ * A palette can be shared by threads that are ticking different slabs of the same board. Looking up a state that has
+ * already been seen does not lock, only the rare addition of a new state does.
+ *
+ * @param <S> - the type of state that is being encoded.
+ */
+public class StatePalette<S extends Comparable<S>> {
+
+    /**
+     * The key used for a null state because a concurrent map cannot hold null keys.
+     */
+    private static final Object NULL_STATE = new Object();
+
+
+    private volatile Object[] states;
+
+    private final ConcurrentMap<Object, Integer> codes;
+
+
+    /**
+     * Construct a new empty <code>StatePalette</code>.
+     */
+    public StatePalette() {
+
+        this.states = new Object[0];
+        this.codes = new ConcurrentHashMap<Object, Integer>();
+    }
+
+
+    /**
+     * Get the code for the supplied state, if the state has not been seen before it will be given the next available
+     * code.
+     *
+     * @param state - the state to encode.
+     * @return the code for the supplied state.
+     */
+    public int encode(S state) {
+
+        Integer code = codes.get(null == state ? NULL_STATE : state);
+
+        return null == code ? add(state) : code;
+    }
+
+    /**
+     * Get the state that was given the supplied code.
+     *
+     * @param code - the code of the required state.
+     * @return the state for the supplied code.
+     * @throws IndexOutOfBoundsException if no state has been given the supplied code.
+     */
+    @SuppressWarnings("unchecked")
+    public S decode(int code) {
+
+        Object[] states = this.states;
+
+        if (0 > code || states.length <= code) {
+
+            throw new IndexOutOfBoundsException("No state has been given the code (" + code + ").");
+        }
+
+        return (S) states[code];
+    }
+
+    /**
+     * Get the number of distinct states that have been encoded by this palette.
+     *
+     * @return the number of encoded states.
+     */
+    public int size() {
+
+        return states.length;
+    }
+
+    /**
+     * Give the supplied state the next available code, unless another thread has given it a code first.
+     *
+     * @param state - the state to add.
+     * @return the code for the supplied state.
+     */
+    private synchronized int add(S state) {
+
+        Object key = null == state ? NULL_STATE : state;
+
+        Integer code = codes.get(key);
+
+        if (null != code) return code;
+
+        Object[] newStates = Arrays.copyOf(states, states.length + 1);
+        newStates[states.length] = state;
+
+        // Publish the state before its code so that any thread that can see the code can also decode it.
+        states = newStates;
+
+        codes.put(key, states.length - 1);
+
+        return states.length - 1;
+    }
+}
@@ -0,0 +1,164 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This kernel counts the alive neighbours of every cell on a flat row-major board as a stencil. The 3^N neighbourhood
+ * sum is separable, so instead of visiting all 3^N-1 neighbours of each cell the kernel makes one pass per dimension
+ * that adds each cell to the cells either side of it in that dimension. That costs N passes rather than 3^N-1 lookups
+ * per cell.
+ * <p/>
+ * Every pass is a plain loop over a contiguous range of an int array with a fixed offset, which is the shape that the
+ * JIT compiler turns into SIMD instructions on processors that have them and runs as ordinary scalar code on those
+ * that do not.
+ * <p/>
+ * The passes can be split into ranges of cells that are run in parallel, as long as every range of one pass has
+ * finished before the next pass starts.
+ */
+public class StencilKernel {
+
+    private final int[] dimensions;
+
+    private final int[] strides;
+
+    private final int size;
+
+
+    /**
+     * Construct a new <code>StencilKernel</code> for boards with the supplied dimensions.
+     *
+     * @param dimensions - the dimensions of the board e.g. width, height, depth...
+     * @throws IllegalArgumentException if any dimension is negative or the board would be too large.
+     */
+    public StencilKernel(int... dimensions) {
+
+        this.dimensions = dimensions.clone();
+        this.strides = Board.calculateStrides(dimensions);
+        this.size = Board.volume(dimensions);
+    }
+
+
+    /**
+     * Get the number of dimensions, which is also the number of sum passes.
+     *
+     * @return the number of dimensions.
+     */
+    public int getDimensions() {
+
+        return dimensions.length;
+    }
+
+    /**
+     * Get the number of cells on the board.
+     *
+     * @return the number of cells.
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Count the alive neighbours of every cell on the board in a single thread.
+     *
+     * @param states  - the state code of every cell.
+     * @param alive   - the code of the alive state.
+     * @param counts  - the array that will receive the number of alive neighbours of every cell.
+     * @param scratch - a working array that is the same size as the board.
+     */
+    public void count(int[] states, int alive, int[] counts, int[] scratch) {
+
+        int[] source = 0 == dimensions.length % 2 ? counts : scratch;
+        int[] destination = source == counts ? scratch : counts;
+
+        mark(states, alive, source, 0, size);
+
+        int[] swap;
+        for (int d = 0; d < dimensions.length; d++) {
+
+            sum(d, source, destination, 0, size);
+
+            swap = source;
+            source = destination;
+            destination = swap;
+        }
+
+        // An even number of passes ends in the array that was marked first, which was chosen to be the counts.
+        unmark(states, alive, counts, 0, size);
+    }
+
+    /**
+     * Mark every cell in the supplied range that is alive with a 1 and every other cell with a 0.
+     *
+     * @param states - the state code of every cell.
+     * @param alive  - the code of the alive state.
+     * @param marks  - the array that will receive the marks.
+     * @param from   - the index of the first cell to mark.
+     * @param to     - the index after the last cell to mark.
+     */
+    public void mark(int[] states, int alive, int[] marks, int from, int to) {
+
+        for (int i = from; i < to; i++) marks[i] = alive == states[i] ? 1 : 0;
+    }
+
+    /**
+     * Add every cell in the source to the cells either side of it in the supplied dimension, writing the result for the
+     * supplied range of cells into the destination.
+     *
+     * @param d           - the dimension to sum along.
+     * @param source      - the sums from the previous pass, or the marks for the first pass.
+     * @param destination - the array that will receive the sums, this must not be the source.
+     * @param from        - the index of the first cell to sum.
+     * @param to          - the index after the last cell to sum.
+     */
+    public void sum(int d, int[] source, int[] destination, int from, int to) {
+
+        int stride = strides[d];
+        int block = stride * dimensions[d];
+
+        if (0 == block) return;
+
+        int lo;
+        int hi;
+        for (int base = from - from % block; base < to; base += block) {
+
+            lo = Math.max(base, from);
+            hi = Math.min(base + block, to);
+
+            System.arraycopy(source, lo, destination, lo, hi - lo);
+
+            // The first layer of the block has nothing before it and the last layer has nothing after it.
+            add(source, destination, -stride, Math.max(lo, base + stride), hi);
+            add(source, destination, stride, lo, Math.min(hi, base + block - stride));
+        }
+    }
+
+    /**
+     * Remove each alive cell from its own neighbourhood sum so that only its neighbours are counted.
+     *
+     * @param states - the state code of every cell.
+     * @param alive  - the code of the alive state.
+     * @param sums   - the neighbourhood sums, these become the neighbour counts.
+     * @param from   - the index of the first cell.
+     * @param to     - the index after the last cell.
+     */
+    public void unmark(int[] states, int alive, int[] sums, int from, int to) {
+
+        for (int i = from; i < to; i++) sums[i] -= alive == states[i] ? 1 : 0;
+    }
+
+    /**
+     * Add the source cells at the supplied offset onto the destination cells in the supplied range.
+     *
+     * @param source      - the source array.
+     * @param destination - the destination array.
+     * @param offset      - the offset of the source cell from the destination cell.
+     * @param from        - the index of the first destination cell.
+     * @param to          - the index after the last destination cell.
+     */
+    private static void add(int[] source, int[] destination, int offset, int from, int to) {
+
+        for (int i = from; i < to; i++) destination[i] += source[i + offset];
+    }
+}
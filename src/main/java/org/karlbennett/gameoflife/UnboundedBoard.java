@@ -0,0 +1,399 @@
+package org.karlbennett.gameoflife;
+
+import java.util.List;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * This is a board for the Game of Life that has no edges. Only the cells that are not in the default state are stored,
+ * in a {@see LongIntHashMap} keyed by their packed coordinates, so the memory used grows with the population of the
+ * board rather than the volume that the population covers.
+ * <p/>
+ * Each coordinate is packed into 64 / N bits, to a maximum of 32, so the board is only unbounded within the range that
+ * fits into those bits e.g. a 2D board can use any int coordinates while a 3D board is limited to +/-2^20. A board can
+ * have at most {@link #MAX_DIMENSIONS} dimensions. Cells on the
+ * edge of that range are treated like the cells on the edge of a {@see Board}, their missing neighbours are null.
+ * <p/>
+ * Cells that are in the default state and have no neighbours in any other state are expected to stay in the default
+ * state, so only the stored cells and their neighbours have the rules applied to them on each tick.
+ *
+ * @param <S> - the type of state that the Cell contains.
+ */
+public class UnboundedBoard<S extends Comparable<S>, R extends Rule<S>> {
+
+    /**
+     * The most dimensions an unbounded board can have. Every board holds the coordinates of all 3^N - 1 neighbours of a
+     * cell, which is 59048 neighbours in 10 dimensions and grows too large to allocate soon after.
+     */
+    public static final int MAX_DIMENSIONS = 10;
+
+    /**
+     * The most cells the map of visited cells is sized for up front, beyond that it grows as cells are visited.
+     */
+    private static final int MAX_VISITED_CAPACITY = 1 << 20;
+
+    private final List<R> rules;
+
+    private final int dimensions;
+
+    private final int bits;
+
+    private final long coordinateMask;
+
+    private final int[][] neighbourCoordinates;
+
+    private final StatePalette<S> palette;
+
+    private final int defaultCode;
+
+    private LongIntHashMap cells;
+
+    private LongIntHashMap nextCells;
+
+    private LongIntHashMap visited;
+
+    private long generation;
+
+
+    /**
+     * Construct a new <code>UnboundedBoard</code> where every cell is in the default state.
+     *
+     * @param rules        - the rules that will be applied on each tick of the Game of Life.
+     * @param defaultState - the state of every cell that has not been set.
+     * @param dimensions   - the number of dimensions of the board.
+     * @throws IllegalArgumentException if the number of dimensions is less than 1 or more than
+     *                                  {@link #MAX_DIMENSIONS}.
+     */
+    public UnboundedBoard(List<R> rules, S defaultState, int dimensions) {
+
+        if (1 > dimensions || MAX_DIMENSIONS < dimensions) {
+
+            throw new IllegalArgumentException("An unbounded board must have between 1 and " + MAX_DIMENSIONS +
+                    " dimensions: " + dimensions);
+        }
+
+        this.rules = rules;
+        this.dimensions = dimensions;
+        this.bits = Math.min(32, 64 / dimensions);
+        this.coordinateMask = 64 == bits ? -1L : (1L << bits) - 1;
+
+        this.neighbourCoordinates = new int[Cell.neighbourNumber(dimensions)][];
+
+        for (int n = 0; n < neighbourCoordinates.length; n++) {
+
+            neighbourCoordinates[n] = Cell.calculateNeighbourCoordinates(dimensions, n);
+        }
+
+        this.palette = new StatePalette<S>();
+        this.defaultCode = palette.encode(defaultState);
+        this.cells = new LongIntHashMap();
+    }
+
+    /**
+     * Construct the next generation of the supplied board with the supplied cells.
+     *
+     * @param board - the board that this board is the next generation of.
+     * @param cells - the cells of the new board that are not in the default state.
+     */
+    private UnboundedBoard(UnboundedBoard<S, R> board, LongIntHashMap cells) {
+
+        this.rules = board.rules;
+        this.dimensions = board.dimensions;
+        this.bits = board.bits;
+        this.coordinateMask = board.coordinateMask;
+        this.neighbourCoordinates = board.neighbourCoordinates;
+        this.palette = board.palette;
+        this.defaultCode = board.defaultCode;
+        this.cells = cells;
+        this.generation = board.generation + 1;
+    }
+
+
+    /**
+     * Get the number of dimensions of the board.
+     *
+     * @return the number of dimensions.
+     */
+    public int getDimensions() {
+
+        return dimensions;
+    }
+
+    /**
+     * Get the generation that this board holds. A new board is generation 0.
+     *
+     * @return the current generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the number of cells that are not in the default state.
+     *
+     * @return the population of the board.
+     */
+    public int population() {
+
+        return cells.size();
+    }
+
+    /**
+     * Get the state of the cell at the supplied coordinates.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the state of the cell, this is the default state for any cell that has not been stored.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if a coordinate is too large to be packed.
+     */
+    public S state(int... x) throws IllegalCoordinateNumber {
+
+        return palette.decode(cells.get(pack(x), defaultCode));
+    }
+
+    /**
+     * Set the state of the cell at the supplied coordinates.
+     *
+     * @param state - the new state of the cell.
+     * @param x     - and arbitrary number of coordinates e.g. x, y, z...
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if a coordinate is too large to be packed.
+     */
+    public void set(S state, int... x) throws IllegalCoordinateNumber {
+
+        int code = palette.encode(state);
+
+        if (defaultCode == code) cells.remove(pack(x));
+
+        else cells.put(pack(x), code);
+    }
+
+    /**
+     * Retrieve a Cell from the board using the supplied coordinates, along with all of its neighbours.
+     *
+     * @param x - and arbitrary number of coordinates e.g. x, y, z...
+     * @return the <code>Cell</code> found at the supplied coordinates.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if a coordinate is too large to be packed.
+     */
+    public Cell<S, R> cell(int... x) throws IllegalCoordinateNumber {
+
+        return materialise(pack(x));
+    }
+
+    /**
+     * Tick the board over one generation and return a brand new board that contains the new state.
+     *
+     * @return a new board with the new rule modified state.
+     */
+    public UnboundedBoard<S, R> tick() {
+
+        LongIntHashMap next = new LongIntHashMap(cells.size());
+
+        step(next);
+
+        return new UnboundedBoard<S, R>(this, next);
+    }
+
+    /**
+     * Advance this board by the supplied number of generations in place, reusing the same two cell maps for every
+     * generation.
+     *
+     * @param generations - the number of generations to advance.
+     * @return this board, now holding the state of the last generation.
+     * @throws IllegalArgumentException if the number of generations is negative.
+     */
+    public UnboundedBoard<S, R> advance(int generations) {
+
+        if (0 > generations) {
+
+            throw new IllegalArgumentException("The number of generations cannot be negative: " + generations);
+        }
+
+        if (null == nextCells) nextCells = new LongIntHashMap(cells.size());
+
+        LongIntHashMap swap;
+        for (int g = 0; g < generations; g++) {
+
+            nextCells.clear();
+
+            step(nextCells);
+
+            swap = cells;
+            cells = nextCells;
+            nextCells = swap;
+
+            generation++;
+        }
+
+        return this;
+    }
+
+    /**
+     * Visit every stored cell and each of its neighbours once and put any that end up in a state other than the default
+     * into the supplied map.
+     *
+     * @param next - the map that will receive the next generation.
+     */
+    private void step(LongIntHashMap next) {
+
+        if (null == visited) {
+
+            visited = new LongIntHashMap((int) Math.min(MAX_VISITED_CAPACITY,
+                    (long) cells.size() * (neighbourCoordinates.length + 1)));
+        }
+
+        visited.clear();
+
+        int[] coordinates = new int[dimensions];
+        int[] neighbour = new int[dimensions];
+
+        long key;
+        for (int slot = 0; slot < cells.capacity(); slot++) {
+
+            if (!cells.isUsed(slot)) continue;
+
+            key = cells.keyAt(slot);
+
+            evaluate(key, next);
+
+            unpack(key, coordinates);
+
+            for (int[] offset : neighbourCoordinates) {
+
+                if (offset(coordinates, offset, neighbour)) evaluate(pack(neighbour), next);
+            }
+        }
+    }
+
+    /**
+     * Apply the rules to the cell with the supplied key, unless it has already been evaluated this generation.
+     *
+     * @param key  - the packed coordinates of the cell.
+     * @param next - the map that will receive the cell if it is not in the default state.
+     */
+    private void evaluate(long key, LongIntHashMap next) {
+
+        if (visited.containsKey(key)) return;
+
+        visited.put(key, 0);
+
+        int code = palette.encode(materialise(key).getNextState());
+
+        if (defaultCode != code) next.put(key, code);
+    }
+
+    /**
+     * Create a <code>Cell</code> for the cell with the supplied key along with cells for all of its neighbours.
+     *
+     * @param key - the packed coordinates of the cell.
+     * @return the new cell.
+     */
+    @SuppressWarnings("unchecked")
+    private Cell<S, R> materialise(long key) {
+
+        int[] coordinates = new int[dimensions];
+        int[] neighbour = new int[dimensions];
+
+        unpack(key, coordinates);
+
+        Cell<S, R>[] neighbours = new Cell[neighbourCoordinates.length];
+
+        for (int n = 0; n < neighbourCoordinates.length; n++) {
+
+            if (offset(coordinates, neighbourCoordinates[n], neighbour)) {
+
+                neighbours[n] = new Cell<S, R>(palette.decode(cells.get(pack(neighbour), defaultCode)), rules,
+                        dimensions);
+            }
+        }
+
+        return new Cell<S, R>(palette.decode(cells.get(key, defaultCode)), rules, neighbours);
+    }
+
+    /**
+     * Apply the supplied neighbour offset to the supplied coordinates.
+     *
+     * @param coordinates - the coordinates of the cell.
+     * @param offset      - the coordinates of the neighbour where the cell is (0,0).
+     * @param neighbour   - the array that will receive the coordinates of the neighbour.
+     * @return false if the neighbour is outside of the range of coordinates that can be packed.
+     */
+    private boolean offset(int[] coordinates, int[] offset, int[] neighbour) {
+
+        long c;
+        for (int d = 0; d < dimensions; d++) {
+
+            c = (long) coordinates[d] + offset[d];
+
+            if (!isPackable(c)) return false;
+
+            neighbour[d] = (int) c;
+        }
+
+        return true;
+    }
+
+    /**
+     * Pack the supplied coordinates into a single key.
+     *
+     * @param x - the coordinates to pack.
+     * @return the packed key.
+     * @throws IllegalCoordinateNumber   if an incorrect number of coordinates has been supplied.
+     * @throws IndexOutOfBoundsException if a coordinate is too large to be packed.
+     */
+    private long pack(int... x) {
+
+        if (dimensions != x.length) {
+
+            throw new IllegalCoordinateNumber("The number of coordinates is invalid. Expected: "
+                    + dimensions + " Actual: " + x.length, dimensions);
+        }
+
+        long key = 0;
+
+        for (int d = 0; d < dimensions; d++) {
+
+            if (!isPackable(x[d])) {
+
+                throw new IndexOutOfBoundsException("The supplied coordinate with index " + d +
+                        " does not fit into " + bits + " bits: " + x[d]);
+            }
+
+            key |= (x[d] & coordinateMask) << (bits * d);
+        }
+
+        return key;
+    }
+
+    /**
+     * Unpack the supplied key into its coordinates.
+     *
+     * @param key         - the packed key.
+     * @param coordinates - the array that will receive the coordinates.
+     */
+    private void unpack(long key, int[] coordinates) {
+
+        long c;
+        for (int d = 0; d < dimensions; d++) {
+
+            c = (key >>> (bits * d)) & coordinateMask;
+
+            // Sign extend the coordinate back from its packed width.
+            coordinates[d] = (int) ((c << (64 - bits)) >> (64 - bits));
+        }
+    }
+
+    /**
+     * Check to see if the supplied coordinate fits into the packed width.
+     *
+     * @param c - the coordinate to check.
+     * @return true if the coordinate can be packed.
+     */
+    private boolean isPackable(long c) {
+
+        return -(1L << (bits - 1)) <= c && (1L << (bits - 1)) > c;
+    }
+}
@@ -0,0 +1,203 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class BatchRunnerTest {
+
+    @Test
+    public void testParseJob() throws Exception {
+
+        BatchJob job = BatchJob.parse("  soup-1 B36/S23 40x30x2 42 0.25 500 cycle:12 ");
+
+        assertEquals("soup-1", job.getId());
+        assertEquals("B36/S23", job.getRulestring());
+        assertArrayEquals(new int[]{40, 30, 2}, job.getDimensionSizes());
+        assertEquals(42, job.getSeed());
+        assertEquals(0.25, job.getDensity(), 0);
+        assertEquals(500, job.getGenerations());
+        assertEquals(BatchJob.Termination.CYCLE, job.getTermination());
+        assertEquals(12, job.getHistory());
+
+        job = BatchJob.parse("soup-2 B3/S23 10x10 1 0.5 20");
+
+        assertEquals("the termination should default to none", BatchJob.Termination.NONE, job.getTermination());
+        assertEquals(BatchJob.DEFAULT_HISTORY, job.getHistory());
+    }
+
+    @Test
+    public void testReadJobsSkipsCommentsAndReportsTheLineOfAnInvalidJob() throws Exception {
+
+        Iterator<BatchJob> jobs = BatchJob.read(new BufferedReader(new StringReader(
+                "# a sweep\n\nsoup-1 B3/S23 10x10 1 0.5 20\nsoup-2 B3/S23 10xten 1 0.5 20\n")));
+
+        assertEquals("soup-1", jobs.next().getId());
+
+        try {
+
+            jobs.hasNext();
+
+            fail("the invalid job should be reported");
+
+        } catch (IllegalArgumentException e) {
+
+            assertTrue("the line number should be reported: " + e.getMessage(), e.getMessage().startsWith("Line 4"));
+        }
+    }
+
+    @Test
+    public void testRunStreamsEveryResult() throws Exception {
+
+        List<BatchJob> jobs = new ArrayList<BatchJob>();
+
+        String[] rules = {"B3/S23", "B36/S23", "B2/S/C3"};
+
+        for (int j = 0; j < 120; j++) {
+
+            jobs.add(new BatchJob("job-" + j, rules[j % rules.length], new int[]{24 + j % 5, 20}, j, 0.3, 50,
+                    BatchJob.Termination.values()[j % 3], BatchJob.DEFAULT_HISTORY));
+        }
+
+        StringWriter results = new StringWriter();
+
+        assertEquals("every job should be run", jobs.size(), new BatchRunner(4).run(jobs.iterator(), results));
+
+        String[] lines = results.toString().split("\n");
+
+        assertEquals("the header should be written first", BatchResult.HEADER, lines[0]);
+        assertEquals("there should be a line for every job", jobs.size() + 1, lines.length);
+
+        Map<String, String> byId = new HashMap<String, String>();
+
+        for (int l = 1; l < lines.length; l++) byId.put(lines[l].split("\t")[0], lines[l]);
+
+        for (BatchJob job : jobs) {
+
+            String[] expected = job.run().toString().split("\t");
+            String[] actual = byId.get(job.getId()).split("\t");
+
+            // Everything but the time should be the same when the job is run again.
+            assertEquals(job.getId() + " should be reproducible", Arrays.asList(expected).subList(0, 8),
+                    Arrays.asList(actual).subList(0, 8));
+        }
+    }
+
+    @Test
+    public void testTerminationConditions() throws Exception {
+
+        BatchResult extinct = new BatchJob("empty", "B3/S23", new int[]{16, 16}, 1, 0, 100,
+                BatchJob.Termination.EXTINCT, BatchJob.DEFAULT_HISTORY).run();
+
+        assertEquals("an empty board should stop straight away", 0, extinct.getGeneration());
+        assertEquals(BatchJob.Termination.EXTINCT, extinct.getTermination());
+
+        BatchResult cycle = new BatchJob("soup", "B3/S23", new int[]{32, 32}, 3, 0.35, 5000,
+                BatchJob.Termination.CYCLE, BatchJob.DEFAULT_HISTORY).run();
+
+        assertEquals("the soup should settle", BatchJob.Termination.CYCLE, cycle.getTermination());
+        assertTrue("the soup should settle early", 5000 > cycle.getGeneration());
+        assertTrue("the period should be found", 0 < cycle.getPeriod());
+
+        BatchResult none = new BatchJob("soup", "B3/S23", new int[]{32, 32}, 3, 0.35, 40,
+                BatchJob.Termination.NONE, BatchJob.DEFAULT_HISTORY).run();
+
+        assertEquals("every generation should be played", 40, none.getGeneration());
+        assertEquals(BatchJob.Termination.NONE, none.getTermination());
+    }
+
+    @Test
+    public void testRunOnlyTakesAJobWhenAThreadIsFree() throws Exception {
+
+        final List<BatchJob> jobs = new ArrayList<BatchJob>();
+
+        for (int j = 0; j < 40; j++) {
+
+            jobs.add(new BatchJob("job-" + j, "B3/S23", new int[]{20, 20}, j, 0.3, 20, BatchJob.Termination.NONE,
+                    BatchJob.DEFAULT_HISTORY));
+        }
+
+        final StringWriter results = new StringWriter();
+        final int threads = 3;
+
+        Iterator<BatchJob> iterator = new Iterator<BatchJob>() {
+
+            private int taken;
+
+            @Override
+            public boolean hasNext() {
+
+                return taken < jobs.size();
+            }
+
+            @Override
+            public BatchJob next() {
+
+                int finished;
+
+                synchronized (results) {
+
+                    finished = results.toString().split("\n").length - 1;
+                }
+
+                assertTrue("no more jobs should be taken than there are free threads: " + taken + " taken, " +
+                        finished + " finished", taken - finished < threads);
+
+                return jobs.get(taken++);
+            }
+
+            @Override
+            public void remove() {
+
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        assertEquals("every job should be run", jobs.size(), new BatchRunner(threads).run(iterator, results));
+    }
+
+    @Test
+    public void testRunReportsAnErrorInAJob() throws Exception {
+
+        BatchJob job = new BatchJob("broken", "B3/S23", new int[]{10, 10}, 1, 0.5, 10, BatchJob.Termination.NONE,
+                BatchJob.DEFAULT_HISTORY) {
+
+            @Override
+            public BatchResult run() {
+
+                throw new AssertionError("broken job");
+            }
+        };
+
+        try {
+
+            new BatchRunner(2).run(Arrays.asList(job).iterator(), new StringWriter());
+
+            fail("the error should be reported");
+
+        } catch (IllegalStateException e) {
+
+            assertTrue("the error should be the cause", e.getCause() instanceof AssertionError);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRunnerNeedsAThread() throws Exception {
+
+        new BatchRunner(0);
+    }
+}
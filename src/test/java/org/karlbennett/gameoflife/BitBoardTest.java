@@ -0,0 +1,230 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.nio.LongBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.karlbennett.gameoflife.TotalisticRule.B3_S23;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class BitBoardTest {
+
+    @Test
+    public void testSetAndGet() throws Exception {
+
+        BitBoard board = new BitBoard(B3_S23, 100, 3);
+
+        board.set(0, true);
+        board.set(64, true);
+        board.set(199, true);
+        board.set(64, false);
+
+        assertTrue("cell 0 should be alive", board.get(0));
+        assertFalse("cell 64 should be dead", board.get(64));
+        assertTrue("cell 199 should be alive", board.get(199));
+        assertEquals("the population should be correct", 2, board.population());
+    }
+
+    @Test
+    public void testStepBlockIsStable() throws Exception {
+
+        BitBoard board = new BitBoard(B3_S23, 70, 4);
+
+        // A block that straddles the boundary between the first and second word of each row.
+        board.set(70 + 63, true);
+        board.set(70 + 64, true);
+        board.set(140 + 63, true);
+        board.set(140 + 64, true);
+
+        BitBoard next = new BitBoard(board);
+
+        board.step(next);
+
+        assertEquals("the block should not change size", 4, next.population());
+        assertTrue("the block should not move", next.get(70 + 63) && next.get(70 + 64) && next.get(140 + 63) && next.get(140 + 64));
+    }
+
+    @Test
+    public void testStepGliderMoves() throws Exception {
+
+        BitBoard board = new BitBoard(B3_S23, 10, 10);
+
+        int[][] glider = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+        for (int[] c : glider) board.set(c[0] + c[1] * 10, true);
+
+        BitBoard next = new BitBoard(board);
+
+        for (int g = 0; g < 2; g++) {
+
+            board.step(next);
+            next.step(board);
+        }
+
+        for (int[] c : glider) assertTrue("the glider should have moved diagonally", board.get(c[0] + 1 + (c[1] + 1) * 10));
+
+        assertEquals("the glider should still have five cells", 5, board.population());
+    }
+
+    @Test
+    public void testTileSizes() throws Exception {
+
+        assertEquals(1, new BitBoard(B3_S23, 100).getTileSize());
+        assertEquals(64, new BitBoard(B3_S23, 100, 100).getTileSize());
+        assertEquals(8, new BitBoard(B3_S23, 10, 10, 10).getTileSize());
+        assertEquals(4, new BitBoard(B3_S23, 10, 10, 10, 10).getTileSize());
+        assertEquals("a 200x130 board should have 4x3 tiles", 12, new BitBoard(B3_S23, 200, 130).getTileCount());
+    }
+
+    @Test
+    public void testQuietTilesAreSkipped() throws Exception {
+
+        for (int[] dimensions : new int[][]{{300, 200}, {130, 20, 20}}) {
+
+            int rowLength = dimensions[0];
+
+            BitBoard skipping = new BitBoard(B3_S23, dimensions);
+            BitBoard skippingNext = new BitBoard(skipping);
+            BitBoard sweeping = new BitBoard(B3_S23, dimensions);
+            BitBoard sweepingNext = new BitBoard(sweeping);
+
+            // A glider near the origin, a blinker at the far corner and a block that straddles a tile boundary.
+            int[][] cells = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2},
+                    {rowLength - 4, 17}, {rowLength - 3, 17}, {rowLength - 2, 17},
+                    {63, 9}, {64, 9}, {63, 10}, {64, 10}};
+
+            for (int[] c : cells) {
+
+                skipping.set(c[0] + c[1] * rowLength, true);
+                sweeping.set(c[0] + c[1] * rowLength, true);
+            }
+
+            BitBoard swap;
+            for (int g = 0; g < 60; g++) {
+
+                skipping.step(skippingNext);
+
+                // Setting a cell marks every tile as dirty so that the whole board is stepped.
+                sweeping.set(0, sweeping.get(0));
+                sweeping.step(sweepingNext);
+
+                assertEquals("every tile should be stepped", sweeping.getTileCount(), sweeping.getActiveTiles());
+
+                // B3/S23 spreads through the small 3D board, so only the 2D board stays quiet.
+                if (1 < g && 2 == dimensions.length) {
+
+                    assertTrue("the quiet tiles should be skipped in generation " + g,
+                            skipping.getActiveTiles() < skipping.getTileCount());
+                }
+
+                swap = skipping;
+                skipping = skippingNext;
+                skippingNext = swap;
+
+                swap = sweeping;
+                sweeping = sweepingNext;
+                sweepingNext = swap;
+
+                for (int i = 0, size = Board.volume(dimensions); i < size; i++) {
+
+                    assertEquals("cell " + i + " should match in generation " + g, sweeping.get(i), skipping.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLoadOnlyDirtiesTheTilesThatChange() throws Exception {
+
+        BitBoard board = new BitBoard(B3_S23, 300, 200);
+        BitBoard next = new BitBoard(board);
+
+        board.step(next);
+
+        assertEquals("an empty board should have no dirty tiles", 0, next.getDirtyTiles());
+
+        // Load the last row with the same empty words apart from one cell in its third word.
+        long[] row = new long[next.getWordCount() / 200];
+
+        row[2] = 1L;
+
+        next.load(LongBuffer.wrap(row), 199 * row.length, row.length);
+
+        assertEquals("only the tile of the changed word should be dirty", 1, next.getDirtyTiles());
+        assertTrue("the loaded cell should be alive", next.get(199 * 300 + 128));
+        assertEquals("the loaded cell should be counted", 1, next.population());
+    }
+
+    @Test
+    public void testStepSeveralGenerationsMatchesSingleSteps() throws Exception {
+
+        Random random = new Random(7);
+
+        for (int[] dimensions : new int[][]{{200}, {130, 70}, {70, 9, 11}, {10, 5, 4, 6}}) {
+
+            for (int generations : new int[]{2, 3, 7}) {
+
+                BitBoard single = new BitBoard(B3_S23, dimensions);
+                BitBoard block = new BitBoard(B3_S23, dimensions);
+
+                for (int i = 0, size = Board.volume(dimensions); i < size; i++) {
+
+                    boolean alive = random.nextInt(3) == 0;
+
+                    single.set(i, alive);
+                    block.set(i, alive);
+                }
+
+                BitBoard singleNext = new BitBoard(single);
+                BitBoard blockNext = new BitBoard(block);
+
+                BitBoard swap;
+                for (int g = 0; g < generations; g++) {
+
+                    single.step(singleNext);
+
+                    swap = single;
+                    single = singleNext;
+                    singleNext = swap;
+                }
+
+                block.step(blockNext, generations);
+
+                assertEquals("every tile should be stepped", block.getTileCount(), block.getActiveTiles());
+                assertEquals("the dirty tiles should be set from the last generation", single.getDirtyTiles(),
+                        blockNext.getDirtyTiles());
+                assertEquals("the population should be counted from the last generation", single.population(),
+                        blockNext.population());
+
+                // The dirty tiles decide which tiles the next single step skips.
+                single.step(singleNext);
+                blockNext.step(block);
+
+                for (int i = 0, size = Board.volume(dimensions); i < size; i++) {
+
+                    assertEquals("cell " + i + " should match after " + generations + " generations",
+                            singleNext.get(i), block.get(i));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStepNoGenerations() throws Exception {
+
+        BitBoard board = new BitBoard(B3_S23, 10, 10);
+
+        board.step(new BitBoard(board), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroDimensionBitBoard() throws Exception {
+
+        new BitBoard(B3_S23);
+    }
+}
@@ -0,0 +1,139 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class BoardSnapshotTest {
+
+    @Test
+    public void testBinaryBoardRoundTrip() throws Exception {
+
+        for (String rulestring : Arrays.asList("B3/S23", "B36/S23")) {
+
+            for (int[] d : new int[][]{{70, 33}, {13, 9, 5}}) {
+
+                List<Rule<Integer>> rules =
+                        Collections.<Rule<Integer>>singletonList(RuleTable.parse(rulestring, d.length));
+
+                assertRoundTrip(rules, new Board<Integer, Rule<Integer>, InitialState<Integer>,
+                        Cell<Integer, Rule<Integer>>>(rules, new RandomCodeInitialState(d.length, 2), d).advance(3), d);
+            }
+        }
+    }
+
+    @Test
+    public void testRuleTableBoardRoundTrip() throws Exception {
+
+        for (int[] d : new int[][]{{40, 30}, {17, 9, 7}}) {
+
+            List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(RuleTable.parse("B2/S/C4", d.length));
+
+            assertRoundTrip(rules, new Board<Integer, Rule<Integer>, InitialState<Integer>,
+                    Cell<Integer, Rule<Integer>>>(rules, new RandomCodeInitialState(d.length, 4), d).advance(2), d);
+        }
+    }
+
+    @Test
+    public void testGenericBoardRoundTrip() throws Exception {
+
+        int[] d = {23, 19};
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(new ModRule(5));
+
+        assertRoundTrip(rules, new Board<Integer, Rule<Integer>, InitialState<Integer>,
+                Cell<Integer, Rule<Integer>>>(rules, new RandomCodeInitialState(7, 5), d).advance(4), d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadWithDifferentRules() throws Exception {
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(RuleTable.parse("B3/S23", 2));
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        rules, new RandomCodeInitialState(1, 2), 10, 10);
+
+        File file = temporaryFile();
+
+        BoardSnapshot.write(board, file);
+
+        BoardSnapshot.read(file, Collections.<Rule<Integer>>singletonList(RuleTable.parse("B36/S23", 2)),
+                board.getStates());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadAFileThatIsNotASnapshot() throws Exception {
+
+        File file = temporaryFile();
+
+        FileOutputStream out = new FileOutputStream(file);
+
+        try {
+
+            out.write("this is not a board snapshot".getBytes("UTF-8"));
+
+        } finally {
+
+            out.close();
+        }
+
+        BoardSnapshot.read(file, Collections.<Rule<Integer>>singletonList(new ModRule(5)), Arrays.asList(0, 1));
+    }
+
+    private static void assertRoundTrip(List<Rule<Integer>> rules,
+                                        Board<Integer, Rule<Integer>, InitialState<Integer>,
+                                                Cell<Integer, Rule<Integer>>> board, int[] d) throws Exception {
+
+        File file = temporaryFile();
+
+        BoardSnapshot.write(board, file);
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> read =
+                BoardSnapshot.read(file, rules, board.getStates());
+
+        assertEquals("the generation should be restored", board.getGeneration(), read.getGeneration());
+
+        for (int i = 0; i < board.size(); i++) {
+
+            int[] x = new int[d.length];
+
+            for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+            assertEquals("cell " + Arrays.toString(x) + " of board " + Arrays.toString(d) + " should be restored",
+                    board.state(x), read.state(x));
+        }
+
+        board.advance(2);
+        read.advance(2);
+
+        for (int i = 0; i < board.size(); i++) {
+
+            int[] x = new int[d.length];
+
+            for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+            assertEquals("cell " + Arrays.toString(x) + " of board " + Arrays.toString(d) + " should play on the same",
+                    board.state(x), read.state(x));
+        }
+    }
+
+    private static File temporaryFile() throws Exception {
+
+        File file = File.createTempFile("board", ".snapshot");
+
+        file.deleteOnExit();
+
+        return file;
+    }
+}
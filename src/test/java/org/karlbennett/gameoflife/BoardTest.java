@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -39,6 +40,11 @@ public class BoardTest {
 
     private static final List<Rule<Boolean>> FALSE_RULES = Collections.singletonList(FALSE_RULE);
 
+    private static final List<Rule<Boolean>> LIFE_RULES = Collections.<Rule<Boolean>>singletonList(new LifeRule());
+
+    private static final List<Rule<Boolean>> BINARY_LIFE_RULES =
+            Collections.<Rule<Boolean>>singletonList(TotalisticRule.B3_S23);
+
     private static final Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> ZERO_D_BOARD =
             new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
                     FALSE_RULES, TRUE_INITIAL_STATE);
@@ -65,12 +71,113 @@ public class BoardTest {
                 100, 100);
 
         System.out.println(cell);
+
+        assertNotNull("the origin cell should be returned", cell);
+    }
+
+    @Test
+    public void testBuildBoardLinksEveryNeighbour() throws Exception {
+
+        int[] dimensions = {4, 3, 5};
+
+        Cell<Boolean, Rule<Boolean>> origin = Board.<Boolean, Rule<Boolean>>buildBoard(
+                new Cell<Boolean, Rule<Boolean>>(true, FALSE_RULES, 3), TRUE_INITIAL_STATE, dimensions);
+
+        // Walk along each axis to find every cell and then check its links against its coordinates.
+        Cell<Boolean, Rule<Boolean>> zCell = origin;
+        for (int z = 0; z < dimensions[2]; z++, zCell = zCell.getNeighbour(0, 0, 1)) {
+
+            Cell<Boolean, Rule<Boolean>> yCell = zCell;
+            for (int y = 0; y < dimensions[1]; y++, yCell = yCell.getNeighbour(0, 1, 0)) {
+
+                Cell<Boolean, Rule<Boolean>> cell = yCell;
+                for (int x = 0; x < dimensions[0]; x++, cell = cell.getNeighbour(1, 0, 0)) {
+
+                    for (int n = 0; n < Cell.neighbourNumber(3); n++) {
+
+                        int[] offset = Cell.calculateNeighbourCoordinates(3, n);
+
+                        boolean onBoard = 0 <= x + offset[0] && dimensions[0] > x + offset[0]
+                                && 0 <= y + offset[1] && dimensions[1] > y + offset[1]
+                                && 0 <= z + offset[2] && dimensions[2] > z + offset[2];
+
+                        Cell<Boolean, Rule<Boolean>> neighbour = cell.getNeighbourAt(n);
+
+                        assertEquals("cell (" + x + "," + y + "," + z + ") neighbour " + Arrays.toString(offset) +
+                                " should only be linked if it is on the board", onBoard, null != neighbour);
+
+                        if (onBoard) {
+
+                            assertSame("the neighbour should link back to the cell", cell,
+                                    neighbour.getNeighbour(-offset[0], -offset[1], -offset[2]));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSetNeighbourOnABuiltBoardOnlyChangesThatCell() throws Exception {
+
+        Cell<Boolean, Rule<Boolean>> origin = Board.<Boolean, Rule<Boolean>>buildBoard(
+                new Cell<Boolean, Rule<Boolean>>(true, FALSE_RULES, 2), TRUE_INITIAL_STATE, 3, 3);
+
+        Cell<Boolean, Rule<Boolean>> middle = origin.getNeighbour(1, 1);
+        Cell<Boolean, Rule<Boolean>> right = middle.getNeighbour(1, 0);
+        Cell<Boolean, Rule<Boolean>> replacement = new Cell<Boolean, Rule<Boolean>>(false, FALSE_RULES, 2);
+
+        middle.setNeighbour(replacement, 1, 0);
+
+        assertSame("the new neighbour should be set", replacement, middle.getNeighbour(1, 0));
+        assertSame("the other neighbours should be kept", origin, middle.getNeighbour(-1, -1));
+        assertSame("the old neighbour should still link back", middle, right.getNeighbour(-1, 0));
+    }
+
+    @Test
+    public void testBuildBoardWithALongRow() throws Exception {
+
+        BuildReport report = new BuildReport();
+
+        Cell<Boolean, Rule<Boolean>> cell = Board.<Boolean, Rule<Boolean>>buildBoard(
+                new Cell<Boolean, Rule<Boolean>>(true, FALSE_RULES, 1), TRUE_INITIAL_STATE, report, 100000);
+
+        int length = 1;
+
+        while (null != (cell = cell.getNeighbour(1))) length++;
+
+        assertEquals("every cell in the row should be linked", 100000, length);
+        assertEquals("the report should count every cell", 100000, report.getCells());
+        assertTrue("the report should record the time taken", 0 < report.getElapsedNanos());
+        assertTrue("the report should record the peak memory", 0 < report.getPeakMemory());
+    }
+
+    @Test
+    public void testBuildBoardWithAnEmptyDimension() throws Exception {
+
+        assertNull("an empty board should not have an origin", Board.<Boolean, Rule<Boolean>>buildBoard(
+                new Cell<Boolean, Rule<Boolean>>(true, FALSE_RULES, 2), TRUE_INITIAL_STATE, 10, 0));
+    }
+
+    @Test
+    public void testBoardBuildReport() throws Exception {
+
+        BuildReport report = new BuildReport();
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        FALSE_RULES, TRUE_INITIAL_STATE, report, 10, 10, 10);
+
+        assertSame("the board should keep the report it was given", report, board.getBuildReport());
+        assertEquals("the report should count every cell", board.size(), report.getCells());
+        assertSame("every generation should keep the report of the first", report, board.tick().getBuildReport());
+        assertNull("a board should not be reported unless it is asked to be", THREE_D_BOARD.getBuildReport());
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testBoardWithNoInitialState() throws Exception {
 
-        new Board(null, null);
+        new Board(null, (InitialState) null);
     }
 
     @Test(expected = IndexOutOfBoundsException.class)
@@ -134,7 +241,7 @@ public class BoardTest {
 
         for (int x = 0; x < WIDTH; x++) {
 
-            for (int y = 0; y < WIDTH; y++) {
+            for (int y = 0; y < HEIGHT; y++) {
 
                 cell = newBoard.cell(x, y);
 
@@ -144,6 +251,608 @@ public class BoardTest {
         }
     }
 
+    @Test
+    public void testTickOscillatesABlinker() throws Exception {
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        LIFE_RULES, new SequenceInitialState(11, 12, 13), 5, 5);
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> next = board.tick();
+
+        for (int x = 0; x < 5; x++) {
+
+            for (int y = 0; y < 5; y++) {
+
+                assertEquals("cell (" + x + ", " + y + ") should be alive only in the vertical blinker",
+                        2 == x && 1 <= y && 3 >= y, next.state(x, y));
+                assertEquals("cell (" + x + ", " + y + ") should be back to the horizontal blinker",
+                        board.state(x, y), next.tick().state(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testAdvanceStepsTheSameBoard() throws Exception {
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        LIFE_RULES, new SequenceInitialState(11, 12, 13), 5, 5);
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> ticked = board.tick().tick().tick();
+
+        assertSame("advance should return the same board", board, board.advance(3));
+        assertEquals("the board should be on the third generation", 3, board.getGeneration());
+        assertEquals("the ticked board should be on the third generation", 3, ticked.getGeneration());
+
+        for (int x = 0; x < 5; x++) {
+
+            for (int y = 0; y < 5; y++) {
+
+                assertEquals("cell (" + x + ", " + y + ") should match the ticked board",
+                        ticked.state(x, y), board.state(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testAdvanceWithTemporalBlockingMatchesSingleGenerations() throws Exception {
+
+        for (int[] d : new int[][]{{150}, {130, 70}, {65, 9, 7}}) {
+
+            Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> single =
+                    new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                            BINARY_LIFE_RULES, new RandomInitialState(d.length), d);
+            Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> blocked =
+                    new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                            BINARY_LIFE_RULES, new RandomInitialState(d.length), d);
+
+            blocked.setTemporalBlocking(4);
+
+            assertEquals("the blocking should be kept by ticked boards", 4, blocked.tick().getTemporalBlocking());
+
+            single.advance(23);
+            blocked.advance(13).advance(10);
+
+            assertEquals("the blocked board should count every generation", 23, blocked.getGeneration());
+            assertEquals("the blocked board should count its population", single.population(), blocked.population());
+
+            for (int i = 0; i < single.size(); i++) {
+
+                int[] x = new int[d.length];
+
+                for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+                assertEquals("cell " + Arrays.toString(x) + " should match", single.state(x), blocked.state(x));
+            }
+        }
+    }
+
+    @Test
+    public void testPopulation() throws Exception {
+
+        for (String rulestring : Arrays.asList("B3/S23", "B2/S/C3", "B36/S23/C4")) {
+
+            RuleTable<Integer> table = RuleTable.parse(rulestring, 2);
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                    new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                            Collections.<Rule<Integer>>singletonList(table),
+                            new RandomCodeInitialState(3, table.getStates().size()), 40, 30);
+
+            for (int g = 0; g < 8; g++) {
+
+                long population = 0;
+
+                for (int x = 0; x < 40; x++) {
+
+                    for (int y = 0; y < 30; y++) if (!table.getStates().get(0).equals(board.state(x, y))) population++;
+                }
+
+                assertEquals(rulestring + " should count every cell that is not dead in generation " + g, population,
+                        board.population());
+
+                board = 0 == g % 3 ? board.tick() : board.advance(1);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPopulationOfAGenericBoard() throws Exception {
+
+        new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                LIFE_RULES, new RandomInitialState(3), 17, 13).population();
+    }
+
+    @Test
+    public void testPureRulesAreRemembered() throws Exception {
+
+        BrainRule rule = new BrainRule();
+        BrainRule pureRule = new PureBrainRule();
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        Collections.<Rule<Integer>>singletonList(rule), new RandomCodeInitialState(5, 3), 30, 30);
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> pureBoard =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        Collections.<Rule<Integer>>singletonList(pureRule), new RandomCodeInitialState(5, 3), 30, 30);
+
+        board = board.advance(20);
+        pureBoard = pureBoard.advance(20);
+
+        for (int x = 0; x < 30; x++) {
+
+            for (int y = 0; y < 30; y++) {
+
+                assertEquals("cell (" + x + ", " + y + ") should match the board without a cache",
+                        board.state(x, y), pureBoard.state(x, y));
+            }
+        }
+
+        assertTrue("the pure rule should be applied less often than the rule: " + pureRule.applied + " < " +
+                rule.applied, pureRule.applied < rule.applied);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTemporalBlockingOfNoGenerations() throws Exception {
+
+        ONE_D_BOARD.setTemporalBlocking(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdvanceWithNegativeGenerations() throws Exception {
+
+        ONE_D_BOARD.advance(-1);
+    }
+
+    @Test
+    public void testBinaryRuleBoardMatchesGenericBoard() throws Exception {
+
+        int[][] dimensions = {{150}, {70, 30}, {65, 9, 7}};
+
+        for (int[] d : dimensions) {
+
+            Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> generic =
+                    new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                            LIFE_RULES, new RandomInitialState(d.length), d);
+
+            Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> binary =
+                    new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                            BINARY_LIFE_RULES, new RandomInitialState(d.length), d);
+
+            for (int g = 0; g < 4; g++) {
+
+                generic.advance(1);
+                binary = binary.tick();
+
+                for (int i = 0; i < generic.size(); i++) {
+
+                    int[] x = new int[d.length];
+
+                    for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+                    assertEquals("cell " + Arrays.toString(x) + " of board " + Arrays.toString(d) +
+                            " should match in generation " + g, generic.state(x), binary.state(x));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRuleTableBoardMatchesGenericBoard() throws Exception {
+
+        int[][] dimensions = {{40, 30}, {17, 9, 7}};
+
+        for (String rulestring : Arrays.asList("B3/S23", "B2/S/C3", "B36/S23/C4")) {
+
+            for (int[] d : dimensions) {
+
+                final RuleTable<Integer> table = RuleTable.parse(rulestring, d.length);
+
+                // Hide the table behind a plain rule so that the board applies it to every cell.
+                Rule<Integer> rule = new Rule<Integer>() {
+
+                    @Override
+                    public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+                        return table.apply(cell);
+                    }
+                };
+
+                int states = table.getStates().size();
+
+                Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> generic =
+                        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                                Collections.singletonList(rule), new RandomCodeInitialState(d.length, states), d);
+
+                Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> compiled =
+                        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                                Collections.<Rule<Integer>>singletonList(table),
+                                new RandomCodeInitialState(d.length, states), d);
+
+                for (int g = 0; g < 6; g++) {
+
+                    generic.advance(1);
+                    compiled = 0 == g % 2 ? compiled.tick() : compiled.advance(1);
+
+                    for (int i = 0; i < generic.size(); i++) {
+
+                        int[] x = new int[d.length];
+
+                        for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+                        assertEquals(rulestring + " cell " + Arrays.toString(x) + " of board " + Arrays.toString(d) +
+                                " should match in generation " + g, generic.state(x), compiled.state(x));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRuleTableBoardWithAnUnknownState() throws Exception {
+
+        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                Collections.<Rule<Integer>>singletonList(RuleTable.parse("B2/S/C3", 1)),
+                new RandomCodeInitialState(1, 4), 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBinaryRuleBoardWithAThirdState() throws Exception {
+
+        new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                BINARY_LIFE_RULES, new InitialState<Boolean>() {
+
+            @Override
+            public Boolean state() {
+
+                return null;
+            }
+        }, 10, 10);
+    }
+
+    @Test
+    public void testParallelTickMatchesSequentialTick() throws Exception {
+
+        SlabExecutor executor = new SlabExecutor(4, 0);
+
+        try {
+
+            for (List<Rule<Boolean>> rules : Arrays.asList(LIFE_RULES, BINARY_LIFE_RULES)) {
+
+                Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> sequential =
+                        new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                                rules, new RandomInitialState(7), 40, 13, 11);
+
+                Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> parallel =
+                        new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                                rules, new RandomInitialState(7), 40, 13, 11);
+
+                parallel.setSlabExecutor(executor);
+
+                sequential.advance(3);
+                parallel = parallel.tick().advance(2);
+
+                assertSame("the executor should be passed on to the next generation", executor, parallel.getSlabExecutor());
+
+                for (int x = 0; x < 40; x++) {
+
+                    for (int y = 0; y < 13; y++) {
+
+                        for (int z = 0; z < 11; z++) {
+
+                            assertEquals("cell (" + x + ", " + y + ", " + z + ") should match the sequential tick",
+                                    sequential.state(x, y, z), parallel.state(x, y, z));
+                        }
+                    }
+                }
+            }
+
+        } finally {
+
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelRuleTableTickMatchesSequentialTick() throws Exception {
+
+        SlabExecutor executor = new SlabExecutor(4, 0);
+
+        try {
+
+            List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(RuleTable.parse("B2/S34/C4", 3));
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> sequential =
+                    new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                            rules, new RandomCodeInitialState(7, 4), 40, 13, 11);
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> parallel =
+                    new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                            rules, new RandomCodeInitialState(7, 4), 40, 13, 11);
+
+            parallel.setSlabExecutor(executor);
+
+            sequential.advance(3);
+            parallel = parallel.tick().advance(2);
+
+            for (int x = 0; x < 40; x++) {
+
+                for (int y = 0; y < 13; y++) {
+
+                    for (int z = 0; z < 11; z++) {
+
+                        assertEquals("cell (" + x + ", " + y + ", " + z + ") should match the sequential tick",
+                                sequential.state(x, y, z), parallel.state(x, y, z));
+                    }
+                }
+            }
+
+        } finally {
+
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeltaListenerFollowsTheBoard() throws Exception {
+
+        final RuleTable<Integer> table = RuleTable.parse("B3/S23", 2);
+
+        Rule<Integer> hidden = new Rule<Integer>() {
+
+            @Override
+            public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+                return table.apply(cell);
+            }
+        };
+
+        List<List<Rule<Integer>>> rules = Arrays.asList(
+                Collections.<Rule<Integer>>singletonList(table),
+                Collections.<Rule<Integer>>singletonList(RuleTable.parse("B2/S/C4", 2)),
+                Collections.singletonList(hidden));
+
+        for (List<Rule<Integer>> rule : rules) {
+
+            // A random soup changes too much for the change set, a blinker changes few enough cells to use it.
+            for (InitialState<Integer> initialState : Arrays.<InitialState<Integer>>asList(
+                    new RandomCodeInitialState(3, rule.get(0) instanceof RuleTable
+                            ? ((RuleTable<Integer>) rule.get(0)).getStates().size() : 2),
+                    new IntegerSequenceInitialState(61, 62, 63))) {
+
+                Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                                rule, initialState, 30, 20);
+
+                final int[] replica = new int[board.size()];
+
+                for (int i = 0; i < replica.length; i++) {
+
+                    replica[i] = board.getStates().indexOf(board.state(i % 30, i / 30));
+                }
+
+                final long[] generation = {0};
+
+                board.addDeltaListener(new DeltaListener() {
+
+                    @Override
+                    public void delta(BoardDelta delta) {
+
+                        assertEquals("every generation should be sent", ++generation[0], delta.getGeneration());
+
+                        for (int i = 0; i < delta.size(); i++) replica[delta.getIndex(i)] = delta.getCode(i);
+                    }
+                });
+
+                for (int g = 0; g < 6; g++) {
+
+                    board = 0 == g % 2 ? board.tick() : board.advance(1);
+
+                    List<Integer> states = board.getStates();
+
+                    for (int i = 0; i < replica.length; i++) {
+
+                        assertEquals(rule + " cell " + i + " should follow the board in generation " + g,
+                                board.state(i % 30, i / 30), states.get(replica[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCycleDetection() throws Exception {
+
+        final RuleTable<Integer> table = RuleTable.parse("B3/S23", 2);
+
+        Rule<Integer> hidden = new Rule<Integer>() {
+
+            @Override
+            public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+                return table.apply(cell);
+            }
+        };
+
+        for (Rule<Integer> rule : Arrays.asList(table, hidden)) {
+
+            // A block is a still life and a blinker has a period of 2.
+            for (int[] pattern : new int[][]{{31, 32, 61, 62}, {61, 62, 63}}) {
+
+                Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                                Collections.singletonList(rule), new IntegerSequenceInitialState(pattern), 30, 20);
+
+                assertEquals("a board that is not looking for cycles should have no period", 0, board.getPeriod());
+
+                board.setCycleDetection(8, false);
+
+                board = board.tick().advance(2);
+
+                assertEquals("the period of " + Arrays.toString(pattern) + " should be found",
+                        4 == pattern.length ? 1 : 2, board.getPeriod());
+
+                long hash = board.getCycleDetector().getHash();
+
+                board.setCycleDetection(8, false);
+
+                assertEquals("the updated hash should match the hash of the whole board",
+                        board.getCycleDetector().getHash(), hash);
+            }
+        }
+    }
+
+    @Test
+    public void testCycleDetectionFastForward() throws Exception {
+
+        for (List<Rule<Integer>> rules : Arrays.asList(
+                Collections.<Rule<Integer>>singletonList(RuleTable.parse("B3/S23", 2)),
+                Collections.<Rule<Integer>>singletonList(RuleTable.parse("B2/S/C3", 2)))) {
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> played =
+                    new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                            rules, new RandomCodeInitialState(5, 2), 30, 20);
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> skipped =
+                    new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                            rules, new RandomCodeInitialState(5, 2), 30, 20);
+
+            skipped.setCycleDetection(64, true);
+
+            played.advance(5001);
+            skipped.advance(5001);
+
+            assertEquals("the generation should include the skipped periods", 5001, skipped.getGeneration());
+            assertTrue("the board should have settled into a cycle", 0 < skipped.getPeriod());
+
+            for (int y = 0; y < 20; y++) {
+
+                for (int x = 0; x < 30; x++) {
+
+                    assertEquals(rules + " cell (" + x + "," + y + ") should match a board that played every generation",
+                            played.state(x, y), skipped.state(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testJumpMatchesAdvance() throws Exception {
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> advanced =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        BINARY_LIFE_RULES, new SequenceInitialState(41, 82, 120, 121, 122), 40, 40);
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> jumped =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        BINARY_LIFE_RULES, new SequenceInitialState(41, 82, 120, 121, 122), 40, 40);
+
+        advanced.advance(32);
+
+        assertSame("jump should return the same board", jumped, jumped.jump(5));
+        assertEquals("the board should be on generation 32", 32, jumped.getGeneration());
+
+        for (int x = 0; x < 40; x++) {
+
+            for (int y = 0; y < 40; y++) {
+
+                assertEquals("cell (" + x + ", " + y + ") should match the advanced board",
+                        advanced.state(x, y), jumped.state(x, y));
+            }
+        }
+
+        assertTrue("the glider should have moved 8 cells", jumped.state(9, 9));
+    }
+
+    @Test
+    public void testBitBoardCountsTheCellsOfTheSteppedTiles() throws Exception {
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        BINARY_LIFE_RULES, new SequenceInitialState(1, 258, 512, 513, 514), 256, 256);
+
+        assertEquals("the first tick should evaluate every cell", 256 * 256, board.tick().getActiveCells());
+        assertEquals("the first advance should evaluate every cell", 256 * 256, board.advance(1).getActiveCells());
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> ticked = board.tick();
+
+        board.advance(1);
+
+        assertTrue("a glider should only need the tiles around it evaluated",
+                0 < board.getActiveCells() && 256 * 256 / 2 > board.getActiveCells());
+        assertEquals("tick and advance should evaluate the same cells", ticked.getActiveCells(), board.getActiveCells());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testJumpWithoutABinaryRule() throws Exception {
+
+        ONE_D_BOARD.jump(1);
+    }
+
+    @Test
+    public void testSparseTickOnlyEvaluatesCellsNearChanges() throws Exception {
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        LIFE_RULES, new SequenceInitialState(41, 82, 120, 121, 122), 40, 40);
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> binary =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        BINARY_LIFE_RULES, new SequenceInitialState(41, 82, 120, 121, 122), 40, 40);
+
+        assertNull("the changes should not be known before the first tick", board.getChanges());
+
+        board.advance(1);
+        binary.advance(1);
+
+        assertEquals("the first tick should evaluate every cell", 1600, board.getActiveCells());
+
+        for (int g = 0; g < 40; g++) {
+
+            Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> ticked = board.tick();
+
+            board.advance(1);
+            binary.advance(1);
+
+            assertTrue("a glider should not need every cell evaluated", 100 > board.getActiveCells());
+            assertEquals("tick and advance should evaluate the same cells", ticked.getActiveCells(), board.getActiveCells());
+
+            for (int x = 0; x < 40; x++) {
+
+                for (int y = 0; y < 40; y++) {
+
+                    assertEquals("cell (" + x + ", " + y + ") should match the binary board in generation " + g,
+                            binary.state(x, y), board.state(x, y));
+                    assertEquals("cell (" + x + ", " + y + ") should match the ticked board in generation " + g,
+                            ticked.state(x, y), board.state(x, y));
+                }
+            }
+        }
+
+        assertEquals("a glider should change the same number of cells every four generations",
+                board.tick().tick().tick().tick().getChanges().size(), board.getChanges().size());
+    }
+
+    @Test
+    public void testCellHasNeighboursFromTheBoard() throws Exception {
+
+        Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>> board =
+                new Board<Boolean, Rule<Boolean>, InitialState<Boolean>, Cell<Boolean, Rule<Boolean>>>(
+                        LIFE_RULES, new SequenceInitialState(11, 12, 13), 5, 5);
+
+        Cell<Boolean, Rule<Boolean>> cell = board.cell(2, 2);
+
+        assertTrue("the centre cell should be alive", cell.getState());
+        assertTrue("the left neighbour should be alive", cell.getNeighbour(-1, 0).getState());
+        assertTrue("the right neighbour should be alive", cell.getNeighbour(1, 0).getState());
+        assertFalse("the neighbour above should be dead", cell.getNeighbour(0, -1).getState());
+        assertNull("neighbours off the edge of the board should be null", board.cell(0, 0).getNeighbour(-1, 0));
+        assertTrue("the neighbours should not have neighbours of their own",
+                cell.getNeighbour(1, 0).getNeighbours().isEmpty());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testCellForZeroDimensionBoard() throws Exception {
 
@@ -155,7 +864,7 @@ public class BoardTest {
 
         Cell<Boolean, Rule<Boolean>> cell = ONE_D_BOARD.cell(0);
 
-        assertNull("a cell should be returned from a single dimension board", cell);
+        assertNotNull("a cell should be returned from a single dimension board", cell);
         assertTrue("the state of the cell should be true", cell.getState());
         assertFalse("the next state of the cell should be true", cell.getNextState());
     }
@@ -177,7 +886,7 @@ public class BoardTest {
 
         Cell<Boolean, Rule<Boolean>> cell = TWO_D_BOARD.cell(0, 0);
 
-        assertNull("a cell should be returned from a single dimension board", cell);
+        assertNotNull("a cell should be returned from a single dimension board", cell);
         assertTrue("the state of the cell should be true", cell.getState());
         assertFalse("the next state of the cell should be true", cell.getNextState());
     }
@@ -199,7 +908,7 @@ public class BoardTest {
 
         Cell<Boolean, Rule<Boolean>> cell = THREE_D_BOARD.cell(0, 0, 0);
 
-        assertNull("a cell should be returned from a single dimension board", cell);
+        assertNotNull("a cell should be returned from a single dimension board", cell);
         assertTrue("the state of the cell should be true", cell.getState());
         assertFalse("the next state of the cell should be true", cell.getNextState());
     }
@@ -215,4 +924,97 @@ public class BoardTest {
 
         THREE_D_BOARD.cell(0, 0, 0, 0);
     }
+
+    /**
+     * An initial state that is alive only for the cells at the supplied row-major indices.
+     */
+    private static class SequenceInitialState implements InitialState<Boolean> {
+
+        private final List<Integer> alive;
+
+        private int index = 0;
+
+
+        private SequenceInitialState(Integer... alive) {
+
+            this.alive = Arrays.asList(alive);
+        }
+
+        @Override
+        public Boolean state() {
+
+            return alive.contains(index++);
+        }
+    }
+
+    /**
+     * An initial state that is alive for a seeded random selection of cells.
+     */
+    private static class RandomInitialState implements InitialState<Boolean> {
+
+        private final Random random;
+
+
+        private RandomInitialState(long seed) {
+
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public Boolean state() {
+
+            return random.nextInt(3) == 0;
+        }
+    }
+
+    /**
+     * An initial state that makes the cells at the supplied row-major indices 1 and every other cell 0.
+     */
+    private static class IntegerSequenceInitialState implements InitialState<Integer> {
+
+        private final int[] alive;
+
+        private int index;
+
+
+        private IntegerSequenceInitialState(int... alive) {
+
+            this.alive = alive;
+        }
+
+        @Override
+        public Integer state() {
+
+            return 0 <= Arrays.binarySearch(alive, index++) ? 1 : 0;
+        }
+    }
+
+    /**
+     * Brian's Brain, where a cell that is off (0) turns on (1) if exactly two of its neighbours are on, a cell that is
+     * on starts dying (2) and a dying cell turns off. The rule counts how many times it has been applied.
+     */
+    private static class BrainRule implements Rule<Integer> {
+
+        private int applied;
+
+        @Override
+        public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+            applied++;
+
+            if (0 != cell.getState()) return (cell.getState() + 1) % 3;
+
+            int on = 0;
+
+            for (Cell<Integer, R> neighbour : cell.getNeighbours()) {
+
+                if (null != neighbour && 1 == neighbour.getState()) on++;
+            }
+
+            return 2 == on ? 1 : 0;
+        }
+    }
+
+    private static class PureBrainRule extends BrainRule implements PureRule<Integer> {
+    }
 }
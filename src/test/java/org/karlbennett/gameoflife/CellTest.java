@@ -404,6 +404,54 @@ public class CellTest {
                 offsetNeighbours.toArray(new Cell[offsetNeighbours.size()]));
     }
 
+    @Test
+    public void testBuildOffsetNeighboursForEveryOffset() throws Exception {
+
+        Cell<Coordinates, Rule<Coordinates>> cell = new Cell<Coordinates, Rule<Coordinates>>(_0_0.getState(), null,
+                2, NEIGHBOURS);
+
+        for (int o = 0; o < Cell.neighbourNumber(2); o++) {
+
+            int[] offset = Cell.calculateNeighbourCoordinates(2, o);
+
+            List<Cell<Coordinates, Rule<Coordinates>>> offsetNeighbours = cell.getNeighbours(offset);
+
+            for (int n = 0; n < offsetNeighbours.size(); n++) {
+
+                int[] c = Cell.calculateNeighbourCoordinates(2, n);
+
+                int x = offset[0] + c[0];
+                int y = offset[1] + c[1];
+
+                Cell<Coordinates, Rule<Coordinates>> expected = 0 == x && 0 == y ? cell
+                        : 1 < Math.abs(x) || 1 < Math.abs(y) ? null : cell.getNeighbour(x, y);
+
+                assertSame("offset " + Arrays.toString(offset) + " neighbour " + Arrays.toString(c) +
+                        " should be correct", expected, offsetNeighbours.get(n));
+            }
+        }
+    }
+
+    @Test
+    public void testGetNeighboursIsAReusedView() throws Exception {
+
+        Cell<Coordinates, Rule<Coordinates>> cell = new Cell<Coordinates, Rule<Coordinates>>(_0_0.getState(), null, 2);
+
+        List<Cell<Coordinates, Rule<Coordinates>>> neighbours = cell.getNeighbours();
+
+        assertSame("the same view should be returned every time", neighbours, cell.getNeighbours());
+
+        neighbours.set(INDEX_1_0, _1_0);
+
+        assertSame("a neighbour set through the view should be seen by the cell", _1_0, cell.getNeighbour(1, 0));
+
+        cell.setNeighbour(_0_1, 0, 1);
+
+        assertSame("a neighbour set on the cell should be seen through the view", _0_1, neighbours.get(INDEX_0_1));
+        assertEquals("the view should hold every neighbour", 8, neighbours.size());
+        assertEquals("the dimensions should be worked out from the neighbours", 2, cell.getDimensions());
+    }
+
     @Test
     public void testGetNextStateWithNullRules() throws Exception {
 
@@ -513,6 +561,50 @@ public class CellTest {
         cell.getNeighbour(0, 3);
     }
 
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetNeighbourWithTooLowCoordinates() throws Exception {
+
+        Cell<Coordinates, Rule<Coordinates>> cell = new Cell<Coordinates, Rule<Coordinates>>(
+                _0_0.getState(), null, 2);
+
+        // Without the lower bound check (-2,1) would have been indexed as the neighbour at (1,0).
+        cell.getNeighbour(-2, 1);
+    }
+
+    @Test
+    public void testGetNeighbourAt() throws Exception {
+
+        Cell<Coordinates, Rule<Coordinates>> cell = new Cell<Coordinates, Rule<Coordinates>>(_0_0.getState(), null,
+                2, NEIGHBOURS);
+
+        assertEquals("cell at direction of (-1,-1) should be correct", _N1_N1.getState(), cell.getNeighbourAt(INDEX_N1_N1).getState());
+        assertEquals("cell at direction of (1,0) should be correct", _1_0.getState(), cell.getNeighbourAt(INDEX_1_0).getState());
+        assertEquals("cell at direction of (1,1) should be correct", _1_1.getState(), cell.getNeighbourAt(INDEX_1_1).getState());
+
+        for (int direction = 0; direction < NEIGHBOURS.size(); direction++) {
+
+            assertSame("direction " + direction + " should match the coordinate lookup",
+                    cell.getNeighbour(Cell.calculateNeighbourCoordinates(2, direction)), cell.getNeighbourAt(direction));
+        }
+    }
+
+    @Test
+    public void testSetNeighbourAt() throws Exception {
+
+        Cell<Coordinates, Rule<Coordinates>> cell = new Cell<Coordinates, Rule<Coordinates>>(
+                _0_0.getState(), null, 2);
+
+        cell.setNeighbourAt(_N1_1, INDEX_N1_1);
+
+        assertSame("cell set at direction of (-1,1) should be found at coordinate (-1,1)", _N1_1, cell.getNeighbour(-1, 1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetNeighbourAtWithInvalidDirection() throws Exception {
+
+        new Cell<Coordinates, Rule<Coordinates>>(_0_0.getState(), null, 2).getNeighbourAt(8);
+    }
+
     @Test
     public void testSetNeighbour() throws Exception {
 
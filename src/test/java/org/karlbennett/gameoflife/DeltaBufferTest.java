@@ -0,0 +1,105 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class DeltaBufferTest {
+
+    private static final int[] DIMENSIONS = {10, 10};
+
+    @Test
+    public void testDeltasAreTakenInOrder() throws Exception {
+
+        DeltaBuffer buffer = new DeltaBuffer(4);
+
+        buffer.delta(new BoardDelta(1, DIMENSIONS, new int[]{5}, new int[]{1}));
+        buffer.delta(new BoardDelta(2, DIMENSIONS, new int[]{6}, new int[]{1}));
+
+        assertEquals(2, buffer.size());
+        assertEquals(1, buffer.take().getGeneration());
+        assertEquals(2, buffer.poll().getGeneration());
+        assertNull("an empty buffer should have nothing to poll", buffer.poll());
+        assertNull("an empty buffer should time out", buffer.poll(1, TimeUnit.MILLISECONDS));
+        assertEquals("nothing should have been merged", 0, buffer.getMerged());
+    }
+
+    @Test
+    public void testAFullBufferMergesDeltas() throws Exception {
+
+        DeltaBuffer buffer = new DeltaBuffer(2);
+
+        buffer.delta(new BoardDelta(1, DIMENSIONS, new int[]{5}, new int[]{1}));
+        buffer.delta(new BoardDelta(2, DIMENSIONS, new int[]{7, 3}, new int[]{1, 1}));
+        buffer.delta(new BoardDelta(3, DIMENSIONS, new int[]{7, 9}, new int[]{0, 1}));
+
+        assertEquals("the buffer should not grow past its capacity", 2, buffer.size());
+        assertEquals(1, buffer.getMerged());
+
+        assertEquals(1, buffer.take().getGeneration());
+
+        BoardDelta merged = buffer.take();
+
+        assertEquals("the merged delta should be for the latest generation", 3, merged.getGeneration());
+        assertArrayEquals("the merged cells should be in index order", new int[]{3, 7, 9}, merged.getIndices());
+        assertArrayEquals("the later codes should win", new int[]{1, 0, 1}, merged.getCodes());
+
+        int[] coordinates = new int[2];
+
+        merged.getCoordinates(2, coordinates);
+
+        assertArrayEquals(new int[]{9, 0}, coordinates);
+    }
+
+    @Test
+    public void testADeltaAfterAMergeIsTakenAfterIt() throws Exception {
+
+        DeltaBuffer buffer = new DeltaBuffer(2);
+
+        for (int g = 1; g <= 5; g++) buffer.delta(new BoardDelta(g, DIMENSIONS, new int[]{g}, new int[]{1}));
+
+        assertEquals(1, buffer.take().getGeneration());
+
+        buffer.delta(new BoardDelta(6, DIMENSIONS, new int[]{2}, new int[]{0}));
+
+        BoardDelta merged = buffer.take();
+
+        assertEquals("the merged delta should be taken before the newer delta", 5, merged.getGeneration());
+        assertArrayEquals("every merged cell should be kept", new int[]{2, 3, 4, 5}, merged.getIndices());
+        assertEquals("the newer delta should be taken last", 6, buffer.take().getGeneration());
+        assertEquals(3, buffer.getMerged());
+    }
+
+    @Test
+    public void testTakeWaitsForADelta() throws Exception {
+
+        final DeltaBuffer buffer = new DeltaBuffer(1);
+
+        Thread producer = new Thread() {
+
+            @Override
+            public void run() {
+
+                buffer.delta(new BoardDelta(1, DIMENSIONS, new int[0], new int[0]));
+            }
+        };
+
+        producer.start();
+
+        assertEquals(1, buffer.take().getGeneration());
+
+        producer.join();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyBuffer() throws Exception {
+
+        new DeltaBuffer(0);
+    }
+}
@@ -2,6 +2,14 @@ package org.karlbennett.gameoflife;
 
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
 /**
  * User: karl
  * Date: 16/08/12
@@ -10,5 +18,37 @@ public class GameOfLifeTest {
 
     @Test
     public void testMain() throws Exception {
+
+        File jobs = File.createTempFile("jobs", ".txt");
+        File results = File.createTempFile("results", ".tsv");
+
+        try {
+
+            Writer writer = new FileWriter(jobs);
+
+            writer.write("# id rulestring dimensions seed density generations termination\n");
+            writer.write("a B3/S23 20x20 1 0.3 30 cycle\n");
+            writer.write("b B36/S23 20x20x3 2 0.2 10\n");
+            writer.close();
+
+            GameOfLife.main(new String[]{jobs.getPath(), results.getPath(), "2"});
+
+            BufferedReader reader = new BufferedReader(new FileReader(results));
+
+            assertEquals("the header should be written", BatchResult.HEADER, reader.readLine());
+
+            int lines = 0;
+
+            while (null != reader.readLine()) lines++;
+
+            reader.close();
+
+            assertEquals("a result should be written for every job", 2, lines);
+
+        } finally {
+
+            assertTrue(jobs.delete());
+            assertTrue(results.delete());
+        }
     }
 }
@@ -0,0 +1,162 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.karlbennett.gameoflife.TotalisticRule.B3_S23;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class HashLifeTest {
+
+    private static final BinaryRule<Boolean> B1_S = new TotalisticRule(new int[]{1}, new int[]{});
+
+    private static final BinaryRule<Boolean> B6_S567 = new TotalisticRule(new int[]{6}, new int[]{5, 6, 7});
+
+
+    @Test
+    public void testSetAndGet() throws Exception {
+
+        HashLife life = new HashLife(B3_S23, 2);
+
+        life.set(true, 1000, -1000);
+        life.set(true, 3, 4);
+        life.set(false, 3, 4);
+
+        assertTrue("cell (1000, -1000) should be alive", life.get(1000, -1000));
+        assertFalse("cell (3, 4) should be dead", life.get(3, 4));
+        assertFalse("cells outside the tree should be dead", life.get(Long.MAX_VALUE / 2, 0));
+        assertEquals("the population should be correct", 1, life.population());
+    }
+
+    @Test
+    public void testGliderMovesOneCellEveryFourGenerations() throws Exception {
+
+        HashLife life = new HashLife(B3_S23, 2);
+
+        long[][] glider = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+        for (long[] c : glider) life.set(true, c);
+
+        life.step(10);
+
+        assertEquals("the generation should be correct", 1024, life.getGeneration());
+        assertEquals("the glider should still have five cells", 5, life.population());
+
+        for (long[] c : glider) assertTrue("the glider should have moved 256 cells", life.get(c[0] + 256, c[1] + 256));
+    }
+
+    @Test
+    public void testAdvanceMatchesBitBoardIn1D() throws Exception {
+
+        assertMatchesBitBoard(B1_S, 7, 200);
+    }
+
+    @Test
+    public void testAdvanceMatchesBitBoardIn2D() throws Exception {
+
+        assertMatchesBitBoard(B3_S23, 37, 120, 120);
+    }
+
+    @Test
+    public void testAdvanceMatchesBitBoardIn3D() throws Exception {
+
+        assertMatchesBitBoard(B6_S567, 5, 30, 30, 30);
+    }
+
+    @Test
+    public void testCollectGarbageKeepsTheBoard() throws Exception {
+
+        HashLife life = new HashLife(B3_S23, 2, 16);
+
+        long[][] glider = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+        for (long[] c : glider) life.set(true, c);
+
+        for (int i = 0; i < 8; i++) life.step(2);
+
+        life.collectGarbage();
+
+        for (long[] c : glider) assertTrue("the glider should have moved 8 cells", life.get(c[0] + 8, c[1] + 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRuleThatBirthsFromNothing() throws Exception {
+
+        new HashLife(new TotalisticRule(new int[]{0}, new int[]{}), 2);
+    }
+
+    /**
+     * Fill the middle of a bit board with a random soup and check that HashLife produces the same board after the
+     * supplied number of generations. The board must be big enough that the soup can not reach the edge.
+     */
+    private static void assertMatchesBitBoard(BinaryRule<Boolean> rule, int generations, int... dimensions) {
+
+        BitBoard board = new BitBoard(rule, dimensions);
+        HashLife life = new HashLife(rule, dimensions.length);
+
+        Random random = new Random(dimensions.length);
+
+        int size = Board.volume(dimensions);
+        int[] c = new int[dimensions.length];
+        long[] cell = new long[dimensions.length];
+
+        for (int i = 0; i < size; i++) {
+
+            boolean middle = true;
+
+            for (int d = 0; d < dimensions.length; d++) {
+
+                c[d] = i / Board.calculateStrides(dimensions)[d] % dimensions[d];
+                cell[d] = c[d];
+
+                middle &= Math.abs(c[d] - dimensions[d] / 2) < 4;
+            }
+
+            if (middle && random.nextBoolean()) {
+
+                board.set(i, true);
+                life.set(true, cell);
+            }
+        }
+
+        BitBoard next = new BitBoard(board);
+
+        for (int g = 0; g < generations; g++) {
+
+            board.step(next);
+
+            BitBoard swap = board;
+            board = next;
+            next = swap;
+        }
+
+        life.advance(generations);
+
+        final List<Integer> alive = new ArrayList<Integer>();
+        final int[] strides = Board.calculateStrides(dimensions);
+
+        life.forEachAlive(new HashLife.Visitor() {
+
+            @Override
+            public void visit(long[] coordinates) {
+
+                int index = 0;
+
+                for (int d = 0; d < coordinates.length; d++) index += (int) coordinates[d] * strides[d];
+
+                alive.add(index);
+            }
+        });
+
+        assertEquals("the populations should match", board.population(), life.population());
+
+        for (int index : alive) assertTrue("cell " + index + " should be alive on the bit board", board.get(index));
+    }
+}
@@ -0,0 +1,214 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class InstrumentationTest {
+
+    private final Instrumentation instrumentation = Instrumentation.getInstance();
+
+    @Before
+    public void setUp() {
+
+        instrumentation.reset();
+    }
+
+    @After
+    public void tearDown() {
+
+        instrumentation.setEnabled(false);
+        instrumentation.unregister();
+        instrumentation.reset();
+    }
+
+    @Test
+    public void testDisabledInstrumentationCountsNothing() {
+
+        assertFalse("the instrumentation should start switched off", instrumentation.isEnabled());
+
+        board("B3/S23", 2, 20, 20).tick().advance(3);
+
+        InstrumentationSnapshot snapshot = instrumentation.snapshot();
+
+        assertEquals("no ticks should be counted", 0, snapshot.getTicks());
+        assertEquals("no cells should be counted", 0, snapshot.getCellsEvaluated());
+    }
+
+    @Test
+    public void testRuleTableBoardIsCounted() throws Exception {
+
+        for (String rulestring : Arrays.asList("B3/S23", "B2/S/C4")) {
+
+            int states = "B3/S23".equals(rulestring) ? 2 : 4;
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                    board(rulestring, states, 30, 20);
+
+            instrumentation.reset();
+            instrumentation.setEnabled(true);
+
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> next = board.tick();
+
+            InstrumentationSnapshot snapshot = instrumentation.snapshot();
+
+            assertEquals("one tick should be counted", 1, snapshot.getTicks());
+            assertEquals(rulestring + " should count the changed cells", changed(board, next), snapshot.getCellsChanged());
+            assertEquals(rulestring + " should count every neighbour of every evaluated cell",
+                    snapshot.getCellsEvaluated() * 8, snapshot.getNeighbourLookups());
+            assertEquals(rulestring + " should count the rule for every evaluated cell",
+                    snapshot.getCellsEvaluated(), snapshot.getRuleInvocations(rulestring));
+            assertEquals(rulestring + " should count a hit for every changed cell",
+                    snapshot.getCellsChanged(), snapshot.getRuleHits(rulestring));
+
+            next.advance(4);
+
+            InstrumentationSnapshot since = instrumentation.snapshot().since(snapshot);
+
+            assertEquals("the advanced generations should be counted", 4, since.getTicks());
+
+            long histogram = 0;
+
+            for (long count : since.getTickHistogram()) histogram += count;
+
+            assertEquals("every tick should be in the histogram", 4, histogram);
+            assertTrue("the tick time should be counted", 0 < since.getTickNanos());
+        }
+    }
+
+    @Test
+    public void testCellRulesAreCounted() throws Exception {
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(new ModRule(3));
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        rules, new RandomCodeInitialState(3, 3), 12, 9);
+
+        instrumentation.setEnabled(true);
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> next = board.tick();
+
+        InstrumentationSnapshot snapshot = instrumentation.snapshot();
+
+        assertEquals("every cell should be evaluated", board.size(), snapshot.getCellsEvaluated());
+        assertEquals("the rule should be applied to every cell", board.size(), snapshot.getRuleInvocations("mod-3"));
+        assertEquals("the rule should hit every changed cell", changed(board, next), snapshot.getRuleHits("mod-3"));
+        assertEquals("every neighbour list the rule read should be counted", board.size() * 8,
+                snapshot.getNeighbourLookups());
+    }
+
+    @Test
+    public void testRuleTablesWithTheSameRulestringShareACounter() throws Exception {
+
+        instrumentation.setEnabled(true);
+
+        board("B3/S23", 2, 20, 20).tick();
+        board("B3/S23", 2, 16, 16).tick();
+
+        int counters = 0;
+
+        for (String name : instrumentation.getRuleNames()) if (name.startsWith("B3/S23")) counters++;
+
+        assertEquals("the rule tables should share one counter", 1, counters);
+        InstrumentationSnapshot snapshot = instrumentation.snapshot();
+
+        assertEquals("the counter should count both boards", snapshot.getCellsEvaluated(),
+                snapshot.getRuleInvocations("B3/S23"));
+    }
+
+    @Test
+    public void testRulesThatDoNotDescribeThemselvesAreCountedByClass() throws Exception {
+
+        Rule<Integer> rule = new Rule<Integer>() {
+
+            @Override
+            public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+                return cell.getState();
+            }
+        };
+
+        instrumentation.setEnabled(true);
+
+        instrumentation.rule(rule).applied(false);
+
+        assertEquals("the rule should be counted by the name of its class", 1,
+                instrumentation.snapshot().getRuleInvocations(rule.getClass().getName()));
+    }
+
+    @Test
+    public void testInstrumentationIsExposedThroughJmx() throws Exception {
+
+        instrumentation.register();
+        instrumentation.setEnabled(true);
+
+        board("B36/S23", 2, 16, 16).advance(3);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        ObjectName name = new ObjectName(Instrumentation.OBJECT_NAME);
+
+        assertEquals("the ticks should be visible", 3L, server.getAttribute(name, "Ticks"));
+        assertTrue("the rule should be listed",
+                Arrays.asList((String[]) server.getAttribute(name, "RuleNames")).contains("B36/S23"));
+
+        ObjectName rule = new ObjectName(Instrumentation.RULE_OBJECT_NAME + ObjectName.quote("B36/S23"));
+
+        assertEquals("the rule invocations should be visible", instrumentation.getCellsEvaluated(),
+                server.getAttribute(rule, "Invocations"));
+
+        server.setAttribute(name, new Attribute("Enabled", false));
+
+        assertFalse("the instrumentation should be switched off through JMX", instrumentation.isEnabled());
+
+        server.invoke(name, "reset", null, null);
+
+        assertEquals("the counters should be reset through JMX", 0, instrumentation.getTicks());
+
+        instrumentation.unregister();
+
+        assertFalse("the instrumentation should be unregistered", server.isRegistered(name));
+    }
+
+    private static Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board(
+            String rulestring, int states, int... d) {
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(RuleTable.parse(rulestring, d.length));
+
+        return new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                rules, new RandomCodeInitialState(d.length, states), d);
+    }
+
+    private static long changed(Board<Integer, ?, ?, ?> previous, Board<Integer, ?, ?, ?> next) throws Exception {
+
+        int[] d = previous.getDimensionSizes();
+
+        long changed = 0;
+
+        for (int i = 0; i < previous.size(); i++) {
+
+            int[] x = new int[d.length];
+
+            for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+            if (!previous.state(x).equals(next.state(x))) changed++;
+        }
+
+        return changed;
+    }
+}
@@ -0,0 +1,131 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class LazyBoardTest {
+
+    @Test
+    public void testLazyBoardMatchesBoard() throws Exception {
+
+        assertMatchesBoard("B3/S23", new int[]{600, 400}, new int[]{280, 180}, new int[]{330, 220});
+        assertMatchesBoard("B2/S/C3", new int[]{500, 500}, new int[]{220, 230}, new int[]{260, 260});
+        assertMatchesBoard("B5/S45", new int[]{96, 96, 64}, new int[]{40, 40, 25}, new int[]{56, 56, 35});
+        assertMatchesBoard("B1/S1", new int[]{20000}, new int[]{9000}, new int[]{9100});
+    }
+
+    @Test
+    public void testLargeBoardOnlyMaterialisesWhatIsTouched() throws Exception {
+
+        final int[][] glider = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+        final int x = 700000;
+        final int y = 900000;
+
+        LazyBoard<Integer> board = new LazyBoard<Integer>(RuleTable.parse("B3/S23", 2),
+                new PositionalInitialState<Integer>() {
+
+                    @Override
+                    public Integer state(int... c) {
+
+                        for (int[] g : glider) if (x + g[0] == c[0] && y + g[1] == c[1]) return 1;
+
+                        return 0;
+                    }
+                }, 1000000, 1000000);
+
+        assertEquals("nothing should be materialised when the board is built", 0, board.getMaterialisedRegions());
+
+        board.activate(new int[]{x, y}, new int[]{x + 3, y + 3});
+
+        board.advance(40);
+
+        assertEquals("the glider should have moved ten cells", 40, board.getGeneration());
+
+        for (int[] g : glider) {
+
+            assertEquals("the glider should be intact", Integer.valueOf(1), board.state(x + 10 + g[0], y + 10 + g[1]));
+        }
+
+        assertTrue("only the regions around the glider should be materialised: " + board.getMaterialisedRegions(),
+                10 > board.getMaterialisedRegions());
+        assertEquals("the corner of the board should be read from the initial state", Integer.valueOf(0),
+                board.state(999999, 0));
+    }
+
+    @Test
+    public void testSeededInitialStateDoesNotDependOnTheOrderOfReads() throws Exception {
+
+        SeededInitialState<Integer> seeded = new SeededInitialState<Integer>(11, 0.4, 0, 1);
+        SeededInitialState<Integer> same = new SeededInitialState<Integer>(11, 0.4, 0, 1);
+        SeededInitialState<Integer> other = new SeededInitialState<Integer>(12, 0.4, 0, 1);
+
+        int alive = 0;
+        int differences = 0;
+
+        for (int i = 999; i >= 0; i--) {
+
+            assertEquals("the same seed should give the same soup", same.state(i % 40, i / 40),
+                    seeded.state(i % 40, i / 40));
+
+            if (1 == seeded.state(i % 40, i / 40)) alive++;
+
+            if (!seeded.state(i % 40, i / 40).equals(other.state(i % 40, i / 40))) differences++;
+        }
+
+        assertTrue("the soup should be near its density: " + alive, 300 < alive && 500 > alive);
+        assertTrue("another seed should give another soup: " + differences, 300 < differences);
+
+        SeededInitialState<Integer> boxed = new SeededInitialState<Integer>(11, 1, 0, 1, new int[]{5, 5},
+                new int[]{10, 10});
+
+        assertEquals("a cell inside the box should be soup", Integer.valueOf(1), boxed.state(5, 9));
+        assertEquals("a cell outside the box should be background", Integer.valueOf(0), boxed.state(10, 9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLazyBoardNeedsAnInitialState() throws Exception {
+
+        new LazyBoard<Integer>(RuleTable.parse("B3/S23", 2), null, 10, 10);
+    }
+
+    private static void assertMatchesBoard(String rulestring, int[] d, int[] from, int[] to) throws Exception {
+
+        RuleTable<Integer> table = RuleTable.parse(rulestring, d.length);
+
+        SeededInitialState<Integer> initialState = new SeededInitialState<Integer>(5, 0.35, 0, 1, from, to);
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(table);
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        rules, initialState, d);
+
+        LazyBoard<Integer> lazy = new LazyBoard<Integer>(table, initialState, d);
+
+        lazy.activate(from, to);
+
+        board.advance(25);
+        lazy.advance(25);
+
+        assertTrue("the quiet regions should not be materialised",
+                lazy.getMaterialisedCells() < board.size());
+
+        for (int i = 0; i < board.size(); i++) {
+
+            int[] x = new int[d.length];
+
+            for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+            assertEquals(rulestring + " cell " + Arrays.toString(x) + " should match", board.state(x), lazy.state(x));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * Conway's B3/S23 rule for the tests as a plain {@see Rule}, so a board applies it to every cell through a
+ * {@see Cell} rather than compiling it. See {@see TotalisticRule} for the same rule as a {@see BinaryRule}.
+ */
+class LifeRule implements Rule<Boolean> {
+
+    @Override
+    public <R extends Rule<Boolean>> Boolean apply(Cell<Boolean, R> cell) {
+
+        int alive = 0;
+
+        for (Cell<Boolean, R> neighbour : cell.getNeighbours()) if (null != neighbour && neighbour.getState()) alive++;
+
+        return 3 == alive || (2 == alive && cell.getState());
+    }
+}
@@ -0,0 +1,99 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class LongIntHashMapTest {
+
+    @Test
+    public void testPutGetAndRemove() throws Exception {
+
+        LongIntHashMap map = new LongIntHashMap();
+
+        map.put(-1L, 1);
+        map.put(Long.MAX_VALUE, 2);
+        map.put(0L, 3);
+        map.put(0L, 4);
+
+        assertEquals("the size should be correct", 3, map.size());
+        assertEquals("key -1 should map to 1", 1, map.get(-1L, -1));
+        assertEquals("key max should map to 2", 2, map.get(Long.MAX_VALUE, -1));
+        assertEquals("key 0 should map to 4", 4, map.get(0L, -1));
+        assertEquals("a missing key should return the default", -1, map.get(7L, -1));
+
+        assertTrue("key 0 should be removed", map.remove(0L));
+        assertFalse("key 0 should not be removed twice", map.remove(0L));
+        assertFalse("key 0 should no longer be in the map", map.containsKey(0L));
+        assertEquals("the size should be correct after the removal", 2, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMap() throws Exception {
+
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+
+        Random random = new Random(42);
+
+        long key;
+        for (int i = 0; i < 20000; i++) {
+
+            // Use a small key range so that there are plenty of collisions, updates and removals.
+            key = (long) random.nextInt(2000) << 32;
+
+            if (random.nextInt(3) == 0) {
+
+                assertEquals("removal of " + key + " should match", null != expected.remove(key), map.remove(key));
+
+            } else {
+
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals("the size should match", expected.size(), map.size());
+
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+
+            assertEquals("key " + entry.getKey() + " should match", (int) entry.getValue(), map.get(entry.getKey(), -1));
+        }
+
+        int used = 0;
+
+        for (int slot = 0; slot < map.capacity(); slot++) {
+
+            if (map.isUsed(slot)) {
+
+                used++;
+
+                assertEquals("slot " + slot + " should hold the right value",
+                        (int) expected.get(map.keyAt(slot)), map.valueAt(slot));
+            }
+        }
+
+        assertEquals("every entry should be in a slot", expected.size(), used);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+
+        LongIntHashMap map = new LongIntHashMap();
+
+        for (long key = 0; key < 100; key++) map.put(key, (int) key);
+
+        map.clear();
+
+        assertEquals("the map should be empty", 0, map.size());
+        assertFalse("the keys should be gone", map.containsKey(50L));
+    }
+}
@@ -0,0 +1,35 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * A rule for the tests that is not a {@see RuleTable}, so a board applies it to every cell through a {@see Cell}. The
+ * next state of a cell is the sum of its state and the states of its neighbours modulo the supplied number of states.
+ */
+class ModRule implements Rule<Integer> {
+
+    private final int states;
+
+
+    ModRule(int states) {
+
+        this.states = states;
+    }
+
+    @Override
+    public <R extends Rule<Integer>> Integer apply(Cell<Integer, R> cell) {
+
+        int sum = cell.getState();
+
+        for (Cell<Integer, R> neighbour : cell.getNeighbours()) if (null != neighbour) sum += neighbour.getState();
+
+        return sum % states;
+    }
+
+    @Override
+    public String toString() {
+
+        return "mod-" + states;
+    }
+}
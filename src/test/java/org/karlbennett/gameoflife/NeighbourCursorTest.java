@@ -0,0 +1,81 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class NeighbourCursorTest {
+
+    @Test
+    public void testVisitsEveryNeighbourInOrder() throws Exception {
+
+        for (int dimensions = 1; dimensions <= 4; dimensions++) {
+
+            List<Cell<Integer, Rule<Integer>>> neighbours = new ArrayList<Cell<Integer, Rule<Integer>>>();
+
+            for (int n = 0; n < Cell.neighbourNumber(dimensions); n++) {
+
+                neighbours.add(new Cell<Integer, Rule<Integer>>(n, null, dimensions));
+            }
+
+            Cell<Integer, Rule<Integer>> cell = new Cell<Integer, Rule<Integer>>(-1, null, dimensions, neighbours);
+
+            NeighbourCursor<Integer, Rule<Integer>> cursor = new NeighbourCursor<Integer, Rule<Integer>>(dimensions);
+
+            int[] coordinates = new int[dimensions];
+
+            int visited = 0;
+            for (cursor.reset(cell); cursor.next(); visited++) {
+
+                assertEquals("the direction should follow the neighbour order", visited, cursor.direction());
+                assertEquals("the neighbour should be the one at the direction", visited,
+                        (int) cursor.neighbour().getState());
+
+                for (int d = 0; d < dimensions; d++) coordinates[d] = cursor.coordinate(d);
+
+                assertArrayEquals("the coordinates should match the direction",
+                        Cell.calculateNeighbourCoordinates(dimensions, visited), coordinates);
+            }
+
+            assertEquals("every neighbour should be visited", Cell.neighbourNumber(dimensions), visited);
+            assertFalse("the cursor should stay at the end", cursor.next());
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+
+        Cell<Integer, Rule<Integer>> cell = new Cell<Integer, Rule<Integer>>(0, null, 2);
+
+        NeighbourCursor<Integer, Rule<Integer>> cursor = new NeighbourCursor<Integer, Rule<Integer>>(2);
+
+        cursor.reset(cell);
+
+        while (cursor.next()) if (4 == cursor.direction()) break;
+
+        assertTrue("a reset cursor should have a first neighbour", cursor.reset(cell).next());
+        assertEquals("a reset cursor should start from the first neighbour again", 0, cursor.direction());
+        assertEquals("a reset cursor should start from (-1,-1)", -1, cursor.coordinate(0));
+        assertEquals("a reset cursor should start from (-1,-1)", -1, cursor.coordinate(1));
+    }
+
+    @Test
+    public void testNextBeforeReset() throws Exception {
+
+        assertFalse("a cursor with no cell should have no neighbours",
+                new NeighbourCursor<Integer, Rule<Integer>>(2).next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResetWithWrongDimensions() throws Exception {
+
+        new NeighbourCursor<Integer, Rule<Integer>>(2).reset(new Cell<Integer, Rule<Integer>>(0, null, 3));
+    }
+}
@@ -0,0 +1,168 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class OffHeapBoardTest {
+
+    @Test
+    public void testOffHeapBoardMatchesBoard() throws Exception {
+
+        assertMatchesBoard("B3/S23", 2, OffHeapBoard.MAX_CHUNK_BYTES, 37, 29);
+        assertMatchesBoard("B3/S23", 2, 100, 37, 29);
+        assertMatchesBoard("B2/S/C4", 4, 64, 23, 17);
+        assertMatchesBoard("B5/S45", 2, 50, 9, 8, 12);
+        assertMatchesBoard("B1/S1", 2, 8, 40);
+    }
+
+    @Test
+    public void testGenerationsPopulationMatchesBoard() throws Exception {
+
+        // The dying states of a Generations rule are not dead, so both boards count them.
+        assertMatchesBoard("B2/S/C3", 3, 64, 23, 17);
+        assertMatchesBoard("B1/S1/C3", 3, 64, 23, 17);
+        assertMatchesBoard("B0/S/C3", 3, 64, 23, 17);
+        assertMatchesBoard("B4/S34/C4", 4, 64, 9, 8, 12);
+    }
+
+    @Test
+    public void testFileBackedOffHeapBoardMatchesBoard() throws Exception {
+
+        File file = File.createTempFile("off-heap-board", ".cells");
+
+        try {
+
+            int[] d = {31, 22};
+
+            OffHeapBoard offHeap = new OffHeapBoard("B36/S23", Board.positional(new RandomCodeInitialState(2, 2)),
+                    file, d, 128);
+
+            assertSame("the file should be kept", file, offHeap.getFile());
+            assertEquals("the file should hold two generations", 2 * 31 * 22, file.length());
+
+            assertMatchesBoard(board("B36/S23", 2, d), offHeap, d);
+
+        } finally {
+
+            assertTrue("the file should be deleted", file.delete());
+        }
+    }
+
+    @Test
+    public void testOffHeapBoardCanNotBeUsedOnceClosed() throws Exception {
+
+        OffHeapBoard board = new OffHeapBoard("B3/S23", new RandomCodeInitialState(2, 2), 10, 10);
+
+        assertEquals("the size should be counted", 100, board.size());
+        assertNull("the board should not have a file", board.getFile());
+
+        board.close();
+        board.close();
+
+        try {
+
+            board.tick();
+
+            fail("a closed board should not tick");
+
+        } catch (IllegalStateException e) {
+
+            // Expected.
+        }
+    }
+
+    @Test(expected = IllegalCoordinateNumber.class)
+    public void testStateWithTheWrongNumberOfCoordinates() throws Exception {
+
+        OffHeapBoard board = new OffHeapBoard("B3/S23", new RandomCodeInitialState(2, 2), 10, 10);
+
+        try {
+
+            board.state(1, 2, 3);
+
+        } finally {
+
+            board.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitialStateOutsideTheRule() throws Exception {
+
+        new OffHeapBoard("B3/S23", new RandomCodeInitialState(2, 3), 10, 10);
+    }
+
+    private static void assertMatchesBoard(String rulestring, int states, int chunkBytes, int... d) throws Exception {
+
+        PositionalInitialState<Integer> initialState = Board.positional(new RandomCodeInitialState(d.length, states));
+
+        OffHeapBoard offHeap = new OffHeapBoard(rulestring, initialState, d, chunkBytes);
+
+        assertMatchesBoard(board(rulestring, states, d), offHeap, d);
+    }
+
+    private static void assertMatchesBoard(Board<Integer, ?, ?, ?> board, OffHeapBoard offHeap, int[] d)
+            throws Exception {
+
+        try {
+
+            for (int tick = 0; tick < 3; tick++) {
+
+                assertSameCells(board, offHeap, d);
+
+                board = tick < 2 ? board.tick() : board.advance(4);
+
+                if (tick < 2) offHeap.tick();
+                else offHeap.advance(4);
+            }
+
+            assertSameCells(board, offHeap, d);
+
+            assertEquals("the generations should be counted", 6, offHeap.getGeneration());
+
+        } finally {
+
+            offHeap.close();
+        }
+    }
+
+    private static void assertSameCells(Board<Integer, ?, ?, ?> expected, OffHeapBoard actual, int[] d)
+            throws Exception {
+
+        long population = 0;
+
+        for (int i = 0; i < expected.size(); i++) {
+
+            int[] x = new int[d.length];
+
+            for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+            assertEquals("cell " + Arrays.toString(x) + " of board " + Arrays.toString(d) + " should match",
+                    expected.state(x), actual.state(x));
+
+            if (RuleTable.DEAD != expected.state(x)) population++;
+        }
+
+        assertEquals("the population should count every cell that is not dead", population, actual.population());
+        assertEquals("the population should match the board", expected.population(), actual.population());
+    }
+
+    private static Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board(
+            String rulestring, int states, int... d) {
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(RuleTable.parse(rulestring, d.length));
+
+        return new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                rules, new RandomCodeInitialState(d.length, states), d);
+    }
+}
@@ -0,0 +1,138 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class PartitionedBoardTest {
+
+    @Test
+    public void testPartitionedBoardMatchesSingleBoard() throws Exception {
+
+        assertMatchesSingleBoard("B3/S23", 3, 2, 41, 31);
+        assertMatchesSingleBoard("B3/S23", 4, 2, 70, 9);
+        assertMatchesSingleBoard("B2/S/C4", 3, 4, 23, 17);
+        assertMatchesSingleBoard("B5/S45", 2, 2, 9, 8, 12);
+    }
+
+    @Test
+    public void testPartitionedBoardAcrossProcesses() throws Exception {
+
+        List<Process> processes = new ArrayList<Process>();
+
+        try {
+
+            List<InetSocketAddress> workers = new ArrayList<InetSocketAddress>();
+
+            for (int w = 0; w < 2; w++) {
+
+                processes.add(PartitionWorker.launch());
+
+                workers.add(PartitionWorker.address(processes.get(w)));
+            }
+
+            assertMatchesSingleBoard("B3/S23", workers, 2, 64, 20);
+
+        } finally {
+
+            for (Process process : processes) process.destroy();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOneDimensionalBoardCanNotBePartitioned() throws Exception {
+
+        new PartitionedBoard("B3/S23", new RandomCodeInitialState(1, 2),
+                Collections.singletonList(new InetSocketAddress(0)), 10);
+    }
+
+    private static void assertMatchesSingleBoard(String rulestring, int workerCount, int states, int... d)
+            throws Exception {
+
+        List<InetSocketAddress> workers = new ArrayList<InetSocketAddress>();
+
+        for (int w = 0; w < workerCount; w++) {
+
+            PartitionWorker worker = new PartitionWorker(0);
+
+            workers.add(new InetSocketAddress("localhost", worker.getPort()));
+
+            Thread thread = new Thread(worker, "partition-worker-" + w);
+
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        assertMatchesSingleBoard(rulestring, workers, states, d);
+    }
+
+    private static void assertMatchesSingleBoard(String rulestring, List<InetSocketAddress> workers, int states,
+                                                 int... d) throws Exception {
+
+        List<Rule<Integer>> rules = Collections.<Rule<Integer>>singletonList(RuleTable.parse(rulestring, d.length));
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        rules, new RandomCodeInitialState(d.length, states), d);
+
+        PartitionedBoard partitioned = new PartitionedBoard(rulestring, new RandomCodeInitialState(d.length, states),
+                workers, d);
+
+        try {
+
+            assertSameCells(board, partitioned.gather(), d);
+
+            for (int tick = 0; tick < 3; tick++) {
+
+                PartitionReport report = tick < 2 ? partitioned.tick() : partitioned.advance(5);
+
+                board = board.advance(report.getGenerations());
+
+                assertEquals("the report should cover every worker", workers.size(), report.getWorkers());
+
+                for (int w = 0; w < report.getWorkers(); w++) {
+
+                    assertTrue("the communication time should be recorded", 0 <= report.getCommunicationNanos(w));
+                    assertTrue("the compute time should be recorded", 0 < report.getComputeNanos(w));
+                }
+
+                assertNotNull("the report should describe itself", report.toString());
+
+                assertSameCells(board, partitioned.gather(), d);
+            }
+
+            assertEquals("the generations should be counted", 7, partitioned.getGeneration());
+
+        } finally {
+
+            partitioned.close();
+        }
+    }
+
+    private static void assertSameCells(Board<Integer, ?, ?, ?> expected, Board<Integer, ?, ?, ?> actual, int[] d)
+            throws Exception {
+
+        assertEquals("the gathered board should be in the same generation",
+                expected.getGeneration(), actual.getGeneration());
+
+        for (int i = 0; i < expected.size(); i++) {
+
+            int[] x = new int[d.length];
+
+            for (int j = 0, index = i; j < d.length; index /= d[j], j++) x[j] = index % d[j];
+
+            assertEquals("cell " + Arrays.toString(x) + " of board " + Arrays.toString(d) + " should match",
+                    expected.state(x), actual.state(x));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class PatternReaderTest {
+
+    private static final List<Rule<Integer>> LIFE =
+            Collections.<Rule<Integer>>singletonList(RuleTable.parse("B3/S23", 2));
+
+    private static final int[][] GLIDER = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+    @Test
+    public void testReadRle() throws Exception {
+
+        assertGlider(new RleReader<Integer>(new StringReader(
+                "#N Glider\n#C A comment\nx = 3, y = 3, rule = B3/S23\nbo$2bo$\n3o!\n"), 0, 1, 2, 3));
+    }
+
+    @Test
+    public void testReadPlaintext() throws Exception {
+
+        assertGlider(new PlaintextReader<Integer>(new StringReader("!Name: Glider\n.O\n..O\r\nOOO\n"), 0, 1, 2, 3));
+    }
+
+    @Test
+    public void testReadLife106() throws Exception {
+
+        assertGlider(new Life106Reader<Integer>(new StringReader(
+                "#Life 1.06\n0 -1\n1 0\n-1 1\n0 1\n1 1\n"), 0, 1, 3, 4));
+    }
+
+    @Test
+    public void testReadAPatternThatIsLargerThanTheBoard() throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        LIFE, new RleReader<Integer>(new StringReader("5o$b4o$5o!"), 0, 1, -1, 0), 3, 2);
+
+        assertEquals(1, (int) board.state(0, 0));
+        assertEquals(1, (int) board.state(2, 0));
+        assertEquals(1, (int) board.state(0, 1));
+        assertEquals(1, (int) board.state(2, 1));
+    }
+
+    @Test
+    public void testReadIntoAThreeDimensionalBoard() throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        Collections.<Rule<Integer>>singletonList(RuleTable.parse("B5/S45", 3)),
+                        new PlaintextReader<Integer>(new StringReader("OO\nOO\n"), 0, 1), 3, 3, 2);
+
+        for (int z = 0; z < 2; z++) {
+
+            for (int y = 0; y < 3; y++) {
+
+                for (int x = 0; x < 3; x++) {
+
+                    assertEquals("only the first plane should hold the pattern",
+                            0 == z && 2 > x && 2 > y ? 1 : 0, (int) board.state(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadLife106OutOfOrder() throws Exception {
+
+        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                LIFE, new Life106Reader<Integer>(new StringReader("#Life 1.06\n0 1\n0 0\n"), 0, 1), 5, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadAnInvalidRle() throws Exception {
+
+        new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                LIFE, new RleReader<Integer>(new StringReader("x = 2, y = 2\n2o$%o!"), 0, 1), 5, 5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadCellsOutOfOrder() throws Exception {
+
+        RleReader<Integer> reader = new RleReader<Integer>(new StringReader("3o!"), 0, 1);
+
+        reader.state(1, 1);
+        reader.state(1, 0);
+    }
+
+    private static void assertGlider(PatternReader<Integer> reader) throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        LIFE, reader, 10, 10);
+
+        reader.close();
+
+        int population = 0;
+
+        for (int y = 0; y < 10; y++) for (int x = 0; x < 10; x++) population += board.state(x, y);
+
+        assertEquals("the board should only hold the glider", GLIDER.length, population);
+
+        for (int[] cell : GLIDER) {
+
+            assertEquals("the glider should be placed at (2,3)", 1, (int) board.state(cell[0] + 2, cell[1] + 3));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class PatternWriterTest {
+
+    private static final List<Rule<Integer>> LIFE =
+            Collections.<Rule<Integer>>singletonList(RuleTable.parse("B3/S23", 2));
+
+    @Test
+    public void testWriteRle() throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board = randomBoard();
+
+        StringWriter writer = new StringWriter();
+
+        PatternWriter.writeRle(board, 0, writer);
+
+        String[] lines = writer.toString().split("\n");
+
+        assertEquals("the header should hold the size and rule", "x = 97, y = 41, rule = B3/S23", lines[0]);
+
+        for (String line : lines) {
+
+            assertTrue("no line should be longer than " + PatternWriter.RLE_LINE_LENGTH,
+                    PatternWriter.RLE_LINE_LENGTH >= line.length());
+        }
+
+        assertBoardsEqual(board, new RleReader<Integer>(new StringReader(writer.toString()), 0, 1));
+    }
+
+    @Test
+    public void testWriteLife106() throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board = randomBoard();
+
+        StringWriter writer = new StringWriter();
+
+        PatternWriter.writeLife106(board, 0, writer);
+
+        assertTrue("the pattern should start with the header", writer.toString().startsWith("#Life 1.06\n"));
+
+        assertBoardsEqual(board, new Life106Reader<Integer>(new StringReader(writer.toString()), 0, 1));
+    }
+
+    @Test
+    public void testWritePlaintext() throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board = randomBoard();
+
+        StringWriter writer = new StringWriter();
+
+        PatternWriter.writePlaintext(board, 0, writer);
+
+        assertBoardsEqual(board, new PlaintextReader<Integer>(new StringReader(writer.toString()), 0, 1));
+    }
+
+    @Test
+    public void testWriteAnEmptyBoard() throws Exception {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        LIFE, new RleReader<Integer>(new StringReader("!"), 0, 1), 4, 3);
+
+        StringWriter writer = new StringWriter();
+
+        PatternWriter.writeRle(board, 0, writer);
+
+        assertEquals("x = 4, y = 3, rule = B3/S23\n!\n", writer.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteAThreeDimensionalBoard() throws Exception {
+
+        PatternWriter.writeRle(new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                Collections.<Rule<Integer>>singletonList(RuleTable.parse("B5/S45", 3)),
+                new RleReader<Integer>(new StringReader("!"), 0, 1), 2, 2, 2), 0, new StringWriter());
+    }
+
+    private static Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> randomBoard() {
+
+        final Random random = new Random(41);
+
+        return new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                LIFE, new InitialState<Integer>() {
+
+            @Override
+            public Integer state() {
+
+                // Leave some rows empty so that runs of empty rows are written.
+                return 0 == random.nextInt(3) ? 1 : 0;
+            }
+        }, 97, 41).advance(1);
+    }
+
+    private static void assertBoardsEqual(
+            Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> board,
+            PatternReader<Integer> reader) {
+
+        Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>> read =
+                new Board<Integer, Rule<Integer>, InitialState<Integer>, Cell<Integer, Rule<Integer>>>(
+                        LIFE, reader, 97, 41);
+
+        for (int y = 0; y < 41; y++) {
+
+            for (int x = 0; x < 97; x++) {
+
+                assertEquals("cell (" + x + "," + y + ") should be read back", board.state(x, y), read.state(x, y));
+            }
+        }
+    }
+}
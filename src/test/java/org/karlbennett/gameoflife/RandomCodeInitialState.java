@@ -0,0 +1,30 @@
+package org.karlbennett.gameoflife;
+
+import java.util.Random;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * An initial state for the tests that gives each cell a random state code from 0 up to the supplied number of states,
+ * so two boards built from the same seed hold the same soup.
+ */
+class RandomCodeInitialState implements InitialState<Integer> {
+
+    private final Random random;
+
+    private final int states;
+
+
+    RandomCodeInitialState(long seed, int states) {
+
+        this.random = new Random(seed);
+        this.states = states;
+    }
+
+    @Override
+    public Integer state() {
+
+        return random.nextInt(states);
+    }
+}
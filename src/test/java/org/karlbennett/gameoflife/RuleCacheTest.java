@@ -0,0 +1,59 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class RuleCacheTest {
+
+    @Test
+    public void testPutAndGet() throws Exception {
+
+        RuleCache cache = new RuleCache(100);
+
+        assertEquals("the capacity should be rounded up to a power of two", 128, cache.getCapacity());
+        assertEquals("an empty cache should not find a signature", -1, cache.get(0L));
+
+        cache.put(0L, 2);
+        cache.put(-1L, 0);
+
+        assertEquals("signature 0 should map to 2", 2, cache.get(0L));
+        assertEquals("signature -1 should map to 0", 0, cache.get(-1L));
+        assertEquals("the hits should be counted", 2, cache.getHits());
+        assertEquals("the misses should be counted", 1, cache.getMisses());
+    }
+
+    @Test
+    public void testNewSignaturesReplaceOldOnes() throws Exception {
+
+        RuleCache cache = new RuleCache(1);
+
+        cache.put(1L, 1);
+        cache.put(2L, 2);
+
+        assertEquals("the old signature should have been replaced", -1, cache.get(1L));
+        assertEquals("the new signature should be found", 2, cache.get(2L));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+
+        RuleCache cache = new RuleCache();
+
+        cache.put(3L, 1);
+        cache.clear(4);
+
+        assertEquals("the cache should be empty", -1, cache.get(3L));
+        assertEquals("the width should be set", 4, cache.getWidth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoCapacity() throws Exception {
+
+        new RuleCache(0);
+    }
+}
@@ -0,0 +1,162 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class RuleTableTest {
+
+    private static final List<Boolean> BOOLEAN_STATES = Arrays.asList(false, true);
+
+
+    @Test
+    public void testParseLife() throws Exception {
+
+        RuleTable<Integer> life = RuleTable.parse("B3/S23", 2);
+
+        assertEquals("life should have two states", Arrays.asList(0, 1), life.getStates());
+
+        for (int count = 0; count <= 8; count++) {
+
+            assertEquals("a dead cell with " + count + " neighbours", 3 == count ? 1 : 0, life.next(0, count));
+            assertEquals("an alive cell with " + count + " neighbours", 2 == count || 3 == count ? 1 : 0,
+                    life.next(1, count));
+        }
+    }
+
+    @Test
+    public void testParseSurvivalBornNotation() throws Exception {
+
+        RuleTable<Integer> life = RuleTable.parse("23/3", 2);
+
+        assertEquals("the old notation should list survival counts first", "B3/S23", life.toString());
+    }
+
+    @Test
+    public void testParseLowerCase() throws Exception {
+
+        assertEquals("the rulestring should not be case sensitive", "B36/S23", RuleTable.parse("b36/s23", 2).toString());
+    }
+
+    @Test
+    public void testParseGenerations() throws Exception {
+
+        RuleTable<Integer> brain = RuleTable.parse("B2/S/C3", 2);
+
+        assertEquals("brian's brain should have three states", 3, brain.getStates().size());
+        assertEquals("a dead cell with two neighbours should be born", 1, brain.next(0, 2));
+        assertEquals("an alive cell should start dying", 2, brain.next(1, 2));
+        assertEquals("a dying cell should die", 0, brain.next(2, 2));
+        assertEquals("the rulestring should be written back out", "B2/S/C3", brain.toString());
+    }
+
+    @Test
+    public void testParseMultipleDigitCounts() throws Exception {
+
+        RuleTable<Integer> rule = RuleTable.parse("B5-7/S4,5,13", 3);
+
+        for (int count = 0; count <= 26; count++) {
+
+            assertEquals("born with " + count, 5 <= count && 7 >= count, rule.isBorn(count));
+            assertEquals("survive with " + count, 4 == count || 5 == count || 13 == count, rule.isSurvivor(count));
+        }
+
+        assertEquals("counts above 9 should be written as a list", "B5,6,7/S4,5,13", rule.toString());
+    }
+
+    @Test
+    public void testParseWithStates() throws Exception {
+
+        RuleTable<Boolean> life = RuleTable.parse("B3/S23", 2, BOOLEAN_STATES);
+
+        assertEquals("the dead state should have the first code", 0, life.code(false));
+        assertEquals("the alive state should have the second code", 1, life.code(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseWithTheWrongNumberOfStates() throws Exception {
+
+        RuleTable.parse("B2/S/C3", 2, BOOLEAN_STATES);
+    }
+
+    @Test
+    public void testParseInvalidRulestrings() throws Exception {
+
+        for (String rulestring : Arrays.asList("B3", "B3/S23/C3/4", "B3/X23", "BA/S23", "B9/S23", "B3/S23/C1",
+                "B3/S23/CX", "B3/S23/C1000")) {
+
+            try {
+
+                RuleTable.parse(rulestring, 2);
+
+                fail("the rulestring " + rulestring + " should be rejected");
+
+            } catch (IllegalArgumentException e) {
+
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testTotalistic() throws Exception {
+
+        RuleTable<Boolean> rule = RuleTable.totalistic(BOOLEAN_STATES, 1, 2);
+
+        assertTrue("a dead cell with two alive neighbours should be born", rule.isBorn(2));
+        assertTrue("an alive cell with one alive neighbour should survive", rule.isSurvivor(1));
+        assertFalse("an alive cell with two alive neighbours should die", rule.isSurvivor(2));
+    }
+
+    @Test
+    public void testTotalisticSumOfTheWholeNeighbourhood() throws Exception {
+
+        RuleTable<Boolean> rule = RuleTable.totalistic(BOOLEAN_STATES, 2, 9);
+
+        assertFalse("a dead cell can not be born with every neighbour alive", rule.isBorn(8));
+        assertTrue("an alive cell with every neighbour alive should survive", rule.isSurvivor(8));
+    }
+
+    @Test
+    public void testApply() throws Exception {
+
+        RuleTable<Boolean> life = RuleTable.parse("B3/S23", 2, BOOLEAN_STATES);
+
+        List<Cell<Boolean, Rule<Boolean>>> neighbours = new ArrayList<Cell<Boolean, Rule<Boolean>>>();
+
+        for (int n = 0; n < 8; n++) neighbours.add(n < 3 ? new Cell<Boolean, Rule<Boolean>>(true, null, 2) : null);
+
+        assertTrue("a dead cell with three alive neighbours should be born",
+                life.apply(new Cell<Boolean, Rule<Boolean>>(false, null, 2, neighbours)));
+    }
+
+    @Test
+    public void testAsBinaryRule() throws Exception {
+
+        BinaryRule<Boolean> rule = RuleTable.parse("B3/S23", 2, BOOLEAN_STATES).asBinaryRule();
+
+        assertFalse("the dead state should be the first state", rule.getDeadState());
+        assertTrue("the alive state should be the second state", rule.getAliveState());
+        assertTrue("three neighbours should bring a cell to life", rule.isBorn(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAsBinaryRuleWithThreeStates() throws Exception {
+
+        RuleTable.parse("B2/S/C3", 2).asBinaryRule();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateStates() throws Exception {
+
+        new RuleTable<Boolean>(Arrays.asList(true, true), 2, new int[]{3}, new int[]{2, 3});
+    }
+}
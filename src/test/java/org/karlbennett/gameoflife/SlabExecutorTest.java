@@ -0,0 +1,94 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class SlabExecutorTest {
+
+    @Test
+    public void testTickCoversEveryPositionOnce() throws Exception {
+
+        SlabExecutor executor = new SlabExecutor(3, 0);
+
+        try {
+
+            final AtomicIntegerArray ticks = new AtomicIntegerArray(10);
+
+            executor.tick(10, 100, new SlabExecutor.Slab() {
+
+                @Override
+                public void tick(int from, int to) {
+
+                    for (int i = from; i < to; i++) ticks.incrementAndGet(i);
+                }
+            });
+
+            for (int i = 0; i < 10; i++) assertEquals("position " + i + " should be ticked once", 1, ticks.get(i));
+
+        } finally {
+
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTickBelowThresholdUsesCallingThread() throws Exception {
+
+        SlabExecutor executor = new SlabExecutor(3, 1000);
+
+        try {
+
+            final Thread caller = Thread.currentThread();
+
+            executor.tick(10, 999, new SlabExecutor.Slab() {
+
+                @Override
+                public void tick(int from, int to) {
+
+                    assertSame("the slab should be ticked by the calling thread", caller, Thread.currentThread());
+                    assertEquals("the slab should start at the beginning", 0, from);
+                    assertEquals("the slab should cover the whole dimension", 10, to);
+                }
+            });
+
+        } finally {
+
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTickPropagatesSlabFailures() throws Exception {
+
+        SlabExecutor executor = new SlabExecutor(2, 0);
+
+        try {
+
+            executor.tick(2, 2, new SlabExecutor.Slab() {
+
+                @Override
+                public void tick(int from, int to) {
+
+                    if (0 != from) throw new IllegalStateException("slab failed");
+                }
+            });
+
+        } finally {
+
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroParallelism() throws Exception {
+
+        new SlabExecutor(0);
+    }
+}
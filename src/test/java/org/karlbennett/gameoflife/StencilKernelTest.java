@@ -0,0 +1,114 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class StencilKernelTest {
+
+    private static final int ALIVE = 1;
+
+
+    @Test
+    public void testCountMatchesNeighbourLookups() throws Exception {
+
+        int[][] dimensions = {{}, {1}, {17}, {9, 7}, {6, 1, 5}, {4, 3, 5, 3}};
+
+        for (int[] d : dimensions) {
+
+            StencilKernel kernel = new StencilKernel(d);
+
+            int[] states = randomStates(kernel.size(), d.length);
+
+            int[] counts = new int[kernel.size()];
+
+            kernel.count(states, ALIVE, counts, new int[kernel.size()]);
+
+            assertArrayEquals("the counts for " + Arrays.toString(d) + " should match the neighbour lookups",
+                    countNeighbours(states, d), counts);
+        }
+    }
+
+    @Test
+    public void testSplitPassesMatchWholePasses() throws Exception {
+
+        int[] d = {8, 5, 6};
+
+        StencilKernel kernel = new StencilKernel(d);
+
+        int[] states = randomStates(kernel.size(), 3);
+
+        int[] source = new int[kernel.size()];
+        int[] whole = new int[kernel.size()];
+        int[] split = new int[kernel.size()];
+
+        kernel.mark(states, ALIVE, source, 0, kernel.size());
+
+        for (int pass = 0; pass < d.length; pass++) {
+
+            kernel.sum(pass, source, whole, 0, kernel.size());
+
+            // Split the pass into ranges that do not line up with the rows.
+            for (int from = 0; from < kernel.size(); from += 37) {
+
+                kernel.sum(pass, source, split, from, Math.min(from + 37, kernel.size()));
+            }
+
+            assertArrayEquals("pass " + pass + " should not depend on how it is split", whole, split);
+
+            System.arraycopy(whole, 0, source, 0, whole.length);
+        }
+    }
+
+    private static int[] randomStates(int size, long seed) {
+
+        Random random = new Random(seed);
+
+        int[] states = new int[size];
+
+        for (int i = 0; i < size; i++) states[i] = random.nextInt(3);
+
+        return states;
+    }
+
+    private static int[] countNeighbours(int[] states, int... dimensions) {
+
+        int[] strides = Board.calculateStrides(dimensions);
+        int[] neighbourStrides = Board.calculateNeighbourStrides(strides);
+
+        int[] counts = new int[states.length];
+
+        int[] coordinates = new int[dimensions.length];
+
+        for (int i = 0; i < states.length; i++) {
+
+            for (int d = 0, index = i; d < dimensions.length; index /= dimensions[d], d++) {
+
+                coordinates[d] = index % dimensions[d];
+            }
+
+            for (int n = 0; n < neighbourStrides.length; n++) {
+
+                int[] offset = Cell.calculateNeighbourCoordinates(dimensions.length, n);
+
+                boolean onBoard = true;
+
+                for (int d = 0; d < dimensions.length; d++) {
+
+                    onBoard &= 0 <= coordinates[d] + offset[d] && dimensions[d] > coordinates[d] + offset[d];
+                }
+
+                if (onBoard && ALIVE == states[i + neighbourStrides[n]]) counts[i]++;
+            }
+        }
+
+        return counts;
+    }
+}
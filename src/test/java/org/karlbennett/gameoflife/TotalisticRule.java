@@ -0,0 +1,68 @@
+package org.karlbennett.gameoflife;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ * <p/>
+ * A {@see BinaryRule} for the tests built from the numbers of alive neighbours that cause a birth or survival, in any
+ * number of dimensions.
+ */
+class TotalisticRule implements BinaryRule<Boolean> {
+
+    /**
+     * Conway's Game of Life.
+     */
+    static final TotalisticRule B3_S23 = new TotalisticRule(new int[]{3}, new int[]{2, 3});
+
+    private final int[] born;
+
+    private final int[] survivors;
+
+
+    TotalisticRule(int[] born, int[] survivors) {
+
+        this.born = born.clone();
+        this.survivors = survivors.clone();
+    }
+
+    @Override
+    public Boolean getDeadState() {
+
+        return false;
+    }
+
+    @Override
+    public Boolean getAliveState() {
+
+        return true;
+    }
+
+    @Override
+    public boolean isBorn(int aliveNeighbours) {
+
+        return contains(born, aliveNeighbours);
+    }
+
+    @Override
+    public boolean isSurvivor(int aliveNeighbours) {
+
+        return contains(survivors, aliveNeighbours);
+    }
+
+    @Override
+    public <R extends Rule<Boolean>> Boolean apply(Cell<Boolean, R> cell) {
+
+        int alive = 0;
+
+        for (Cell<Boolean, R> neighbour : cell.getNeighbours()) if (null != neighbour && neighbour.getState()) alive++;
+
+        return cell.getState() ? isSurvivor(alive) : isBorn(alive);
+    }
+
+    private static boolean contains(int[] counts, int count) {
+
+        for (int c : counts) if (c == count) return true;
+
+        return false;
+    }
+}
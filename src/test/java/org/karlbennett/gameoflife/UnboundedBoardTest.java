@@ -0,0 +1,86 @@
+package org.karlbennett.gameoflife;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * User: karl
+ * Date: 16/08/12
+ */
+public class UnboundedBoardTest {
+
+    private static final List<Rule<Boolean>> LIFE_RULES = Collections.<Rule<Boolean>>singletonList(new LifeRule());
+
+    private static final int[][] GLIDER = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+
+    @Test
+    public void testUnsetCellsHaveTheDefaultState() throws Exception {
+
+        UnboundedBoard<Boolean, Rule<Boolean>> board = new UnboundedBoard<Boolean, Rule<Boolean>>(LIFE_RULES, false, 2);
+
+        board.set(true, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        assertTrue("the set cell should be alive", board.state(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertFalse("an unset cell should be dead", board.state(123456, -654321));
+        assertEquals("only the set cell should be stored", 1, board.population());
+
+        board.set(false, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        assertEquals("setting the default state should remove the cell", 0, board.population());
+    }
+
+    @Test
+    public void testGliderTravelsAwayFromTheOrigin() throws Exception {
+
+        UnboundedBoard<Boolean, Rule<Boolean>> board = new UnboundedBoard<Boolean, Rule<Boolean>>(LIFE_RULES, false, 2);
+
+        // Send the glider up and to the left so that it crosses into negative coordinates.
+        for (int[] c : GLIDER) board.set(true, -c[0], -c[1]);
+
+        UnboundedBoard<Boolean, Rule<Boolean>> ticked = board.tick();
+
+        board.advance(400);
+
+        assertEquals("the board should be on generation 400", 400, board.getGeneration());
+        assertEquals("the ticked board should be on generation 1", 1, ticked.getGeneration());
+        assertEquals("the glider should still have five cells", 5, board.population());
+
+        for (int[] c : GLIDER) assertTrue("the glider should have moved 100 cells", board.state(-c[0] - 100, -c[1] - 100));
+    }
+
+    @Test
+    public void testCellHasNeighbours() throws Exception {
+
+        UnboundedBoard<Boolean, Rule<Boolean>> board = new UnboundedBoard<Boolean, Rule<Boolean>>(LIFE_RULES, false, 3);
+
+        board.set(true, -5, 0, 5);
+
+        Cell<Boolean, Rule<Boolean>> cell = board.cell(-4, 1, 4);
+
+        assertFalse("the cell should be dead", cell.getState());
+        assertTrue("the neighbour should be alive", cell.getNeighbour(-1, -1, 1).getState());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyDimensions() throws Exception {
+
+        new UnboundedBoard<Boolean, Rule<Boolean>>(LIFE_RULES, false, UnboundedBoard.MAX_DIMENSIONS + 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCoordinateTooLargeToPack() throws Exception {
+
+        new UnboundedBoard<Boolean, Rule<Boolean>>(LIFE_RULES, false, 3).set(true, 1 << 20, 0, 0);
+    }
+
+    @Test(expected = IllegalCoordinateNumber.class)
+    public void testIllegalCoordinateNumber() throws Exception {
+
+        new UnboundedBoard<Boolean, Rule<Boolean>>(LIFE_RULES, false, 2).state(0);
+    }
+}